@@ -22,6 +22,7 @@ import com.github.anba.es6draft.compiler.assembler.Jump;
 import com.github.anba.es6draft.compiler.assembler.MethodName;
 import com.github.anba.es6draft.compiler.assembler.Type;
 import com.github.anba.es6draft.compiler.assembler.Variable;
+import com.github.anba.es6draft.runtime.internal.Bootstrap;
 
 /**
  *
@@ -459,7 +460,17 @@ abstract class ReferenceOp<NODE extends LeftHandSideExpression> {
         // stack: [base, key] -> [value]
         mv.loadExecutionContext();
         mv.lineInfo(node);
-        mv.invoke(elementGetMethod(elementType));
+        switch (elementType) {
+        case Number_int:
+        case Any:
+        case Object:
+            mv.invokedynamic(Bootstrap.getElementGetName(),
+                    Bootstrap.getElementGetMethodDescriptor(elementType == ValType.Number_int),
+                    Bootstrap.getElementBootstrap());
+            break;
+        default:
+            mv.invoke(elementGetMethod(elementType));
+        }
         return ValType.Any;
     }
 
@@ -469,7 +480,17 @@ abstract class ReferenceOp<NODE extends LeftHandSideExpression> {
         mv.loadExecutionContext();
         mv.iconst(mv.isStrict());
         mv.lineInfo(node);
-        mv.invoke(elementSetMethod(elementType));
+        switch (elementType) {
+        case Number_int:
+        case Any:
+        case Object:
+            mv.invokedynamic(Bootstrap.getElementSetName(),
+                    Bootstrap.getElementSetMethodDescriptor(elementType == ValType.Number_int),
+                    Bootstrap.getElementBootstrap());
+            break;
+        default:
+            mv.invoke(elementSetMethod(elementType));
+        }
         return ValType.Empty;
     }
 
@@ -866,9 +887,7 @@ abstract class ReferenceOp<NODE extends LeftHandSideExpression> {
                 mv.dup();
             }
             ValType elementType = evalPropertyKey(node.getElement(), mv, gen);
-            mv.loadExecutionContext();
-            mv.lineInfo(node);
-            mv.invoke(elementGetMethod(elementType));
+            getElement(node, elementType, mv);
             if (withThis) {
                 mv.swap();
             }
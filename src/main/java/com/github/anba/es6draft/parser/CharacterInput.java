@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.parser;
+
+/**
+ * Character-based access to an input source.
+ * <p>
+ * Positions are absolute offsets from the start of the input. Implementations which don't hold the complete input
+ * only need to provide the characters from the last {@link #release(int) released} position onwards.
+ */
+interface CharacterInput {
+    /**
+     * The end-of-file marker
+     */
+    int EOF = -1;
+
+    /**
+     * Returns the input length or an estimate if the length is not known in advance.
+     *
+     * @return the input length
+     */
+    int length();
+
+    /**
+     * Returns the current character or {@link CharacterInput#EOF} when the end of the input has been reached.
+     *
+     * @return the current character or {@link CharacterInput#EOF}
+     */
+    int getChar();
+
+    /**
+     * Returns the last character.
+     *
+     * @return the last character
+     */
+    int lastChar();
+
+    /**
+     * Ungets the character {@code c}.
+     *
+     * @param c
+     *            the character to read back
+     */
+    void ungetChar(int c);
+
+    /**
+     * Advances the position if the current character is equal to {@code c}.
+     *
+     * @param c
+     *            the current to test
+     * @return {@code true} if the current character matches
+     */
+    boolean match(char c);
+
+    /**
+     * Returns the current position in the input.
+     *
+     * @return the current position
+     */
+    int position();
+
+    /**
+     * Returns the source characters from position {@code from} to position {@code to} (exclusive).
+     *
+     * @param from
+     *            the start position (inclusive)
+     * @param to
+     *            the end position (exclusive)
+     * @return the source characters in the given range
+     */
+    String range(int from, int to);
+
+    /**
+     * Copies the source characters from position {@code from} to position {@code to} (exclusive).
+     *
+     * @param from
+     *            the start position (inclusive)
+     * @param to
+     *            the end position (exclusive)
+     * @param array
+     *            the destination array
+     * @param offset
+     *            the start offset in the array
+     */
+    void chars(int from, int to, char[] array, int offset);
+
+    /**
+     * Signals that the characters before {@code position} are no longer accessed.
+     *
+     * @param position
+     *            the first position which is still accessed
+     */
+    void release(int position);
+}
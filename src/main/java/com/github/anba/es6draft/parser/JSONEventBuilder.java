@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.parser;
+
+import static com.github.anba.es6draft.runtime.types.builtins.ArrayObject.DenseArrayCreate;
+
+import java.util.ArrayList;
+
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.types.Callable;
+import com.github.anba.es6draft.runtime.types.Undefined;
+
+/**
+ * JSON builder which reports the values at a given nesting depth to a callback function instead of building the
+ * complete document.
+ * <p>
+ * The callback is called with {@code (value, path)} for every value at the requested depth and for every primitive
+ * value at a lower depth, {@code path} is an array of the property names and element indices leading to the value.
+ * Only the reported values are materialized as script objects, the enclosing objects and arrays are never created.
+ * So for example a large top-level array is processed element by element when the depth is {@code 1}.
+ */
+public final class JSONEventBuilder implements
+        JSONBuilder<Undefined, JSONObjectBuilder.Frame, JSONObjectBuilder.Frame, Object> {
+    private final ExecutionContext cx;
+    private final Callable callback;
+    private final int depth;
+    private final JSONObjectBuilder objectBuilder;
+    private final ArrayList<Object> path = new ArrayList<>();
+
+    /**
+     * Constructs a new event builder.
+     *
+     * @param cx
+     *            the execution context
+     * @param callback
+     *            the callback function
+     * @param depth
+     *            the nesting depth of the reported values
+     */
+    public JSONEventBuilder(ExecutionContext cx, Callable callback, int depth) {
+        assert depth >= 0;
+        this.cx = cx;
+        this.callback = callback;
+        this.depth = depth;
+        this.objectBuilder = new JSONObjectBuilder(cx);
+    }
+
+    /**
+     * Returns {@code true} if values at the current path are materialized.
+     *
+     * @return {@code true} if values are materialized
+     */
+    private boolean materialize() {
+        return path.size() >= depth;
+    }
+
+    private void report(Object value) {
+        callback.call(cx, Undefined.UNDEFINED, value, DenseArrayCreate(cx, path));
+    }
+
+    private void finishMember(Object key, Object value) {
+        // Values are null if the enclosing containers are not materialized.
+        if (value != null && path.size() < depth) {
+            path.add(key);
+            report(value);
+            path.remove(path.size() - 1);
+        }
+    }
+
+    @Override
+    public Undefined createDocument(Object value) {
+        if (value != null) {
+            report(value);
+        }
+        return Undefined.UNDEFINED;
+    }
+
+    @Override
+    public JSONObjectBuilder.Frame newObject() {
+        return materialize() ? objectBuilder.newObject() : null;
+    }
+
+    @Override
+    public Object finishObject(JSONObjectBuilder.Frame object) {
+        return object != null ? objectBuilder.finishObject(object) : null;
+    }
+
+    @Override
+    public void newProperty(JSONObjectBuilder.Frame object, String name, String rawName, long index) {
+        if (object == null) {
+            path.add(name);
+        }
+    }
+
+    @Override
+    public void finishProperty(JSONObjectBuilder.Frame object, String name, String rawName, long index,
+            Object value) {
+        if (object != null) {
+            objectBuilder.finishProperty(object, name, rawName, index, value);
+        } else {
+            path.remove(path.size() - 1);
+            finishMember(name, value);
+        }
+    }
+
+    @Override
+    public JSONObjectBuilder.Frame newArray() {
+        return materialize() ? objectBuilder.newArray() : null;
+    }
+
+    @Override
+    public Object finishArray(JSONObjectBuilder.Frame array) {
+        return array != null ? objectBuilder.finishArray(array) : null;
+    }
+
+    @Override
+    public void newElement(JSONObjectBuilder.Frame array, long index) {
+        if (array == null) {
+            path.add(index);
+        }
+    }
+
+    @Override
+    public void finishElement(JSONObjectBuilder.Frame array, long index, Object value) {
+        if (array != null) {
+            objectBuilder.finishElement(array, index, value);
+        } else {
+            path.remove(path.size() - 1);
+            finishMember(index, value);
+        }
+    }
+
+    @Override
+    public Object newNull() {
+        return objectBuilder.newNull();
+    }
+
+    @Override
+    public Object newBoolean(boolean value) {
+        return objectBuilder.newBoolean(value);
+    }
+
+    @Override
+    public Object newNumber(double value, String rawValue) {
+        return objectBuilder.newNumber(value, rawValue);
+    }
+
+    @Override
+    public Object newString(String value, String rawValue) {
+        return objectBuilder.newString(value, rawValue);
+    }
+}
@@ -8,69 +8,217 @@ package com.github.anba.es6draft.parser;
 
 import static com.github.anba.es6draft.runtime.AbstractOperations.CreateDataPropertyOrThrow;
 import static com.github.anba.es6draft.runtime.types.Null.NULL;
-import static com.github.anba.es6draft.runtime.types.builtins.ArrayObject.ArrayCreate;
+import static com.github.anba.es6draft.runtime.types.builtins.ArrayObject.DenseArrayCreate;
 import static com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject.ObjectCreate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
 import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.internal.IndexedMap;
 import com.github.anba.es6draft.runtime.types.Intrinsics;
-import com.github.anba.es6draft.runtime.types.builtins.ArrayObject;
 import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
 
 /**
- *
+ * JSON builder which creates script objects and arrays.
+ * <p>
+ * Member values are collected on a value stack and each object or array is created in one step when it is finished,
+ * with exactly sized property and element storage. The key sequences of objects are tracked in a shape tree, so
+ * objects with the same keys in the same order (for example an array of records) share one key array and the key
+ * strings are interned for the duration of the parse.
  */
 public final class JSONObjectBuilder implements
-        JSONBuilder<Object, OrdinaryObject, ArrayObject, Object> {
+        JSONBuilder<Object, JSONObjectBuilder.Frame, JSONObjectBuilder.Frame, Object> {
+    private static final int INITIAL_STACK_SIZE = 64;
+
     private final ExecutionContext cx;
+    private final Shape rootShape = new Shape(null, null);
+    private final HashMap<String, String> internedKeys = new HashMap<>();
+    private final ArrayList<Frame> frames = new ArrayList<>();
+    private int depth = 0;
+    private Object[] stack = new Object[INITIAL_STACK_SIZE];
+    private int stackSize = 0;
 
     public JSONObjectBuilder(ExecutionContext cx) {
         this.cx = cx;
     }
 
+    /**
+     * An object or array under construction.
+     */
+    public static final class Frame {
+        /** index of the first member value on the value stack */
+        private int start;
+        /** the shape of the object members, {@code null} for arrays */
+        private Shape shape;
+    }
+
+    /**
+     * Node in the shape tree, describes the property keys of an object in property creation order.
+     */
+    private static final class Shape {
+        private final Shape parent;
+        private final String key;
+        private final int size;
+        private Shape lastChild;
+        private HashMap<String, Shape> children;
+        private String[] keys;
+        private boolean simple;
+
+        Shape(Shape parent, String key) {
+            this.parent = parent;
+            this.key = key;
+            this.size = parent != null ? parent.size + 1 : 0;
+        }
+
+        Shape next(String key, JSONObjectBuilder builder) {
+            Shape child = lastChild;
+            if (child != null && child.key.equals(key)) {
+                return child;
+            }
+            if (children != null) {
+                child = children.get(key);
+            }
+            if (child == null) {
+                child = new Shape(this, builder.intern(key));
+                if (children == null) {
+                    children = new HashMap<>(4);
+                    if (lastChild != null) {
+                        children.put(lastChild.key, lastChild);
+                    }
+                }
+                children.put(child.key, child);
+            }
+            return lastChild = child;
+        }
+
+        /**
+         * Returns the property keys, including duplicate keys.
+         *
+         * @return the property keys
+         */
+        String[] keys() {
+            String[] keys = this.keys;
+            if (keys == null) {
+                keys = new String[size];
+                for (Shape shape = this; shape.parent != null; shape = shape.parent) {
+                    keys[shape.size - 1] = shape.key;
+                }
+                HashSet<String> distinct = new HashSet<>(keys.length + (keys.length + 2) / 3);
+                boolean simple = true;
+                for (String key : keys) {
+                    if (!distinct.add(key) || IndexedMap.isIndex(IndexedMap.toIndex(key))) {
+                        simple = false;
+                        break;
+                    }
+                }
+                this.simple = simple;
+                this.keys = keys;
+            }
+            return keys;
+        }
+
+        /**
+         * Returns {@code true} if the keys are distinct and not array indices.
+         *
+         * @return {@code true} if the keys are distinct and not array indices
+         */
+        boolean isSimple() {
+            assert keys != null;
+            return simple;
+        }
+    }
+
+    private String intern(String key) {
+        String interned = internedKeys.putIfAbsent(key, key);
+        return interned != null ? interned : key;
+    }
+
+    private Frame pushFrame(Shape shape) {
+        if (depth == frames.size()) {
+            frames.add(new Frame());
+        }
+        Frame frame = frames.get(depth++);
+        frame.start = stackSize;
+        frame.shape = shape;
+        return frame;
+    }
+
+    private void popFrame(Frame frame) {
+        assert depth > 0 && frames.get(depth - 1) == frame;
+        Arrays.fill(stack, frame.start, stackSize, null);
+        stackSize = frame.start;
+        frame.shape = null;
+        depth -= 1;
+    }
+
+    private void push(Object value) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize << 1);
+        }
+        stack[stackSize++] = value;
+    }
+
     @Override
     public Object createDocument(Object value) {
         return value;
     }
 
     @Override
-    public OrdinaryObject newObject() {
-        return ObjectCreate(cx, Intrinsics.ObjectPrototype);
+    public Frame newObject() {
+        return pushFrame(rootShape);
     }
 
     @Override
-    public Object finishObject(OrdinaryObject object) {
-        return object;
+    public Object finishObject(Frame object) {
+        Shape shape = object.shape;
+        String[] keys = shape.keys();
+        OrdinaryObject result;
+        if (shape.isSimple()) {
+            result = ObjectCreate(cx, Intrinsics.ObjectPrototype, keys, stack, object.start);
+        } else {
+            result = ObjectCreate(cx, Intrinsics.ObjectPrototype);
+            for (int i = 0; i < keys.length; ++i) {
+                CreateDataPropertyOrThrow(cx, result, keys[i], stack[object.start + i]);
+            }
+        }
+        popFrame(object);
+        return result;
     }
 
     @Override
-    public void newProperty(OrdinaryObject object, String name, String rawName, long index) {
+    public void newProperty(Frame object, String name, String rawName, long index) {
         // empty
     }
 
     @Override
-    public void finishProperty(OrdinaryObject object, String name, String rawName, long index,
-            Object value) {
-        CreateDataPropertyOrThrow(cx, object, name, value);
+    public void finishProperty(Frame object, String name, String rawName, long index, Object value) {
+        object.shape = object.shape.next(name, this);
+        push(value);
     }
 
     @Override
-    public ArrayObject newArray() {
-        return ArrayCreate(cx, 0);
+    public Frame newArray() {
+        return pushFrame(null);
     }
 
     @Override
-    public Object finishArray(ArrayObject array) {
-        return array;
+    public Object finishArray(Frame array) {
+        Object result = DenseArrayCreate(cx, stack, array.start, stackSize);
+        popFrame(array);
+        return result;
     }
 
     @Override
-    public void newElement(ArrayObject array, long index) {
+    public void newElement(Frame array, long index) {
         // empty
     }
 
     @Override
-    public void finishElement(ArrayObject array, long index, Object value) {
-        CreateDataPropertyOrThrow(cx, array, index, value);
+    public void finishElement(Frame array, long index, Object value) {
+        push(value);
     }
 
     @Override
@@ -10,6 +10,12 @@ import static com.github.anba.es6draft.runtime.types.Null.NULL;
 import static com.github.anba.es6draft.runtime.types.builtins.ArrayObject.ArrayCreate;
 import static com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject.ObjectCreate;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
 import com.github.anba.es6draft.parser.ParserException.ExceptionType;
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.internal.Messages;
@@ -35,9 +41,13 @@ public final class JSONParser {
     private final String sourceName;
 
     public JSONParser(ExecutionContext cx, String source) {
+        this(cx, new TokenStreamInput(source));
+    }
+
+    private JSONParser(ExecutionContext cx, CharacterInput input) {
         this.cx = cx;
         this.sourceName = "<json>";
-        ts = new JSONTokenStream(this, new TokenStreamInput(source));
+        ts = new JSONTokenStream(this, input);
     }
 
     private static int toLine(long sourcePosition) {
@@ -191,6 +201,97 @@ public final class JSONParser {
         return new JSONParser(null, source).parse(builder);
     }
 
+    /**
+     * Parses the characters from {@code source} as a JSON text. The source is read incrementally, only the characters
+     * of the current token are kept in memory. Throws a {@link ParserException} if the source is not a valid JSON
+     * text.
+     * 
+     * @param <DOCUMENT>
+     *            the document type
+     * @param <OBJECT>
+     *            the object type
+     * @param <ARRAY>
+     *            the array type
+     * @param <VALUE>
+     *            the value type
+     * @param source
+     *            the source reader
+     * @param builder
+     *            the builder object
+     * @return the value of the parsed JSON text
+     * @throws ParserException
+     *             if the input source is not a valid JSON text
+     * @throws IOException
+     *             if there was any I/O error
+     */
+    public static <DOCUMENT, OBJECT, ARRAY, VALUE> DOCUMENT parse(Reader source,
+            JSONBuilder<DOCUMENT, OBJECT, ARRAY, VALUE> builder) throws ParserException, IOException {
+        return parse(new StreamingInput(source), builder);
+    }
+
+    /**
+     * Parses the UTF-8 encoded bytes from {@code source} as a JSON text. The source is read and decoded
+     * incrementally, only the characters of the current token are kept in memory. Throws a {@link ParserException}
+     * if the source is not a valid JSON text.
+     * 
+     * @param <DOCUMENT>
+     *            the document type
+     * @param <OBJECT>
+     *            the object type
+     * @param <ARRAY>
+     *            the array type
+     * @param <VALUE>
+     *            the value type
+     * @param source
+     *            the blocking source channel
+     * @param builder
+     *            the builder object
+     * @return the value of the parsed JSON text
+     * @throws ParserException
+     *             if the input source is not a valid JSON text
+     * @throws IOException
+     *             if there was any I/O error
+     */
+    public static <DOCUMENT, OBJECT, ARRAY, VALUE> DOCUMENT parse(ReadableByteChannel source,
+            JSONBuilder<DOCUMENT, OBJECT, ARRAY, VALUE> builder) throws ParserException, IOException {
+        return parse(StreamingInput.of(source), builder);
+    }
+
+    /**
+     * Parses the remaining UTF-8 encoded bytes from {@code source} as a JSON text. The bytes are decoded
+     * incrementally, so {@code source} can be a memory-mapped file. The position of {@code source} is not changed.
+     * Throws a {@link ParserException} if the source is not a valid JSON text.
+     * 
+     * @param <DOCUMENT>
+     *            the document type
+     * @param <OBJECT>
+     *            the object type
+     * @param <ARRAY>
+     *            the array type
+     * @param <VALUE>
+     *            the value type
+     * @param source
+     *            the source bytes
+     * @param builder
+     *            the builder object
+     * @return the value of the parsed JSON text
+     * @throws ParserException
+     *             if the input source is not a valid JSON text
+     */
+    public static <DOCUMENT, OBJECT, ARRAY, VALUE> DOCUMENT parse(ByteBuffer source,
+            JSONBuilder<DOCUMENT, OBJECT, ARRAY, VALUE> builder) throws ParserException {
+        return new JSONParser(null, StreamingInput.of(source)).parse(builder);
+    }
+
+    private static <DOCUMENT, OBJECT, ARRAY, VALUE> DOCUMENT parse(StreamingInput input,
+            JSONBuilder<DOCUMENT, OBJECT, ARRAY, VALUE> builder) throws ParserException, IOException {
+        try {
+            return new JSONParser(null, input).parse(builder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /* ***************************************************************************************** */
 
     /**
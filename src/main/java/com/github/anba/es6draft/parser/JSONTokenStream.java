@@ -24,7 +24,7 @@ import com.github.anba.es6draft.runtime.internal.Messages;
  */
 final class JSONTokenStream {
     private final JSONParser parser;
-    private final TokenStreamInput input;
+    private final CharacterInput input;
 
     /** current line number */
     private int line;
@@ -41,7 +41,7 @@ final class JSONTokenStream {
     private final StrBuffer buffer;
     private double number = 0;
 
-    public JSONTokenStream(JSONParser parser, TokenStreamInput input) {
+    public JSONTokenStream(JSONParser parser, CharacterInput input) {
         this.parser = parser;
         this.input = input;
         this.buffer = new StrBuffer(input.length());
@@ -146,12 +146,12 @@ final class JSONTokenStream {
     /* lexer operations */
 
     private Token scanToken() {
-        TokenStreamInput input = this.input;
+        CharacterInput input = this.input;
 
         int c;
         for (;;) {
             c = input.getChar();
-            if (c == TokenStreamInput.EOF) {
+            if (c == CharacterInput.EOF) {
                 return Token.EOF;
             } else if (c <= 0x20) {
                 switch (c) {
@@ -167,6 +167,8 @@ final class JSONTokenStream {
             }
             break;
         }
+        // Previous tokens are no longer accessed.
+        input.release(input.position() - 1);
         sourcePosition = ((long) (input.position() - linestart) << 32) | line;
 
         switch (c) {
@@ -217,7 +219,7 @@ final class JSONTokenStream {
      * @return the null token or {@link Token#ERROR}
      */
     private Token readNullLiteral(int c) {
-        TokenStreamInput input = this.input;
+        CharacterInput input = this.input;
         if (c == 'n' && input.getChar() == 'u' && input.getChar() == 'l' && input.getChar() == 'l') {
             return Token.NULL;
         }
@@ -234,7 +236,7 @@ final class JSONTokenStream {
      * @return the false token or {@link Token#ERROR}
      */
     private Token readFalseLiteral(int c) {
-        TokenStreamInput input = this.input;
+        CharacterInput input = this.input;
         if (c == 'f' && input.getChar() == 'a' && input.getChar() == 'l' && input.getChar() == 's'
                 && input.getChar() == 'e') {
             return Token.FALSE;
@@ -252,7 +254,7 @@ final class JSONTokenStream {
      * @return the true token or {@link Token#ERROR}
      */
     private Token readTrueLiteral(int c) {
-        TokenStreamInput input = this.input;
+        CharacterInput input = this.input;
         if (c == 't' && input.getChar() == 'r' && input.getChar() == 'u' && input.getChar() == 'e') {
             return Token.TRUE;
         }
@@ -277,8 +279,8 @@ final class JSONTokenStream {
     private Token readString(int quoteChar) {
         assert quoteChar == '"';
 
-        final int EOF = TokenStreamInput.EOF;
-        TokenStreamInput input = this.input;
+        final int EOF = CharacterInput.EOF;
+        CharacterInput input = this.input;
         StrBuffer buffer = this.buffer();
         int start = input.position();
         for (;;) {
@@ -315,7 +317,7 @@ final class JSONTokenStream {
      * @return the escaped character
      */
     private int readEscapeSequence() {
-        TokenStreamInput input = this.input;
+        CharacterInput input = this.input;
         int c = input.getChar();
         switch (c) {
         case '"':
@@ -374,7 +376,7 @@ final class JSONTokenStream {
 
     private double readDecimalLiteral(int c) {
         assert c == '-' || isDecimalDigit(c);
-        TokenStreamInput input = this.input;
+        CharacterInput input = this.input;
         StrBuffer buffer = this.buffer();
         if (c == '-') {
             buffer.append(c);
@@ -88,7 +88,7 @@ final class StrBuffer {
      * @param to
      *            the end index
      */
-    public void append(TokenStreamInput in, int from, int to) {
+    public void append(CharacterInput in, int from, int to) {
         assert from <= to;
         int range = to - from;
         if (range > 0) {
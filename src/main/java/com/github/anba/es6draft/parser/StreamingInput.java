@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Character input which reads its characters incrementally from a {@link Readable} source.
+ * <p>
+ * Only the characters starting from the last released position are kept in memory, so the memory use is bounded by
+ * the largest token instead of the input size. Byte sources are decoded as UTF-8, malformed input is replaced with
+ * U+FFFD. I/O errors are reported as {@link UncheckedIOException}.
+ */
+final class StreamingInput implements CharacterInput {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Readable source;
+    private char[] buffer = new char[BUFFER_SIZE];
+    /** absolute position of {@code buffer[0]} */
+    private int offset;
+    /** number of valid characters in the buffer */
+    private int limit;
+    /** current index into the buffer */
+    private int cursor;
+    /** first absolute position which is still accessed */
+    private int released;
+    private boolean eof;
+
+    /**
+     * Creates a new streaming input from a character source.
+     *
+     * @param source
+     *            the character source
+     */
+    StreamingInput(Readable source) {
+        this.source = source;
+    }
+
+    /**
+     * Creates a new streaming input which decodes the UTF-8 encoded bytes from {@code channel}.
+     *
+     * @param channel
+     *            the blocking byte channel
+     * @return the new streaming input
+     */
+    static StreamingInput of(ReadableByteChannel channel) {
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        bytes.flip();
+        return new StreamingInput(new Utf8Source(channel, bytes));
+    }
+
+    /**
+     * Creates a new streaming input which decodes the UTF-8 encoded bytes from the remaining content of {@code bytes}.
+     * The position of {@code bytes} is not changed.
+     *
+     * @param bytes
+     *            the byte buffer, for example a memory-mapped file
+     * @return the new streaming input
+     */
+    static StreamingInput of(ByteBuffer bytes) {
+        return new StreamingInput(new Utf8Source(null, bytes.duplicate()));
+    }
+
+    @Override
+    public int length() {
+        return BUFFER_SIZE;
+    }
+
+    @Override
+    public int getChar() {
+        if (cursor >= limit && !fill())
+            return EOF;
+        return buffer[cursor++];
+    }
+
+    @Override
+    public int lastChar() {
+        assert cursor > 0 : cursor;
+        return buffer[cursor - 1];
+    }
+
+    @Override
+    public void ungetChar(int c) {
+        assert c != EOF ? buffer[cursor - 1] == c : cursor >= limit;
+        if (c != EOF)
+            cursor -= 1;
+    }
+
+    @Override
+    public boolean match(char c) {
+        if ((cursor >= limit && !fill()) || buffer[cursor] != c)
+            return false;
+        cursor += 1;
+        return true;
+    }
+
+    @Override
+    public int position() {
+        return offset + cursor;
+    }
+
+    @Override
+    public String range(int from, int to) {
+        assert released <= from && from <= to && to <= offset + limit;
+        return new String(buffer, from - offset, to - from);
+    }
+
+    @Override
+    public void chars(int from, int to, char[] array, int offset) {
+        assert released <= from && from <= to && to <= this.offset + limit;
+        System.arraycopy(buffer, from - this.offset, array, offset, to - from);
+    }
+
+    @Override
+    public void release(int position) {
+        assert released <= position && position <= offset + cursor;
+        released = position;
+    }
+
+    /**
+     * Reads the next characters from the source into the buffer.
+     *
+     * @return {@code false} if the end of the input has been reached
+     */
+    private boolean fill() {
+        if (eof) {
+            return false;
+        }
+        // Discard released characters, but always keep the last character for lastChar() and ungetChar().
+        int discard = Math.min(released - offset, cursor - 1);
+        if (discard > 0) {
+            System.arraycopy(buffer, discard, buffer, 0, limit - discard);
+            offset += discard;
+            limit -= discard;
+            cursor -= discard;
+        }
+        // Reserve room for at least one surrogate pair.
+        if (buffer.length - limit < 2) {
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        }
+        try {
+            int n;
+            do {
+                n = source.read(CharBuffer.wrap(buffer, limit, buffer.length - limit));
+            } while (n == 0);
+            if (n < 0) {
+                eof = true;
+                return false;
+            }
+            limit += n;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Incremental UTF-8 decoder for byte channels and byte buffers.
+     */
+    private static final class Utf8Source implements Readable {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ReadableByteChannel channel;
+        private final ByteBuffer bytes;
+        private boolean endOfInput;
+        private boolean flushed;
+
+        Utf8Source(ReadableByteChannel channel, ByteBuffer bytes) {
+            this.channel = channel;
+            this.bytes = bytes;
+            this.endOfInput = channel == null;
+        }
+
+        @Override
+        public int read(CharBuffer target) throws IOException {
+            int start = target.position();
+            while (target.position() == start) {
+                if (endOfInput) {
+                    if (flushed) {
+                        return -1;
+                    }
+                    if (decoder.decode(bytes, target, true).isUnderflow()) {
+                        flushed = decoder.flush(target).isUnderflow();
+                    }
+                    continue;
+                }
+                CoderResult result = decoder.decode(bytes, target, false);
+                if (result.isUnderflow() && target.position() == start) {
+                    // Read more bytes, keeping any incomplete multi-byte sequence.
+                    bytes.compact();
+                    int n = channel.read(bytes);
+                    bytes.flip();
+                    endOfInput = n < 0;
+                }
+            }
+            return target.position() - start;
+        }
+    }
+}
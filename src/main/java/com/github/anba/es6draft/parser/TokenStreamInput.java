@@ -9,11 +9,11 @@ package com.github.anba.es6draft.parser;
 /**
  * Class to provide character-based access to an input source string
  */
-final class TokenStreamInput {
+final class TokenStreamInput implements CharacterInput {
     /**
      * The end-of-file marker
      */
-    public static final int EOF = -1;
+    public static final int EOF = CharacterInput.EOF;
 
     private final String source;
     private final int length;
@@ -29,6 +29,7 @@ final class TokenStreamInput {
      * 
      * @return the input length
      */
+    @Override
     public int length() {
         return length;
     }
@@ -53,6 +54,7 @@ final class TokenStreamInput {
      * 
      * @return the current character or {@link TokenStreamInput#EOF}
      */
+    @Override
     public int getChar() {
         if (cursor >= length)
             return EOF;
@@ -64,6 +66,7 @@ final class TokenStreamInput {
      * 
      * @return the last character
      */
+    @Override
     public int lastChar() {
         assert cursor > 0 : cursor;
         return source.charAt(cursor - 1);
@@ -88,6 +91,7 @@ final class TokenStreamInput {
      * @param c
      *            the character to read back
      */
+    @Override
     public void ungetChar(int c) {
         assert c != EOF ? source.charAt(cursor - 1) == c : cursor >= length;
         if (c != EOF)
@@ -101,6 +105,7 @@ final class TokenStreamInput {
      *            the current to test
      * @return {@code true} if the current character matches
      */
+    @Override
     public boolean match(char c) {
         if (cursor >= length || source.charAt(cursor) != c)
             return false;
@@ -127,6 +132,7 @@ final class TokenStreamInput {
      * 
      * @return the current position
      */
+    @Override
     public int position() {
         return cursor;
     }
@@ -151,6 +157,7 @@ final class TokenStreamInput {
      *            the end position (exclusive)
      * @return the source characters in the given range
      */
+    @Override
     public String range(int from, int to) {
         return source.substring(from, to);
     }
@@ -167,7 +174,13 @@ final class TokenStreamInput {
      * @param offset
      *            the start offset in the array
      */
+    @Override
     public void chars(int from, int to, char[] array, int offset) {
         source.getChars(from, to, array, offset);
     }
+
+    @Override
+    public void release(int position) {
+        // The complete source string is always available.
+    }
 }
@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import java.util.Arrays;
+
+import com.github.anba.es6draft.parser.Characters;
+
+/**
+ * Immutable set of UTF-16 code units, stored as sorted and non-overlapping inclusive ranges.
+ */
+final class CharSet {
+    private static final int MAX_CHAR = Character.MAX_VALUE;
+
+    static final CharSet DIGIT = new CharSet(new int[] { '0', '9' });
+    static final CharSet WORD = new CharSet(new int[] { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' });
+    static final CharSet SPACE = from(c -> Characters.isWhitespaceOrLineTerminator(c));
+    static final CharSet LINE_TERMINATOR = new CharSet(new int[] { '\n', '\n', '\r', '\r', 0x2028, 0x2029 });
+    static final CharSet FULL = new CharSet(new int[] { 0, MAX_CHAR });
+
+    // [start0, end0, start1, end1, ...]
+    private final int[] ranges;
+
+    private CharSet(int[] ranges) {
+        this.ranges = ranges;
+    }
+
+    private interface CharPredicate {
+        boolean test(int c);
+    }
+
+    private static CharSet from(CharPredicate predicate) {
+        Builder builder = new Builder();
+        for (int c = 0; c <= MAX_CHAR; ++c) {
+            if (predicate.test(c)) {
+                int from = c;
+                while (c < MAX_CHAR && predicate.test(c + 1)) {
+                    c += 1;
+                }
+                builder.add(from, c);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builder for {@link CharSet} objects.
+     */
+    static final class Builder {
+        private int[] ranges = new int[8];
+        private int length;
+
+        /**
+         * Adds the inclusive range {@code [from, to]} to this builder.
+         *
+         * @param from
+         *            the range start
+         * @param to
+         *            the range end
+         * @return this builder
+         */
+        Builder add(int from, int to) {
+            assert 0 <= from && from <= to && to <= MAX_CHAR;
+            if (length == ranges.length) {
+                ranges = Arrays.copyOf(ranges, length << 1);
+            }
+            ranges[length++] = from;
+            ranges[length++] = to;
+            return this;
+        }
+
+        /**
+         * Adds all ranges of {@code set} to this builder.
+         *
+         * @param set
+         *            the character set
+         * @return this builder
+         */
+        Builder add(CharSet set) {
+            int[] r = set.ranges;
+            for (int i = 0; i < r.length; i += 2) {
+                add(r[i], r[i + 1]);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the new character set.
+         *
+         * @return the character set
+         */
+        CharSet build() {
+            int n = length >> 1;
+            long[] sorted = new long[n];
+            for (int i = 0; i < n; ++i) {
+                sorted[i] = ((long) ranges[2 * i] << 32) | ranges[2 * i + 1];
+            }
+            Arrays.sort(sorted);
+            int[] merged = new int[length];
+            int k = 0;
+            for (long range : sorted) {
+                int from = (int) (range >>> 32), to = (int) range;
+                if (k > 0 && from <= merged[k - 1] + 1) {
+                    merged[k - 1] = Math.max(merged[k - 1], to);
+                } else {
+                    merged[k++] = from;
+                    merged[k++] = to;
+                }
+            }
+            return new CharSet(Arrays.copyOf(merged, k));
+        }
+    }
+
+    /**
+     * Returns the complement of this set.
+     *
+     * @return the complement set
+     */
+    CharSet complement() {
+        Builder builder = new Builder();
+        int next = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                builder.add(next, ranges[i] - 1);
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= MAX_CHAR) {
+            builder.add(next, MAX_CHAR);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns {@code true} if this set contains {@code c}.
+     *
+     * @param c
+     *            the character
+     * @return {@code true} if the character is a member of this set
+     */
+    boolean contains(int c) {
+        int[] r = ranges;
+        if (r.length <= 8) {
+            for (int i = 0; i < r.length; i += 2) {
+                if (c < r[i]) {
+                    return false;
+                }
+                if (c <= r[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        int lo = 0, hi = (r.length >> 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c < r[2 * mid]) {
+                hi = mid - 1;
+            } else if (c > r[2 * mid + 1]) {
+                lo = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if this set contains a character which is case-insensitively equal to {@code c}.
+     *
+     * @param c
+     *            the character
+     * @return {@code true} if a case variant of the character is a member of this set
+     */
+    boolean containsIgnoreCase(int c) {
+        if (contains(c)) {
+            return true;
+        }
+        int canonical = canonicalize(c);
+        if (canonical != c && contains(canonical) && canonicalize(canonical) == canonical) {
+            return true;
+        }
+        int[] unfold = CaseFoldDataBMP.caseUnfold(canonical);
+        if (unfold != null) {
+            for (int u : unfold) {
+                if (u != c && u <= MAX_CHAR && contains(u) && canonicalize(u) == canonical) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if this set is empty.
+     *
+     * @return {@code true} if the set is empty
+     */
+    boolean isEmpty() {
+        return ranges.length == 0;
+    }
+
+    /**
+     * Returns {@code true} if this set contains all characters.
+     *
+     * @return {@code true} if the set contains all characters
+     */
+    boolean isFull() {
+        return ranges.length == 2 && ranges[0] == 0 && ranges[1] == MAX_CHAR;
+    }
+
+    /**
+     * Returns the set of all characters which are case-insensitively equal to a member of this set.
+     *
+     * @return the case closed set
+     */
+    CharSet caseClosure() {
+        return from(this::containsIgnoreCase);
+    }
+
+    /**
+     * Returns the number of ranges.
+     *
+     * @return the number of ranges
+     */
+    int rangeCount() {
+        return ranges.length >> 1;
+    }
+
+    /**
+     * Returns the start of the range at {@code index}.
+     *
+     * @param index
+     *            the range index
+     * @return the range start character
+     */
+    int rangeStart(int index) {
+        return ranges[2 * index];
+    }
+
+    /**
+     * Returns the inclusive end of the range at {@code index}.
+     *
+     * @param index
+     *            the range index
+     * @return the range end character
+     */
+    int rangeEnd(int index) {
+        return ranges[2 * index + 1];
+    }
+
+    /**
+     * 21.2.2.8.2 Runtime Semantics: Canonicalize ( ch ) for non-unicode patterns.
+     *
+     * @param c
+     *            the character
+     * @return the canonicalized character
+     */
+    static int canonicalize(int c) {
+        if (c < 0x80) {
+            return 'a' <= c && c <= 'z' ? c - ('a' - 'A') : c;
+        }
+        int caseFold = CaseFoldDataBMP.caseFold(c);
+        return caseFold >= 0 ? caseFold : c;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < ranges.length; i += 2) {
+            sb.append(String.format("\\u%04x", ranges[i]));
+            if (ranges[i] != ranges[i + 1]) {
+                sb.append(String.format("-\\u%04x", ranges[i + 1]));
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
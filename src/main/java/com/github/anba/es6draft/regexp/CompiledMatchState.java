@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import java.util.Arrays;
+
+/**
+ * {@link MatchState} implementation for {@link CompiledRegExp} regular expressions.
+ */
+final class CompiledMatchState extends StringMatchState {
+    private final CompiledRegExp regExp;
+    private final int[] captures;
+
+    CompiledMatchState(PatternInfo info, CompiledRegExp regExp, String string) {
+        super(info, string);
+        this.regExp = regExp;
+        this.captures = new int[2 * (info.groupCount + 1)];
+    }
+
+    @Override
+    protected int[] match(int start) {
+        int[] captures = this.captures;
+        Arrays.fill(captures, -1);
+        int end = regExp.match(string, start, captures);
+        if (end < 0) {
+            return null;
+        }
+        int[] result = captures.clone();
+        result[0] = start;
+        result[1] = end;
+        return result;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+/**
+ * Base class for regular expressions compiled to Java bytecode.
+ */
+public abstract class CompiledRegExp {
+    protected CompiledRegExp() {
+    }
+
+    /**
+     * Matches the regular expression at {@code start}.
+     * 
+     * @param input
+     *            the input string
+     * @param start
+     *            the start position
+     * @param captures
+     *            the capture slots {@code [2 * group]} and {@code [2 * group + 1]}, initialized to {@code -1}
+     * @return the end position or {@code -1} if no match was found
+     */
+    public abstract int match(String input, int start, int[] captures);
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+/**
+ * {@link RegExpMatcher} implementation for regular expressions compiled to Java bytecode
+ */
+final class CompiledRegExpMatcher implements RegExpMatcher {
+    // Java pattern for the input RegExp
+    private final String regex;
+    private final boolean ignoreCase;
+    // Pattern information and compiled code, immutable and shared with all clones
+    private final PatternInfo info;
+    private final CompiledRegExp regExp;
+
+    CompiledRegExpMatcher(String regex, boolean ignoreCase, PatternInfo info, CompiledRegExp regExp) {
+        this.regex = regex;
+        this.ignoreCase = ignoreCase;
+        this.info = info;
+        this.regExp = regExp;
+    }
+
+    /**
+     * Returns a new matcher for the translated pattern, or {@code null} if the pattern is not supported by
+     * {@link RegExpCodeGenerator}.
+     * 
+     * @param regex
+     *            the translated pattern
+     * @param ignoreCase
+     *            {@code true} for case-insensitive matching
+     * @return the new matcher or {@code null}
+     */
+    static CompiledRegExpMatcher create(String regex, boolean ignoreCase) {
+        PatternReader reader = new PatternReader(regex);
+        PatternNode pattern = reader.read();
+        if (pattern == null) {
+            return null;
+        }
+        int groupCount = reader.groupCount();
+        CompiledRegExp regExp = RegExpCodeGenerator.compile(pattern, groupCount, ignoreCase);
+        if (regExp == null) {
+            return null;
+        }
+        return new CompiledRegExpMatcher(regex, ignoreCase, PatternInfo.of(pattern, groupCount, ignoreCase), regExp);
+    }
+
+    /**
+     * Returns the translated pattern.
+     * 
+     * @return the translated pattern
+     */
+    String getRegex() {
+        return regex;
+    }
+
+    @Override
+    public CompiledMatchState matcher(String s) {
+        return new CompiledMatchState(info, regExp, s);
+    }
+
+    @Override
+    public CompiledMatchState matcher(CharSequence s) {
+        return new CompiledMatchState(info, regExp, s.toString());
+    }
+
+    @Override
+    public SimplePattern getSimplePattern() {
+        return info.simplePattern;
+    }
+
+    @Override
+    public CompiledRegExpMatcher clone() {
+        return new CompiledRegExpMatcher(regex, ignoreCase, info, regExp);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("regex=%s, flags=%s", regex, ignoreCase ? "i" : "");
+    }
+}
@@ -6,6 +6,8 @@
  */
 package com.github.anba.es6draft.regexp;
 
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.BitSet;
 import java.util.regex.Pattern;
 
@@ -22,15 +24,25 @@ final class JoniRegExpMatcher implements RegExpMatcher {
     // Java flags for the input RegExp
     private final int flags;
     private final BitSet negativeLAGroups;
-    private Regex pattern;
-    // FIXME: Memory issue?
-    private CharSequence lastInput = null;
-    private byte[] lastInputBytes = null;
+    // Compiled pattern, shared with all clones
+    private final CompiledPattern compiled;
+    // Encoded bytes of the last input, neither the input nor the bytes are kept alive by this matcher
+    private WeakReference<CharSequence> lastInput = null;
+    private SoftReference<byte[]> lastInputBytes = null;
+
+    private static final class CompiledPattern {
+        private volatile Regex pattern;
+    }
 
     public JoniRegExpMatcher(String regex, int flags, BitSet negativeLAGroups) {
+        this(regex, flags, negativeLAGroups, new CompiledPattern());
+    }
+
+    private JoniRegExpMatcher(String regex, int flags, BitSet negativeLAGroups, CompiledPattern compiled) {
         this.regex = regex;
         this.flags = flags;
         this.negativeLAGroups = negativeLAGroups;
+        this.compiled = compiled;
     }
 
     private UEncoding getEncoding() {
@@ -41,6 +53,7 @@ final class JoniRegExpMatcher implements RegExpMatcher {
     }
 
     private Regex getPattern() {
+        Regex pattern = compiled.pattern;
         if (pattern == null) {
             int flags = 0;
             if ((this.flags & Pattern.MULTILINE) != 0) {
@@ -54,40 +67,39 @@ final class JoniRegExpMatcher implements RegExpMatcher {
             UEncoding enc = getEncoding();
             byte[] bytes = enc.toBytes(regex);
             int length = bytes.length - enc.minLength();
-            pattern = new Regex(bytes, 0, length, flags, enc, JoniSyntax.ECMAScript);
+            // Compiled patterns are immutable, concurrent compilation is harmless.
+            compiled.pattern = pattern = new Regex(bytes, 0, length, flags, enc, JoniSyntax.ECMAScript);
         }
         return pattern;
     }
 
+    private byte[] toBytes(UEncoding enc, CharSequence s) {
+        byte[] bytes;
+        if (lastInput == null || lastInput.get() != s || (bytes = lastInputBytes.get()) == null) {
+            bytes = enc.toBytes(s);
+            lastInput = new WeakReference<>(s);
+            lastInputBytes = new SoftReference<>(bytes);
+        }
+        return bytes;
+    }
+
     @Override
     public JoniMatchState matcher(String s) {
-        UEncoding enc = getEncoding();
-        if (s != lastInput) {
-            lastInput = s;
-            lastInputBytes = enc.toBytes(s);
-        }
-        int length = lastInputBytes.length - enc.minLength();
-        Matcher matcher = getPattern().matcher(lastInputBytes, 0, length);
-        return new JoniMatchState(enc, matcher, s, negativeLAGroups);
+        return matcher((CharSequence) s);
     }
 
     @Override
     public JoniMatchState matcher(CharSequence s) {
         UEncoding enc = getEncoding();
-        if (s != lastInput) {
-            lastInput = s;
-            lastInputBytes = enc.toBytes(s);
-        }
-        int length = lastInputBytes.length - enc.minLength();
-        Matcher matcher = getPattern().matcher(lastInputBytes, 0, length);
+        byte[] bytes = toBytes(enc, s);
+        int length = bytes.length - enc.minLength();
+        Matcher matcher = getPattern().matcher(bytes, 0, length);
         return new JoniMatchState(enc, matcher, s, negativeLAGroups);
     }
 
     @Override
     public JoniRegExpMatcher clone() {
-        JoniRegExpMatcher clone = new JoniRegExpMatcher(regex, flags, negativeLAGroups);
-        clone.pattern = pattern;
-        return clone;
+        return new JoniRegExpMatcher(regex, flags, negativeLAGroups, compiled);
     }
 
     @Override
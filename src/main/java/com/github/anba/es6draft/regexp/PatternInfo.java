@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import com.github.anba.es6draft.regexp.PatternNode.Assertion;
+import com.github.anba.es6draft.regexp.PatternNode.AssertionType;
+import com.github.anba.es6draft.regexp.PatternNode.Char;
+import com.github.anba.es6draft.regexp.PatternNode.CharClass;
+import com.github.anba.es6draft.regexp.PatternNode.Disjunction;
+import com.github.anba.es6draft.regexp.PatternNode.Group;
+import com.github.anba.es6draft.regexp.PatternNode.Quantifier;
+import com.github.anba.es6draft.regexp.PatternNode.Sequence;
+
+/**
+ * Static information about a pattern tree, used to skip start positions which cannot match.
+ */
+final class PatternInfo {
+    /** The number of capturing groups */
+    final int groupCount;
+    /** {@code true} if the pattern can only match at the input start */
+    final boolean anchored;
+    /** The literal prefix of all matches or {@code null} if not present */
+    final String prefix;
+    /** The set of possible first characters or {@code null} if not known */
+    final CharSet firstChars;
+    /** The simple pattern or {@code null} if the pattern is not simple */
+    final SimplePattern simplePattern;
+
+    private PatternInfo(int groupCount, boolean anchored, String prefix, CharSet firstChars,
+            SimplePattern simplePattern) {
+        this.groupCount = groupCount;
+        this.anchored = anchored;
+        this.prefix = prefix;
+        this.firstChars = firstChars;
+        this.simplePattern = simplePattern;
+    }
+
+    /**
+     * Computes the pattern information for {@code pattern}.
+     * 
+     * @param pattern
+     *            the pattern tree
+     * @param groupCount
+     *            the number of capturing groups
+     * @param ignoreCase
+     *            {@code true} for case-insensitive matching
+     * @return the pattern information
+     */
+    static PatternInfo of(PatternNode pattern, int groupCount, boolean ignoreCase) {
+        SimplePattern simplePattern = SimplePattern.of(pattern, groupCount, ignoreCase);
+        if (ignoreCase) {
+            return new PatternInfo(groupCount, isAnchored(pattern), null, null, simplePattern);
+        }
+        return new PatternInfo(groupCount, isAnchored(pattern), prefix(pattern), firstChars(pattern),
+                simplePattern);
+    }
+
+    private static boolean isAnchored(PatternNode node) {
+        if (node instanceof Assertion) {
+            return ((Assertion) node).type == AssertionType.Begin;
+        }
+        if (node instanceof Group) {
+            return isAnchored(((Group) node).body);
+        }
+        if (node instanceof Sequence) {
+            return isAnchored(((Sequence) node).terms.get(0));
+        }
+        if (node instanceof Disjunction) {
+            for (PatternNode alternative : ((Disjunction) node).alternatives) {
+                if (!isAnchored(alternative)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static String prefix(PatternNode node) {
+        if (!(node instanceof Sequence)) {
+            return null;
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (PatternNode term : ((Sequence) node).terms) {
+            if (!(term instanceof Char)) {
+                break;
+            }
+            prefix.append(((Char) term).c);
+        }
+        return prefix.length() > 1 ? prefix.toString() : null;
+    }
+
+    private static CharSet firstChars(PatternNode node) {
+        if (node instanceof Char) {
+            char c = ((Char) node).c;
+            return new CharSet.Builder().add(c, c).build();
+        }
+        if (node instanceof CharClass) {
+            CharClass charClass = (CharClass) node;
+            return charClass.negated ? null : charClass.set;
+        }
+        if (node instanceof Group) {
+            return firstChars(((Group) node).body);
+        }
+        if (node instanceof Sequence) {
+            return firstChars(((Sequence) node).terms.get(0));
+        }
+        if (node instanceof Quantifier) {
+            Quantifier quantifier = (Quantifier) node;
+            return quantifier.min > 0 ? firstChars(quantifier.body) : null;
+        }
+        if (node instanceof Disjunction) {
+            CharSet.Builder builder = new CharSet.Builder();
+            for (PatternNode alternative : ((Disjunction) node).alternatives) {
+                CharSet set = firstChars(alternative);
+                if (set == null) {
+                    return null;
+                }
+                builder.add(set);
+            }
+            return builder.build();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import java.util.List;
+
+/**
+ * Syntax tree nodes for translated regular expression patterns.
+ */
+abstract class PatternNode {
+    private PatternNode() {
+    }
+
+    /**
+     * Returns {@code true} if this node always matches exactly one character.
+     *
+     * @return {@code true} if this node is a single character node
+     */
+    boolean isSingleCharacter() {
+        return false;
+    }
+
+    /**
+     * Matches the empty string.
+     */
+    static final class Empty extends PatternNode {
+        static final Empty INSTANCE = new Empty();
+    }
+
+    /**
+     * Never matches.
+     */
+    static final class Fail extends PatternNode {
+        static final Fail INSTANCE = new Fail();
+    }
+
+    /**
+     * Matches a single character.
+     */
+    static final class Char extends PatternNode {
+        final char c;
+
+        Char(char c) {
+            this.c = c;
+        }
+
+        @Override
+        boolean isSingleCharacter() {
+            return true;
+        }
+    }
+
+    /**
+     * Matches a single character from a character set.
+     */
+    static final class CharClass extends PatternNode {
+        final CharSet set;
+        final boolean negated;
+
+        CharClass(CharSet set, boolean negated) {
+            this.set = set;
+            this.negated = negated;
+        }
+
+        @Override
+        boolean isSingleCharacter() {
+            return true;
+        }
+    }
+
+    /**
+     * Matches any character, optionally excluding line terminators.
+     */
+    static final class AnyChar extends PatternNode {
+        final boolean dotAll;
+
+        AnyChar(boolean dotAll) {
+            this.dotAll = dotAll;
+        }
+
+        @Override
+        boolean isSingleCharacter() {
+            return true;
+        }
+    }
+
+    /**
+     * Assertion types.
+     */
+    enum AssertionType {
+        /** {@code \A} */
+        Begin,
+        /** {@code \z} */
+        End,
+        /** {@code ^} in multiline mode */
+        LineBegin,
+        /** {@code $} in multiline mode */
+        LineEnd,
+        /** {@code \b} */
+        WordBoundary,
+        /** {@code \B} */
+        NotWordBoundary,
+    }
+
+    /**
+     * Zero-width assertion.
+     */
+    static final class Assertion extends PatternNode {
+        final AssertionType type;
+
+        Assertion(AssertionType type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * Back-reference to a capturing group.
+     */
+    static final class BackReference extends PatternNode {
+        final int group;
+
+        BackReference(int group) {
+            this.group = group;
+        }
+    }
+
+    /**
+     * Capturing group.
+     */
+    static final class Group extends PatternNode {
+        final int group;
+        final PatternNode body;
+
+        Group(int group, PatternNode body) {
+            this.group = group;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Positive or negative lookahead.
+     */
+    static final class Lookahead extends PatternNode {
+        final boolean negative;
+        final PatternNode body;
+
+        Lookahead(boolean negative, PatternNode body) {
+            this.negative = negative;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Quantified term.
+     */
+    static final class Quantifier extends PatternNode {
+        static final int INFINITY = Integer.MAX_VALUE;
+
+        final PatternNode body;
+        final int min;
+        final int max;
+        final boolean greedy;
+        /** First capturing group within the body */
+        final int firstGroup;
+        /** Last capturing group within the body, {@code firstGroup - 1} if no groups are present */
+        final int lastGroup;
+
+        Quantifier(PatternNode body, int min, int max, boolean greedy, int firstGroup, int lastGroup) {
+            this.body = body;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+            this.firstGroup = firstGroup;
+            this.lastGroup = lastGroup;
+        }
+    }
+
+    /**
+     * Sequence of terms.
+     */
+    static final class Sequence extends PatternNode {
+        final List<PatternNode> terms;
+
+        Sequence(List<PatternNode> terms) {
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * Alternatives.
+     */
+    static final class Disjunction extends PatternNode {
+        final List<PatternNode> alternatives;
+
+        Disjunction(List<PatternNode> alternatives) {
+            this.alternatives = alternatives;
+        }
+    }
+}
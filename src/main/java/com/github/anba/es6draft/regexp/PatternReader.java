@@ -0,0 +1,404 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import static com.github.anba.es6draft.parser.Characters.hexDigit;
+import static com.github.anba.es6draft.parser.Characters.isDecimalDigit;
+
+import java.util.ArrayList;
+
+import com.github.anba.es6draft.regexp.PatternNode.AnyChar;
+import com.github.anba.es6draft.regexp.PatternNode.Assertion;
+import com.github.anba.es6draft.regexp.PatternNode.AssertionType;
+import com.github.anba.es6draft.regexp.PatternNode.BackReference;
+import com.github.anba.es6draft.regexp.PatternNode.Char;
+import com.github.anba.es6draft.regexp.PatternNode.CharClass;
+import com.github.anba.es6draft.regexp.PatternNode.Disjunction;
+import com.github.anba.es6draft.regexp.PatternNode.Empty;
+import com.github.anba.es6draft.regexp.PatternNode.Fail;
+import com.github.anba.es6draft.regexp.PatternNode.Group;
+import com.github.anba.es6draft.regexp.PatternNode.Lookahead;
+import com.github.anba.es6draft.regexp.PatternNode.Quantifier;
+import com.github.anba.es6draft.regexp.PatternNode.Sequence;
+
+/**
+ * Reads the pattern output of {@link RegExpParser} for non-unicode regular expressions into a {@link PatternNode}
+ * tree.
+ * <p>
+ * Only the subset of the Joni syntax emitted by {@link RegExpParser} is supported, {@link #read()} returns
+ * {@code null} for any other input.
+ */
+final class PatternReader {
+    // Output of RegExpParser for "[]" and "[^]".
+    private static final String EMPTY_CHARACTER_CLASS = "(?:\\Z )";
+    private static final String EMPTY_NEG_CHARACTER_CLASS = "(?s:.)";
+
+    private final String pattern;
+    private final int length;
+    private int pos = 0;
+    private int groups = 0;
+
+    @SuppressWarnings("serial")
+    private static final class UnsupportedPatternException extends RuntimeException {
+        UnsupportedPatternException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Constructs a new pattern reader.
+     *
+     * @param pattern
+     *            the translated pattern
+     */
+    PatternReader(String pattern) {
+        this.pattern = pattern;
+        this.length = pattern.length();
+    }
+
+    /**
+     * Returns the number of capturing groups.
+     *
+     * @return the number of capturing groups
+     */
+    int groupCount() {
+        return groups;
+    }
+
+    /**
+     * Reads the pattern.
+     *
+     * @return the pattern tree or {@code null} if the pattern is not supported
+     */
+    PatternNode read() {
+        try {
+            PatternNode node = disjunction();
+            if (pos != length) {
+                return null;
+            }
+            return node;
+        } catch (UnsupportedPatternException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static UnsupportedPatternException unsupported() {
+        return new UnsupportedPatternException();
+    }
+
+    private boolean eof() {
+        return pos >= length;
+    }
+
+    private char peek(int i) {
+        return pos + i < length ? pattern.charAt(pos + i) : '\0';
+    }
+
+    private char get() {
+        return pattern.charAt(pos++);
+    }
+
+    private boolean match(char c) {
+        if (peek(0) == c && !eof()) {
+            pos += 1;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean match(String s) {
+        if (pattern.startsWith(s, pos)) {
+            pos += s.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void mustMatch(char c) {
+        if (!match(c)) {
+            throw unsupported();
+        }
+    }
+
+    private PatternNode disjunction() {
+        PatternNode first = alternative();
+        if (!match('|')) {
+            return first;
+        }
+        ArrayList<PatternNode> alternatives = new ArrayList<>();
+        alternatives.add(first);
+        do {
+            alternatives.add(alternative());
+        } while (match('|'));
+        return new Disjunction(alternatives);
+    }
+
+    private PatternNode alternative() {
+        ArrayList<PatternNode> terms = new ArrayList<>();
+        while (!eof() && peek(0) != '|' && peek(0) != ')') {
+            terms.add(term());
+        }
+        if (terms.isEmpty()) {
+            return Empty.INSTANCE;
+        }
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        return new Sequence(terms);
+    }
+
+    private PatternNode term() {
+        int firstGroup = groups + 1;
+        PatternNode atom = atom();
+        int min, max;
+        switch (peek(0)) {
+        case '*':
+            get();
+            min = 0;
+            max = Quantifier.INFINITY;
+            break;
+        case '+':
+            get();
+            min = 1;
+            max = Quantifier.INFINITY;
+            break;
+        case '?':
+            get();
+            min = 0;
+            max = 1;
+            break;
+        case '{':
+            get();
+            min = max = decimal();
+            if (match(',')) {
+                max = peek(0) == '}' ? Quantifier.INFINITY : decimal();
+            }
+            mustMatch('}');
+            break;
+        default:
+            return atom;
+        }
+        if (atom instanceof Assertion) {
+            throw unsupported();
+        }
+        boolean greedy = !match('?');
+        return new Quantifier(atom, min, max, greedy, firstGroup, groups);
+    }
+
+    private int decimal() {
+        if (!isDecimalDigit(peek(0))) {
+            throw unsupported();
+        }
+        int num = 0;
+        while (isDecimalDigit(peek(0))) {
+            num = num * 10 + (get() - '0');
+            if (num > 0xFFFFFF) {
+                throw unsupported();
+            }
+        }
+        return num;
+    }
+
+    private PatternNode atom() {
+        char c = get();
+        switch (c) {
+        case '(':
+            return group();
+        case '[':
+            return characterClass();
+        case '.':
+            return new AnyChar(false);
+        case '^':
+            return new Assertion(AssertionType.LineBegin);
+        case '$':
+            return new Assertion(AssertionType.LineEnd);
+        case '\\':
+            return atomEscape();
+        case ')':
+        case '|':
+        case '*':
+        case '+':
+        case '?':
+        case '{':
+            throw unsupported();
+        default:
+            return new Char(c);
+        }
+    }
+
+    private PatternNode group() {
+        pos -= 1;
+        if (match(EMPTY_CHARACTER_CLASS)) {
+            return Fail.INSTANCE;
+        }
+        if (match(EMPTY_NEG_CHARACTER_CLASS)) {
+            return new AnyChar(true);
+        }
+        mustMatch('(');
+        if (match('?')) {
+            char d = get();
+            switch (d) {
+            case ':': {
+                PatternNode body = disjunction();
+                mustMatch(')');
+                return body;
+            }
+            case '=':
+            case '!': {
+                PatternNode body = disjunction();
+                mustMatch(')');
+                return new Lookahead(d == '!', body);
+            }
+            default:
+                throw unsupported();
+            }
+        }
+        int group = ++groups;
+        PatternNode body = disjunction();
+        mustMatch(')');
+        return new Group(group, body);
+    }
+
+    private PatternNode atomEscape() {
+        char c = get();
+        switch (c) {
+        case 'A':
+            return new Assertion(AssertionType.Begin);
+        case 'z':
+            return new Assertion(AssertionType.End);
+        case 'b':
+            return new Assertion(AssertionType.WordBoundary);
+        case 'B':
+            return new Assertion(AssertionType.NotWordBoundary);
+        case 'p':
+        case 'P':
+            return new CharClass(property(c == 'P'), false);
+        case '1':
+        case '2':
+        case '3':
+        case '4':
+        case '5':
+        case '6':
+        case '7':
+        case '8':
+        case '9': {
+            pos -= 1;
+            int group = decimal();
+            if (group > groups) {
+                throw unsupported();
+            }
+            return new BackReference(group);
+        }
+        default:
+            pos -= 1;
+            return new Char(characterEscape());
+        }
+    }
+
+    private char characterEscape() {
+        char c = get();
+        switch (c) {
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'c':
+            return (char) (get() & 0x1F);
+        case 'x':
+            if (match("00\\x")) {
+                // Single byte code unit in UCS-2 encoding.
+                return (char) ((hexDigit(get()) << 4) | hexDigit(get()));
+            }
+            if (match('{')) {
+                int codePoint = 0;
+                for (char d; (d = get()) != '}';) {
+                    codePoint = (codePoint << 4) | hexDigit(d);
+                    if (codePoint > Character.MAX_VALUE || codePoint < 0) {
+                        throw unsupported();
+                    }
+                }
+                return (char) codePoint;
+            }
+            throw unsupported();
+        case 'u': {
+            int u = (hexDigit(get()) << 12) | (hexDigit(get()) << 8) | (hexDigit(get()) << 4) | hexDigit(get());
+            if (u < 0) {
+                throw unsupported();
+            }
+            return (char) u;
+        }
+        default:
+            if (('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || ('0' <= c && c <= '9')) {
+                throw unsupported();
+            }
+            // Identity escape.
+            return c;
+        }
+    }
+
+    private CharSet property(boolean negated) {
+        mustMatch('{');
+        CharSet set;
+        if (match("Digit}")) {
+            set = CharSet.DIGIT;
+        } else if (match("Word}")) {
+            set = CharSet.WORD;
+        } else if (match("Space}")) {
+            set = CharSet.SPACE;
+        } else {
+            throw unsupported();
+        }
+        return negated ? set.complement() : set;
+    }
+
+    private PatternNode characterClass() {
+        boolean negated = match('^');
+        CharSet.Builder builder = new CharSet.Builder();
+        for (;;) {
+            char c = get();
+            if (c == ']') {
+                break;
+            }
+            int from;
+            if (c == '\\') {
+                char d = peek(0);
+                if (d == 'p' || d == 'P') {
+                    get();
+                    builder.add(property(d == 'P'));
+                    continue;
+                }
+                from = characterEscape();
+            } else {
+                from = c;
+            }
+            if (peek(0) == '-' && peek(1) != ']') {
+                get();
+                char e = get();
+                int to;
+                if (e == '\\') {
+                    if (peek(0) == 'p' || peek(0) == 'P') {
+                        throw unsupported();
+                    }
+                    to = characterEscape();
+                } else {
+                    to = e;
+                }
+                if (from > to) {
+                    throw unsupported();
+                }
+                builder.add(from, to);
+            } else {
+                builder.add(from, from);
+            }
+        }
+        return new CharClass(builder.build(), negated);
+    }
+}
@@ -0,0 +1,417 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import static com.github.anba.es6draft.regexp.RegExpProgram.*;
+
+import java.util.Arrays;
+
+/**
+ * {@link MatchState} implementation for {@link RegExpProgram} regular expressions.
+ * <p>
+ * The program is executed by a backtracking interpreter which reads the input string's characters directly. All
+ * register writes are recorded on the backtrack stack, so failed alternatives restore the previous capture state when
+ * they are unwound.
+ */
+final class ProgramMatchState extends StringMatchState {
+    // Backtrack frame kinds, each frame consists of four ints: [kind, a, b, c]
+    private static final int FRAME_CHOICE = 0; // [CHOICE, pc, pos, -]
+    private static final int FRAME_RESTORE = 1; // [RESTORE, register, value, -]
+    private static final int FRAME_GREEDY = 2; // [GREEDY, pc, pos, minPos]
+    private static final int FRAME_LAZY = 3; // [LAZY, repeatPc, pos, maxPos]
+    private static final int FRAME_SIZE = 4;
+    private static final int INITIAL_STACK_SIZE = 8 * FRAME_SIZE;
+
+    private final RegExpProgram program;
+    private final int[] registers;
+    private int[] stack;
+    private int sp;
+
+    ProgramMatchState(PatternInfo info, RegExpProgram program, String string) {
+        super(info, string);
+        this.program = program;
+        this.registers = new int[program.registerCount];
+        this.stack = new int[INITIAL_STACK_SIZE];
+    }
+
+    @Override
+    protected int[] match(int start) {
+        int[] registers = this.registers;
+        Arrays.fill(registers, -1);
+        sp = 0;
+        int end = run(0, start, 0);
+        if (end < 0) {
+            return null;
+        }
+        int[] captures = Arrays.copyOf(registers, program.groupStartBase);
+        captures[0] = start;
+        captures[1] = end;
+        return captures;
+    }
+
+    /* Backtrack stack */
+
+    private void push(int kind, int a, int b, int c) {
+        int sp = this.sp;
+        int[] stack = this.stack;
+        if (sp == stack.length) {
+            this.stack = stack = Arrays.copyOf(stack, sp << 1);
+        }
+        stack[sp] = kind;
+        stack[sp + 1] = a;
+        stack[sp + 2] = b;
+        stack[sp + 3] = c;
+        this.sp = sp + FRAME_SIZE;
+    }
+
+    private void set(int register, int value) {
+        int old = registers[register];
+        if (old != value) {
+            push(FRAME_RESTORE, register, old, 0);
+            registers[register] = value;
+        }
+    }
+
+    private void unwind(int base) {
+        int[] stack = this.stack;
+        for (int sp = this.sp; sp > base;) {
+            sp -= FRAME_SIZE;
+            if (stack[sp] == FRAME_RESTORE) {
+                registers[stack[sp + 1]] = stack[sp + 2];
+            }
+        }
+        this.sp = base;
+    }
+
+    private void discardChoices(int base) {
+        // Keep only restore frames, so captures from the lookahead are undone when backtracking past it.
+        int[] stack = this.stack;
+        int w = base;
+        for (int r = base; r < sp; r += FRAME_SIZE) {
+            if (stack[r] == FRAME_RESTORE) {
+                if (w != r) {
+                    System.arraycopy(stack, r, stack, w, FRAME_SIZE);
+                }
+                w += FRAME_SIZE;
+            }
+        }
+        sp = w;
+    }
+
+    /* Character predicates */
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean isWordChar(char c) {
+        return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || ('0' <= c && c <= '9') || c == '_';
+    }
+
+    private boolean isWordChar(int pos) {
+        return 0 <= pos && pos < length && isWordChar(string.charAt(pos));
+    }
+
+    private boolean matchesAtom(int op, int operand, char c) {
+        switch (op) {
+        case CHAR:
+            return c == operand;
+        case CHAR_I:
+            return c == operand || CharSet.canonicalize(c) == operand;
+        case ANY:
+            return !isLineTerminator(c);
+        case ANY_ALL:
+            return true;
+        case SET:
+            return program.sets[operand].contains(c);
+        case NOT_SET:
+            return !program.sets[operand].contains(c);
+        case SET_I:
+            return program.sets[operand].containsIgnoreCase(c);
+        case NOT_SET_I:
+            return !program.sets[operand].containsIgnoreCase(c);
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    private boolean backReference(int group, int pos, boolean ignoreCase) {
+        int start = registers[2 * group], end = registers[2 * group + 1];
+        int len = end - start;
+        if (pos + len > length) {
+            return false;
+        }
+        String string = this.string;
+        for (int i = 0; i < len; ++i) {
+            char c = string.charAt(start + i), d = string.charAt(pos + i);
+            if (c != d && !(ignoreCase && CharSet.canonicalize(c) == CharSet.canonicalize(d))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Interpreter */
+
+    /**
+     * Runs the program starting at {@code pc}.
+     *
+     * @param pc
+     *            the program counter
+     * @param pos
+     *            the input position
+     * @param base
+     *            the backtrack stack base
+     * @return the end position or {@code -1} if no match was found
+     */
+    private int run(int pc, int pos, int base) {
+        final int[] code = program.code;
+        final int[] registers = this.registers;
+        final String string = this.string;
+        final int length = this.length;
+        for (;;) {
+            dispatch: switch (code[pc]) {
+            case CHAR:
+                if (pos < length && string.charAt(pos) == code[pc + 1]) {
+                    pos += 1;
+                    pc += 2;
+                    continue;
+                }
+                break;
+            case CHAR_I:
+            case SET:
+            case NOT_SET:
+            case SET_I:
+            case NOT_SET_I:
+                if (pos < length && matchesAtom(code[pc], code[pc + 1], string.charAt(pos))) {
+                    pos += 1;
+                    pc += 2;
+                    continue;
+                }
+                break;
+            case ANY:
+                if (pos < length && !isLineTerminator(string.charAt(pos))) {
+                    pos += 1;
+                    pc += 1;
+                    continue;
+                }
+                break;
+            case ANY_ALL:
+                if (pos < length) {
+                    pos += 1;
+                    pc += 1;
+                    continue;
+                }
+                break;
+            case BEGIN:
+                if (pos == 0) {
+                    pc += 1;
+                    continue;
+                }
+                break;
+            case END:
+                if (pos == length) {
+                    pc += 1;
+                    continue;
+                }
+                break;
+            case LINE_BEGIN:
+                if (pos == 0 || isLineTerminator(string.charAt(pos - 1))) {
+                    pc += 1;
+                    continue;
+                }
+                break;
+            case LINE_END:
+                if (pos == length || isLineTerminator(string.charAt(pos))) {
+                    pc += 1;
+                    continue;
+                }
+                break;
+            case WORD_BOUNDARY:
+                if (isWordChar(pos - 1) != isWordChar(pos)) {
+                    pc += 1;
+                    continue;
+                }
+                break;
+            case NOT_WORD_BOUNDARY:
+                if (isWordChar(pos - 1) == isWordChar(pos)) {
+                    pc += 1;
+                    continue;
+                }
+                break;
+            case FAIL:
+                break;
+            case JUMP:
+                pc = code[pc + 1];
+                continue;
+            case SPLIT_NEXT:
+                push(FRAME_CHOICE, code[pc + 1], pos, 0);
+                pc += 2;
+                continue;
+            case SUCCEED:
+                return pos;
+            case GROUP_START:
+                set(program.groupStartBase + code[pc + 1], pos);
+                pc += 2;
+                continue;
+            case GROUP_END: {
+                int group = code[pc + 1];
+                set(2 * group, registers[program.groupStartBase + group]);
+                set(2 * group + 1, pos);
+                pc += 2;
+                continue;
+            }
+            case BACKREF:
+            case BACKREF_I: {
+                int group = code[pc + 1];
+                if (registers[2 * group] < 0 || registers[2 * group + 1] < 0) {
+                    // Undefined captures always match.
+                    pc += 2;
+                    continue;
+                }
+                if (backReference(group, pos, code[pc] == BACKREF_I)) {
+                    pos += registers[2 * group + 1] - registers[2 * group];
+                    pc += 2;
+                    continue;
+                }
+                break;
+            }
+            case LOOKAHEAD: {
+                int lookaheadBase = sp;
+                if (run(pc + 2, pos, lookaheadBase) < 0) {
+                    break;
+                }
+                discardChoices(lookaheadBase);
+                pc = code[pc + 1];
+                continue;
+            }
+            case NEG_LOOKAHEAD: {
+                int lookaheadBase = sp;
+                if (run(pc + 2, pos, lookaheadBase) >= 0) {
+                    unwind(lookaheadBase);
+                    break;
+                }
+                pc = code[pc + 1];
+                continue;
+            }
+            case LOOP_INIT:
+                set(code[pc + 1], 0);
+                pc += 2;
+                continue;
+            case LOOP: {
+                int register = code[pc + 1], min = code[pc + 2], max = code[pc + 3];
+                int count = registers[register];
+                int enter = pc + LOOP_LENGTH, exit = code[pc + 5];
+                if (count < min) {
+                    pc = enter;
+                } else if (count >= max) {
+                    pc = exit;
+                } else if (code[pc + 4] != 0) {
+                    push(FRAME_CHOICE, exit, pos, 0);
+                    pc = enter;
+                } else {
+                    push(FRAME_CHOICE, enter, pos, 0);
+                    pc = exit;
+                }
+                continue;
+            }
+            case LOOP_ENTER: {
+                int register = code[pc + 1];
+                set(register + 1, pos);
+                for (int group = code[pc + 2], lastGroup = code[pc + 3]; group <= lastGroup; ++group) {
+                    set(2 * group, -1);
+                    set(2 * group + 1, -1);
+                }
+                pc += 4;
+                continue;
+            }
+            case LOOP_END: {
+                int register = code[pc + 1], head = code[pc + 2];
+                int count = registers[register];
+                if (count >= code[head + 2] && pos == registers[register + 1]) {
+                    // Empty iterations beyond the minimum fail.
+                    break;
+                }
+                set(register, count + 1);
+                pc = head;
+                continue;
+            }
+            case REPEAT: {
+                int min = code[pc + 1], max = code[pc + 2];
+                int op = code[pc + 4], operand = code[pc + 5];
+                int limit = max > length - pos ? length : pos + max;
+                int minPos = pos + min;
+                if (minPos > length) {
+                    break;
+                }
+                for (; pos < minPos; ++pos) {
+                    if (!matchesAtom(op, operand, string.charAt(pos))) {
+                        break dispatch;
+                    }
+                }
+                if (code[pc + 3] != 0) {
+                    while (pos < limit && matchesAtom(op, operand, string.charAt(pos))) {
+                        pos += 1;
+                    }
+                    if (pos > minPos) {
+                        push(FRAME_GREEDY, pc + REPEAT_LENGTH, pos - 1, minPos);
+                    }
+                } else if (pos < limit) {
+                    push(FRAME_LAZY, pc, pos, limit);
+                }
+                pc += REPEAT_LENGTH;
+                continue;
+            }
+            default:
+                throw new AssertionError();
+            }
+
+            // Backtrack to the most recent choice point.
+            backtrack: for (;;) {
+                int[] stack = this.stack;
+                if (sp == base) {
+                    return -1;
+                }
+                int frame = sp -= FRAME_SIZE;
+                switch (stack[frame]) {
+                case FRAME_RESTORE:
+                    registers[stack[frame + 1]] = stack[frame + 2];
+                    break;
+                case FRAME_CHOICE:
+                    pc = stack[frame + 1];
+                    pos = stack[frame + 2];
+                    break backtrack;
+                case FRAME_GREEDY:
+                    pc = stack[frame + 1];
+                    pos = stack[frame + 2];
+                    if (pos > stack[frame + 3]) {
+                        // Keep the frame to give back another character.
+                        stack[frame + 2] = pos - 1;
+                        sp += FRAME_SIZE;
+                    }
+                    break backtrack;
+                case FRAME_LAZY: {
+                    int repeatPc = stack[frame + 1], p = stack[frame + 2], limit = stack[frame + 3];
+                    if (matchesAtom(code[repeatPc + 4], code[repeatPc + 5], string.charAt(p))) {
+                        pc = repeatPc + REPEAT_LENGTH;
+                        pos = p + 1;
+                        if (pos < limit) {
+                            // Keep the frame to consume another character.
+                            stack[frame + 2] = pos;
+                            sp += FRAME_SIZE;
+                        }
+                        break backtrack;
+                    }
+                    break;
+                }
+                default:
+                    throw new AssertionError();
+                }
+            }
+        }
+    }
+}
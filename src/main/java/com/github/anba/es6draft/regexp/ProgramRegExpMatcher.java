@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+/**
+ * {@link RegExpMatcher} implementation for {@link RegExpProgram} regular expressions
+ * <p>
+ * Unlike {@link JoniRegExpMatcher}, the input string is matched in place and doesn't need to be encoded into a byte
+ * array first.
+ */
+final class ProgramRegExpMatcher implements RegExpMatcher {
+    // Java pattern for the input RegExp
+    private final String regex;
+    // Pattern information and compiled program, immutable and shared with all clones
+    private final PatternInfo info;
+    private final RegExpProgram program;
+
+    ProgramRegExpMatcher(String regex, PatternInfo info, RegExpProgram program) {
+        this.regex = regex;
+        this.info = info;
+        this.program = program;
+    }
+
+    /**
+     * Returns a new matcher for the translated pattern, or {@code null} if the pattern is not supported by
+     * {@link RegExpProgram}.
+     * 
+     * @param regex
+     *            the translated pattern
+     * @param ignoreCase
+     *            {@code true} for case-insensitive matching
+     * @return the new matcher or {@code null}
+     */
+    static ProgramRegExpMatcher create(String regex, boolean ignoreCase) {
+        PatternReader reader = new PatternReader(regex);
+        PatternNode pattern = reader.read();
+        if (pattern == null) {
+            return null;
+        }
+        int groupCount = reader.groupCount();
+        return new ProgramRegExpMatcher(regex, PatternInfo.of(pattern, groupCount, ignoreCase),
+                RegExpProgram.compile(pattern, groupCount, ignoreCase));
+    }
+
+    /**
+     * Returns the translated pattern.
+     * 
+     * @return the translated pattern
+     */
+    String getRegex() {
+        return regex;
+    }
+
+    @Override
+    public ProgramMatchState matcher(String s) {
+        return new ProgramMatchState(info, program, s);
+    }
+
+    @Override
+    public ProgramMatchState matcher(CharSequence s) {
+        return new ProgramMatchState(info, program, s.toString());
+    }
+
+    @Override
+    public SimplePattern getSimplePattern() {
+        return info.simplePattern;
+    }
+
+    @Override
+    public ProgramRegExpMatcher clone() {
+        return new ProgramRegExpMatcher(regex, info, program);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("regex=%s, flags=%s", regex, program.ignoreCase ? "i" : "");
+    }
+}
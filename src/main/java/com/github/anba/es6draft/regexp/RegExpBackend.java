@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+/**
+ * Regular expression matcher implementations.
+ * <p>
+ * Patterns which are not supported by the selected implementation use the next implementation in the order
+ * {@link #ByteCode}, {@link #Interpreter}, {@link #Joni}. Unicode patterns are always matched with Joni.
+ */
+public enum RegExpBackend {
+    /**
+     * Joni backtracking matcher.
+     */
+    Joni,
+
+    /**
+     * Backtracking interpreter matching directly against the input characters.
+     */
+    Interpreter,
+
+    /**
+     * Patterns are compiled to Java bytecode.
+     */
+    ByteCode
+}
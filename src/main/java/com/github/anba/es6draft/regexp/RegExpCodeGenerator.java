@@ -0,0 +1,778 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.anba.es6draft.compiler.assembler.ClassSignature;
+import com.github.anba.es6draft.compiler.assembler.Code;
+import com.github.anba.es6draft.compiler.assembler.Code.ClassCode;
+import com.github.anba.es6draft.compiler.assembler.InstructionAssembler;
+import com.github.anba.es6draft.compiler.assembler.Jump;
+import com.github.anba.es6draft.compiler.assembler.MethodName;
+import com.github.anba.es6draft.compiler.assembler.MethodTypeDescriptor;
+import com.github.anba.es6draft.compiler.assembler.SourceInfo;
+import com.github.anba.es6draft.compiler.assembler.Type;
+import com.github.anba.es6draft.compiler.assembler.Variable;
+import com.github.anba.es6draft.regexp.PatternNode.AnyChar;
+import com.github.anba.es6draft.regexp.PatternNode.Assertion;
+import com.github.anba.es6draft.regexp.PatternNode.AssertionType;
+import com.github.anba.es6draft.regexp.PatternNode.BackReference;
+import com.github.anba.es6draft.regexp.PatternNode.Char;
+import com.github.anba.es6draft.regexp.PatternNode.CharClass;
+import com.github.anba.es6draft.regexp.PatternNode.Disjunction;
+import com.github.anba.es6draft.regexp.PatternNode.Empty;
+import com.github.anba.es6draft.regexp.PatternNode.Fail;
+import com.github.anba.es6draft.regexp.PatternNode.Group;
+import com.github.anba.es6draft.regexp.PatternNode.Lookahead;
+import com.github.anba.es6draft.regexp.PatternNode.Quantifier;
+import com.github.anba.es6draft.regexp.PatternNode.Sequence;
+
+/**
+ * Compiles {@link PatternNode} trees into {@link CompiledRegExp} classes.
+ * <p>
+ * Backtracking is mapped onto the control flow of the generated method: each term is followed by the code for the
+ * remaining terms, and a failed match jumps to the retry code of the innermost quantifier or alternative. Character
+ * classes are compiled into inline range checks. Only quantifiers over single characters and optional terms are
+ * supported, patterns with other quantifiers, back-references or captures within lookaheads are not compiled.
+ */
+final class RegExpCodeGenerator {
+    private static final int MAX_CODE_SIZE = 16 * 1024;
+    private static final int MAX_RANGES = 64;
+    private static final AtomicInteger regExpCounter = new AtomicInteger(0);
+
+    private static final class Types {
+        static final Type CompiledRegExp = Type.of(CompiledRegExp.class);
+        static final Type String = Type.of(String.class);
+        static final Type int_ = Type.of(int[].class);
+    }
+
+    private static final class Methods {
+        static final MethodName CompiledRegExp_Constructor = MethodName.findConstructor(Types.CompiledRegExp,
+                Type.methodType(Type.VOID_TYPE));
+
+        static final MethodName String_charAt = MethodName.findVirtual(Types.String, "charAt",
+                Type.methodType(Type.CHAR_TYPE, Type.INT_TYPE));
+
+        static final MethodName String_length = MethodName.findVirtual(Types.String, "length",
+                Type.methodType(Type.INT_TYPE));
+    }
+
+    private static final MethodTypeDescriptor MatchMethod = Type.methodType(Type.INT_TYPE, Types.String,
+            Type.INT_TYPE, Types.int_);
+
+    private static final SourceInfo NO_SOURCE_INFO = new SourceInfo() {
+        @Override
+        public String getFileName() {
+            return null;
+        }
+
+        @Override
+        public String getSourceMap() {
+            return null;
+        }
+    };
+
+    @SuppressWarnings("serial")
+    private static final class UnsupportedPatternException extends RuntimeException {
+        UnsupportedPatternException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /* Continuation markers */
+
+    private static final class Cont {
+        final Object term;
+        final Cont next;
+
+        Cont(Object term, Cont next) {
+            this.term = term;
+            this.next = next;
+        }
+    }
+
+    private static final class GroupStart {
+        final int group;
+
+        GroupStart(int group) {
+            this.group = group;
+        }
+    }
+
+    private static final class GroupEnd {
+        final int group;
+
+        GroupEnd(int group) {
+            this.group = group;
+        }
+    }
+
+    private static final class EmptyCheck {
+        final Variable<Integer> start;
+
+        EmptyCheck(Variable<Integer> start) {
+            this.start = start;
+        }
+    }
+
+    private static final class Succeed {
+        final Jump target;
+
+        Succeed(Jump target) {
+            this.target = target;
+        }
+    }
+
+    private static Cont cons(Object term, Cont next) {
+        return new Cont(term, next);
+    }
+
+    private final InstructionAssembler mv;
+    private final int groupCount;
+    private final boolean ignoreCase;
+    private final IdentityHashMap<PatternNode, CharSet> characterSets = new IdentityHashMap<>();
+    private Variable<String> input;
+    private Variable<int[]> captures;
+    private Variable<Integer> pos;
+    private Variable<Integer> length;
+    private Variable<Integer> ch;
+    private Variable<?>[] groupStarts;
+    private int codeSize;
+
+    private RegExpCodeGenerator(InstructionAssembler mv, int groupCount, boolean ignoreCase) {
+        this.mv = mv;
+        this.groupCount = groupCount;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Compiles the pattern tree to Java bytecode.
+     *
+     * @param pattern
+     *            the pattern tree
+     * @param groupCount
+     *            the number of capturing groups
+     * @param ignoreCase
+     *            {@code true} for case-insensitive matching
+     * @return the compiled regular expression or {@code null} if the pattern is not supported
+     */
+    static CompiledRegExp compile(PatternNode pattern, int groupCount, boolean ignoreCase) {
+        if (!isSupported(pattern, false)) {
+            return null;
+        }
+        String className = "#RegExp_" + regExpCounter.incrementAndGet();
+        Code code = new Code(Modifier.PUBLIC | Modifier.FINAL, className, ClassSignature.NONE, Types.CompiledRegExp,
+                Collections.<Type> emptyList(), NO_SOURCE_INFO);
+        defaultConstructor(code);
+        InstructionAssembler mv = new InstructionAssembler(
+                code.newMethod(Modifier.PUBLIC | Modifier.FINAL, "match", MatchMethod));
+        try {
+            new RegExpCodeGenerator(mv, groupCount, ignoreCase).generate(pattern);
+        } catch (UnsupportedPatternException e) {
+            return null;
+        }
+        return defineAndLoad(code, className);
+    }
+
+    private static void defaultConstructor(Code code) {
+        InstructionAssembler mv = new InstructionAssembler(
+                code.newConstructor(Modifier.PUBLIC, Type.methodType(Type.VOID_TYPE)));
+        mv.begin();
+        mv.loadThis();
+        mv.invoke(Methods.CompiledRegExp_Constructor);
+        mv._return();
+        mv.end();
+    }
+
+    private static CompiledRegExp defineAndLoad(Code code, String className) {
+        RegExpClassLoader loader = new RegExpClassLoader();
+        for (ClassCode classCode : code.getClasses()) {
+            loader.defineClass(Type.className(classCode.className), classCode.toByteArray());
+        }
+        try {
+            Class<?> c = loader.loadClass(Type.className(className));
+            return (CompiledRegExp) c.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final class RegExpClassLoader extends ClassLoader {
+        RegExpClassLoader() {
+            super(CompiledRegExp.class.getClassLoader());
+        }
+
+        Class<?> defineClass(String className, byte[] bytes) {
+            return defineClass(className, bytes, 0, bytes.length);
+        }
+    }
+
+    /* Pattern analysis */
+
+    private static boolean isSupported(PatternNode node, boolean inLookahead) {
+        if (node instanceof BackReference) {
+            return false;
+        }
+        if (node instanceof Group) {
+            return !inLookahead && isSupported(((Group) node).body, inLookahead);
+        }
+        if (node instanceof Lookahead) {
+            return isSupported(((Lookahead) node).body, true);
+        }
+        if (node instanceof Sequence) {
+            for (PatternNode term : ((Sequence) node).terms) {
+                if (!isSupported(term, inLookahead)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (node instanceof Disjunction) {
+            for (PatternNode alternative : ((Disjunction) node).alternatives) {
+                if (!isSupported(alternative, inLookahead)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (node instanceof Quantifier) {
+            Quantifier quantifier = (Quantifier) node;
+            if (quantifier.max == 0 || quantifier.body.isSingleCharacter()) {
+                return true;
+            }
+            return quantifier.min <= 1 && quantifier.max == 1 && isSupported(quantifier.body, inLookahead);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the range of capturing groups in {@code node}.
+     */
+    private static void groupRange(PatternNode node, int[] range) {
+        if (node instanceof Group) {
+            Group group = (Group) node;
+            range[0] = Math.min(range[0], group.group);
+            range[1] = Math.max(range[1], group.group);
+            groupRange(group.body, range);
+        } else if (node instanceof Lookahead) {
+            groupRange(((Lookahead) node).body, range);
+        } else if (node instanceof Quantifier) {
+            groupRange(((Quantifier) node).body, range);
+        } else if (node instanceof Sequence) {
+            for (PatternNode term : ((Sequence) node).terms) {
+                groupRange(term, range);
+            }
+        } else if (node instanceof Disjunction) {
+            for (PatternNode alternative : ((Disjunction) node).alternatives) {
+                groupRange(alternative, range);
+            }
+        }
+    }
+
+    /**
+     * Returns the set of characters matched by a single character node.
+     */
+    private CharSet characters(PatternNode node) {
+        CharSet set = characterSets.get(node);
+        if (set == null) {
+            if (node instanceof Char) {
+                char c = ((Char) node).c;
+                set = new CharSet.Builder().add(c, c).build();
+                if (ignoreCase) {
+                    set = set.caseClosure();
+                }
+            } else if (node instanceof CharClass) {
+                CharClass charClass = (CharClass) node;
+                set = ignoreCase ? charClass.set.caseClosure() : charClass.set;
+                if (charClass.negated) {
+                    set = set.complement();
+                }
+            } else if (((AnyChar) node).dotAll) {
+                set = CharSet.FULL;
+            } else {
+                set = CharSet.LINE_TERMINATOR.complement();
+            }
+            if (set.rangeCount() > MAX_RANGES) {
+                throw new UnsupportedPatternException();
+            }
+            characterSets.put(node, set);
+        }
+        return set;
+    }
+
+    /* Code generation */
+
+    private void generate(PatternNode pattern) {
+        mv.begin();
+        input = mv.getParameter(0, String.class);
+        Variable<Integer> start = mv.getParameter(1, int.class);
+        captures = mv.getParameter(2, int[].class);
+
+        pos = mv.newVariable("pos", int.class);
+        mv.load(start);
+        mv.store(pos);
+
+        length = mv.newVariable("length", int.class);
+        mv.load(input);
+        mv.invoke(Methods.String_length);
+        mv.store(length);
+
+        ch = mv.newVariable("ch", int.class);
+        mv.iconst(0);
+        mv.store(ch);
+
+        groupStarts = new Variable<?>[groupCount + 1];
+        for (int group = 1; group <= groupCount; ++group) {
+            groupStarts[group] = mv.newVariable("groupStart", int.class);
+            mv.iconst(-1);
+            mv.store(groupStarts[group]);
+        }
+
+        Jump fail = new Jump();
+        emit(cons(pattern, null), fail);
+        if (fail.isTarget()) {
+            mv.mark(fail);
+            mv.iconst(-1);
+            mv.ireturn();
+        }
+        mv.end();
+    }
+
+    private void addCodeSize(int size) {
+        codeSize += size;
+        if (codeSize > MAX_CODE_SIZE) {
+            throw new UnsupportedPatternException();
+        }
+    }
+
+    private Variable<Integer> newVariable(String name) {
+        return mv.newVariable(name, int.class);
+    }
+
+    private void loadChar(Variable<Integer> index, int offset) {
+        mv.load(input);
+        mv.load(index);
+        if (offset != 0) {
+            mv.iconst(offset);
+            mv.iadd();
+        }
+        mv.invoke(Methods.String_charAt);
+    }
+
+    private void storeCapture(int slot, Variable<?> value) {
+        mv.load(captures);
+        mv.iconst(slot);
+        mv.load(value);
+        mv.iastore();
+    }
+
+    private void resetCaptures(PatternNode node) {
+        int[] range = { Integer.MAX_VALUE, Integer.MIN_VALUE };
+        groupRange(node, range);
+        for (int group = range[0]; group <= range[1]; ++group) {
+            for (int slot = 2 * group; slot <= 2 * group + 1; ++slot) {
+                mv.load(captures);
+                mv.iconst(slot);
+                mv.iconst(-1);
+                mv.iastore();
+            }
+        }
+    }
+
+    /**
+     * Emits the code to match the continuation {@code k}, jumps to {@code fail} if the match failed.
+     */
+    private void emit(Cont k, Jump fail) {
+        addCodeSize(8);
+        if (k == null) {
+            mv.load(pos);
+            mv.ireturn();
+            return;
+        }
+        Object term = k.term;
+        Cont next = k.next;
+        if (term instanceof Succeed) {
+            mv.goTo(((Succeed) term).target);
+        } else if (term instanceof GroupStart) {
+            mv.load(pos);
+            mv.store(groupStarts[((GroupStart) term).group]);
+            emit(next, fail);
+        } else if (term instanceof GroupEnd) {
+            int group = ((GroupEnd) term).group;
+            storeCapture(2 * group, groupStarts[group]);
+            storeCapture(2 * group + 1, pos);
+            emit(next, fail);
+        } else if (term instanceof EmptyCheck) {
+            mv.load(pos);
+            mv.load(((EmptyCheck) term).start);
+            mv.ificmpeq(fail);
+            emit(next, fail);
+        } else {
+            emitNode((PatternNode) term, next, fail);
+        }
+    }
+
+    private void emitNode(PatternNode node, Cont next, Jump fail) {
+        if (node instanceof Empty) {
+            emit(next, fail);
+        } else if (node instanceof Fail) {
+            mv.goTo(fail);
+        } else if (node.isSingleCharacter()) {
+            CharSet set = characters(node);
+            if (set.isEmpty()) {
+                mv.goTo(fail);
+                return;
+            }
+            mv.load(pos);
+            mv.load(length);
+            mv.ificmpge(fail);
+            if (!set.isFull()) {
+                loadChar(pos, 0);
+                emitTest(set, fail);
+            }
+            mv.iinc(pos, 1);
+            emit(next, fail);
+        } else if (node instanceof Assertion) {
+            emitAssertion(((Assertion) node).type, fail);
+            emit(next, fail);
+        } else if (node instanceof Group) {
+            Group group = (Group) node;
+            emit(cons(new GroupStart(group.group), cons(group.body, cons(new GroupEnd(group.group), next))), fail);
+        } else if (node instanceof Sequence) {
+            List<PatternNode> terms = ((Sequence) node).terms;
+            Cont k = next;
+            for (int i = terms.size() - 1; i >= 0; --i) {
+                k = cons(terms.get(i), k);
+            }
+            emit(k, fail);
+        } else if (node instanceof Disjunction) {
+            emitDisjunction((Disjunction) node, next, fail);
+        } else if (node instanceof Lookahead) {
+            emitLookahead((Lookahead) node, next, fail);
+        } else if (node instanceof Quantifier) {
+            emitQuantifier((Quantifier) node, next, fail);
+        } else {
+            throw new UnsupportedPatternException();
+        }
+    }
+
+    /**
+     * Emits a range check for the character on the stack, jumps to {@code fail} if the character is not a member of
+     * {@code set}.
+     */
+    private void emitTest(CharSet set, Jump fail) {
+        int rangeCount = set.rangeCount();
+        addCodeSize(16 * rangeCount);
+        if (rangeCount == 1 && set.rangeStart(0) == set.rangeEnd(0)) {
+            mv.iconst(set.rangeStart(0));
+            mv.ificmpne(fail);
+            return;
+        }
+        mv.store(ch);
+        Jump match = new Jump();
+        emitRangeTree(set, 0, rangeCount - 1, match, fail);
+        mv.mark(match);
+    }
+
+    private void emitRangeTree(CharSet set, int lo, int hi, Jump match, Jump noMatch) {
+        int mid = (lo + hi) >>> 1;
+        Jump left = lo < mid ? new Jump() : noMatch;
+        Jump right = mid < hi ? new Jump() : noMatch;
+        mv.load(ch);
+        mv.iconst(set.rangeStart(mid));
+        mv.ificmplt(left);
+        mv.load(ch);
+        mv.iconst(set.rangeEnd(mid));
+        mv.ificmpgt(right);
+        mv.goTo(match);
+        if (lo < mid) {
+            mv.mark(left);
+            emitRangeTree(set, lo, mid - 1, match, noMatch);
+        }
+        if (mid < hi) {
+            mv.mark(right);
+            emitRangeTree(set, mid + 1, hi, match, noMatch);
+        }
+    }
+
+    private void emitAssertion(AssertionType type, Jump fail) {
+        switch (type) {
+        case Begin:
+            mv.load(pos);
+            mv.ifne(fail);
+            break;
+        case End:
+            mv.load(pos);
+            mv.load(length);
+            mv.ificmplt(fail);
+            break;
+        case LineBegin: {
+            Jump ok = new Jump();
+            mv.load(pos);
+            mv.ifeq(ok);
+            loadChar(pos, -1);
+            emitTest(CharSet.LINE_TERMINATOR, fail);
+            mv.mark(ok);
+            break;
+        }
+        case LineEnd: {
+            Jump ok = new Jump();
+            mv.load(pos);
+            mv.load(length);
+            mv.ificmpge(ok);
+            loadChar(pos, 0);
+            emitTest(CharSet.LINE_TERMINATOR, fail);
+            mv.mark(ok);
+            break;
+        }
+        case WordBoundary:
+            emitIsWordChar(-1);
+            emitIsWordChar(0);
+            mv.ificmpeq(fail);
+            break;
+        case NotWordBoundary:
+            emitIsWordChar(-1);
+            emitIsWordChar(0);
+            mv.ificmpne(fail);
+            break;
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    /**
+     * Pushes {@code 1} if the character at {@code pos + offset} is a word character, otherwise {@code 0}.
+     */
+    private void emitIsWordChar(int offset) {
+        Jump notWordChar = new Jump(), done = new Jump();
+        if (offset < 0) {
+            mv.load(pos);
+            mv.ifle(notWordChar);
+        } else {
+            mv.load(pos);
+            mv.load(length);
+            mv.ificmpge(notWordChar);
+        }
+        loadChar(pos, offset);
+        emitTest(CharSet.WORD, notWordChar);
+        mv.iconst(1);
+        mv.goTo(done);
+        mv.mark(notWordChar);
+        mv.iconst(0);
+        mv.mark(done);
+    }
+
+    private void emitDisjunction(Disjunction disjunction, Cont next, Jump fail) {
+        List<PatternNode> alternatives = disjunction.alternatives;
+        Variable<Integer> start = newVariable("start");
+        mv.load(pos);
+        mv.store(start);
+        for (int i = 0, last = alternatives.size() - 1; i <= last; ++i) {
+            PatternNode alternative = alternatives.get(i);
+            if (i > 0) {
+                mv.load(start);
+                mv.store(pos);
+            }
+            resetCaptures(disjunction);
+            Jump nextAlternative = i < last ? new Jump() : fail;
+            emit(cons(alternative, next), nextAlternative);
+            if (i < last) {
+                if (!nextAlternative.isTarget()) {
+                    // Remaining alternatives are unreachable.
+                    break;
+                }
+                mv.mark(nextAlternative);
+            }
+        }
+    }
+
+    private void emitLookahead(Lookahead lookahead, Cont next, Jump fail) {
+        Variable<Integer> start = newVariable("start");
+        mv.load(pos);
+        mv.store(start);
+        Jump bodyMatched = new Jump(), bodyFailed = new Jump();
+        emit(cons(lookahead.body, cons(new Succeed(bodyMatched), null)), bodyFailed);
+        Jump continuation = lookahead.negative ? bodyFailed : bodyMatched;
+        Jump failure = lookahead.negative ? bodyMatched : bodyFailed;
+        if (failure.isTarget()) {
+            mv.mark(failure);
+            mv.goTo(fail);
+        }
+        if (continuation.isTarget()) {
+            mv.mark(continuation);
+            mv.load(start);
+            mv.store(pos);
+            emit(next, fail);
+        }
+    }
+
+    private void emitQuantifier(Quantifier quantifier, Cont next, Jump fail) {
+        if (quantifier.max == 0) {
+            emit(next, fail);
+        } else if (quantifier.body.isSingleCharacter()) {
+            emitRepeat(quantifier, next, fail);
+        } else if (quantifier.min == 1 && quantifier.max == 1) {
+            emit(cons(quantifier.body, next), fail);
+        } else if (quantifier.min == 0 && quantifier.max == 1) {
+            emitOptional(quantifier, next, fail);
+        } else {
+            throw new UnsupportedPatternException();
+        }
+    }
+
+    private void emitOptional(Quantifier quantifier, Cont next, Jump fail) {
+        Variable<Integer> start = newVariable("start");
+        mv.load(pos);
+        mv.store(start);
+        // Empty matches of the optional term fail, cf. RepeatMatcher.
+        Cont body = cons(quantifier.body, cons(new EmptyCheck(start), next));
+        Cont first = quantifier.greedy ? body : next;
+        Cont second = quantifier.greedy ? next : body;
+        Jump alternative = new Jump();
+        resetCaptures(quantifier);
+        emit(first, alternative);
+        if (alternative.isTarget()) {
+            mv.mark(alternative);
+            mv.load(start);
+            mv.store(pos);
+            resetCaptures(quantifier);
+            emit(second, fail);
+        }
+    }
+
+    private void emitRepeat(Quantifier quantifier, Cont next, Jump fail) {
+        CharSet set = characters(quantifier.body);
+        int min = quantifier.min, max = quantifier.max;
+        if (set.isEmpty()) {
+            if (min > 0) {
+                mv.goTo(fail);
+            } else {
+                emit(next, fail);
+            }
+            return;
+        }
+        boolean full = set.isFull();
+
+        // Upper bound for the input position.
+        Variable<Integer> limit;
+        if (max == Quantifier.INFINITY) {
+            limit = length;
+        } else {
+            limit = newVariable("limit");
+            Jump useLength = new Jump(), done = new Jump();
+            mv.load(length);
+            mv.load(pos);
+            mv.isub();
+            mv.iconst(max);
+            mv.ificmple(useLength);
+            mv.load(pos);
+            mv.iconst(max);
+            mv.iadd();
+            mv.store(limit);
+            mv.goTo(done);
+            mv.mark(useLength);
+            mv.load(length);
+            mv.store(limit);
+            mv.mark(done);
+        }
+
+        // Match the required characters.
+        if (min > 0) {
+            mv.load(length);
+            mv.load(pos);
+            mv.isub();
+            mv.iconst(min);
+            mv.ificmplt(fail);
+            if (full) {
+                mv.load(pos);
+                mv.iconst(min);
+                mv.iadd();
+                mv.store(pos);
+            } else if (min == 1) {
+                loadChar(pos, 0);
+                emitTest(set, fail);
+                mv.iinc(pos, 1);
+            } else {
+                Variable<Integer> required = newVariable("required");
+                mv.load(pos);
+                mv.iconst(min);
+                mv.iadd();
+                mv.store(required);
+                Jump loop = new Jump(), done = new Jump();
+                mv.mark(loop);
+                mv.load(pos);
+                mv.load(required);
+                mv.ificmpge(done);
+                loadChar(pos, 0);
+                emitTest(set, fail);
+                mv.iinc(pos, 1);
+                mv.goTo(loop);
+                mv.mark(done);
+            }
+        }
+        if (min == max) {
+            emit(next, fail);
+            return;
+        }
+
+        Variable<Integer> minPos = newVariable("minPos");
+        mv.load(pos);
+        mv.store(minPos);
+        if (quantifier.greedy) {
+            // Match as many characters as possible.
+            if (full) {
+                mv.load(limit);
+                mv.store(pos);
+            } else {
+                Jump loop = new Jump(), done = new Jump();
+                mv.mark(loop);
+                mv.load(pos);
+                mv.load(limit);
+                mv.ificmpge(done);
+                loadChar(pos, 0);
+                emitTest(set, done);
+                mv.iinc(pos, 1);
+                mv.goTo(loop);
+                mv.mark(done);
+            }
+        }
+
+        // Retry the continuation with one character less (greedy) or more (lazy).
+        Variable<Integer> current = newVariable("current");
+        mv.load(pos);
+        mv.store(current);
+        Jump retry = new Jump(), retryFailed = new Jump();
+        mv.mark(retry);
+        mv.load(current);
+        mv.store(pos);
+        emit(next, retryFailed);
+        if (retryFailed.isTarget()) {
+            mv.mark(retryFailed);
+            if (quantifier.greedy) {
+                mv.load(current);
+                mv.load(minPos);
+                mv.ificmple(fail);
+                mv.iinc(current, -1);
+            } else {
+                mv.load(current);
+                mv.load(limit);
+                mv.ificmpge(fail);
+                if (!full) {
+                    loadChar(current, 0);
+                    emitTest(set, fail);
+                }
+                mv.iinc(current, 1);
+            }
+            mv.goTo(retry);
+        }
+    }
+}
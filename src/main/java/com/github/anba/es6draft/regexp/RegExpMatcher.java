@@ -28,6 +28,15 @@ public interface RegExpMatcher extends Cloneable {
      */
     MatchState matcher(CharSequence input);
 
+    /**
+     * Returns the simple pattern description if this matcher's pattern can be matched by scanning the input string.
+     * 
+     * @return the simple pattern or {@code null} if not applicable
+     */
+    default SimplePattern getSimplePattern() {
+        return null;
+    }
+
     /**
      * Returns a clone of this {@link RegExpMatcher} object.
      * 
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.anba.es6draft.parser.ParserException;
+
+/**
+ * Global cache for translated regular expression matchers.
+ * <p>
+ * The cache is shared by all realms. Cached matchers are never handed out directly, instead each caller receives a
+ * {@link RegExpMatcher#clone() clone} which shares the compiled pattern with the cached matcher.
+ */
+public final class RegExpMatcherCache {
+    private static final int MAX_SIZE = 256;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = .75f;
+    private static final Map<CacheKey, RegExpMatcher> cache = Collections
+            .synchronizedMap(new Cache(MAX_SIZE, INITIAL_CAPACITY, LOAD_FACTOR));
+
+    private RegExpMatcherCache() {
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Cache extends LinkedHashMap<CacheKey, RegExpMatcher> {
+        private final int maxSize;
+
+        Cache(int maxSize, int initialCapacity, float loadFactor) {
+            super(initialCapacity, loadFactor, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, RegExpMatcher> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class CacheKey {
+        private final String pattern;
+        private final String flags;
+        private final boolean webRegExp;
+        private final RegExpBackend backend;
+
+        CacheKey(String pattern, String flags, boolean webRegExp, RegExpBackend backend) {
+            this.pattern = pattern;
+            this.flags = flags;
+            this.webRegExp = webRegExp;
+            this.backend = backend;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null || obj.getClass() != CacheKey.class) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return webRegExp == other.webRegExp && backend == other.backend && pattern.equals(other.pattern)
+                    && flags.equals(other.flags);
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + flags.hashCode();
+            result = prime * result + pattern.hashCode();
+            result = prime * result + (webRegExp ? 1231 : 1237);
+            result = prime * result + backend.hashCode();
+            return result;
+        }
+    }
+
+    /**
+     * Returns a matcher for the regular expression {@code pattern} with {@code flags}. The pattern is only parsed and
+     * compiled if no matcher was found in the cache.
+     * 
+     * @param pattern
+     *            the regular expression pattern
+     * @param flags
+     *            the regular expression flags
+     * @param webRegExp
+     *            {@code true} if web-compatibility extensions are enabled
+     * @param backend
+     *            the regular expression matcher implementation
+     * @return the regular expression matcher
+     * @throws ParserException
+     *             if the pattern or the flags are invalid
+     */
+    public static RegExpMatcher get(String pattern, String flags, boolean webRegExp, RegExpBackend backend)
+            throws ParserException {
+        CacheKey cacheKey = new CacheKey(pattern, flags, webRegExp, backend);
+        RegExpMatcher cachedMatcher = cache.get(cacheKey);
+        if (cachedMatcher == null) {
+            cachedMatcher = RegExpParser.parse(pattern, flags, "<regexp>", 1, 1, webRegExp, backend);
+            cache.put(cacheKey, cachedMatcher);
+        }
+        try {
+            return cachedMatcher.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
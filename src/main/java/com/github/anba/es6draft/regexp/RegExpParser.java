@@ -72,10 +72,38 @@ public final class RegExpParser {
 
     public static RegExpMatcher parse(String pattern, String flags, String sourceFile, int sourceLine, int sourceColumn,
             boolean webRegExp) throws ParserException {
+        return parse(pattern, flags, sourceFile, sourceLine, sourceColumn, webRegExp, RegExpBackend.Interpreter);
+    }
+
+    public static RegExpMatcher parse(String pattern, String flags, String sourceFile, int sourceLine, int sourceColumn,
+            boolean webRegExp, RegExpBackend backend) throws ParserException {
         RegExpParser parser = new RegExpParser(pattern, flags, sourceFile, sourceLine, sourceColumn, webRegExp);
         parser.pattern();
 
-        return new JoniRegExpMatcher(parser.out.toString(), parser.flags, parser.negativeLAGroups);
+        String regex = parser.out.toString();
+        if (!parser.isUnicode()) {
+            // Prefer the char-based matchers, they don't need to encode each input string.
+            RegExpMatcher matcher = null;
+            switch (backend) {
+            case ByteCode:
+                matcher = CompiledRegExpMatcher.create(regex, parser.isIgnoreCase());
+                if (matcher != null) {
+                    break;
+                }
+                // fall-through
+            case Interpreter:
+                matcher = ProgramRegExpMatcher.create(regex, parser.isIgnoreCase());
+                break;
+            case Joni:
+                break;
+            default:
+                throw new AssertionError();
+            }
+            if (matcher != null) {
+                return matcher;
+            }
+        }
+        return new JoniRegExpMatcher(regex, parser.flags, parser.negativeLAGroups);
     }
 
     public static void syntaxParse(String pattern, String flags, String sourceFile, int sourceLine, int sourceColumn,
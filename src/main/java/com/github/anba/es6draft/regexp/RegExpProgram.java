@@ -0,0 +1,325 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.github.anba.es6draft.regexp.PatternNode.AnyChar;
+import com.github.anba.es6draft.regexp.PatternNode.Assertion;
+import com.github.anba.es6draft.regexp.PatternNode.AssertionType;
+import com.github.anba.es6draft.regexp.PatternNode.BackReference;
+import com.github.anba.es6draft.regexp.PatternNode.Char;
+import com.github.anba.es6draft.regexp.PatternNode.CharClass;
+import com.github.anba.es6draft.regexp.PatternNode.Disjunction;
+import com.github.anba.es6draft.regexp.PatternNode.Empty;
+import com.github.anba.es6draft.regexp.PatternNode.Fail;
+import com.github.anba.es6draft.regexp.PatternNode.Group;
+import com.github.anba.es6draft.regexp.PatternNode.Lookahead;
+import com.github.anba.es6draft.regexp.PatternNode.Quantifier;
+import com.github.anba.es6draft.regexp.PatternNode.Sequence;
+
+/**
+ * Compiled regular expression program for {@link ProgramMatchState}.
+ * <p>
+ * The program is a flat {@code int[]} of instructions, each instruction is an opcode followed by a fixed number of
+ * operands. The match state uses a single {@code int[]} for registers: the capture slots {@code [2 * group]} and
+ * {@code [2 * group + 1]}, followed by the group start registers and the loop registers.
+ */
+final class RegExpProgram {
+    // Character matchers
+    static final int CHAR = 0; // CHAR c
+    static final int CHAR_I = 1; // CHAR_I canonical(c)
+    static final int ANY = 2; // ANY
+    static final int ANY_ALL = 3; // ANY_ALL
+    static final int SET = 4; // SET set
+    static final int NOT_SET = 5; // NOT_SET set
+    static final int SET_I = 6; // SET_I set
+    static final int NOT_SET_I = 7; // NOT_SET_I set
+
+    // Assertions
+    static final int BEGIN = 8;
+    static final int END = 9;
+    static final int LINE_BEGIN = 10;
+    static final int LINE_END = 11;
+    static final int WORD_BOUNDARY = 12;
+    static final int NOT_WORD_BOUNDARY = 13;
+
+    // Control flow
+    static final int FAIL = 14; // FAIL
+    static final int JUMP = 15; // JUMP target
+    static final int SPLIT_NEXT = 16; // SPLIT_NEXT alternative
+    static final int SUCCEED = 17; // SUCCEED
+
+    // Captures and back-references
+    static final int GROUP_START = 18; // GROUP_START group
+    static final int GROUP_END = 19; // GROUP_END group
+    static final int BACKREF = 20; // BACKREF group
+    static final int BACKREF_I = 21; // BACKREF_I group
+
+    // Lookahead
+    static final int LOOKAHEAD = 22; // LOOKAHEAD next
+    static final int NEG_LOOKAHEAD = 23; // NEG_LOOKAHEAD next
+
+    // General loops
+    static final int LOOP_INIT = 24; // LOOP_INIT register
+    static final int LOOP = 25; // LOOP register min max greedy exit
+    static final int LOOP_ENTER = 26; // LOOP_ENTER register firstGroup lastGroup
+    static final int LOOP_END = 27; // LOOP_END register head
+
+    // Single character loops
+    static final int REPEAT = 28; // REPEAT min max greedy atom-op atom-operand
+
+    static final int LOOP_LENGTH = 6;
+    static final int REPEAT_LENGTH = 6;
+
+    /** Unbounded quantifier maximum */
+    static final int INFINITY = Quantifier.INFINITY;
+
+    final int[] code;
+    final CharSet[] sets;
+    final int groupCount;
+    final int groupStartBase;
+    final int registerCount;
+    final boolean ignoreCase;
+
+    private RegExpProgram(int[] code, CharSet[] sets, int groupCount, int registerCount, boolean ignoreCase) {
+        this.code = code;
+        this.sets = sets;
+        this.groupCount = groupCount;
+        this.groupStartBase = 2 * (groupCount + 1);
+        this.registerCount = registerCount;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Compiles the pattern tree into a new program.
+     *
+     * @param pattern
+     *            the pattern tree
+     * @param groupCount
+     *            the number of capturing groups
+     * @param ignoreCase
+     *            {@code true} for case-insensitive matching
+     * @return the compiled program
+     */
+    static RegExpProgram compile(PatternNode pattern, int groupCount, boolean ignoreCase) {
+        Compiler compiler = new Compiler(groupCount, ignoreCase);
+        compiler.compile(pattern);
+        compiler.emit(SUCCEED);
+        int[] code = Arrays.copyOf(compiler.code, compiler.length);
+        CharSet[] sets = compiler.sets.toArray(new CharSet[0]);
+        return new RegExpProgram(code, sets, groupCount, compiler.registers, ignoreCase);
+    }
+
+    private static final class Compiler {
+        private final boolean ignoreCase;
+        private final ArrayList<CharSet> sets = new ArrayList<>();
+        private int[] code = new int[32];
+        private int length;
+        private int registers;
+
+        Compiler(int groupCount, boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            // Capture slots and group start registers.
+            this.registers = 2 * (groupCount + 1) + (groupCount + 1);
+        }
+
+        private void ensureCapacity(int n) {
+            if (length + n > code.length) {
+                code = Arrays.copyOf(code, Math.max(code.length << 1, length + n));
+            }
+        }
+
+        int position() {
+            return length;
+        }
+
+        void patch(int index, int value) {
+            code[index] = value;
+        }
+
+        void emit(int op) {
+            ensureCapacity(1);
+            code[length++] = op;
+        }
+
+        void emit(int op, int a) {
+            ensureCapacity(2);
+            code[length++] = op;
+            code[length++] = a;
+        }
+
+        void emit(int op, int a, int b) {
+            ensureCapacity(3);
+            code[length++] = op;
+            code[length++] = a;
+            code[length++] = b;
+        }
+
+        void emit(int op, int a, int b, int c) {
+            ensureCapacity(4);
+            code[length++] = op;
+            code[length++] = a;
+            code[length++] = b;
+            code[length++] = c;
+        }
+
+        void emit(int op, int a, int b, int c, int d, int e) {
+            ensureCapacity(6);
+            code[length++] = op;
+            code[length++] = a;
+            code[length++] = b;
+            code[length++] = c;
+            code[length++] = d;
+            code[length++] = e;
+        }
+
+        private int addSet(CharSet set) {
+            sets.add(set);
+            return sets.size() - 1;
+        }
+
+        /**
+         * Returns the opcode and operand for a single character node.
+         */
+        private long atom(PatternNode node) {
+            int op, operand;
+            if (node instanceof Char) {
+                char c = ((Char) node).c;
+                if (ignoreCase && hasCaseVariants(c)) {
+                    op = CHAR_I;
+                    operand = CharSet.canonicalize(c);
+                } else {
+                    op = CHAR;
+                    operand = c;
+                }
+            } else if (node instanceof CharClass) {
+                CharClass charClass = (CharClass) node;
+                if (ignoreCase) {
+                    op = charClass.negated ? NOT_SET_I : SET_I;
+                } else {
+                    op = charClass.negated ? NOT_SET : SET;
+                }
+                operand = addSet(charClass.set);
+            } else {
+                op = ((AnyChar) node).dotAll ? ANY_ALL : ANY;
+                operand = 0;
+            }
+            return ((long) op << 32) | (operand & 0xffff_ffffL);
+        }
+
+        private static boolean hasCaseVariants(char c) {
+            int canonical = CharSet.canonicalize(c);
+            return canonical != c || CaseFoldDataBMP.caseUnfold(c) != null;
+        }
+
+        void compile(PatternNode node) {
+            if (node instanceof Empty) {
+                return;
+            }
+            if (node instanceof Fail) {
+                emit(FAIL);
+            } else if (node.isSingleCharacter()) {
+                long atom = atom(node);
+                int op = (int) (atom >>> 32);
+                if (op == ANY || op == ANY_ALL) {
+                    emit(op);
+                } else {
+                    emit(op, (int) atom);
+                }
+            } else if (node instanceof Assertion) {
+                emit(assertion(((Assertion) node).type));
+            } else if (node instanceof BackReference) {
+                emit(ignoreCase ? BACKREF_I : BACKREF, ((BackReference) node).group);
+            } else if (node instanceof Group) {
+                Group group = (Group) node;
+                emit(GROUP_START, group.group);
+                compile(group.body);
+                emit(GROUP_END, group.group);
+            } else if (node instanceof Lookahead) {
+                Lookahead lookahead = (Lookahead) node;
+                int start = position();
+                emit(lookahead.negative ? NEG_LOOKAHEAD : LOOKAHEAD, 0);
+                compile(lookahead.body);
+                emit(SUCCEED);
+                patch(start + 1, position());
+            } else if (node instanceof Sequence) {
+                for (PatternNode term : ((Sequence) node).terms) {
+                    compile(term);
+                }
+            } else if (node instanceof Disjunction) {
+                compileDisjunction((Disjunction) node);
+            } else {
+                compileQuantifier((Quantifier) node);
+            }
+        }
+
+        private static int assertion(AssertionType type) {
+            switch (type) {
+            case Begin:
+                return BEGIN;
+            case End:
+                return END;
+            case LineBegin:
+                return LINE_BEGIN;
+            case LineEnd:
+                return LINE_END;
+            case WordBoundary:
+                return WORD_BOUNDARY;
+            case NotWordBoundary:
+                return NOT_WORD_BOUNDARY;
+            default:
+                throw new AssertionError();
+            }
+        }
+
+        private void compileDisjunction(Disjunction disjunction) {
+            // SPLIT_NEXT L1; alt0; JUMP end; L1: SPLIT_NEXT L2; alt1; JUMP end; ... Ln: altN; end:
+            ArrayList<PatternNode> alternatives = new ArrayList<>(disjunction.alternatives);
+            int[] jumps = new int[alternatives.size() - 1];
+            for (int i = 0, last = alternatives.size() - 1; i < last; ++i) {
+                int split = position();
+                emit(SPLIT_NEXT, 0);
+                compile(alternatives.get(i));
+                jumps[i] = position();
+                emit(JUMP, 0);
+                patch(split + 1, position());
+            }
+            compile(alternatives.get(alternatives.size() - 1));
+            for (int jump : jumps) {
+                patch(jump + 1, position());
+            }
+        }
+
+        private void compileQuantifier(Quantifier quantifier) {
+            if (quantifier.max == 0) {
+                return;
+            }
+            PatternNode body = quantifier.body;
+            int greedy = quantifier.greedy ? 1 : 0;
+            if (body.isSingleCharacter()) {
+                long atom = atom(body);
+                emit(REPEAT, quantifier.min, quantifier.max, greedy, (int) (atom >>> 32), (int) atom);
+                return;
+            }
+            if (quantifier.min == 1 && quantifier.max == 1) {
+                compile(body);
+                return;
+            }
+            int register = registers;
+            registers += 2;
+            emit(LOOP_INIT, register);
+            int head = position();
+            emit(LOOP, register, quantifier.min, quantifier.max, greedy, 0);
+            emit(LOOP_ENTER, register, quantifier.firstGroup, quantifier.lastGroup);
+            compile(body);
+            emit(LOOP_END, register, head);
+            patch(head + 5, position());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import java.util.List;
+import java.util.regex.MatchResult;
+
+import com.github.anba.es6draft.regexp.PatternNode.AnyChar;
+import com.github.anba.es6draft.regexp.PatternNode.Assertion;
+import com.github.anba.es6draft.regexp.PatternNode.AssertionType;
+import com.github.anba.es6draft.regexp.PatternNode.Char;
+import com.github.anba.es6draft.regexp.PatternNode.CharClass;
+import com.github.anba.es6draft.regexp.PatternNode.Quantifier;
+import com.github.anba.es6draft.regexp.PatternNode.Sequence;
+
+/**
+ * Patterns without captures which can be matched by scanning the input string: literal strings, literal strings
+ * anchored at the input start and single character classes, optionally followed by a {@code +} quantifier.
+ * <p>
+ * Simple patterns never match the empty string.
+ */
+public final class SimplePattern {
+    // The literal string or null for character class patterns
+    private final String literal;
+    private final boolean anchored;
+    private final CharSet set;
+    private final boolean repeat;
+
+    private SimplePattern(String literal, boolean anchored, CharSet set, boolean repeat) {
+        this.literal = literal;
+        this.anchored = anchored;
+        this.set = set;
+        this.repeat = repeat;
+    }
+
+    /**
+     * Returns the simple pattern for {@code pattern} or {@code null} if the pattern is not simple.
+     * 
+     * @param pattern
+     *            the pattern tree
+     * @param groupCount
+     *            the number of capturing groups
+     * @param ignoreCase
+     *            {@code true} for case-insensitive matching
+     * @return the simple pattern or {@code null}
+     */
+    static SimplePattern of(PatternNode pattern, int groupCount, boolean ignoreCase) {
+        if (groupCount != 0 || ignoreCase) {
+            return null;
+        }
+        if (pattern instanceof Char) {
+            return new SimplePattern(String.valueOf(((Char) pattern).c), false, null, false);
+        }
+        if (pattern.isSingleCharacter()) {
+            return new SimplePattern(null, false, characters(pattern), false);
+        }
+        if (pattern instanceof Quantifier) {
+            Quantifier quantifier = (Quantifier) pattern;
+            if (quantifier.min != 1 || !quantifier.body.isSingleCharacter()) {
+                return null;
+            }
+            if (quantifier.max == 1 || !quantifier.greedy) {
+                // Lazy quantifiers without a continuation match exactly once.
+                return of(quantifier.body, groupCount, ignoreCase);
+            }
+            if (quantifier.max != Quantifier.INFINITY) {
+                return null;
+            }
+            return new SimplePattern(null, false, characters(quantifier.body), true);
+        }
+        if (pattern instanceof Sequence) {
+            List<PatternNode> terms = ((Sequence) pattern).terms;
+            int start = 0;
+            boolean anchored = false;
+            PatternNode first = terms.get(0);
+            if (first instanceof Assertion && ((Assertion) first).type == AssertionType.Begin) {
+                start = 1;
+                anchored = true;
+            }
+            if (start == terms.size()) {
+                return null;
+            }
+            StringBuilder literal = new StringBuilder();
+            for (int i = start; i < terms.size(); ++i) {
+                PatternNode term = terms.get(i);
+                if (!(term instanceof Char)) {
+                    return null;
+                }
+                literal.append(((Char) term).c);
+            }
+            return new SimplePattern(literal.toString(), anchored, null, false);
+        }
+        return null;
+    }
+
+    private static CharSet characters(PatternNode node) {
+        if (node instanceof Char) {
+            char c = ((Char) node).c;
+            return new CharSet.Builder().add(c, c).build();
+        }
+        if (node instanceof CharClass) {
+            CharClass charClass = (CharClass) node;
+            return charClass.negated ? charClass.set.complement() : charClass.set;
+        }
+        return ((AnyChar) node).dotAll ? CharSet.FULL : CharSet.LINE_TERMINATOR.complement();
+    }
+
+    /**
+     * Returns the start position of the next match at or after {@code start}.
+     * 
+     * @param s
+     *            the input string
+     * @param start
+     *            the start position
+     * @return the start position of the match or {@code -1} if no match was found
+     */
+    public int find(String s, int start) {
+        if (literal != null) {
+            if (anchored) {
+                return start == 0 && s.startsWith(literal) ? 0 : -1;
+            }
+            if (literal.length() == 1) {
+                return s.indexOf(literal.charAt(0), start);
+            }
+            return s.indexOf(literal, start);
+        }
+        CharSet set = this.set;
+        for (int i = start, length = s.length(); i < length; ++i) {
+            if (set.contains(s.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the end position of the match found at {@code start}.
+     * 
+     * @param s
+     *            the input string
+     * @param start
+     *            the start position of the match
+     * @return the end position of the match
+     */
+    public int end(String s, int start) {
+        if (literal != null) {
+            return start + literal.length();
+        }
+        if (!repeat) {
+            return start + 1;
+        }
+        CharSet set = this.set;
+        int end = start + 1;
+        for (int length = s.length(); end < length && set.contains(s.charAt(end)); ++end) {
+        }
+        return end;
+    }
+
+    /**
+     * Returns a match result for the match {@code [start, end)}.
+     * 
+     * @param s
+     *            the input string
+     * @param start
+     *            the start position of the match
+     * @param end
+     *            the end position of the match
+     * @return the match result
+     */
+    public MatchResult toMatchResult(String s, int start, int end) {
+        return new StringMatchState.Result(s, 0, new int[] { start, end });
+    }
+
+    @Override
+    public String toString() {
+        if (literal != null) {
+            return String.format("literal=%s, anchored=%b", literal, anchored);
+        }
+        return String.format("set=%s, repeat=%b", set, repeat);
+    }
+}
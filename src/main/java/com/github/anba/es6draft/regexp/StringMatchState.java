@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import java.util.regex.MatchResult;
+
+/**
+ * Base class for {@link MatchState} implementations which match directly against the characters of the input string.
+ */
+abstract class StringMatchState implements MatchState {
+    private final PatternInfo info;
+    protected final String string;
+    protected final int length;
+    // Capture slots of the last successful match or null
+    private int[] captures;
+
+    protected StringMatchState(PatternInfo info, String string) {
+        this.info = info;
+        this.string = string;
+        this.length = string.length();
+    }
+
+    /**
+     * Matches the pattern at {@code start}.
+     * 
+     * @param start
+     *            the start position
+     * @return the capture slots {@code [2 * group]} and {@code [2 * group + 1]} or {@code null} if no match was found
+     */
+    protected abstract int[] match(int start);
+
+    private boolean update(int[] captures) {
+        this.captures = captures;
+        return captures != null;
+    }
+
+    private void ensureResult() {
+        if (captures == null)
+            throw new IllegalStateException("No match!");
+    }
+
+    private void ensureValidIndex(int index) {
+        if (index < 0 || index > length)
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+    }
+
+    @Override
+    public String toString() {
+        return Result.toString(this, string, captures);
+    }
+
+    @Override
+    public MatchResult toMatchResult() {
+        ensureResult();
+        return new Result(string, info.groupCount, captures);
+    }
+
+    @Override
+    public boolean find(int start) {
+        ensureValidIndex(start);
+        if (info.anchored) {
+            return update(start == 0 ? match(0) : null);
+        }
+        String prefix = info.prefix;
+        if (prefix != null) {
+            for (int pos = string.indexOf(prefix, start); pos >= 0; pos = string.indexOf(prefix, pos + 1)) {
+                int[] captures = match(pos);
+                if (captures != null) {
+                    return update(captures);
+                }
+            }
+            return update(null);
+        }
+        CharSet firstChars = info.firstChars;
+        if (firstChars == null) {
+            for (int pos = start; pos <= length; ++pos) {
+                int[] captures = match(pos);
+                if (captures != null) {
+                    return update(captures);
+                }
+            }
+            return update(null);
+        }
+        if (firstChars.rangeCount() == 1 && firstChars.rangeStart(0) == firstChars.rangeEnd(0)) {
+            char c = (char) firstChars.rangeStart(0);
+            for (int pos = string.indexOf(c, start); pos >= 0; pos = string.indexOf(c, pos + 1)) {
+                int[] captures = match(pos);
+                if (captures != null) {
+                    return update(captures);
+                }
+            }
+            return update(null);
+        }
+        for (int pos = start; pos < length; ++pos) {
+            if (firstChars.contains(string.charAt(pos))) {
+                int[] captures = match(pos);
+                if (captures != null) {
+                    return update(captures);
+                }
+            }
+        }
+        return update(null);
+    }
+
+    @Override
+    public boolean matches(int start) {
+        ensureValidIndex(start);
+        return update(match(start));
+    }
+
+    @Override
+    public int start() {
+        ensureResult();
+        return captures[0];
+    }
+
+    @Override
+    public int start(int group) {
+        ensureResult();
+        return Result.start(captures, info.groupCount, group);
+    }
+
+    @Override
+    public int end() {
+        ensureResult();
+        return captures[1];
+    }
+
+    @Override
+    public int end(int group) {
+        ensureResult();
+        return Result.end(captures, info.groupCount, group);
+    }
+
+    @Override
+    public String group() {
+        return group(0);
+    }
+
+    @Override
+    public String group(int group) {
+        ensureResult();
+        return Result.group(string, captures, info.groupCount, group);
+    }
+
+    @Override
+    public int groupCount() {
+        return info.groupCount;
+    }
+
+    /**
+     * Immutable match result.
+     */
+    static final class Result implements MatchResult {
+        private final String string;
+        private final int groupCount;
+        private final int[] captures;
+
+        Result(String string, int groupCount, int[] captures) {
+            this.string = string;
+            this.groupCount = groupCount;
+            this.captures = captures;
+        }
+
+        static String toString(MatchResult result, String string, int[] captures) {
+            int begin = captures != null ? captures[0] : -1, end = captures != null ? captures[1] : 0;
+            return String.format("%s: [string=%s, begin=%d, end=%d]", result.getClass().getSimpleName(), string,
+                    begin, end);
+        }
+
+        private static void ensureValidGroup(int groupCount, int group) {
+            if (group < 0 || group > groupCount)
+                throw new IndexOutOfBoundsException("Invalid group: " + group);
+        }
+
+        static int start(int[] captures, int groupCount, int group) {
+            ensureValidGroup(groupCount, group);
+            return captures[2 * group];
+        }
+
+        static int end(int[] captures, int groupCount, int group) {
+            ensureValidGroup(groupCount, group);
+            return captures[2 * group + 1];
+        }
+
+        static String group(String string, int[] captures, int groupCount, int group) {
+            int start = start(captures, groupCount, group), end = end(captures, groupCount, group);
+            if (start == -1 || end == -1) {
+                return null;
+            }
+            return string.substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return toString(this, string, captures);
+        }
+
+        @Override
+        public int start() {
+            return captures[0];
+        }
+
+        @Override
+        public int start(int group) {
+            return start(captures, groupCount, group);
+        }
+
+        @Override
+        public int end() {
+            return captures[1];
+        }
+
+        @Override
+        public int end(int group) {
+            return end(captures, groupCount, group);
+        }
+
+        @Override
+        public String group() {
+            return group(0);
+        }
+
+        @Override
+        public String group(int group) {
+            return group(string, captures, groupCount, group);
+        }
+
+        @Override
+        public int groupCount() {
+            return groupCount;
+        }
+    }
+}
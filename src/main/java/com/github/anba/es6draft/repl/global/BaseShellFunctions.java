@@ -9,6 +9,9 @@ package com.github.anba.es6draft.repl.global;
 import static com.github.anba.es6draft.repl.global.SharedFunctions.absolutePath;
 import static com.github.anba.es6draft.repl.global.SharedFunctions.loadScript;
 import static com.github.anba.es6draft.repl.global.SharedFunctions.readFile;
+import static com.github.anba.es6draft.repl.global.SharedFunctions.readJSONFile;
+import static com.github.anba.es6draft.repl.global.SharedFunctions.readJSONFileEvents;
+import static com.github.anba.es6draft.runtime.AbstractOperations.ToInt32;
 
 import java.io.PrintWriter;
 import java.nio.file.Path;
@@ -17,6 +20,8 @@ import java.nio.file.Paths;
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.internal.Properties.Function;
 import com.github.anba.es6draft.runtime.internal.Strings;
+import com.github.anba.es6draft.runtime.types.Callable;
+import com.github.anba.es6draft.runtime.types.Type;
 
 /**
  * Standard shell functions.
@@ -77,6 +82,43 @@ public final class BaseShellFunctions {
         return readFile(cx, file, absolutePath(cx, file));
     }
 
+    /**
+     * shell-function: {@code readJSON(filename [, reviver])}
+     * 
+     * @param cx
+     *            the execution context
+     * @param filename
+     *            the file to load
+     * @param reviver
+     *            the optional reviver function
+     * @return the parsed JSON value
+     */
+    @Function(name = "readJSON", arity = 1)
+    public Object readJSON(ExecutionContext cx, String filename, Object reviver) {
+        Path file = Paths.get(filename);
+        return readJSONFile(cx, file, absolutePath(cx, file), reviver);
+    }
+
+    /**
+     * shell-function: {@code readJSONEvents(filename, callback [, depth])}
+     * 
+     * @param cx
+     *            the execution context
+     * @param filename
+     *            the file to load
+     * @param callback
+     *            the callback function, called with {@code (value, path)}
+     * @param depth
+     *            the nesting depth of the reported values
+     */
+    @Function(name = "readJSONEvents", arity = 2)
+    public void readJSONEvents(ExecutionContext cx, String filename, Callable callback,
+            Object depth) {
+        Path file = Paths.get(filename);
+        int level = Type.isUndefined(depth) ? 1 : Math.max(ToInt32(cx, depth), 0);
+        readJSONFileEvents(cx, file, absolutePath(cx, file), callback, level);
+    }
+
     /**
      * shell-function: {@code quit()}
      */
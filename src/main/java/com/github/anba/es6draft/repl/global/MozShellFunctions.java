@@ -473,7 +473,7 @@ public final class MozShellFunctions {
      */
     @Function(name = "nondeterministicGetWeakMapKeys", arity = 1)
     public ScriptObject nondeterministicGetWeakMapKeys(ExecutionContext cx, WeakMapObject weakMap) {
-        return CreateArrayFromList(cx, weakMap.getWeakMapData().keySet());
+        return CreateArrayFromList(cx, weakMap.getWeakMapData().keys());
     }
 
     /**
@@ -7,6 +7,7 @@
 package com.github.anba.es6draft.repl.global;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -14,12 +15,15 @@ import java.util.Objects;
 
 import com.github.anba.es6draft.Script;
 import com.github.anba.es6draft.compiler.CompilationException;
+import com.github.anba.es6draft.parser.JSONEventBuilder;
 import com.github.anba.es6draft.parser.ParserException;
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.Realm;
 import com.github.anba.es6draft.runtime.internal.Errors;
 import com.github.anba.es6draft.runtime.internal.ScriptException;
 import com.github.anba.es6draft.runtime.internal.Source;
+import com.github.anba.es6draft.runtime.objects.JSONObject;
+import com.github.anba.es6draft.runtime.types.Callable;
 
 /**
  *
@@ -82,6 +86,57 @@ final class SharedFunctions {
         }
     }
 
+    /**
+     * Reads a JSON file and returns its parsed value. The file is parsed incrementally without reading it into memory
+     * first.
+     * 
+     * @param cx
+     *            the execution context
+     * @param fileName
+     *            the file name
+     * @param path
+     *            the file path
+     * @param reviver
+     *            the optional reviver function
+     * @return the parsed JSON value
+     */
+    static Object readJSONFile(ExecutionContext cx, Path fileName, Path path, Object reviver) {
+        if (!Files.exists(path)) {
+            throw new ScriptException(String.format("can't open '%s'", fileName.toString()));
+        }
+        try (FileChannel channel = FileChannel.open(path)) {
+            return JSONObject.parse(cx, channel, reviver);
+        } catch (IOException e) {
+            throw Errors.newError(cx, Objects.toString(e.getMessage(), ""));
+        }
+    }
+
+    /**
+     * Reads a JSON file and reports the values at the requested nesting depth to the callback function. The file is
+     * parsed incrementally and only the reported values are created.
+     * 
+     * @param cx
+     *            the execution context
+     * @param fileName
+     *            the file name
+     * @param path
+     *            the file path
+     * @param callback
+     *            the callback function
+     * @param depth
+     *            the nesting depth of the reported values
+     */
+    static void readJSONFileEvents(ExecutionContext cx, Path fileName, Path path, Callable callback, int depth) {
+        if (!Files.exists(path)) {
+            throw new ScriptException(String.format("can't open '%s'", fileName.toString()));
+        }
+        try (FileChannel channel = FileChannel.open(path)) {
+            JSONObject.parse(cx, channel, new JSONEventBuilder(cx, callback, depth));
+        } catch (IOException e) {
+            throw Errors.newError(cx, Objects.toString(e.getMessage(), ""));
+        }
+    }
+
     /**
      * Reads a file and evalutes its content.
      * 
@@ -30,6 +30,12 @@ public class ShellGlobalObject extends GlobalObject {
         super(realm);
     }
 
+    @Override
+    public boolean isWeakMapKeysTracked() {
+        // Required for the weakMapSize() and nondeterministicGetWeakMapKeys() shell functions.
+        return true;
+    }
+
     /**
      * Parses, compiles and executes the javascript module file.
      * 
@@ -11,10 +11,12 @@ import static com.github.anba.es6draft.runtime.Realm.InitializeHostDefinedRealm;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
 
 import com.github.anba.es6draft.compiler.CompilationException;
 import com.github.anba.es6draft.parser.ParserException;
 import com.github.anba.es6draft.runtime.internal.CompatibilityOption;
+import com.github.anba.es6draft.runtime.internal.EventLoop;
 import com.github.anba.es6draft.runtime.internal.Messages;
 import com.github.anba.es6draft.runtime.internal.RuntimeContext;
 import com.github.anba.es6draft.runtime.internal.ScriptLoader;
@@ -36,8 +38,7 @@ public final class World {
     private final Messages messages;
 
     private final GlobalSymbolRegistry symbolRegistry = new GlobalSymbolRegistry();
-    private final ArrayDeque<Task> scriptTasks = new ArrayDeque<>();
-    private final ArrayDeque<Task> promiseTasks = new ArrayDeque<>();
+    private final EventLoop eventLoop;
     private final ArrayDeque<Object> unhandledRejections = new ArrayDeque<>();
 
     private static final TaskSource EMPTY_TASK_SOURCE = new TaskSource() {
@@ -63,6 +64,7 @@ public final class World {
         this.scriptLoader = new ScriptLoader(context);
         this.moduleLoader = context.getModuleLoader().apply(context, scriptLoader);
         this.messages = Messages.create(context.getLocale());
+        this.eventLoop = new EventLoop(context.getEventLoopPolicy());
     }
 
     /**
@@ -92,13 +94,22 @@ public final class World {
         return scriptLoader;
     }
 
+    /**
+     * Returns the event loop.
+     * 
+     * @return the event loop
+     */
+    public EventLoop getEventLoop() {
+        return eventLoop;
+    }
+
     /**
      * Checks whether there are any pending tasks.
      * 
      * @return {@code true} if there are any pending tasks
      */
     public boolean hasPendingTasks() {
-        return !(scriptTasks.isEmpty() && promiseTasks.isEmpty());
+        return eventLoop.hasPendingTasks();
     }
 
     /**
@@ -110,7 +121,7 @@ public final class World {
      *            the new script task
      */
     public void enqueueScriptTask(Task task) {
-        scriptTasks.offer(task);
+        eventLoop.enqueueScriptTask(task);
     }
 
     /**
@@ -122,7 +133,7 @@ public final class World {
      *            the new promise task
      */
     public void enqueuePromiseTask(Task task) {
-        promiseTasks.offer(task);
+        eventLoop.enqueuePromiseTask(task);
     }
 
     /**
@@ -156,16 +167,12 @@ public final class World {
      *             if interrupted while waiting
      */
     public void runEventLoop(TaskSource taskSource) throws InterruptedException {
-        ArrayDeque<Task> scriptTasks = this.scriptTasks, promiseTasks = this.promiseTasks;
-        ArrayDeque<Object> unhandledRejections = this.unhandledRejections;
+        EventLoop eventLoop = this.eventLoop;
         for (;;) {
-            while (!(scriptTasks.isEmpty() && promiseTasks.isEmpty())) {
-                executeTasks(scriptTasks);
-                executeTasks(promiseTasks);
-            }
-            if (!unhandledRejections.isEmpty()) {
-                throw new UnhandledRejectionException(unhandledRejections.poll());
+            while (eventLoop.hasPendingTasks()) {
+                eventLoop.runTurn(taskSource);
             }
+            checkUnhandledRejections();
             Task task = taskSource.nextTask();
             if (task == null) {
                 break;
@@ -175,15 +182,61 @@ public final class World {
     }
 
     /**
-     * Executes the queue of pending tasks.
+     * Executes the queue of pending tasks until either no more tasks are present or the time budget is exhausted.
      * 
-     * @param tasks
-     *            the tasks to be executed
+     * @param time
+     *            the time budget
+     * @param unit
+     *            the time unit of the time budget
+     * @return {@code true} if there are still pending tasks
      */
-    private void executeTasks(ArrayDeque<Task> tasks) {
-        // Execute all pending tasks until the queue is empty
-        for (Task task; (task = tasks.poll()) != null;) {
-            task.execute();
+    public boolean runEventLoop(long time, TimeUnit unit) {
+        try {
+            return runEventLoop(time, unit, EMPTY_TASK_SOURCE);
+        } catch (InterruptedException e) {
+            // The empty task source never throws InterruptedException.
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Executes the queue of pending tasks and the immediately available tasks from {@code taskSource} until either no
+     * more tasks are present or the time budget is exhausted. This method never waits for new tasks.
+     * 
+     * @param time
+     *            the time budget
+     * @param unit
+     *            the time unit of the time budget
+     * @param taskSource
+     *            the task source
+     * @return {@code true} if there are still pending tasks
+     * @throws InterruptedException
+     *             if interrupted while executing tasks
+     */
+    public boolean runEventLoop(long time, TimeUnit unit, TaskSource taskSource) throws InterruptedException {
+        EventLoop eventLoop = this.eventLoop;
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        for (;;) {
+            if (!eventLoop.hasPendingTasks()) {
+                Task task = taskSource.pollTask();
+                if (task == null) {
+                    break;
+                }
+                enqueueScriptTask(task);
+            }
+            eventLoop.runTurn(taskSource);
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        checkUnhandledRejections();
+        return eventLoop.hasPendingTasks();
+    }
+
+    private void checkUnhandledRejections() {
+        ArrayDeque<Object> unhandledRejections = this.unhandledRejections;
+        if (!unhandledRejections.isEmpty()) {
+            throw new UnhandledRejectionException(unhandledRejections.poll());
         }
     }
 
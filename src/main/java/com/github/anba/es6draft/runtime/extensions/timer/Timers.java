@@ -9,11 +9,14 @@ package com.github.anba.es6draft.runtime.extensions.timer;
 import static com.github.anba.es6draft.runtime.AbstractOperations.IsCallable;
 import static com.github.anba.es6draft.runtime.AbstractOperations.ToFlatString;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.github.anba.es6draft.Script;
 import com.github.anba.es6draft.compiler.CompilationException;
@@ -37,12 +40,99 @@ public final class Timers implements TaskSource {
     private static final int TIMER_CLAMP_TIMEOUT = 0;
     private static final int TIMER_CLAMP_INTERVAL = 4;
     private static final int MAX_TIMEOUT = Integer.MAX_VALUE;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Comparator<TimerTask> EXPIRATION_ORDER = (x, y) -> {
+        long delta = x.time - y.time;
+        return delta < 0 ? -1 : delta > 0 ? 1 : Integer.compare(x.timerId, y.timerId);
+    };
     private final AtomicInteger timerIds = new AtomicInteger();
-    private final DelayQueue<TimerTask> queue = new DelayQueue<>();
-    private final ConcurrentHashMap<Integer, TimerTask> activeTimers = new ConcurrentHashMap<>(16, 0.75f, 2);
+    private final long startTime = System.nanoTime();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final TimingWheel<TimerTask> wheel = new TimingWheel<>(0);
+    private final ArrayDeque<TimerTask> expired = new ArrayDeque<>();
+    private final ArrayList<TimerTask> batch = new ArrayList<>();
+    private final HashMap<Integer, TimerTask> activeTimers = new HashMap<>();
+    private final Metrics metrics = new Metrics();
     private int nestingLevel = 0;
 
-    private abstract class TimerTask implements Task, Delayed {
+    /**
+     * Timer metrics.
+     */
+    public static final class Metrics {
+        private long scheduled;
+        private long cancelled;
+        private long fired;
+        private long totalLatenessNanos;
+        private long maxLatenessNanos;
+        private int activeTimers;
+
+        Metrics() {
+        }
+
+        /**
+         * Returns the number of scheduled timers, repeated intervals are counted once per repetition.
+         * 
+         * @return the number of scheduled timers
+         */
+        public long getScheduled() {
+            return scheduled;
+        }
+
+        /**
+         * Returns the number of cancelled timers.
+         * 
+         * @return the number of cancelled timers
+         */
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Returns the number of expired timers.
+         * 
+         * @return the number of expired timers
+         */
+        public long getFired() {
+            return fired;
+        }
+
+        /**
+         * Returns the total lateness in nanoseconds of all expired timers.
+         * 
+         * @return the total lateness
+         */
+        public long getTotalLatenessNanos() {
+            return totalLatenessNanos;
+        }
+
+        /**
+         * Returns the maximum lateness in nanoseconds of a single expired timer.
+         * 
+         * @return the maximum lateness
+         */
+        public long getMaxLatenessNanos() {
+            return maxLatenessNanos;
+        }
+
+        /**
+         * Returns the number of active timers.
+         * 
+         * @return the number of active timers
+         */
+        public int getActiveTimers() {
+            return activeTimers;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Metrics{scheduled=%d, cancelled=%d, fired=%d, totalLatenessNanos=%d, maxLatenessNanos=%d, activeTimers=%d}",
+                    scheduled, cancelled, fired, totalLatenessNanos, maxLatenessNanos, activeTimers);
+        }
+    }
+
+    private abstract class TimerTask extends TimingWheel.Entry implements Task {
         private final int timerId;
         private final long delay;
         private final boolean interval;
@@ -68,32 +158,6 @@ public final class Timers implements TaskSource {
             return interval;
         }
 
-        void cancel() {
-            if (!cancelled) {
-                cancelled = true;
-                queue.remove(this);
-            }
-        }
-
-        @Override
-        public int compareTo(Delayed o) {
-            if (o == this) {
-                return 0;
-            }
-            if (o instanceof TimerTask) {
-                TimerTask x = (TimerTask) o;
-                long delta = time - x.time;
-                return delta < 0 ? -1 : delta > 0 ? 1 : timerId < x.timerId ? -1 : 1;
-            }
-            long delta = getDelay(TimeUnit.NANOSECONDS) - o.getDelay(TimeUnit.NANOSECONDS);
-            return delta == 0 ? 0 : delta < 0 ? -1 : 1;
-        }
-
-        @Override
-        public long getDelay(TimeUnit unit) {
-            return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
-        }
-
         @Override
         public final void execute() {
             if (!cancelled) {
@@ -103,9 +167,8 @@ public final class Timers implements TaskSource {
                     executeInner();
                 } finally {
                     nestingLevel--;
-                    if (!cancelled && interval) {
-                        time = nextStart;
-                        queue.offer(this);
+                    if (interval) {
+                        reschedule(this, nextStart);
                     }
                 }
             }
@@ -162,33 +225,163 @@ public final class Timers implements TaskSource {
         } else {
             task = new ScriptedTimerTask(delay, interval, cx, ToFlatString(cx, f));
         }
-        activeTimers.put(task.getTimerId(), task);
-        queue.offer(task);
+        lock.lock();
+        try {
+            activeTimers.put(task.getTimerId(), task);
+            metrics.activeTimers = activeTimers.size();
+            schedule(task);
+        } finally {
+            lock.unlock();
+        }
         return task;
     }
 
+    private void reschedule(TimerTask task, long time) {
+        lock.lock();
+        try {
+            if (!task.cancelled) {
+                task.time = time;
+                schedule(task);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule(TimerTask task) {
+        assert lock.isHeldByCurrentThread();
+        // Round up to the next tick to ensure timers never expire early.
+        long deadline = -Math.floorDiv(startTime - task.time, TICK_NANOS);
+        wheel.add(task, deadline);
+        metrics.scheduled += 1;
+        available.signal();
+    }
+
     private void cancelTimer(int timerId) {
-        TimerTask task = activeTimers.remove(timerId);
+        lock.lock();
+        try {
+            TimerTask task = activeTimers.remove(timerId);
+            if (task != null) {
+                metrics.activeTimers = activeTimers.size();
+                metrics.cancelled += 1;
+                task.cancelled = true;
+                wheel.remove(task);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long currentTick(long now) {
+        return Math.floorDiv(now - startTime, TICK_NANOS);
+    }
+
+    private TimerTask pollExpired(long now) {
+        assert lock.isHeldByCurrentThread();
+        if (expired.isEmpty() && !wheel.isEmpty()) {
+            ArrayList<TimerTask> batch = this.batch;
+            wheel.advance(currentTick(now), batch::add);
+            // Timers expiring on the same tick are executed in the order of their exact expiration time.
+            batch.sort(EXPIRATION_ORDER);
+            expired.addAll(batch);
+            batch.clear();
+        }
+        TimerTask task = expired.poll();
         if (task != null) {
-            task.cancel();
+            if (!task.isInterval()) {
+                activeTimers.remove(task.getTimerId());
+                metrics.activeTimers = activeTimers.size();
+            }
+            long lateness = Math.max(now - task.time, 0);
+            metrics.fired += 1;
+            metrics.totalLatenessNanos += lateness;
+            metrics.maxLatenessNanos = Math.max(metrics.maxLatenessNanos, lateness);
+        }
+        return task;
+    }
+
+    /**
+     * Returns a snapshot of the timer metrics.
+     * 
+     * @return the timer metrics
+     */
+    public Metrics getMetrics() {
+        lock.lock();
+        try {
+            Metrics snapshot = new Metrics();
+            snapshot.scheduled = metrics.scheduled;
+            snapshot.cancelled = metrics.cancelled;
+            snapshot.fired = metrics.fired;
+            snapshot.totalLatenessNanos = metrics.totalLatenessNanos;
+            snapshot.maxLatenessNanos = metrics.maxLatenessNanos;
+            snapshot.activeTimers = metrics.activeTimers;
+            return snapshot;
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public Task nextTask() throws InterruptedException {
-        if (queue.isEmpty()) {
-            return null;
+        lock.lock();
+        try {
+            if (wheel.isEmpty() && expired.isEmpty()) {
+                return null;
+            }
+            return awaitTask();
+        } finally {
+            lock.unlock();
         }
-        return awaitTask();
     }
 
     @Override
     public Task awaitTask() throws InterruptedException {
-        TimerTask task = queue.take();
-        if (!task.isInterval()) {
-            activeTimers.remove(task.getTimerId());
+        lock.lockInterruptibly();
+        try {
+            for (;;) {
+                long now = System.nanoTime();
+                TimerTask task = pollExpired(now);
+                if (task != null) {
+                    return task;
+                }
+                long nextTick = wheel.nextTick();
+                if (nextTick == Long.MAX_VALUE) {
+                    available.await();
+                } else {
+                    available.awaitNanos(startTime + nextTick * TICK_NANOS - now);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Task pollTask() {
+        lock.lock();
+        try {
+            return pollExpired(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long nextTaskDelay(TimeUnit unit) {
+        lock.lock();
+        try {
+            if (!expired.isEmpty()) {
+                return 0;
+            }
+            long nextTick = wheel.nextTick();
+            if (nextTick == Long.MAX_VALUE) {
+                return -1;
+            }
+            long delay = startTime + nextTick * TICK_NANOS - System.nanoTime();
+            return unit.convert(Math.max(delay, 0), TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
         }
-        return task;
     }
 
     @Function(name = "setTimeout", arity = 2)
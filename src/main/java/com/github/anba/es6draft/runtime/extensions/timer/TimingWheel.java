@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.extensions.timer;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed hierarchical timing wheel with constant time insertion and removal.
+ * <p>
+ * Each level has 64 slots, the first level covers one tick per slot, every following level covers the complete range
+ * of its predecessor per slot. Entries are moved to lower levels when the wheel reaches their slot ("cascading"). A
+ * per-level occupancy bitmap is used to skip over empty slots.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <E>
+ *            the entry type
+ */
+public final class TimingWheel<E extends TimingWheel.Entry> {
+    private static final int LEVEL_BITS = 6;
+    private static final int SLOTS = 1 << LEVEL_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    private long currentTick;
+    private int size;
+
+    /**
+     * Intrusive timing wheel entry.
+     */
+    public static class Entry {
+        private Entry prev, next;
+        private long deadline;
+        private int level = -1;
+
+        /**
+         * Returns the deadline tick of this entry.
+         *
+         * @return the deadline tick
+         */
+        public final long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Returns {@code true} if this entry is currently stored in a timing wheel.
+         *
+         * @return {@code true} if this entry is scheduled
+         */
+        public final boolean isScheduled() {
+            return level >= 0;
+        }
+    }
+
+    /**
+     * Constructs a new timing wheel.
+     *
+     * @param startTick
+     *            the initial tick
+     */
+    public TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this timing wheel is empty.
+     *
+     * @return {@code true} if this timing wheel is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the next tick which has not yet been processed.
+     *
+     * @return the current tick
+     */
+    public long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Adds a new entry. Deadlines before the current tick are moved to the current tick.
+     *
+     * @param entry
+     *            the new entry
+     * @param deadline
+     *            the deadline tick
+     */
+    public void add(E entry, long deadline) {
+        if (entry.isScheduled()) {
+            throw new IllegalArgumentException();
+        }
+        Entry e = entry;
+        e.deadline = Math.max(deadline, currentTick);
+        insert(e);
+        size += 1;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param entry
+     *            the entry
+     * @return {@code true} if the entry was removed
+     */
+    public boolean remove(E entry) {
+        if (!entry.isScheduled()) {
+            return false;
+        }
+        unlink(entry);
+        size -= 1;
+        return true;
+    }
+
+    /**
+     * Returns the next tick at which entries need to be processed, or {@link Long#MAX_VALUE} if empty.
+     *
+     * @return the next tick
+     */
+    public long nextTick() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        long t = currentTick, min = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; ++level) {
+            long bitmap = occupied[level];
+            if (bitmap == 0) {
+                continue;
+            }
+            int shift = level * LEVEL_BITS;
+            // First slot unit at this level which is not before the current tick.
+            long unit = (t + (1L << shift) - 1) >>> shift;
+            int index = (int) (unit & SLOT_MASK);
+            long bits = bitmap & (-1L << index);
+            long next;
+            if (bits != 0) {
+                next = unit - index + Long.numberOfTrailingZeros(bits);
+            } else {
+                next = unit - index + SLOTS + Long.numberOfTrailingZeros(bitmap);
+            }
+            min = Math.min(min, next << shift);
+        }
+        return min;
+    }
+
+    /**
+     * Processes all ticks up to and including {@code tick}. Expired entries are removed and passed to
+     * {@code expired}, entries expiring on the same tick are reported as a consecutive batch.
+     *
+     * @param tick
+     *            the last tick to process
+     * @param expired
+     *            the callback for expired entries
+     */
+    public void advance(long tick, Consumer<? super E> expired) {
+        while (size > 0) {
+            long next = nextTick();
+            if (next > tick) {
+                break;
+            }
+            currentTick = next;
+            processTick(next, expired);
+            currentTick = next + 1;
+        }
+        if (currentTick <= tick) {
+            currentTick = tick + 1;
+        }
+    }
+
+    private void processTick(long tick, Consumer<? super E> expired) {
+        // Cascade from the highest level whose lower slots all wrapped around.
+        int level = tick == 0 ? LEVELS - 1 : Math.min(Long.numberOfTrailingZeros(tick) / LEVEL_BITS, LEVELS - 1);
+        for (; level > 0; --level) {
+            int index = (int) (tick >>> (level * LEVEL_BITS)) & SLOT_MASK;
+            Entry list = detach(level, index);
+            for (Entry e = list; e != null;) {
+                Entry next = e.next;
+                e.prev = e.next = null;
+                insert(e);
+                e = next;
+            }
+        }
+        Entry list = detach(0, (int) tick & SLOT_MASK);
+        for (Entry e = list; e != null;) {
+            Entry next = e.next;
+            e.prev = e.next = null;
+            e.level = -1;
+            size -= 1;
+            @SuppressWarnings("unchecked")
+            E entry = (E) e;
+            expired.accept(entry);
+            e = next;
+        }
+    }
+
+    private void insert(Entry entry) {
+        long delta = entry.deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << ((level + 1) * LEVEL_BITS))) {
+            level += 1;
+        }
+        int index = (int) (entry.deadline >>> (level * LEVEL_BITS)) & SLOT_MASK;
+        Entry head = slots[level][index];
+        entry.level = level;
+        if (head == null) {
+            entry.prev = entry;
+            entry.next = null;
+            slots[level][index] = entry;
+            occupied[level] |= 1L << index;
+        } else {
+            // Append at the tail to preserve insertion order, the head's prev pointer refers to the tail.
+            Entry tail = head.prev;
+            tail.next = entry;
+            entry.prev = tail;
+            entry.next = null;
+            head.prev = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        int level = entry.level;
+        int index = (int) (entry.deadline >>> (level * LEVEL_BITS)) & SLOT_MASK;
+        Entry head = slots[level][index];
+        if (entry == head) {
+            Entry next = entry.next;
+            if (next == null) {
+                slots[level][index] = null;
+                occupied[level] &= ~(1L << index);
+            } else {
+                next.prev = entry.prev;
+                slots[level][index] = next;
+            }
+        } else {
+            entry.prev.next = entry.next;
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            } else {
+                head.prev = entry.prev;
+            }
+        }
+        entry.prev = entry.next = null;
+        entry.level = -1;
+    }
+
+    private Entry detach(int level, int index) {
+        Entry head = slots[level][index];
+        if (head != null) {
+            slots[level][index] = null;
+            occupied[level] &= ~(1L << index);
+            head.prev = null;
+        }
+        return head;
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ * 
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.extensions.worker;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.Serialized;
+
+/**
+ * One end of a message channel.
+ * <p>
+ * Each direction of a channel is backed by a bounded queue, senders wait when the queue is full. Closing either port
+ * closes the complete channel, pending messages can still be received after the channel was closed.
+ * 
+ * @see <a href="https://html.spec.whatwg.org/multipage/comms.html#message-ports">HTML - Message ports</a>
+ */
+public final class MessagePort {
+    private final MessageQueue incoming;
+    private final MessageQueue outgoing;
+
+    private MessagePort(MessageQueue incoming, MessageQueue outgoing) {
+        this.incoming = incoming;
+        this.outgoing = outgoing;
+    }
+
+    /**
+     * Creates a new message channel and returns both ports of the channel.
+     * 
+     * @param capacity
+     *            the maximum number of pending messages per direction
+     * @return the two entangled message ports
+     */
+    public static MessagePort[] newChannel(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        MessageQueue q1 = new MessageQueue(capacity), q2 = new MessageQueue(capacity);
+        return new MessagePort[] { new MessagePort(q1, q2), new MessagePort(q2, q1) };
+    }
+
+    /**
+     * Sends a message, waiting if necessary until the receiver has space for the message.
+     * 
+     * @param message
+     *            the serialized message
+     * @return {@code true} if the message was sent, {@code false} if the channel is closed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean postMessage(Serialized message) throws InterruptedException {
+        return outgoing.offer(message, -1, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sends a message, waiting up to the specified time until the receiver has space for the message.
+     * 
+     * @param message
+     *            the serialized message
+     * @param timeout
+     *            the timeout
+     * @param unit
+     *            the time unit of the timeout parameter
+     * @return {@code true} if the message was sent, {@code false} if the channel is closed or the timeout elapsed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean offerMessage(Serialized message, long timeout, TimeUnit unit) throws InterruptedException {
+        return outgoing.offer(message, Math.max(timeout, 0), unit);
+    }
+
+    /**
+     * Receives the next message, waiting if necessary until a message is available.
+     * 
+     * @return the next message or {@code null} if the channel is closed and no more messages are pending
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public Serialized receiveMessage() throws InterruptedException {
+        return incoming.take();
+    }
+
+    /**
+     * Receives the next message if it is immediately available.
+     * 
+     * @return the next message or {@code null} if no message is available
+     */
+    public Serialized pollMessage() {
+        return incoming.poll();
+    }
+
+    /**
+     * Returns the number of pending incoming messages.
+     * 
+     * @return the number of pending messages
+     */
+    public int pendingMessages() {
+        return incoming.size();
+    }
+
+    /**
+     * Closes the message channel.
+     */
+    public void close() {
+        incoming.close();
+        outgoing.close();
+    }
+
+    /**
+     * Returns {@code true} if the message channel is closed.
+     * 
+     * @return {@code true} if closed
+     */
+    public boolean isClosed() {
+        return incoming.isClosed();
+    }
+
+    private static final class MessageQueue {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private final ArrayDeque<Serialized> queue = new ArrayDeque<>();
+        private final int capacity;
+        private boolean closed;
+
+        MessageQueue(int capacity) {
+            this.capacity = capacity;
+        }
+
+        boolean offer(Serialized message, long timeout, TimeUnit unit) throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                while (!closed && queue.size() >= capacity) {
+                    if (timeout < 0) {
+                        notFull.await();
+                    } else if (nanos <= 0) {
+                        return false;
+                    } else {
+                        nanos = notFull.awaitNanos(nanos);
+                    }
+                }
+                if (closed) {
+                    return false;
+                }
+                queue.add(message);
+                notEmpty.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Serialized take() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (!closed && queue.isEmpty()) {
+                    notEmpty.await();
+                }
+                return dequeue();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Serialized poll() {
+            lock.lock();
+            try {
+                return dequeue();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Serialized dequeue() {
+            Serialized message = queue.poll();
+            if (message != null) {
+                notFull.signal();
+            }
+            return message;
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isClosed() {
+            lock.lock();
+            try {
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,581 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ * 
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.extensions.worker;
+
+import static com.github.anba.es6draft.runtime.AbstractOperations.CreateDataPropertyOrThrow;
+import static com.github.anba.es6draft.runtime.AbstractOperations.CreateListFromArrayLike;
+import static com.github.anba.es6draft.runtime.AbstractOperations.EnumerableOwnNames;
+import static com.github.anba.es6draft.runtime.AbstractOperations.Get;
+import static com.github.anba.es6draft.runtime.AbstractOperations.IsCallable;
+import static com.github.anba.es6draft.runtime.internal.Errors.newTypeError;
+import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.CopyDataBlockBytes;
+import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.DetachArrayBuffer;
+import static com.github.anba.es6draft.runtime.objects.text.RegExpConstructor.RegExpCreate;
+import static com.github.anba.es6draft.runtime.types.builtins.ArrayObject.ArrayCreate;
+import static com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject.ObjectCreate;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.internal.LinkedMap;
+import com.github.anba.es6draft.runtime.internal.Messages;
+import com.github.anba.es6draft.runtime.objects.BooleanObject;
+import com.github.anba.es6draft.runtime.objects.atomics.SharedArrayBufferObject;
+import com.github.anba.es6draft.runtime.objects.binary.ArrayBuffer;
+import com.github.anba.es6draft.runtime.objects.binary.ArrayBufferObject;
+import com.github.anba.es6draft.runtime.objects.binary.DataViewObject;
+import com.github.anba.es6draft.runtime.objects.binary.ElementType;
+import com.github.anba.es6draft.runtime.objects.binary.TypedArrayObject;
+import com.github.anba.es6draft.runtime.objects.collection.MapObject;
+import com.github.anba.es6draft.runtime.objects.collection.SetObject;
+import com.github.anba.es6draft.runtime.objects.date.DateObject;
+import com.github.anba.es6draft.runtime.objects.number.NumberObject;
+import com.github.anba.es6draft.runtime.objects.text.RegExpObject;
+import com.github.anba.es6draft.runtime.types.Intrinsics;
+import com.github.anba.es6draft.runtime.types.Null;
+import com.github.anba.es6draft.runtime.types.ScriptObject;
+import com.github.anba.es6draft.runtime.types.Type;
+import com.github.anba.es6draft.runtime.types.Undefined;
+import com.github.anba.es6draft.runtime.types.builtins.ArrayObject;
+import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
+import com.github.anba.es6draft.runtime.types.builtins.StringObject;
+
+/**
+ * Structured clone of script values.
+ * <p>
+ * Values are first serialized into a realm-independent representation which can be passed to a different thread and
+ * then deserialized in the target realm. {@code SharedArrayBuffer} data blocks are shared between the original and the
+ * cloned object, {@code ArrayBuffer} data blocks are either copied or transferred.
+ * 
+ * @see <a href="https://html.spec.whatwg.org/multipage/infrastructure.html#safe-passing-of-structured-data">HTML -
+ *      Safe passing of structured data</a>
+ */
+public final class StructuredClone {
+    private StructuredClone() {
+    }
+
+    /**
+     * Serialized script value. A serialized value can only be deserialized once.
+     */
+    public static final class Serialized {
+        private final Object value;
+        private final AtomicBoolean consumed = new AtomicBoolean();
+        // Transferred buffers in the sender realm, cleared when detached.
+        private ArrayBufferObject[] transfer;
+
+        Serialized(Object value, ArrayBufferObject[] transfer) {
+            this.value = value;
+            this.transfer = transfer;
+        }
+
+        Object consume() {
+            if (!consumed.compareAndSet(false, true)) {
+                throw new IllegalStateException("serialized value already consumed");
+            }
+            return value;
+        }
+    }
+
+    static final class ObjectRecord {
+        String[] keys;
+        Object[] values;
+    }
+
+    static final class ArrayRecord {
+        final long length;
+        String[] keys;
+        Object[] values;
+
+        ArrayRecord(long length) {
+            this.length = length;
+        }
+    }
+
+    static final class MapRecord {
+        Object[] keys;
+        Object[] values;
+    }
+
+    static final class SetRecord {
+        Object[] values;
+    }
+
+    static final class PrimitiveRecord {
+        final Intrinsics type;
+        final Object value;
+
+        PrimitiveRecord(Intrinsics type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    static final class RegExpRecord {
+        final String source;
+        final String flags;
+
+        RegExpRecord(String source, String flags) {
+            this.source = source;
+            this.flags = flags;
+        }
+    }
+
+    static final class ArrayBufferRecord {
+        final ByteBuffer data;
+        final long byteLength;
+        final boolean shared;
+
+        ArrayBufferRecord(ByteBuffer data, long byteLength, boolean shared) {
+            this.data = data;
+            this.byteLength = byteLength;
+            this.shared = shared;
+        }
+    }
+
+    static final class ViewRecord {
+        final ElementType elementType; // null for DataView objects
+        final ArrayBufferRecord buffer;
+        final long byteLength;
+        final long byteOffset;
+        final long length;
+
+        ViewRecord(ElementType elementType, ArrayBufferRecord buffer, long byteLength, long byteOffset, long length) {
+            this.elementType = elementType;
+            this.buffer = buffer;
+            this.byteLength = byteLength;
+            this.byteOffset = byteOffset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Serializes {@code value} for a later call to {@link #deserialize(ExecutionContext, Serialized)}.
+     * 
+     * @param cx
+     *            the execution context
+     * @param value
+     *            the script value
+     * @return the serialized value
+     */
+    public static Serialized serialize(ExecutionContext cx, Object value) {
+        return serialize(cx, value, Undefined.UNDEFINED);
+    }
+
+    /**
+     * Serializes {@code value} for a later call to {@link #deserialize(ExecutionContext, Serialized)}. The array
+     * buffers from {@code transferList} are transferred to the serialized value, but they are only detached when
+     * {@link #detachTransferred(ExecutionContext, Serialized)} is called after the serialized value was successfully
+     * passed to its receiver.
+     * 
+     * @param cx
+     *            the execution context
+     * @param value
+     *            the script value
+     * @param transferList
+     *            the transfer list, either an array-like object or {@code undefined}
+     * @return the serialized value
+     */
+    public static Serialized serialize(ExecutionContext cx, Object value, Object transferList) {
+        Serializer serializer = new Serializer(cx);
+        List<ArrayBufferObject> transfer = new ArrayList<>();
+        if (!Type.isUndefined(transferList)) {
+            for (Object item : CreateListFromArrayLike(cx, transferList)) {
+                if (!(item instanceof ArrayBufferObject)) {
+                    throw newTypeError(cx, Messages.Key.StructuredCloneInvalidTransfer);
+                }
+                ArrayBufferObject buffer = (ArrayBufferObject) item;
+                if (buffer.isDetached() || serializer.memory.containsKey(buffer)) {
+                    throw newTypeError(cx, Messages.Key.StructuredCloneInvalidTransfer);
+                }
+                serializer.memory.put(buffer,
+                        new ArrayBufferRecord(buffer.getData(), buffer.getByteLength(), false));
+                transfer.add(buffer);
+            }
+        }
+        Object result = serializer.serialize(value);
+        return new Serialized(result, transfer.toArray(new ArrayBufferObject[transfer.size()]));
+    }
+
+    /**
+     * Detaches the array buffers which were transferred to {@code serialized}. If the serialized value is discarded
+     * instead, for example because the receiving port is already closed, the array buffers remain usable.
+     * 
+     * @param cx
+     *            the execution context
+     * @param serialized
+     *            the serialized value
+     */
+    public static void detachTransferred(ExecutionContext cx, Serialized serialized) {
+        ArrayBufferObject[] transfer = serialized.transfer;
+        serialized.transfer = null;
+        if (transfer != null) {
+            for (ArrayBufferObject buffer : transfer) {
+                DetachArrayBuffer(cx, buffer);
+            }
+        }
+    }
+
+    /**
+     * Deserializes {@code serialized} into the realm of {@code cx}.
+     * 
+     * @param cx
+     *            the execution context
+     * @param serialized
+     *            the serialized value
+     * @return the deserialized script value
+     */
+    public static Object deserialize(ExecutionContext cx, Serialized serialized) {
+        return new Deserializer(cx).deserialize(serialized.consume());
+    }
+
+    /**
+     * Serializes {@code value} into the binary structured clone format. The binary format doesn't support shared
+     * memory, so {@code SharedArrayBuffer} objects cannot be serialized.
+     * 
+     * @param cx
+     *            the execution context
+     * @param value
+     *            the script value
+     * @return the byte buffer with the serialized value, ready for reading
+     */
+    public static ByteBuffer serializeToBuffer(ExecutionContext cx, Object value) {
+        return StructuredCloneCodec.encode(cx, serialize(cx, value).consume());
+    }
+
+    /**
+     * Serializes {@code value} into the binary structured clone format, starting at the current position of
+     * {@code buffer}. On success the buffer position is advanced past the serialized value, so consecutive values can
+     * be written to the same buffer. If the remaining space is too small, the buffer position is left unchanged.
+     * 
+     * @param cx
+     *            the execution context
+     * @param value
+     *            the script value
+     * @param buffer
+     *            the output buffer
+     * @throws BufferOverflowException
+     *             if the remaining space in {@code buffer} is too small for the serialized value
+     * @see #deserializeFromBuffer(ExecutionContext, ByteBuffer)
+     */
+    public static void serializeToBuffer(ExecutionContext cx, Object value, ByteBuffer buffer)
+            throws BufferOverflowException {
+        StructuredCloneCodec.encode(cx, serialize(cx, value).consume(), buffer);
+    }
+
+    /**
+     * Serializes {@code value} into the binary structured clone format and writes it to {@code channel}. The
+     * caller-supplied {@code buffer} is used as the write buffer and flushed to the channel whenever it is full, so
+     * values larger than the buffer can be serialized. Bytes before the current position of {@code buffer} are
+     * written first, on return the buffer is cleared.
+     * 
+     * @param cx
+     *            the execution context
+     * @param value
+     *            the script value
+     * @param channel
+     *            the blocking output channel
+     * @param buffer
+     *            the write buffer, its capacity must be at least 16 bytes
+     * @throws IOException
+     *             if an I/O error occurs
+     * @see #deserializeFromChannel(ExecutionContext, ReadableByteChannel, ByteBuffer)
+     */
+    public static void serializeToChannel(ExecutionContext cx, Object value, WritableByteChannel channel,
+            ByteBuffer buffer) throws IOException {
+        StructuredCloneCodec.encode(cx, serialize(cx, value).consume(), channel, buffer);
+    }
+
+    /**
+     * Deserializes a value in the binary structured clone format from {@code channel} into the realm of {@code cx}.
+     * The remaining bytes of the caller-supplied {@code buffer} are read first, further bytes are read into the buffer
+     * as needed. On return the remaining bytes of the buffer are the bytes read past the serialized value, so the same
+     * buffer can be used to read consecutive values.
+     * 
+     * @param cx
+     *            the execution context
+     * @param channel
+     *            the blocking input channel
+     * @param buffer
+     *            the read buffer, its capacity must be at least 16 bytes
+     * @return the deserialized script value
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static Object deserializeFromChannel(ExecutionContext cx, ReadableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        return new Deserializer(cx).deserialize(StructuredCloneCodec.decode(cx, channel, buffer));
+    }
+
+    /**
+     * Deserializes a value in the binary structured clone format into the realm of {@code cx}. The value is read from
+     * the current position of {@code buffer} and the position is advanced past the serialized value, so consecutive
+     * values can be read from the same buffer.
+     * 
+     * @param cx
+     *            the execution context
+     * @param buffer
+     *            the byte buffer with the serialized value
+     * @return the deserialized script value
+     */
+    public static Object deserializeFromBuffer(ExecutionContext cx, ByteBuffer buffer) {
+        return new Deserializer(cx).deserialize(StructuredCloneCodec.decode(cx, buffer));
+    }
+
+    private static final class Serializer {
+        private final ExecutionContext cx;
+        private final IdentityHashMap<ScriptObject, Object> memory = new IdentityHashMap<>();
+
+        Serializer(ExecutionContext cx) {
+            this.cx = cx;
+        }
+
+        Object serialize(Object value) {
+            switch (Type.of(value)) {
+            case Undefined:
+            case Null:
+            case Boolean:
+            case Number:
+                return value;
+            case String:
+                return Type.stringValue(value).toString();
+            case Object:
+                break;
+            case Symbol:
+            case SIMD:
+            default:
+                throw newTypeError(cx, Messages.Key.StructuredCloneUnsupportedType, Type.of(value).toString());
+            }
+            ScriptObject object = Type.objectValue(value);
+            Object record = memory.get(object);
+            if (record != null) {
+                return record;
+            }
+            if (object instanceof BooleanObject) {
+                record = new PrimitiveRecord(Intrinsics.BooleanPrototype, ((BooleanObject) object).getBooleanData());
+            } else if (object instanceof NumberObject) {
+                record = new PrimitiveRecord(Intrinsics.NumberPrototype, ((NumberObject) object).getNumberData());
+            } else if (object instanceof StringObject) {
+                record = new PrimitiveRecord(Intrinsics.StringPrototype,
+                        ((StringObject) object).getStringData().toString());
+            } else if (object instanceof DateObject) {
+                record = new PrimitiveRecord(Intrinsics.DatePrototype, ((DateObject) object).getDateValue());
+            } else if (object instanceof RegExpObject) {
+                RegExpObject regExp = (RegExpObject) object;
+                record = new RegExpRecord(regExp.getOriginalSource(), regExp.getOriginalFlags());
+            } else if (object instanceof SharedArrayBufferObject) {
+                SharedArrayBufferObject buffer = (SharedArrayBufferObject) object;
+                record = new ArrayBufferRecord(buffer.getData(), buffer.getByteLength(), true);
+            } else if (object instanceof ArrayBufferObject) {
+                record = copyArrayBuffer((ArrayBufferObject) object);
+            } else if (object instanceof TypedArrayObject) {
+                TypedArrayObject typedArray = (TypedArrayObject) object;
+                record = new ViewRecord(typedArray.getElementType(), buffer(typedArray.getBuffer()),
+                        typedArray.getByteLength(), typedArray.getByteOffset(), typedArray.getArrayLength());
+            } else if (object instanceof DataViewObject) {
+                DataViewObject dataView = (DataViewObject) object;
+                record = new ViewRecord(null, buffer(dataView.getBuffer()), dataView.getByteLength(),
+                        dataView.getByteOffset(), 0);
+            } else if (object instanceof MapObject) {
+                MapRecord mapRecord = new MapRecord();
+                memory.put(object, mapRecord);
+                LinkedMap<Object, Object> mapData = ((MapObject) object).getMapData();
+                ArrayList<Object> keys = new ArrayList<>(mapData.size());
+                ArrayList<Object> values = new ArrayList<>(mapData.size());
+                for (Map.Entry<Object, Object> entry : mapData) {
+                    keys.add(entry.getKey());
+                    values.add(entry.getValue());
+                }
+                mapRecord.keys = serializeAll(keys);
+                mapRecord.values = serializeAll(values);
+                return mapRecord;
+            } else if (object instanceof SetObject) {
+                SetRecord setRecord = new SetRecord();
+                memory.put(object, setRecord);
+                LinkedMap<Object, Void> setData = ((SetObject) object).getSetData();
+                ArrayList<Object> values = new ArrayList<>(setData.size());
+                for (Map.Entry<Object, Void> entry : setData) {
+                    values.add(entry.getKey());
+                }
+                setRecord.values = serializeAll(values);
+                return setRecord;
+            } else if (object instanceof ArrayObject) {
+                ArrayObject array = (ArrayObject) object;
+                ArrayRecord arrayRecord = new ArrayRecord(array.getLength());
+                memory.put(object, arrayRecord);
+                List<String> keys = EnumerableOwnNames(cx, array);
+                arrayRecord.keys = keys.toArray(new String[keys.size()]);
+                arrayRecord.values = serializeProperties(array, keys);
+                return arrayRecord;
+            } else if (object.getClass() == OrdinaryObject.class) {
+                ObjectRecord objectRecord = new ObjectRecord();
+                memory.put(object, objectRecord);
+                List<String> keys = EnumerableOwnNames(cx, object);
+                objectRecord.keys = keys.toArray(new String[keys.size()]);
+                objectRecord.values = serializeProperties(object, keys);
+                return objectRecord;
+            } else {
+                String name = IsCallable(object) ? "function" : object.className();
+                throw newTypeError(cx, Messages.Key.StructuredCloneUnsupportedType, name);
+            }
+            memory.put(object, record);
+            return record;
+        }
+
+        private Object[] serializeAll(List<Object> values) {
+            Object[] records = new Object[values.size()];
+            for (int i = 0; i < records.length; ++i) {
+                records[i] = serialize(values.get(i));
+            }
+            return records;
+        }
+
+        private Object[] serializeProperties(ScriptObject object, List<String> keys) {
+            Object[] records = new Object[keys.size()];
+            for (int i = 0; i < records.length; ++i) {
+                records[i] = serialize(Get(cx, object, keys.get(i)));
+            }
+            return records;
+        }
+
+        private ArrayBufferRecord buffer(ScriptObject buffer) {
+            Object record = serialize(buffer);
+            assert record instanceof ArrayBufferRecord;
+            return (ArrayBufferRecord) record;
+        }
+
+        private ArrayBufferRecord copyArrayBuffer(ArrayBufferObject buffer) {
+            if (buffer.isDetached()) {
+                throw newTypeError(cx, Messages.Key.StructuredCloneDetachedBuffer);
+            }
+            long byteLength = buffer.getByteLength();
+            ByteBuffer data = ByteBuffer.allocate((int) byteLength).order(ByteOrder.nativeOrder());
+            CopyDataBlockBytes(data, 0, buffer.getData(), 0, byteLength);
+            return new ArrayBufferRecord(data, byteLength, false);
+        }
+    }
+
+    private static final class Deserializer {
+        private final ExecutionContext cx;
+        private final IdentityHashMap<Object, Object> memory = new IdentityHashMap<>();
+
+        Deserializer(ExecutionContext cx) {
+            this.cx = cx;
+        }
+
+        Object deserialize(Object record) {
+            if (record == Undefined.UNDEFINED || record == Null.NULL || record instanceof Boolean
+                    || record instanceof Number || record instanceof String) {
+                return record;
+            }
+            Object object = memory.get(record);
+            if (object != null) {
+                return object;
+            }
+            if (record instanceof ObjectRecord) {
+                ObjectRecord objectRecord = (ObjectRecord) record;
+                OrdinaryObject obj = ObjectCreate(cx, Intrinsics.ObjectPrototype);
+                memory.put(record, obj);
+                defineProperties(obj, objectRecord.keys, objectRecord.values);
+                return obj;
+            }
+            if (record instanceof ArrayRecord) {
+                ArrayRecord arrayRecord = (ArrayRecord) record;
+                ArrayObject array = ArrayCreate(cx, arrayRecord.length);
+                memory.put(record, array);
+                defineProperties(array, arrayRecord.keys, arrayRecord.values);
+                return array;
+            }
+            if (record instanceof MapRecord) {
+                MapRecord mapRecord = (MapRecord) record;
+                MapObject map = ObjectCreate(cx, Intrinsics.MapPrototype, MapObject::new);
+                memory.put(record, map);
+                LinkedMap<Object, Object> mapData = map.getMapData();
+                for (int i = 0; i < mapRecord.keys.length; ++i) {
+                    mapData.set(deserialize(mapRecord.keys[i]), deserialize(mapRecord.values[i]));
+                }
+                return map;
+            }
+            if (record instanceof SetRecord) {
+                SetRecord setRecord = (SetRecord) record;
+                SetObject set = ObjectCreate(cx, Intrinsics.SetPrototype, SetObject::new);
+                memory.put(record, set);
+                LinkedMap<Object, Void> setData = set.getSetData();
+                for (Object value : setRecord.values) {
+                    setData.set(deserialize(value), null);
+                }
+                return set;
+            }
+            if (record instanceof PrimitiveRecord) {
+                PrimitiveRecord primitiveRecord = (PrimitiveRecord) record;
+                ScriptObject proto = cx.getIntrinsic(primitiveRecord.type);
+                Object value = primitiveRecord.value;
+                switch (primitiveRecord.type) {
+                case BooleanPrototype:
+                    object = new BooleanObject(cx.getRealm(), (Boolean) value, proto);
+                    break;
+                case NumberPrototype:
+                    object = new NumberObject(cx.getRealm(), (Double) value, proto);
+                    break;
+                case StringPrototype:
+                    object = new StringObject(cx.getRealm(), (String) value, proto);
+                    break;
+                case DatePrototype: {
+                    DateObject date = ObjectCreate(cx, proto, DateObject::new);
+                    date.setDateValue((Double) value);
+                    object = date;
+                    break;
+                }
+                default:
+                    throw new AssertionError();
+                }
+            } else if (record instanceof RegExpRecord) {
+                RegExpRecord regExpRecord = (RegExpRecord) record;
+                object = RegExpCreate(cx, regExpRecord.source, regExpRecord.flags);
+            } else if (record instanceof ArrayBufferRecord) {
+                ArrayBufferRecord bufferRecord = (ArrayBufferRecord) record;
+                if (bufferRecord.shared) {
+                    object = new SharedArrayBufferObject(cx.getRealm(), bufferRecord.data, bufferRecord.byteLength,
+                            cx.getIntrinsic(Intrinsics.SharedArrayBufferPrototype));
+                } else {
+                    object = new ArrayBufferObject(cx.getRealm(), bufferRecord.data, bufferRecord.byteLength,
+                            cx.getIntrinsic(Intrinsics.ArrayBufferPrototype));
+                }
+            } else if (record instanceof ViewRecord) {
+                ViewRecord viewRecord = (ViewRecord) record;
+                ArrayBuffer buffer = (ArrayBuffer) deserialize(viewRecord.buffer);
+                if (viewRecord.elementType != null) {
+                    ElementType type = viewRecord.elementType;
+                    object = new TypedArrayObject(cx.getRealm(), type, buffer, viewRecord.byteLength,
+                            viewRecord.byteOffset, viewRecord.length, cx.getIntrinsic(type.getPrototype()));
+                } else {
+                    object = new DataViewObject(cx.getRealm(), buffer, viewRecord.byteLength, viewRecord.byteOffset,
+                            cx.getIntrinsic(Intrinsics.DataViewPrototype));
+                }
+            } else {
+                throw new AssertionError();
+            }
+            memory.put(record, object);
+            return object;
+        }
+
+        private void defineProperties(ScriptObject object, String[] keys, Object[] values) {
+            for (int i = 0; i < keys.length; ++i) {
+                CreateDataPropertyOrThrow(cx, object, keys[i], deserialize(values[i]));
+            }
+        }
+    }
+}
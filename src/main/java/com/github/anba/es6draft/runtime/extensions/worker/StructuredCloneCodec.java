@@ -0,0 +1,720 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ * 
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.extensions.worker;
+
+import static com.github.anba.es6draft.runtime.internal.Errors.newTypeError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.ArrayBufferRecord;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.ArrayRecord;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.MapRecord;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.ObjectRecord;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.PrimitiveRecord;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.RegExpRecord;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.SetRecord;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone.ViewRecord;
+import com.github.anba.es6draft.runtime.internal.Messages;
+import com.github.anba.es6draft.runtime.objects.binary.ElementType;
+import com.github.anba.es6draft.runtime.types.Intrinsics;
+import com.github.anba.es6draft.runtime.types.Null;
+import com.github.anba.es6draft.runtime.types.Undefined;
+
+/**
+ * Binary encoding of structured clone records.
+ * <p>
+ * Every encoded value starts with a one byte tag. Integers are stored as unsigned LEB128 variable-length integers,
+ * strings are stored either as Latin-1 or UTF-16 code units. Objects are numbered in encoding order, repeated
+ * occurrences of an object are encoded as a back-reference to its number.
+ */
+final class StructuredCloneCodec {
+    private static final int MAGIC = 0x5343; // "SC"
+    private static final int VERSION = 1;
+
+    private static final byte TAG_UNDEFINED = 0;
+    private static final byte TAG_NULL = 1;
+    private static final byte TAG_FALSE = 2;
+    private static final byte TAG_TRUE = 3;
+    private static final byte TAG_INT32 = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_STRING_LATIN1 = 6;
+    private static final byte TAG_STRING_UTF16 = 7;
+    private static final byte TAG_OBJECT = 8;
+    private static final byte TAG_ARRAY = 9;
+    private static final byte TAG_MAP = 10;
+    private static final byte TAG_SET = 11;
+    private static final byte TAG_BOOLEAN_OBJECT = 12;
+    private static final byte TAG_NUMBER_OBJECT = 13;
+    private static final byte TAG_STRING_OBJECT = 14;
+    private static final byte TAG_DATE = 15;
+    private static final byte TAG_REGEXP = 16;
+    private static final byte TAG_ARRAY_BUFFER = 17;
+    private static final byte TAG_TYPED_ARRAY = 18;
+    private static final byte TAG_DATA_VIEW = 19;
+    private static final byte TAG_BACK_REFERENCE = 20;
+
+    private static final ElementType[] ELEMENT_TYPES = ElementType.values();
+
+    /** Minimum capacity of channel buffers, large enough for any fixed-size item */
+    static final int MIN_BUFFER_CAPACITY = 16;
+
+    private StructuredCloneCodec() {
+    }
+
+    /**
+     * Encodes the structured clone record.
+     * 
+     * @param cx
+     *            the execution context
+     * @param record
+     *            the structured clone record
+     * @return the encoded bytes, ready for reading
+     */
+    static ByteBuffer encode(ExecutionContext cx, Object record) {
+        Encoder encoder = new Encoder(cx, ByteBuffer.allocate(64), null, true);
+        encoder.writeHeader();
+        encoder.write(record);
+        ByteBuffer out = encoder.out;
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Encodes the structured clone record into {@code buffer}, starting at its current position. On success the
+     * buffer position is advanced past the encoded record, otherwise the buffer position is left unchanged.
+     * 
+     * @param cx
+     *            the execution context
+     * @param record
+     *            the structured clone record
+     * @param buffer
+     *            the output buffer
+     * @throws BufferOverflowException
+     *             if the remaining space in {@code buffer} is too small for the encoded record
+     */
+    static void encode(ExecutionContext cx, Object record, ByteBuffer buffer) throws BufferOverflowException {
+        Encoder encoder = new Encoder(cx, buffer.duplicate(), null, false);
+        encoder.writeHeader();
+        encoder.write(record);
+        buffer.position(encoder.out.position());
+    }
+
+    /**
+     * Encodes the structured clone record into {@code channel}, using {@code buffer} as the write buffer. Bytes before
+     * the current position of {@code buffer} are written to the channel first. On return all bytes were written and
+     * the buffer is cleared.
+     * 
+     * @param cx
+     *            the execution context
+     * @param record
+     *            the structured clone record
+     * @param channel
+     *            the blocking output channel
+     * @param buffer
+     *            the write buffer
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    static void encode(ExecutionContext cx, Object record, WritableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        checkBufferCapacity(buffer);
+        Encoder encoder = new Encoder(cx, buffer.duplicate(), channel, false);
+        try {
+            encoder.writeHeader();
+            encoder.write(record);
+            encoder.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            buffer.limit(encoder.out.limit()).position(encoder.out.position());
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Decodes a structured clone record from the current position of {@code in}. On success the buffer position is
+     * advanced past the encoded record.
+     * 
+     * @param cx
+     *            the execution context
+     * @param in
+     *            the input buffer
+     * @return the structured clone record
+     */
+    static Object decode(ExecutionContext cx, ByteBuffer in) {
+        Decoder decoder = new Decoder(in.duplicate(), null);
+        Object record = decode(cx, decoder);
+        in.position(decoder.in.position());
+        return record;
+    }
+
+    /**
+     * Decodes a structured clone record from {@code channel}, using {@code buffer} as the read buffer. The remaining
+     * bytes of {@code buffer} are decoded first and further bytes are read from the channel as needed. On return the
+     * remaining bytes of the buffer are the bytes read past the encoded record.
+     * 
+     * @param cx
+     *            the execution context
+     * @param channel
+     *            the blocking input channel
+     * @param buffer
+     *            the read buffer
+     * @return the structured clone record
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    static Object decode(ExecutionContext cx, ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        checkBufferCapacity(buffer);
+        Decoder decoder = new Decoder(buffer.duplicate(), channel);
+        try {
+            return decode(cx, decoder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            buffer.limit(decoder.in.limit()).position(decoder.in.position());
+        }
+    }
+
+    private static Object decode(ExecutionContext cx, Decoder decoder) {
+        try {
+            if (decoder.readShort() != (short) MAGIC || decoder.readByte() != VERSION) {
+                throw newTypeError(cx, Messages.Key.StructuredCloneInvalidData);
+            }
+            return decoder.read();
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                | ClassCastException e) {
+            throw newTypeError(cx, Messages.Key.StructuredCloneInvalidData);
+        }
+    }
+
+    private static void checkBufferCapacity(ByteBuffer buffer) {
+        if (buffer.capacity() < MIN_BUFFER_CAPACITY) {
+            throw new IllegalArgumentException("buffer too small");
+        }
+    }
+
+    private static final class Encoder {
+        private final ExecutionContext cx;
+        private final IdentityHashMap<Object, Integer> references = new IdentityHashMap<>();
+        private final WritableByteChannel channel;
+        private final boolean growable;
+        private ByteBuffer out;
+
+        Encoder(ExecutionContext cx, ByteBuffer out, WritableByteChannel channel, boolean growable) {
+            this.cx = cx;
+            this.out = out.order(ByteOrder.BIG_ENDIAN);
+            this.channel = channel;
+            this.growable = growable;
+        }
+
+        /**
+         * Ensures space for {@code n} bytes, {@code n} must not exceed {@link #MIN_BUFFER_CAPACITY} unless the
+         * output buffer is growable.
+         */
+        private void ensureCapacity(int n) {
+            if (out.remaining() < n) {
+                if (growable) {
+                    grow(n);
+                } else if (channel != null) {
+                    flush();
+                } else {
+                    throw new BufferOverflowException();
+                }
+            }
+        }
+
+        /**
+         * Ensures space for {@code n} bytes if the output buffer is growable, so a subsequent chunked write doesn't
+         * need to grow the buffer repeatedly.
+         */
+        private void reserve(int n) {
+            if (growable && out.remaining() < n) {
+                grow(n);
+            }
+        }
+
+        private void grow(int n) {
+            int capacity = Math.max(out.capacity() * 2, out.position() + n);
+            if (capacity < 0) {
+                throw new OutOfMemoryError();
+            }
+            ByteBuffer newOut = ByteBuffer.allocate(capacity);
+            out.flip();
+            newOut.put(out);
+            out = newOut;
+        }
+
+        void flush() {
+            out.flip();
+            try {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                out.compact();
+            }
+        }
+
+        void writeHeader() {
+            ensureCapacity(3);
+            out.putShort((short) MAGIC);
+            out.put((byte) VERSION);
+        }
+
+        private void writeTag(byte tag) {
+            ensureCapacity(1);
+            out.put(tag);
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                out.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.put((byte) value);
+        }
+
+        private void writeDouble(double value) {
+            ensureCapacity(8);
+            out.putDouble(value);
+        }
+
+        private void writeString(String s) {
+            int length = s.length();
+            boolean latin1 = true;
+            for (int i = 0; i < length; ++i) {
+                if (s.charAt(i) > 0xFF) {
+                    latin1 = false;
+                    break;
+                }
+            }
+            if (latin1) {
+                writeTag(TAG_STRING_LATIN1);
+                writeVarLong(length);
+                reserve(length);
+                for (int i = 0; i < length;) {
+                    ensureCapacity(1);
+                    for (int end = Math.min(length, i + out.remaining()); i < end; ++i) {
+                        out.put((byte) s.charAt(i));
+                    }
+                }
+            } else {
+                writeTag(TAG_STRING_UTF16);
+                writeVarLong(length);
+                reserve(length * 2);
+                for (int i = 0; i < length;) {
+                    ensureCapacity(2);
+                    for (int end = Math.min(length, i + (out.remaining() >> 1)); i < end; ++i) {
+                        out.putChar(s.charAt(i));
+                    }
+                }
+            }
+        }
+
+        private void writeNumber(Number value) {
+            if (value instanceof Integer) {
+                writeTag(TAG_INT32);
+                writeVarLong(((Integer) value) & 0xFFFF_FFFFL);
+            } else if (value instanceof Long && (int) value.longValue() == value.longValue()) {
+                writeTag(TAG_INT32);
+                writeVarLong(value.intValue() & 0xFFFF_FFFFL);
+            } else {
+                writeTag(TAG_DOUBLE);
+                writeDouble(value.doubleValue());
+            }
+        }
+
+        private void writeProperties(String[] keys, Object[] values) {
+            writeVarLong(keys.length);
+            for (int i = 0; i < keys.length; ++i) {
+                writeString(keys[i]);
+                write(values[i]);
+            }
+        }
+
+        private void writeValues(Object[] values) {
+            writeVarLong(values.length);
+            for (Object value : values) {
+                write(value);
+            }
+        }
+
+        void write(Object record) {
+            if (record == Undefined.UNDEFINED) {
+                writeTag(TAG_UNDEFINED);
+                return;
+            }
+            if (record == Null.NULL) {
+                writeTag(TAG_NULL);
+                return;
+            }
+            if (record instanceof Boolean) {
+                writeTag((Boolean) record ? TAG_TRUE : TAG_FALSE);
+                return;
+            }
+            if (record instanceof Number) {
+                writeNumber((Number) record);
+                return;
+            }
+            if (record instanceof String) {
+                writeString((String) record);
+                return;
+            }
+            Integer reference = references.get(record);
+            if (reference != null) {
+                writeTag(TAG_BACK_REFERENCE);
+                writeVarLong(reference);
+                return;
+            }
+            references.put(record, references.size());
+            if (record instanceof ObjectRecord) {
+                ObjectRecord objectRecord = (ObjectRecord) record;
+                writeTag(TAG_OBJECT);
+                writeProperties(objectRecord.keys, objectRecord.values);
+            } else if (record instanceof ArrayRecord) {
+                ArrayRecord arrayRecord = (ArrayRecord) record;
+                writeTag(TAG_ARRAY);
+                writeVarLong(arrayRecord.length);
+                writeProperties(arrayRecord.keys, arrayRecord.values);
+            } else if (record instanceof MapRecord) {
+                MapRecord mapRecord = (MapRecord) record;
+                writeTag(TAG_MAP);
+                writeVarLong(mapRecord.keys.length);
+                for (int i = 0; i < mapRecord.keys.length; ++i) {
+                    write(mapRecord.keys[i]);
+                    write(mapRecord.values[i]);
+                }
+            } else if (record instanceof SetRecord) {
+                writeTag(TAG_SET);
+                writeValues(((SetRecord) record).values);
+            } else if (record instanceof PrimitiveRecord) {
+                PrimitiveRecord primitiveRecord = (PrimitiveRecord) record;
+                switch (primitiveRecord.type) {
+                case BooleanPrototype:
+                    writeTag(TAG_BOOLEAN_OBJECT);
+                    writeTag((Boolean) primitiveRecord.value ? TAG_TRUE : TAG_FALSE);
+                    break;
+                case NumberPrototype:
+                    writeTag(TAG_NUMBER_OBJECT);
+                    writeDouble((Double) primitiveRecord.value);
+                    break;
+                case StringPrototype:
+                    writeTag(TAG_STRING_OBJECT);
+                    writeString((String) primitiveRecord.value);
+                    break;
+                case DatePrototype:
+                    writeTag(TAG_DATE);
+                    writeDouble((Double) primitiveRecord.value);
+                    break;
+                default:
+                    throw new AssertionError();
+                }
+            } else if (record instanceof RegExpRecord) {
+                RegExpRecord regExpRecord = (RegExpRecord) record;
+                writeTag(TAG_REGEXP);
+                writeString(regExpRecord.source);
+                writeString(regExpRecord.flags);
+            } else if (record instanceof ArrayBufferRecord) {
+                ArrayBufferRecord bufferRecord = (ArrayBufferRecord) record;
+                if (bufferRecord.shared) {
+                    // Shared memory cannot be represented in a serialized byte stream.
+                    throw newTypeError(cx, Messages.Key.StructuredCloneUnsupportedType, "SharedArrayBuffer");
+                }
+                int byteLength = (int) bufferRecord.byteLength;
+                writeTag(TAG_ARRAY_BUFFER);
+                writeVarLong(byteLength);
+                reserve(byteLength);
+                ByteBuffer data = bufferRecord.data.duplicate();
+                for (int position = 0; position < byteLength;) {
+                    ensureCapacity(1);
+                    int n = Math.min(out.remaining(), byteLength - position);
+                    data.limit(position + n).position(position);
+                    out.put(data);
+                    position += n;
+                }
+            } else if (record instanceof ViewRecord) {
+                ViewRecord viewRecord = (ViewRecord) record;
+                if (viewRecord.elementType != null) {
+                    writeTag(TAG_TYPED_ARRAY);
+                    writeTag((byte) viewRecord.elementType.ordinal());
+                    write(viewRecord.buffer);
+                    writeVarLong(viewRecord.byteOffset);
+                    writeVarLong(viewRecord.length);
+                } else {
+                    writeTag(TAG_DATA_VIEW);
+                    write(viewRecord.buffer);
+                    writeVarLong(viewRecord.byteOffset);
+                    writeVarLong(viewRecord.byteLength);
+                }
+            } else {
+                throw new AssertionError();
+            }
+        }
+    }
+
+    private static final class Decoder {
+        private final ByteBuffer in;
+        private final ReadableByteChannel channel;
+        private final ArrayList<Object> references = new ArrayList<>();
+
+        Decoder(ByteBuffer in, ReadableByteChannel channel) {
+            this.in = in.order(ByteOrder.BIG_ENDIAN);
+            this.channel = channel;
+        }
+
+        /**
+         * Ensures {@code n} bytes are available, {@code n} must not exceed {@link #MIN_BUFFER_CAPACITY}.
+         */
+        private void require(int n) {
+            if (in.remaining() < n) {
+                if (channel == null) {
+                    throw new BufferUnderflowException();
+                }
+                in.compact();
+                try {
+                    while (in.position() < n) {
+                        if (channel.read(in) < 0) {
+                            throw new BufferUnderflowException();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    in.flip();
+                }
+            }
+        }
+
+        byte readByte() {
+            require(1);
+            return in.get();
+        }
+
+        short readShort() {
+            require(2);
+            return in.getShort();
+        }
+
+        private double readDouble() {
+            require(8);
+            return in.getDouble();
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException();
+        }
+
+        private int readLength() {
+            long length = readVarLong();
+            // Every element occupies at least one byte, the input length is unknown when reading from a channel.
+            if (length < 0 || length > (channel == null ? in.remaining() : Integer.MAX_VALUE - 8)) {
+                throw new IllegalArgumentException();
+            }
+            return (int) length;
+        }
+
+        private String readString() {
+            return readString(readByte());
+        }
+
+        private String readString(byte tag) {
+            int length = readLength();
+            if (tag == TAG_STRING_LATIN1) {
+                byte[] bytes = new byte[length];
+                for (int i = 0; i < length;) {
+                    require(1);
+                    int n = Math.min(in.remaining(), length - i);
+                    in.get(bytes, i, n);
+                    i += n;
+                }
+                return new String(bytes, StandardCharsets.ISO_8859_1);
+            }
+            if (tag == TAG_STRING_UTF16) {
+                char[] chars = new char[length];
+                for (int i = 0; i < length;) {
+                    require(2);
+                    int n = Math.min(in.remaining() >> 1, length - i);
+                    in.asCharBuffer().get(chars, i, n);
+                    in.position(in.position() + n * 2);
+                    i += n;
+                }
+                return new String(chars);
+            }
+            throw new IllegalArgumentException();
+        }
+
+        private void readProperties(String[] keys, Object[] values) {
+            for (int i = 0; i < keys.length; ++i) {
+                keys[i] = readString();
+                values[i] = read();
+            }
+        }
+
+        private Object[] readValues(int count) {
+            Object[] values = new Object[count];
+            for (int i = 0; i < count; ++i) {
+                values[i] = read();
+            }
+            return values;
+        }
+
+        private boolean readBoolean() {
+            byte tag = readByte();
+            if (tag != TAG_TRUE && tag != TAG_FALSE) {
+                throw new IllegalArgumentException();
+            }
+            return tag == TAG_TRUE;
+        }
+
+        private ArrayBufferRecord readBuffer() {
+            return (ArrayBufferRecord) read();
+        }
+
+        private <T> T register(T record) {
+            references.add(record);
+            return record;
+        }
+
+        Object read() {
+            byte tag = readByte();
+            switch (tag) {
+            case TAG_UNDEFINED:
+                return Undefined.UNDEFINED;
+            case TAG_NULL:
+                return Null.NULL;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_INT32:
+                return (int) readVarLong();
+            case TAG_DOUBLE:
+                return readDouble();
+            case TAG_STRING_LATIN1:
+            case TAG_STRING_UTF16:
+                return readString(tag);
+            case TAG_OBJECT: {
+                ObjectRecord record = register(new ObjectRecord());
+                int count = readLength();
+                record.keys = new String[count];
+                record.values = new Object[count];
+                readProperties(record.keys, record.values);
+                return record;
+            }
+            case TAG_ARRAY: {
+                ArrayRecord record = register(new ArrayRecord(readVarLong()));
+                int count = readLength();
+                record.keys = new String[count];
+                record.values = new Object[count];
+                readProperties(record.keys, record.values);
+                return record;
+            }
+            case TAG_MAP: {
+                MapRecord record = register(new MapRecord());
+                int count = readLength();
+                record.keys = new Object[count];
+                record.values = new Object[count];
+                for (int i = 0; i < count; ++i) {
+                    record.keys[i] = read();
+                    record.values[i] = read();
+                }
+                return record;
+            }
+            case TAG_SET: {
+                SetRecord record = register(new SetRecord());
+                record.values = readValues(readLength());
+                return record;
+            }
+            case TAG_BOOLEAN_OBJECT:
+                return register(new PrimitiveRecord(Intrinsics.BooleanPrototype, readBoolean()));
+            case TAG_NUMBER_OBJECT:
+                return register(new PrimitiveRecord(Intrinsics.NumberPrototype, readDouble()));
+            case TAG_STRING_OBJECT:
+                return register(new PrimitiveRecord(Intrinsics.StringPrototype, readString()));
+            case TAG_DATE:
+                return register(new PrimitiveRecord(Intrinsics.DatePrototype, readDouble()));
+            case TAG_REGEXP:
+                return register(new RegExpRecord(readString(), readString()));
+            case TAG_ARRAY_BUFFER: {
+                int byteLength = readLength();
+                ByteBuffer data = ByteBuffer.allocate(byteLength).order(ByteOrder.nativeOrder());
+                while (data.hasRemaining()) {
+                    require(1);
+                    ByteBuffer src = in.duplicate();
+                    src.limit(src.position() + Math.min(src.remaining(), data.remaining()));
+                    data.put(src);
+                    in.position(src.position());
+                }
+                data.clear();
+                return register(new ArrayBufferRecord(data, byteLength, false));
+            }
+            case TAG_TYPED_ARRAY: {
+                int index = references.size();
+                references.add(null);
+                ElementType elementType = ELEMENT_TYPES[readByte()];
+                ArrayBufferRecord buffer = readBuffer();
+                long byteOffset = readVarLong();
+                long length = readVarLong();
+                long byteLength = length * elementType.size();
+                checkView(buffer, byteOffset, byteLength);
+                ViewRecord record = new ViewRecord(elementType, buffer, byteLength, byteOffset, length);
+                references.set(index, record);
+                return record;
+            }
+            case TAG_DATA_VIEW: {
+                int index = references.size();
+                references.add(null);
+                ArrayBufferRecord buffer = readBuffer();
+                long byteOffset = readVarLong();
+                long byteLength = readVarLong();
+                checkView(buffer, byteOffset, byteLength);
+                ViewRecord record = new ViewRecord(null, buffer, byteLength, byteOffset, 0);
+                references.set(index, record);
+                return record;
+            }
+            case TAG_BACK_REFERENCE: {
+                Object record = references.get((int) readVarLong());
+                if (record == null) {
+                    // Reference to an incomplete view record.
+                    throw new IllegalArgumentException();
+                }
+                return record;
+            }
+            default:
+                throw new IllegalArgumentException();
+            }
+        }
+
+        private static void checkView(ArrayBufferRecord buffer, long byteOffset, long byteLength) {
+            if (byteOffset < 0 || byteLength < 0 || byteOffset + byteLength > buffer.byteLength) {
+                throw new IllegalArgumentException();
+            }
+        }
+    }
+}
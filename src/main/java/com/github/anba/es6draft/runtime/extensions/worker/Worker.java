@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ * 
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.extensions.worker;
+
+import static com.github.anba.es6draft.runtime.AbstractOperations.Call;
+import static com.github.anba.es6draft.runtime.AbstractOperations.CreateDataProperty;
+import static com.github.anba.es6draft.runtime.AbstractOperations.Get;
+import static com.github.anba.es6draft.runtime.AbstractOperations.IsCallable;
+import static com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject.ObjectCreate;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import com.github.anba.es6draft.Script;
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.Realm;
+import com.github.anba.es6draft.runtime.Task;
+import com.github.anba.es6draft.runtime.World;
+import com.github.anba.es6draft.runtime.internal.RuntimeContext;
+import com.github.anba.es6draft.runtime.internal.ScriptException;
+import com.github.anba.es6draft.runtime.internal.Source;
+import com.github.anba.es6draft.runtime.internal.TaskSource;
+import com.github.anba.es6draft.runtime.internal.UnhandledRejectionException;
+import com.github.anba.es6draft.runtime.types.Intrinsics;
+import com.github.anba.es6draft.runtime.types.ScriptObject;
+import com.github.anba.es6draft.runtime.types.Undefined;
+import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
+
+/**
+ * Long-lived worker agent.
+ * <p>
+ * Each worker owns a separate {@link World} and runs its event loop on a thread of the worker executor until the
+ * worker is closed or terminated. Messages are exchanged through a bounded {@link MessagePort} channel: incoming
+ * messages are dispatched to the global {@code onmessage} function of the worker, scripts in the worker send messages
+ * to the host through the global {@code postMessage} function. Scripts in the worker never wait for the host, so the
+ * host can wait for the worker without deadlocking the channel.
+ * 
+ * @see <a href="https://html.spec.whatwg.org/multipage/workers.html">HTML - Web workers</a>
+ */
+public final class Worker {
+    private final RuntimeContext context;
+    private final Source source;
+    private final String sourceCode;
+    private final MessagePort hostPort;
+    private final MessagePort workerPort;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private Thread thread;
+
+    /**
+     * Constructs a new worker.
+     * 
+     * @param context
+     *            the runtime context of the host
+     * @param source
+     *            the worker script source
+     * @param sourceCode
+     *            the worker script source code
+     * @param capacity
+     *            the maximum number of pending messages per direction
+     */
+    public Worker(RuntimeContext context, Source source, String sourceCode, int capacity) {
+        this.context = context;
+        this.source = source;
+        this.sourceCode = sourceCode;
+        MessagePort[] channel = MessagePort.newChannel(capacity);
+        this.hostPort = channel[0];
+        this.workerPort = channel[1];
+    }
+
+    /**
+     * Returns the host side message port of this worker.
+     * 
+     * @return the message port
+     */
+    public MessagePort getPort() {
+        return hostPort;
+    }
+
+    /**
+     * Starts this worker on the worker executor of the host runtime context.
+     * 
+     * @return the completion of the worker
+     */
+    public CompletableFuture<Void> start() {
+        return start(context.getWorkerExecutor());
+    }
+
+    /**
+     * Starts this worker on the given executor.
+     * 
+     * @param executor
+     *            the executor
+     * @return the completion of the worker
+     */
+    public CompletableFuture<Void> start(Executor executor) {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("worker already started");
+        }
+        return CompletableFuture.runAsync(this::run, executor);
+    }
+
+    /**
+     * Serializes and sends a message to this worker, waiting if necessary until the worker has space for the message.
+     * 
+     * @param cx
+     *            the execution context
+     * @param message
+     *            the message value
+     * @param transferList
+     *            the list of array buffers to transfer or {@code undefined}
+     * @return {@code true} if the message was sent, {@code false} if the worker is closed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean postMessage(ExecutionContext cx, Object message, Object transferList) throws InterruptedException {
+        StructuredClone.Serialized serialized = StructuredClone.serialize(cx, message, transferList);
+        if (!hostPort.postMessage(serialized)) {
+            return false;
+        }
+        StructuredClone.detachTransferred(cx, serialized);
+        return true;
+    }
+
+    /**
+     * Serializes and sends a message to this worker, waiting up to the specified time until the worker has space for
+     * the message. Transferred array buffers are only detached if the message was sent.
+     * 
+     * @param cx
+     *            the execution context
+     * @param message
+     *            the message value
+     * @param transferList
+     *            the list of array buffers to transfer or {@code undefined}
+     * @param timeout
+     *            the timeout
+     * @param unit
+     *            the time unit of the timeout parameter
+     * @return {@code true} if the message was sent, {@code false} if the worker is closed or the timeout elapsed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean offerMessage(ExecutionContext cx, Object message, Object transferList, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        StructuredClone.Serialized serialized = StructuredClone.serialize(cx, message, transferList);
+        if (!hostPort.offerMessage(serialized, timeout, unit)) {
+            return false;
+        }
+        StructuredClone.detachTransferred(cx, serialized);
+        return true;
+    }
+
+    /**
+     * Receives the next message from this worker, waiting if necessary until a message is available.
+     * 
+     * @param cx
+     *            the execution context
+     * @return the deserialized message or {@code null} if the worker is closed and no more messages are pending
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public Object receiveMessage(ExecutionContext cx) throws InterruptedException {
+        StructuredClone.Serialized message = hostPort.receiveMessage();
+        return message != null ? StructuredClone.deserialize(cx, message) : null;
+    }
+
+    /**
+     * Terminates this worker. The message channel is closed and the worker thread is interrupted.
+     */
+    public void terminate() {
+        hostPort.close();
+        synchronized (this) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        synchronized (this) {
+            thread = Thread.currentThread();
+        }
+        try {
+            // Set 'executor' to null so it doesn't get shared with the host runtime context.
+            /* @formatter:off */
+            RuntimeContext workerContext = new RuntimeContext.Builder(context)
+                                                             .setExecutor(null)
+                                                             .build();
+            /* @formatter:on */
+            World world = new World(workerContext);
+            Realm realm;
+            try {
+                realm = world.newInitializedRealm();
+            } catch (IOException | URISyntaxException e) {
+                throw new CompletionException(e);
+            }
+            realm.createGlobalProperties(new WorkerFunctions(workerPort), WorkerFunctions.class);
+
+            BiConsumer<ExecutionContext, Throwable> errorReporter = workerContext.getWorkerErrorReporter();
+            try {
+                Script script = realm.getScriptLoader().script(source, sourceCode);
+                script.evaluate(realm);
+            } catch (ScriptException | UnhandledRejectionException e) {
+                errorReporter.accept(realm.defaultContext(), e);
+                return;
+            }
+            MessageTaskSource taskSource = new MessageTaskSource(realm, workerPort);
+            for (;;) {
+                try {
+                    world.runEventLoop(taskSource);
+                    break;
+                } catch (ScriptException | UnhandledRejectionException e) {
+                    // Report uncaught errors and then continue processing messages.
+                    errorReporter.accept(realm.defaultContext(), e);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        } finally {
+            workerPort.close();
+            synchronized (this) {
+                thread = null;
+                // Clear the interrupt status in case terminate() raced with worker completion.
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private static final class MessageTaskSource implements TaskSource {
+        private final Realm realm;
+        private final MessagePort port;
+
+        MessageTaskSource(Realm realm, MessagePort port) {
+            this.realm = realm;
+            this.port = port;
+        }
+
+        @Override
+        public Task nextTask() throws InterruptedException {
+            return awaitTask();
+        }
+
+        @Override
+        public Task awaitTask() throws InterruptedException {
+            StructuredClone.Serialized message = port.receiveMessage();
+            return message != null ? new MessageTask(realm, message) : null;
+        }
+
+        @Override
+        public Task pollTask() {
+            StructuredClone.Serialized message = port.pollMessage();
+            return message != null ? new MessageTask(realm, message) : null;
+        }
+    }
+
+    private static final class MessageTask implements Task {
+        private final Realm realm;
+        private final StructuredClone.Serialized message;
+
+        MessageTask(Realm realm, StructuredClone.Serialized message) {
+            this.realm = realm;
+            this.message = message;
+        }
+
+        @Override
+        public void execute() {
+            ExecutionContext cx = realm.defaultContext();
+            ScriptObject global = realm.getGlobalThis();
+            Object onmessage = Get(cx, global, "onmessage");
+            if (!IsCallable(onmessage)) {
+                return;
+            }
+            OrdinaryObject event = ObjectCreate(cx, Intrinsics.ObjectPrototype);
+            CreateDataProperty(cx, event, "data", StructuredClone.deserialize(cx, message));
+            Call(cx, onmessage, Undefined.UNDEFINED, event);
+        }
+    }
+}
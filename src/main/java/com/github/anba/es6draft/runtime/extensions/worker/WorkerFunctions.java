@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ * 
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.extensions.worker;
+
+import static com.github.anba.es6draft.runtime.internal.Errors.newTypeError;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.internal.Messages;
+import com.github.anba.es6draft.runtime.internal.Properties.Function;
+
+/**
+ * Global functions of a worker scope.
+ * 
+ * @see <a href="https://html.spec.whatwg.org/multipage/workers.html#dedicated-workers-and-the-dedicatedworkerglobalscope-interface">
+ *      HTML - Dedicated workers and the DedicatedWorkerGlobalScope interface</a>
+ */
+public final class WorkerFunctions {
+    private final MessagePort port;
+
+    WorkerFunctions(MessagePort port) {
+        this.port = port;
+    }
+
+    /**
+     * worker-function: {@code postMessage(message, transferList)}
+     * <p>
+     * Never waits for the host, a {@code TypeError} is thrown if the message queue is full. Otherwise a worker which
+     * waits for the host to receive its messages could deadlock with a host which waits for the worker.
+     * 
+     * @param cx
+     *            the execution context
+     * @param message
+     *            the message value
+     * @param transferList
+     *            the optional list of array buffers to transfer
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Function(name = "postMessage", arity = 1)
+    public void postMessage(ExecutionContext cx, Object message, Object transferList) throws InterruptedException {
+        if (port.isClosed()) {
+            throw newTypeError(cx, Messages.Key.WorkerClosed);
+        }
+        StructuredClone.Serialized serialized = StructuredClone.serialize(cx, message, transferList);
+        if (!port.offerMessage(serialized, 0, TimeUnit.NANOSECONDS)) {
+            if (port.isClosed()) {
+                throw newTypeError(cx, Messages.Key.WorkerClosed);
+            }
+            throw newTypeError(cx, Messages.Key.WorkerQueueFull);
+        }
+        StructuredClone.detachTransferred(cx, serialized);
+    }
+
+    /**
+     * worker-function: {@code close()}
+     * 
+     * @param cx
+     *            the execution context
+     */
+    @Function(name = "close", arity = 0)
+    public void close(ExecutionContext cx) {
+        port.close();
+    }
+}
@@ -26,6 +26,7 @@ import com.github.anba.es6draft.compiler.assembler.Handle;
 import com.github.anba.es6draft.compiler.assembler.MethodName;
 import com.github.anba.es6draft.compiler.assembler.MethodTypeDescriptor;
 import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.objects.binary.TypedArrayObject;
 import com.github.anba.es6draft.runtime.types.Constructor;
 import com.github.anba.es6draft.runtime.types.ScriptObject;
 import com.github.anba.es6draft.runtime.types.Type;
@@ -45,6 +46,8 @@ public final class Bootstrap {
         static final String CONSTRUCT = "expression::construct";
         static final String SUPER = "expression::super";
         static final String CONCAT = "expression::concat";
+        static final String GET_ELEMENT = "expression::getElement";
+        static final String SET_ELEMENT = "expression::setElement";
         static final String ADD = "expression::add";
         static final String EQ = "expression::equals";
         static final String SHEQ = "expression::strictEquals";
@@ -55,6 +58,14 @@ public final class Bootstrap {
     }
 
     private static final class Descriptors {
+        static final MethodTypeDescriptor GET_ELEMENT = MethodTypeDescriptor.methodType(Object.class,
+                Object.class, Object.class, ExecutionContext.class);
+        static final MethodTypeDescriptor GET_ELEMENT_INT = MethodTypeDescriptor.methodType(Object.class,
+                Object.class, int.class, ExecutionContext.class);
+        static final MethodTypeDescriptor SET_ELEMENT = MethodTypeDescriptor.methodType(void.class,
+                Object.class, Object.class, Object.class, ExecutionContext.class, boolean.class);
+        static final MethodTypeDescriptor SET_ELEMENT_INT = MethodTypeDescriptor.methodType(void.class,
+                Object.class, int.class, Object.class, ExecutionContext.class, boolean.class);
         static final MethodTypeDescriptor ADD = MethodTypeDescriptor.methodType(Object.class,
                 Object.class, Object.class, ExecutionContext.class);
         static final MethodTypeDescriptor CMP = MethodTypeDescriptor.methodType(boolean.class,
@@ -293,6 +304,208 @@ public final class Bootstrap {
         return constructor.construct(callerContext, newTarget, arguments);
     }
 
+    /**
+     * Returns the invokedynamic instruction name for element get expressions.
+     * 
+     * @return the invokedynamic instruction name
+     */
+    public static String getElementGetName() {
+        return CallNames.GET_ELEMENT;
+    }
+
+    /**
+     * Returns the method descriptor for element get expressions.
+     * 
+     * @param intKey
+     *            {@code true} if the property key is an {@code int} value
+     * @return the method descriptor
+     */
+    public static MethodTypeDescriptor getElementGetMethodDescriptor(boolean intKey) {
+        return intKey ? Descriptors.GET_ELEMENT_INT : Descriptors.GET_ELEMENT;
+    }
+
+    /**
+     * Returns the invokedynamic instruction name for element set expressions.
+     * 
+     * @return the invokedynamic instruction name
+     */
+    public static String getElementSetName() {
+        return CallNames.SET_ELEMENT;
+    }
+
+    /**
+     * Returns the method descriptor for element set expressions.
+     * 
+     * @param intKey
+     *            {@code true} if the property key is an {@code int} value
+     * @return the method descriptor
+     */
+    public static MethodTypeDescriptor getElementSetMethodDescriptor(boolean intKey) {
+        return intKey ? Descriptors.SET_ELEMENT_INT : Descriptors.SET_ELEMENT;
+    }
+
+    /**
+     * Returns the bootstrapping handle for element expressions.
+     * 
+     * @return the bootstrapping handle
+     */
+    public static Handle getElementBootstrap() {
+        return BOOTSTRAP;
+    }
+
+    private static final MethodHandle getElementSetupMH, setElementSetupMH;
+    private static final MethodHandle getElementGenericMH, getElementIntGenericMH;
+    private static final MethodHandle setElementGenericMH, setElementIntGenericMH;
+    private static final MethodHandle getTypedArrayElementMH, getTypedArrayElementIntMH;
+    private static final MethodHandle setTypedArrayElementMH, setTypedArrayElementIntMH;
+    private static final MethodHandle testTypedArrayMH;
+    static {
+        MethodLookup lookup = new MethodLookup(MethodHandles.lookup());
+        testTypedArrayMH = lookup.findStatic("testTypedArray", MethodType.methodType(boolean.class, Object.class));
+        getElementGenericMH = lookup.findStatic("getElementGeneric",
+                MethodType.methodType(Object.class, Object.class, Object.class, ExecutionContext.class));
+        getElementIntGenericMH = lookup.findStatic("getElementGeneric",
+                MethodType.methodType(Object.class, Object.class, int.class, ExecutionContext.class));
+        setElementGenericMH = lookup.findStatic("setElementGeneric", MethodType.methodType(void.class,
+                Object.class, Object.class, Object.class, ExecutionContext.class, boolean.class));
+        setElementIntGenericMH = lookup.findStatic("setElementGeneric", MethodType.methodType(void.class,
+                Object.class, int.class, Object.class, ExecutionContext.class, boolean.class));
+        getTypedArrayElementMH = lookup.findStatic("getTypedArrayElement",
+                MethodType.methodType(Object.class, Object.class, Object.class, ExecutionContext.class));
+        getTypedArrayElementIntMH = lookup.findStatic("getTypedArrayElement",
+                MethodType.methodType(Object.class, Object.class, int.class, ExecutionContext.class));
+        setTypedArrayElementMH = lookup.findStatic("setTypedArrayElement", MethodType.methodType(void.class,
+                Object.class, Object.class, Object.class, ExecutionContext.class, boolean.class));
+        setTypedArrayElementIntMH = lookup.findStatic("setTypedArrayElement", MethodType.methodType(void.class,
+                Object.class, int.class, Object.class, ExecutionContext.class, boolean.class));
+        getElementSetupMH = lookup.findStatic("getElementSetup",
+                MethodType.methodType(MethodHandle.class, MutableCallSite.class, Object.class));
+        setElementSetupMH = lookup.findStatic("setElementSetup",
+                MethodType.methodType(MethodHandle.class, MutableCallSite.class, Object.class));
+    }
+
+    private static boolean isIntKey(MutableCallSite callsite) {
+        return callsite.type().parameterType(1) == int.class;
+    }
+
+    @SuppressWarnings("unused")
+    private static MethodHandle getElementSetup(MutableCallSite callsite, Object base) {
+        boolean intKey = isIntKey(callsite);
+        MethodHandle target, test;
+        if (base instanceof TypedArrayObject) {
+            target = intKey ? getTypedArrayElementIntMH : getTypedArrayElementMH;
+            test = testTypedArrayMH;
+        } else {
+            target = test = null;
+        }
+        return setCallSiteTarget(callsite, target, test, intKey ? getElementIntGenericMH : getElementGenericMH);
+    }
+
+    @SuppressWarnings("unused")
+    private static MethodHandle setElementSetup(MutableCallSite callsite, Object base) {
+        boolean intKey = isIntKey(callsite);
+        MethodHandle target, test;
+        if (base instanceof TypedArrayObject) {
+            target = intKey ? setTypedArrayElementIntMH : setTypedArrayElementMH;
+            test = testTypedArrayMH;
+        } else {
+            target = test = null;
+        }
+        return setCallSiteTarget(callsite, target, test, intKey ? setElementIntGenericMH : setElementGenericMH);
+    }
+
+    @SuppressWarnings("unused")
+    private static boolean testTypedArray(Object base) {
+        return base instanceof TypedArrayObject;
+    }
+
+    private static int toElementIndex(Object propertyKey) {
+        if (propertyKey instanceof Integer) {
+            return (Integer) propertyKey;
+        }
+        if (propertyKey instanceof Long) {
+            long index = (Long) propertyKey;
+            if (index == (int) index) {
+                return (int) index;
+            }
+        }
+        if (propertyKey instanceof Double) {
+            double key = (Double) propertyKey;
+            int index = (int) key;
+            // -0 is left to the generic path.
+            if (index == key && index >= 0 && (index != 0 || Double.doubleToRawLongBits(key) == 0)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unused")
+    private static Object getTypedArrayElement(Object base, Object propertyKey, ExecutionContext cx) {
+        TypedArrayObject typedArray = (TypedArrayObject) base;
+        int index = toElementIndex(propertyKey);
+        if (typedArray.isElementIndex(index)) {
+            return typedArray.getElementUnchecked(index);
+        }
+        return ScriptRuntime.getElementValue(base, propertyKey, cx);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object getTypedArrayElement(Object base, int index, ExecutionContext cx) {
+        TypedArrayObject typedArray = (TypedArrayObject) base;
+        if (typedArray.isElementIndex(index)) {
+            return typedArray.getElementUnchecked(index);
+        }
+        return ScriptRuntime.getPropertyValue(base, index, cx);
+    }
+
+    @SuppressWarnings("unused")
+    private static void setTypedArrayElement(Object base, Object propertyKey, Object value, ExecutionContext cx,
+            boolean strict) {
+        TypedArrayObject typedArray = (TypedArrayObject) base;
+        int index = toElementIndex(propertyKey);
+        // ToNumber() on non-number values may have side-effects, let the generic path handle those values.
+        if (value instanceof Number && typedArray.isElementIndex(index)) {
+            typedArray.setElementUnchecked(index, ((Number) value).doubleValue());
+            return;
+        }
+        ScriptRuntime.setElementValue(base, propertyKey, value, cx, strict);
+    }
+
+    @SuppressWarnings("unused")
+    private static void setTypedArrayElement(Object base, int index, Object value, ExecutionContext cx,
+            boolean strict) {
+        TypedArrayObject typedArray = (TypedArrayObject) base;
+        // ToNumber() on non-number values may have side-effects, let the generic path handle those values.
+        if (value instanceof Number && typedArray.isElementIndex(index)) {
+            typedArray.setElementUnchecked(index, ((Number) value).doubleValue());
+            return;
+        }
+        ScriptRuntime.setPropertyValue(base, index, value, cx, strict);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object getElementGeneric(Object base, Object propertyKey, ExecutionContext cx) {
+        return ScriptRuntime.getElementValue(base, propertyKey, cx);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object getElementGeneric(Object base, int index, ExecutionContext cx) {
+        return ScriptRuntime.getPropertyValue(base, index, cx);
+    }
+
+    @SuppressWarnings("unused")
+    private static void setElementGeneric(Object base, Object propertyKey, Object value, ExecutionContext cx,
+            boolean strict) {
+        ScriptRuntime.setElementValue(base, propertyKey, value, cx, strict);
+    }
+
+    @SuppressWarnings("unused")
+    private static void setElementGeneric(Object base, int index, Object value, ExecutionContext cx,
+            boolean strict) {
+        ScriptRuntime.setPropertyValue(base, index, value, cx, strict);
+    }
+
     /**
      * Returns the invokedynamic instruction name for concat expressions.
      * 
@@ -1311,6 +1524,8 @@ public final class Bootstrap {
     private static final ConstantCallSite stackOverFlow_Construct;
     private static final ConstantCallSite stackOverFlow_Super;
     private static final MethodHandle stackOverFlow_Concat;
+    private static final MethodHandle stackOverFlow_GetElement;
+    private static final MethodHandle stackOverFlow_SetElement;
     static {
         MethodLookup lookup = new MethodLookup(MethodHandles.lookup());
         stackOverFlow_Add = new ConstantCallSite(lookup.findStatic("stackOverFlow_Add", MethodType
@@ -1332,6 +1547,10 @@ public final class Bootstrap {
                         ExecutionContext.class, Constructor.class, Object[].class)));
         stackOverFlow_Concat = lookup.findStatic("stackOverFlow_Concat",
                 MethodType.methodType(CharSequence.class));
+        stackOverFlow_GetElement = lookup.findStatic("stackOverFlow_GetElement",
+                MethodType.methodType(Object.class));
+        stackOverFlow_SetElement = lookup.findStatic("stackOverFlow_SetElement",
+                MethodType.methodType(void.class));
     }
 
     @SuppressWarnings("unused")
@@ -1377,6 +1596,16 @@ public final class Bootstrap {
         throw new StackOverflowError("bootstrap stack overflow");
     }
 
+    @SuppressWarnings("unused")
+    private static Object stackOverFlow_GetElement() {
+        throw new StackOverflowError("bootstrap stack overflow");
+    }
+
+    @SuppressWarnings("unused")
+    private static void stackOverFlow_SetElement() {
+        throw new StackOverflowError("bootstrap stack overflow");
+    }
+
     /**
      * The invokedynamic bootstrapping method.
      * 
@@ -1432,6 +1661,12 @@ public final class Bootstrap {
                 setup = MethodHandles.insertArguments(relCmpSetupMH, 0, callsite,
                         RelationalOperator.GreaterThanEquals);
                 break;
+            case CallNames.GET_ELEMENT:
+                setup = MethodHandles.insertArguments(getElementSetupMH, 0, callsite);
+                break;
+            case CallNames.SET_ELEMENT:
+                setup = MethodHandles.insertArguments(setElementSetupMH, 0, callsite);
+                break;
             case CallNames.CONCAT:
                 concatSetup(callsite, type);
                 return callsite;
@@ -1452,6 +1687,12 @@ public final class Bootstrap {
             case CallNames.CONCAT:
                 return new ConstantCallSite(MethodHandles.dropArguments(stackOverFlow_Concat, 0,
                         type.parameterArray()));
+            case CallNames.GET_ELEMENT:
+                return new ConstantCallSite(MethodHandles.dropArguments(stackOverFlow_GetElement, 0,
+                        type.parameterArray()));
+            case CallNames.SET_ELEMENT:
+                return new ConstantCallSite(MethodHandles.dropArguments(stackOverFlow_SetElement, 0,
+                        type.parameterArray()));
             case CallNames.ADD:
                 return stackOverFlow_Add;
             case CallNames.EQ:
@@ -0,0 +1,442 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.internal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.github.anba.es6draft.runtime.Task;
+
+/**
+ * <h1>8 Executable Code and Execution Contexts</h1>
+ * <ul>
+ * <li>8.4 Tasks and Task Queues
+ * </ul>
+ * <p>
+ * The task queues of a single {@link com.github.anba.es6draft.runtime.World World}.
+ * <p>
+ * Script and promise tasks must only be enqueued from the thread currently running the event loop. Tasks from other
+ * threads need to be passed through {@link #submit(Task)}.
+ */
+public final class EventLoop {
+    private final Policy policy;
+    private final Metrics metrics = new Metrics();
+    private final ArrayDeque<Task> scriptTasks = new ArrayDeque<>();
+    private final ArrayDeque<Task> promiseTasks = new ArrayDeque<>();
+    private final ConcurrentLinkedQueue<SubmittedTask> submittedTasks = new ConcurrentLinkedQueue<>();
+    private volatile Runnable wakeup;
+
+    /**
+     * Budget policy for the event loop.
+     */
+    public static final class Policy {
+        private static final Policy UNBOUNDED = new Policy(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        private final int maxMicrotasks;
+        private final long maxMicrotaskNanos;
+
+        private Policy(int maxMicrotasks, long maxMicrotaskNanos) {
+            this.maxMicrotasks = maxMicrotasks;
+            this.maxMicrotaskNanos = maxMicrotaskNanos;
+        }
+
+        /**
+         * Returns the default policy which always drains the promise task queue completely before running the next
+         * script task.
+         *
+         * @return the unbounded policy
+         */
+        public static Policy unbounded() {
+            return UNBOUNDED;
+        }
+
+        /**
+         * Returns a new policy which yields to script tasks and to the task source after the promise task budget has
+         * been exhausted.
+         * <p>
+         * Note: Yielding before the promise task queue is empty deviates from the specified task ordering.
+         *
+         * @param maxMicrotasks
+         *            the maximum number of consecutive promise tasks
+         * @param maxMicrotaskTime
+         *            the maximum time spent in consecutive promise tasks
+         * @param unit
+         *            the time unit of {@code maxMicrotaskTime}
+         * @return the new budget policy
+         */
+        public static Policy budgeted(int maxMicrotasks, long maxMicrotaskTime, TimeUnit unit) {
+            if (maxMicrotasks <= 0 || maxMicrotaskTime <= 0) {
+                throw new IllegalArgumentException();
+            }
+            return new Policy(maxMicrotasks, unit.toNanos(maxMicrotaskTime));
+        }
+
+        /**
+         * Returns the maximum number of consecutive promise tasks.
+         *
+         * @return the maximum number of consecutive promise tasks
+         */
+        public int getMaxMicrotasks() {
+            return maxMicrotasks;
+        }
+
+        /**
+         * Returns the maximum time in nanoseconds spent in consecutive promise tasks.
+         *
+         * @return the maximum time for consecutive promise tasks
+         */
+        public long getMaxMicrotaskNanos() {
+            return maxMicrotaskNanos;
+        }
+
+        boolean isUnbounded() {
+            return maxMicrotasks == Integer.MAX_VALUE && maxMicrotaskNanos == Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Event loop metrics.
+     * <p>
+     * All values are only updated by the thread running the event loop, reads from other threads may observe stale
+     * values.
+     */
+    public static final class Metrics {
+        private long scriptTasks;
+        private long promiseTasks;
+        private long submittedTasks;
+        private int maxScriptQueueDepth;
+        private int maxPromiseQueueDepth;
+        private long scriptTaskNanos;
+        private long maxScriptTaskNanos;
+        private long submitLatencyNanos;
+        private long maxSubmitLatencyNanos;
+        private long microtaskBursts;
+        private int maxMicrotaskBurst;
+        private long budgetYields;
+
+        Metrics() {
+        }
+
+        /**
+         * Returns the number of executed script tasks.
+         *
+         * @return the number of executed script tasks
+         */
+        public long getScriptTasks() {
+            return scriptTasks;
+        }
+
+        /**
+         * Returns the number of executed promise tasks.
+         *
+         * @return the number of executed promise tasks
+         */
+        public long getPromiseTasks() {
+            return promiseTasks;
+        }
+
+        /**
+         * Returns the number of tasks submitted through {@link EventLoop#submit(Task)}.
+         *
+         * @return the number of submitted tasks
+         */
+        public long getSubmittedTasks() {
+            return submittedTasks;
+        }
+
+        /**
+         * Returns the maximum observed depth of the script task queue.
+         *
+         * @return the maximum script task queue depth
+         */
+        public int getMaxScriptQueueDepth() {
+            return maxScriptQueueDepth;
+        }
+
+        /**
+         * Returns the maximum observed depth of the promise task queue.
+         *
+         * @return the maximum promise task queue depth
+         */
+        public int getMaxPromiseQueueDepth() {
+            return maxPromiseQueueDepth;
+        }
+
+        /**
+         * Returns the total execution time of all script tasks in nanoseconds.
+         *
+         * @return the total script task time
+         */
+        public long getScriptTaskNanos() {
+            return scriptTaskNanos;
+        }
+
+        /**
+         * Returns the maximum execution time of a single script task in nanoseconds.
+         *
+         * @return the maximum script task time
+         */
+        public long getMaxScriptTaskNanos() {
+            return maxScriptTaskNanos;
+        }
+
+        /**
+         * Returns the total time in nanoseconds submitted tasks spent waiting for execution.
+         *
+         * @return the total submit latency
+         */
+        public long getSubmitLatencyNanos() {
+            return submitLatencyNanos;
+        }
+
+        /**
+         * Returns the maximum time in nanoseconds a submitted task spent waiting for execution.
+         *
+         * @return the maximum submit latency
+         */
+        public long getMaxSubmitLatencyNanos() {
+            return maxSubmitLatencyNanos;
+        }
+
+        /**
+         * Returns the number of non-empty promise task bursts.
+         *
+         * @return the number of promise task bursts
+         */
+        public long getMicrotaskBursts() {
+            return microtaskBursts;
+        }
+
+        /**
+         * Returns the maximum number of promise tasks executed in a single burst.
+         *
+         * @return the maximum promise task burst
+         */
+        public int getMaxMicrotaskBurst() {
+            return maxMicrotaskBurst;
+        }
+
+        /**
+         * Returns how often a promise task burst was interrupted because its budget was exhausted.
+         *
+         * @return the number of budget yields
+         */
+        public long getBudgetYields() {
+            return budgetYields;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Metrics{scriptTasks=%d, promiseTasks=%d, submittedTasks=%d, maxScriptQueueDepth=%d, "
+                            + "maxPromiseQueueDepth=%d, scriptTaskNanos=%d, maxScriptTaskNanos=%d, "
+                            + "submitLatencyNanos=%d, maxSubmitLatencyNanos=%d, microtaskBursts=%d, "
+                            + "maxMicrotaskBurst=%d, budgetYields=%d}",
+                    scriptTasks, promiseTasks, submittedTasks, maxScriptQueueDepth, maxPromiseQueueDepth,
+                    scriptTaskNanos, maxScriptTaskNanos, submitLatencyNanos, maxSubmitLatencyNanos, microtaskBursts,
+                    maxMicrotaskBurst, budgetYields);
+        }
+    }
+
+    private static final class SubmittedTask {
+        final Task task;
+        final long submitted;
+
+        SubmittedTask(Task task) {
+            this.task = task;
+            this.submitted = System.nanoTime();
+        }
+    }
+
+    /**
+     * Creates a new event loop.
+     *
+     * @param policy
+     *            the budget policy
+     */
+    public EventLoop(Policy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Returns the budget policy.
+     *
+     * @return the budget policy
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the event loop metrics.
+     *
+     * @return the event loop metrics
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Checks whether there are any pending tasks.
+     *
+     * @return {@code true} if there are any pending tasks
+     */
+    public boolean hasPendingTasks() {
+        return !(scriptTasks.isEmpty() && promiseTasks.isEmpty() && submittedTasks.isEmpty());
+    }
+
+    /**
+     * Checks whether there are any pending submitted tasks. This method may be called from any thread.
+     *
+     * @return {@code true} if there are any pending submitted tasks
+     */
+    boolean hasSubmittedTasks() {
+        return !submittedTasks.isEmpty();
+    }
+
+    /**
+     * Enqueues {@code task} to the queue of pending script-tasks.
+     *
+     * @param task
+     *            the new script task
+     */
+    public void enqueueScriptTask(Task task) {
+        ArrayDeque<Task> scriptTasks = this.scriptTasks;
+        scriptTasks.offer(task);
+        if (scriptTasks.size() > metrics.maxScriptQueueDepth) {
+            metrics.maxScriptQueueDepth = scriptTasks.size();
+        }
+    }
+
+    /**
+     * Enqueues {@code task} to the queue of pending promise-tasks.
+     *
+     * @param task
+     *            the new promise task
+     */
+    public void enqueuePromiseTask(Task task) {
+        ArrayDeque<Task> promiseTasks = this.promiseTasks;
+        promiseTasks.offer(task);
+        if (promiseTasks.size() > metrics.maxPromiseQueueDepth) {
+            metrics.maxPromiseQueueDepth = promiseTasks.size();
+        }
+    }
+
+    /**
+     * Submits {@code task} to this event loop. The task is executed as a script task. This method may be called from
+     * any thread.
+     *
+     * @param task
+     *            the new task
+     */
+    public void submit(Task task) {
+        submittedTasks.offer(new SubmittedTask(task));
+        Runnable wakeup = this.wakeup;
+        if (wakeup != null) {
+            wakeup.run();
+        }
+    }
+
+    /**
+     * Sets the wake-up action which is called whenever a task was submitted.
+     *
+     * @param wakeup
+     *            the wake-up action or {@code null}
+     */
+    void setWakeup(Runnable wakeup) {
+        this.wakeup = wakeup;
+    }
+
+    /**
+     * Runs a single turn of the event loop: First all pending script tasks are executed, followed by the pending
+     * promise tasks. If the promise task budget was exhausted, the task source is polled for an available task before
+     * the turn ends.
+     *
+     * @param taskSource
+     *            the task source
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public void runTurn(TaskSource taskSource) throws InterruptedException {
+        drainSubmittedTasks();
+        executeScriptTasks();
+        if (!executePromiseTasks()) {
+            metrics.budgetYields += 1;
+            Task task = taskSource.pollTask();
+            if (task != null) {
+                enqueueScriptTask(task);
+            }
+        }
+    }
+
+    private void drainSubmittedTasks() {
+        for (SubmittedTask submitted; (submitted = submittedTasks.poll()) != null;) {
+            long latency = System.nanoTime() - submitted.submitted;
+            metrics.submittedTasks += 1;
+            metrics.submitLatencyNanos += latency;
+            if (latency > metrics.maxSubmitLatencyNanos) {
+                metrics.maxSubmitLatencyNanos = latency;
+            }
+            enqueueScriptTask(submitted.task);
+        }
+    }
+
+    private void executeScriptTasks() {
+        ArrayDeque<Task> scriptTasks = this.scriptTasks;
+        Metrics metrics = this.metrics;
+        // Execute all pending tasks until the queue is empty
+        for (Task task; (task = scriptTasks.poll()) != null;) {
+            long start = System.nanoTime();
+            try {
+                task.execute();
+            } finally {
+                long time = System.nanoTime() - start;
+                metrics.scriptTasks += 1;
+                metrics.scriptTaskNanos += time;
+                if (time > metrics.maxScriptTaskNanos) {
+                    metrics.maxScriptTaskNanos = time;
+                }
+            }
+        }
+    }
+
+    private boolean executePromiseTasks() {
+        ArrayDeque<Task> promiseTasks = this.promiseTasks;
+        if (promiseTasks.isEmpty()) {
+            return true;
+        }
+        Metrics metrics = this.metrics;
+        int burst = 0;
+        try {
+            if (policy.isUnbounded()) {
+                // Execute all pending tasks until the queue is empty
+                for (Task task; (task = promiseTasks.poll()) != null;) {
+                    burst += 1;
+                    task.execute();
+                }
+                return true;
+            }
+            int maxMicrotasks = policy.maxMicrotasks;
+            long deadline = System.nanoTime() + policy.maxMicrotaskNanos;
+            for (Task task; (task = promiseTasks.poll()) != null;) {
+                burst += 1;
+                task.execute();
+                if (burst >= maxMicrotasks || System.nanoTime() - deadline >= 0) {
+                    return promiseTasks.isEmpty();
+                }
+            }
+            return true;
+        } finally {
+            metrics.promiseTasks += burst;
+            metrics.microtaskBursts += 1;
+            if (burst > metrics.maxMicrotaskBurst) {
+                metrics.maxMicrotaskBurst = burst;
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.internal;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import com.github.anba.es6draft.runtime.Task;
+import com.github.anba.es6draft.runtime.World;
+
+/**
+ * Multiplexes the event loops of many {@link World} objects onto a shared {@link Executor}.
+ * <p>
+ * Each registered world is executed by at most one thread at a time. A world runs until its task queues are empty or
+ * until its time slice is exhausted, in the latter case it is rescheduled after all other already scheduled worlds.
+ * New work is passed to a registered world through {@link EventLoop#submit(com.github.anba.es6draft.runtime.Task)}.
+ * The task source of a world (for example its timers) is polled whenever the world runs, and the world is scheduled
+ * again when the task source reports its next task.
+ */
+public final class EventLoopGroup {
+    private static final TaskSource EMPTY_TASK_SOURCE = new TaskSource() {
+        @Override
+        public Task nextTask() {
+            return null;
+        }
+
+        @Override
+        public Task awaitTask() {
+            throw new IllegalStateException();
+        }
+    };
+
+    private static final class Scheduler {
+        static final ScheduledExecutorService INSTANCE;
+
+        static {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "es6draft-eventloopgroup-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            INSTANCE = scheduler;
+        }
+    }
+
+    private final Executor executor;
+    private final long sliceNanos;
+    private final BiConsumer<World, Throwable> errorReporter;
+    private final ConcurrentHashMap<World, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new event loop group.
+     *
+     * @param executor
+     *            the executor to run the event loops
+     * @param slice
+     *            the time slice for a single world
+     * @param unit
+     *            the time unit of {@code slice}
+     * @param errorReporter
+     *            the error reporter for uncaught exceptions
+     */
+    public EventLoopGroup(Executor executor, long slice, TimeUnit unit, BiConsumer<World, Throwable> errorReporter) {
+        if (slice <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.sliceNanos = unit.toNanos(slice);
+        this.errorReporter = Objects.requireNonNull(errorReporter);
+    }
+
+    /**
+     * Returns the number of registered worlds.
+     *
+     * @return the number of registered worlds
+     */
+    public int size() {
+        return dispatchers.size();
+    }
+
+    /**
+     * Registers {@code world} in this group and schedules any pending tasks.
+     * <p>
+     * The world must not be used by any other thread after it has been registered.
+     *
+     * @param world
+     *            the world
+     */
+    public void register(World world) {
+        register(world, EMPTY_TASK_SOURCE);
+    }
+
+    /**
+     * Registers {@code world} in this group and schedules any pending tasks. The task source is polled for new tasks
+     * whenever the world runs, it must support {@link TaskSource#pollTask()} and should report its next task through
+     * {@link TaskSource#nextTaskDelay(TimeUnit)}.
+     * <p>
+     * The world must not be used by any other thread after it has been registered.
+     *
+     * @param world
+     *            the world
+     * @param taskSource
+     *            the task source of the world
+     */
+    public void register(World world, TaskSource taskSource) {
+        Dispatcher dispatcher = new Dispatcher(world, Objects.requireNonNull(taskSource));
+        if (dispatchers.putIfAbsent(world, dispatcher) != null) {
+            throw new IllegalStateException();
+        }
+        world.getEventLoop().setWakeup(dispatcher::schedule);
+        dispatcher.schedule();
+    }
+
+    /**
+     * Removes {@code world} from this group. Submitted tasks are no longer automatically executed for this world.
+     *
+     * @param world
+     *            the world
+     * @return {@code true} if the world was registered in this group
+     */
+    public boolean unregister(World world) {
+        Dispatcher dispatcher = dispatchers.remove(world);
+        if (dispatcher == null) {
+            return false;
+        }
+        world.getEventLoop().setWakeup(null);
+        dispatcher.cancelWakeup();
+        return true;
+    }
+
+    private final class Dispatcher implements Runnable {
+        private final World world;
+        private final TaskSource taskSource;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Guarded by this.
+        private ScheduledFuture<?> wakeup;
+        private long wakeupTime;
+
+        Dispatcher(World world, TaskSource taskSource) {
+            this.world = world;
+            this.taskSource = taskSource;
+        }
+
+        void schedule() {
+            if (dispatchers.get(world) == this && scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * Schedules a wakeup after {@code delay} nanoseconds unless an earlier wakeup is already pending.
+         */
+        synchronized void scheduleWakeup(long delay) {
+            long time = System.nanoTime() + delay;
+            if (wakeup != null && !wakeup.isDone()) {
+                if (wakeupTime - time <= 0) {
+                    return;
+                }
+                wakeup.cancel(false);
+            }
+            if (dispatchers.get(world) == this) {
+                wakeupTime = time;
+                wakeup = Scheduler.INSTANCE.schedule(this::wakeup, delay, TimeUnit.NANOSECONDS);
+            } else {
+                wakeup = null;
+            }
+        }
+
+        private void wakeup() {
+            synchronized (this) {
+                // Don't drop a later wakeup when a cancelled wakeup was already running.
+                if (wakeupTime - System.nanoTime() <= 0) {
+                    wakeup = null;
+                }
+            }
+            schedule();
+        }
+
+        /**
+         * Cancels the pending wakeup, if any.
+         */
+        synchronized void cancelWakeup() {
+            if (wakeup != null) {
+                wakeup.cancel(false);
+                wakeup = null;
+            }
+        }
+
+        @Override
+        public void run() {
+            boolean pending;
+            try {
+                pending = world.runEventLoop(sliceNanos, TimeUnit.NANOSECONDS, taskSource);
+            } catch (InterruptedException e) {
+                // Restore the interrupt status for the executor and retry the remaining tasks later.
+                Thread.currentThread().interrupt();
+                pending = true;
+            } catch (Throwable e) {
+                pending = world.hasPendingTasks();
+                errorReporter.accept(world, e);
+            }
+            scheduled.set(false);
+            if (pending || world.getEventLoop().hasSubmittedTasks()) {
+                schedule();
+                return;
+            }
+            long delay = taskSource.nextTaskDelay(TimeUnit.NANOSECONDS);
+            if (delay == 0) {
+                schedule();
+            } else if (delay > 0) {
+                scheduleWakeup(delay);
+            }
+        }
+    }
+}
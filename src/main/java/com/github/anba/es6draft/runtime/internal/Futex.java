@@ -1,17 +1,15 @@
 /**
  * Copyright (c) 2012-2016 André Bargull
  * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
- *
+ * 
  * <https://github.com/anba/es6draft>
  */
 package com.github.anba.es6draft.runtime.internal;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -20,27 +18,145 @@ import java.util.concurrent.locks.ReentrantLock;
  * <ul>
  * <li>Runtime semantics
  * </ul>
+ * <p>
+ * Waiting agents are kept in per-address wait queues. The wait queues are distributed over a fixed number of lock
+ * stripes, so operations on unrelated addresses don't contend for the same lock.
  */
 public final class Futex {
-    private static final class Entry {
-        private final Condition condition;
+    private static final int STRIPES = 64;
+
+    /**
+     * Wait queue key, compares the byte buffer by identity.
+     */
+    private static final class Key {
         private final ByteBuffer buffer;
-        private int index;
+        private final int index;
 
-        Entry(Condition condition, ByteBuffer buffer, int index) {
-            this.condition = condition;
+        Key(ByteBuffer buffer, int index) {
             this.buffer = buffer;
             this.index = index;
         }
 
-        boolean matches(ByteBuffer buffer, int index) {
-            return this.buffer == buffer && this.index == index;
+        @Override
+        public int hashCode() {
+            return hash(buffer, index);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                return buffer == other.buffer && index == other.index;
+            }
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        private final Thread thread = Thread.currentThread();
+        private volatile boolean woken;
+        private volatile Stripe stripe;
+        private WaitQueue queue;
+        private Entry prev, next;
+    }
+
+    /**
+     * FIFO queue of waiting agents for a single address.
+     */
+    private static final class WaitQueue {
+        private final Key key;
+        private Entry head, tail;
+
+        WaitQueue(Key key) {
+            this.key = key;
+        }
+
+        boolean isEmpty() {
+            return head == null;
+        }
+
+        void add(Entry entry) {
+            entry.queue = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void remove(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.queue = null;
+            entry.prev = entry.next = null;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Stripe extends ReentrantLock {
+        private final HashMap<Key, WaitQueue> queues = new HashMap<>();
+        // Number of waiting agents, only modified while holding the lock.
+        private volatile int waiters;
+
+        WaitQueue queue(Key key) {
+            WaitQueue queue = queues.get(key);
+            if (queue == null) {
+                queues.put(key, queue = new WaitQueue(key));
+            }
+            return queue;
+        }
+
+        void enqueue(Entry entry, Key key) {
+            entry.stripe = this;
+            queue(key).add(entry);
+        }
+
+        void dequeue(Entry entry) {
+            WaitQueue queue = entry.queue;
+            queue.remove(entry);
+            if (queue.isEmpty()) {
+                queues.remove(queue.key);
+            }
+            waiters -= 1;
         }
     }
 
     // FIXME: spec issue - define fairness property for 'futex critical section'?
-    private final ReentrantLock lock = new ReentrantLock(true);
-    private final LinkedList<Futex.Entry> queue = new LinkedList<>();
+    private final Stripe[] stripes;
+
+    /**
+     * Constructs a new futex object.
+     */
+    public Futex() {
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; ++i) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private static int hash(ByteBuffer buffer, int index) {
+        int h = System.identityHashCode(buffer) * 31 + index;
+        return h ^ (h >>> 16);
+    }
+
+    private static int stripeIndex(ByteBuffer buffer, int index) {
+        return hash(buffer, index) & (STRIPES - 1);
+    }
+
+    private Stripe stripe(ByteBuffer buffer, int index) {
+        return stripes[stripeIndex(buffer, index)];
+    }
 
     /**
      * Result enumeration for {@link Futex#wait(ByteBuffer, int, int, long, TimeUnit)}.
@@ -68,21 +184,75 @@ public final class Futex {
      */
     public Futex.State wait(ByteBuffer buffer, int index, int value, long timeout, TimeUnit timeUnit)
             throws InterruptedException {
-        lock.lock();
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        Stripe stripe = stripe(buffer, index);
+        Entry entry = new Entry();
+        stripe.lock();
         try {
+            // Publish the waiter before reading the value, wake() reads the waiter count after the value was changed.
+            stripe.waiters += 1;
             int w = UnsafeHolder.getIntVolatile(buffer, index);
             if (w != value) {
+                stripe.waiters -= 1;
                 return State.NotEqual;
             }
-            Futex.Entry entry = new Entry(lock.newCondition(), buffer, index);
-            queue.add(entry);
-            if (entry.condition.await(timeout, timeUnit)) {
-                return State.OK;
-            }
-            queue.remove(entry);
-            return State.Timedout;
+            stripe.enqueue(entry, new Key(buffer, index));
         } finally {
-            lock.unlock();
+            stripe.unlock();
+        }
+
+        long nanos = timeUnit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        boolean interrupted = false;
+        while (!entry.woken) {
+            if (nanos <= 0) {
+                break;
+            }
+            LockSupport.parkNanos(this, nanos);
+            if (Thread.interrupted()) {
+                interrupted = true;
+                break;
+            }
+            nanos = deadline - System.nanoTime();
+        }
+        if (entry.woken || !cancel(entry)) {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return State.OK;
+        }
+        if (interrupted) {
+            throw new InterruptedException();
+        }
+        return State.Timedout;
+    }
+
+    /**
+     * Removes a timed out or interrupted entry from its wait queue.
+     * 
+     * @param entry
+     *            the wait queue entry
+     * @return {@code true} if the entry was removed, {@code false} if it was already woken
+     */
+    private boolean cancel(Entry entry) {
+        for (;;) {
+            // The entry may be moved to a different stripe through wakeOrRequeue().
+            Stripe stripe = entry.stripe;
+            stripe.lock();
+            try {
+                if (entry.stripe != stripe) {
+                    continue;
+                }
+                if (entry.woken) {
+                    return false;
+                }
+                stripe.dequeue(entry);
+                return true;
+            } finally {
+                stripe.unlock();
+            }
         }
     }
 
@@ -98,24 +268,30 @@ public final class Futex {
      * @return the actual number of agents awoken
      */
     public int wake(ByteBuffer buffer, int index, int count) {
-        lock.lock();
+        Stripe stripe = stripe(buffer, index);
+        if (stripe.waiters == 0 || count <= 0) {
+            return 0;
+        }
+        stripe.lock();
         try {
-            int n = 0;
-            for (Iterator<Futex.Entry> it = queue.iterator(); count > 0 && it.hasNext();) {
-                Futex.Entry entry = it.next();
-                if (entry.matches(buffer, index)) {
-                    it.remove();
-                    entry.condition.signal();
-                    count -= 1;
-                    n += 1;
-                }
-            }
-            return n;
+            WaitQueue queue = stripe.queues.get(new Key(buffer, index));
+            return queue != null ? wake(stripe, queue, count) : 0;
         } finally {
-            lock.unlock();
+            stripe.unlock();
         }
     }
 
+    private static int wake(Stripe stripe, WaitQueue queue, int count) {
+        int n = 0;
+        for (Entry entry; n < count && (entry = queue.head) != null;) {
+            stripe.dequeue(entry);
+            entry.woken = true;
+            LockSupport.unpark(entry.thread);
+            n += 1;
+        }
+        return n;
+    }
+
     /**
      * Wakes up or requeues a number of currently waiting agents.
      * 
@@ -132,37 +308,35 @@ public final class Futex {
      * @return the actual number of agents awoken or {@code -1} if the current value does not match the expected value
      */
     public int wakeOrRequeue(ByteBuffer buffer, int index1, int count, int index2, int value) {
-        lock.lock();
+        int s1 = stripeIndex(buffer, index1), s2 = stripeIndex(buffer, index2);
+        Stripe stripe1 = stripes[s1], stripe2 = stripes[s2];
+        // Acquire both locks in a consistent order to avoid deadlocks.
+        Stripe first = s1 <= s2 ? stripe1 : stripe2, second = s1 <= s2 ? stripe2 : stripe1;
+        first.lock();
+        second.lock();
         try {
             int w = UnsafeHolder.getIntVolatile(buffer, index1);
             if (w != value) {
                 return -1;
             }
-            int n = 0;
-            ArrayList<Futex.Entry> newEntries = new ArrayList<>();
-            for (Iterator<Futex.Entry> it = queue.iterator(); it.hasNext();) {
-                Futex.Entry entry = it.next();
-                if (entry.matches(buffer, index1)) {
-                    if (count > 0) {
-                        it.remove();
-                        entry.condition.signal();
-                        count -= 1;
-                        n += 1;
-                    } else if (index1 != index2) {
-                        it.remove();
-                        entry.index = index2;
-                        newEntries.add(entry);
-                    } else {
-                        break;
-                    }
-                }
+            WaitQueue queue = stripe1.queues.get(new Key(buffer, index1));
+            if (queue == null) {
+                return 0;
             }
-            if (!newEntries.isEmpty()) {
-                queue.addAll(newEntries);
+            int n = wake(stripe1, queue, count);
+            if (index1 != index2 && !queue.isEmpty()) {
+                WaitQueue target = stripe2.queue(new Key(buffer, index2));
+                for (Entry entry; (entry = queue.head) != null;) {
+                    stripe1.dequeue(entry);
+                    stripe2.waiters += 1;
+                    entry.stripe = stripe2;
+                    target.add(entry);
+                }
             }
             return n;
         } finally {
-            lock.unlock();
+            second.unlock();
+            first.unlock();
         }
     }
 }
@@ -342,7 +342,7 @@ public final class IndexedMap<VALUE> implements Iterable<Map.Entry<Long, VALUE>>
         @Override
         Elements<VALUE> toSparse() {
             VALUE[] arrayNoHoles = removeTrailingHoles(array);
-            return new SparseElements<>(new StubSortedMap<>(arrayNoHoles, count));
+            return new SparseElements<>(arrayNoHoles);
         }
 
         @Override
@@ -356,7 +356,7 @@ public final class IndexedMap<VALUE> implements Iterable<Map.Entry<Long, VALUE>>
                     return this;
                 }
             }
-            return new SparseElements<>(new StubSortedMap<>(arrayNoHoles, count));
+            return new SparseElements<>(arrayNoHoles);
         }
 
         @Override
@@ -568,23 +568,24 @@ public final class IndexedMap<VALUE> implements Iterable<Map.Entry<Long, VALUE>>
     }
 
     private static final class SparseElements<VALUE> extends Elements<VALUE> {
-        private final TreeMap<Long, VALUE> map;
+        private final SortedLongMap<VALUE> map = new SortedLongMap<>();
 
         SparseElements() {
-            map = new TreeMap<>();
         }
 
-        SparseElements(SortedMap<Long, VALUE> sortedMap) {
-            map = new TreeMap<>(sortedMap);
+        SparseElements(VALUE[] values) {
+            for (int i = 0, len = values.length; i < len; ++i) {
+                if (values[i] != null) {
+                    map.put(i, values[i]);
+                }
+            }
         }
 
         private VALUE[] toArray() {
             long length = length();
             assert 0 <= length && length <= Integer.MAX_VALUE;
             VALUE[] values = newArray((int) length);
-            for (Map.Entry<Long, VALUE> e : map.entrySet()) {
-                values[e.getKey().intValue()] = e.getValue();
-            }
+            map.forEach((k, v) -> values[(int) k] = v);
             return values;
         }
 
@@ -606,7 +607,7 @@ public final class IndexedMap<VALUE> implements Iterable<Map.Entry<Long, VALUE>>
 
         @Override
         long length() {
-            return map.isEmpty() ? 0 : map.lastKey() + 1;
+            return map.lastKey() + 1;
         }
 
         @Override
@@ -641,32 +642,26 @@ public final class IndexedMap<VALUE> implements Iterable<Map.Entry<Long, VALUE>>
 
         @Override
         List<String> keys() {
-            ArrayList<String> keys = new ArrayList<>(count());
-            for (Long k : map.keySet()) {
-                keys.add(k.toString());
-            }
-            return keys;
+            return toStrings(map.keys());
         }
 
         @Override
         List<String> keys(long from, long to) {
             assert from <= to;
-            int size = (int) Math.min(count(), to - from);
-            ArrayList<String> keys = new ArrayList<>(size);
-            for (Long k : map.subMap(from, true, to, false).keySet()) {
-                keys.add(k.toString());
+            return toStrings(map.keys(from, to));
+        }
+
+        private static List<String> toStrings(long[] indices) {
+            ArrayList<String> keys = new ArrayList<>(indices.length);
+            for (long k : indices) {
+                keys.add(Long.toString(k));
             }
             return keys;
         }
 
         @Override
         long[] indices() {
-            long[] indices = new long[count()];
-            int j = 0;
-            for (Long k : map.keySet()) {
-                indices[j++] = k;
-            }
-            return indices;
+            return map.keys();
         }
 
         @Override
@@ -675,47 +670,36 @@ public final class IndexedMap<VALUE> implements Iterable<Map.Entry<Long, VALUE>>
             if (from >= length || from >= to) {
                 return new long[0];
             }
-            long fromIndex = Math.min(from, length);
-            long toIndex = Math.min(to, length);
-            // Skip subMap() if whole range is requested.
-            if (fromIndex == 0 && toIndex == length) {
+            // Skip range search if whole range is requested.
+            if (from <= 0 && to >= length) {
                 return indices();
             }
-            long range = (toIndex - fromIndex);
-            int j = 0;
-            long[] indices = new long[(int) Math.min(range, count())];
-            for (Long k : map.subMap(from, true, to, false).keySet()) {
-                indices[j++] = k;
-            }
-            if (j != indices.length) {
-                indices = Arrays.copyOf(indices, j);
-            }
-            return indices;
+            return map.keys(from, to);
         }
 
         @Override
         Iterator<Map.Entry<Long, VALUE>> iterator() {
-            return map.entrySet().iterator();
+            return map.ascendingIterator(Long.MIN_VALUE, Long.MAX_VALUE);
         }
 
         @Override
         Iterator<Long> keysIterator() {
-            return map.keySet().iterator();
+            return map.keysIterator();
         }
 
         @Override
         Iterator<VALUE> valuesIterator() {
-            return map.values().iterator();
+            return map.valuesIterator();
         }
 
         @Override
         Iterator<Map.Entry<Long, VALUE>> ascendingIterator(long from, long to) {
-            return map.subMap(from, true, to, false).entrySet().iterator();
+            return map.ascendingIterator(from, to);
         }
 
         @Override
         Iterator<Map.Entry<Long, VALUE>> descendingIterator(long from, long to) {
-            return map.descendingMap().subMap(to, false, from, true).entrySet().iterator();
+            return map.descendingIterator(from, to);
         }
 
         @Override
@@ -820,67 +804,6 @@ public final class IndexedMap<VALUE> implements Iterable<Map.Entry<Long, VALUE>>
         }
     }
 
-    private static final class StubSortedMap<V> extends AbstractMap<Long, V> implements
-            SortedMap<Long, V> {
-        private final V[] values;
-        private final int size;
-
-        StubSortedMap(V[] values, int size) {
-            this.values = values;
-            this.size = size;
-        }
-
-        @Override
-        public int size() {
-            return size;
-        }
-
-        @Override
-        public Set<Map.Entry<Long, V>> entrySet() {
-            return new AbstractSet<Map.Entry<Long, V>>() {
-                @Override
-                public Iterator<java.util.Map.Entry<Long, V>> iterator() {
-                    return new DenseEntryIterator<>(0, values.length, values);
-                }
-
-                @Override
-                public int size() {
-                    return StubSortedMap.this.size();
-                }
-            };
-        }
-
-        @Override
-        public Comparator<? super Long> comparator() {
-            return null; // natural order
-        }
-
-        @Override
-        public SortedMap<Long, V> subMap(Long fromKey, Long toKey) {
-            throw new UnsupportedOperationException();
-        }
-
-        @Override
-        public SortedMap<Long, V> headMap(Long toKey) {
-            throw new UnsupportedOperationException();
-        }
-
-        @Override
-        public SortedMap<Long, V> tailMap(Long fromKey) {
-            throw new UnsupportedOperationException();
-        }
-
-        @Override
-        public Long firstKey() {
-            throw new UnsupportedOperationException();
-        }
-
-        @Override
-        public Long lastKey() {
-            throw new UnsupportedOperationException();
-        }
-    }
-
     /**
      * Returns {@code true} if the property key is a valid index.
      * 
@@ -6,210 +6,366 @@
  */
 package com.github.anba.es6draft.runtime.internal;
 
-import java.util.AbstractMap.SimpleEntry;
-import java.util.HashMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
- * Simple double-linked map implementation without fail-fast iterator.
+ * Insertion-ordered hash map implementation without fail-fast iterator.
+ * <p>
+ * Entries are stored in insertion order in flat arrays, an open-addressed index table maps hash codes to entry
+ * positions. Deleted entries leave a tombstone which is removed when the table is rehashed. Rehashing creates a new
+ * table and links the old table to it, so live iterators can translate their position into the new table.
  */
 public class LinkedMap<KEY, VALUE> implements Iterable<Map.Entry<KEY, VALUE>> {
-    @SuppressWarnings("serial")
-    protected static final class Entry<KEY, VALUE> extends SimpleEntry<KEY, VALUE> {
-        private Entry<KEY, VALUE> prev, next;
-        private boolean removed = false;
+    private static final int MIN_CAPACITY = 8;
+    private static final Object DELETED = new Object();
 
-        Entry(KEY key, VALUE value) {
-            super(key, value);
+    private static final class Table {
+        /** Entry keys in insertion order, {@link LinkedMap#DELETED} for deleted entries */
+        Object[] keys;
+        /** Entry values in insertion order */
+        Object[] values;
+        /** Entry hash codes in insertion order */
+        int[] hashes;
+        /** Open-addressed index table, stores entry position + 1 or 0 for empty slots */
+        int[] index;
+        /** Number of used entry positions, including deleted entries */
+        int used;
+
+        /** The next table after rehashing or clearing this table */
+        Table next;
+        /** Sorted positions of deleted entries when this table was rehashed, {@code null} if cleared */
+        int[] removed;
+
+        Table(int capacity) {
+            keys = new Object[capacity];
+            values = new Object[capacity];
+            hashes = new int[capacity];
+            index = new int[capacity << 1];
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        /**
+         * Translates an iteration position of this table into the corresponding position of the next table.
+         */
+        int translate(int position) {
+            if (removed == null) {
+                return 0;
+            }
+            int i = Arrays.binarySearch(removed, position);
+            return position - (i < 0 ? -(i + 1) : i);
+        }
+
+        void retire(Table next, int[] removed) {
+            this.next = next;
+            this.removed = removed;
+            this.keys = null;
+            this.values = null;
+            this.hashes = null;
+            this.index = null;
         }
     }
 
-    private final HashMap<KEY, Entry<KEY, VALUE>> map;
-    private final Entry<KEY, VALUE> head;
+    private Table table;
+    private int size;
 
     /**
      * Construct a new empty map.
      */
     public LinkedMap() {
-        map = new HashMap<>();
-        head = new Entry<>(null, null);
-        head.prev = head;
-        head.next = head;
+        table = new Table(MIN_CAPACITY);
     }
 
-    private void insert(KEY hashKey, KEY key, VALUE value) {
-        Entry<KEY, VALUE> entry = newEntry(key, value);
-        map.put(hashKey, entry);
-        entry.prev = head.prev;
-        entry.next = head;
-        head.prev.next = entry;
-        head.prev = entry;
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 
     /**
-     * Creates a new entry object.
-     * 
+     * Returns the entry key to store for <var>key</var>.
+     *
      * @param key
-     *            the entry key
-     * @param value
-     *            the entry value
-     * @return the new map entry
+     *            the key
+     * @return the entry key
      */
-    protected Entry<KEY, VALUE> newEntry(KEY key, VALUE value) {
-        return new Entry<>(key, value);
+    protected KEY entryKey(KEY key) {
+        return key;
     }
 
     /**
-     * Returns the hash-key for <var>key</var>.
-     * 
+     * Returns the hash code for <var>key</var>.
+     *
      * @param key
      *            the key
-     * @return the hash-key
+     * @return the hash code
      */
-    protected KEY hashKey(KEY key) {
-        return key;
+    protected int hashCode(KEY key) {
+        return Objects.hashCode(key);
+    }
+
+    /**
+     * Returns {@code true} if both keys are equal.
+     *
+     * @param key
+     *            the key
+     * @param entryKey
+     *            the entry key
+     * @return {@code true} if both keys are equal
+     */
+    protected boolean isEqual(KEY key, KEY entryKey) {
+        return Objects.equals(key, entryKey);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int find(Table table, KEY key, int hash) {
+        Object[] keys = table.keys;
+        int[] hashes = table.hashes;
+        int[] index = table.index;
+        int mask = index.length - 1;
+        for (int slot = mix(hash) & mask;; slot = (slot + 1) & mask) {
+            int position = index[slot] - 1;
+            if (position < 0) {
+                return -1;
+            }
+            Object entryKey = keys[position];
+            if (hashes[position] == hash && entryKey != DELETED && isEqual(key, (KEY) entryKey)) {
+                return position;
+            }
+        }
+    }
+
+    private static void insertIndex(Table table, int hash, int position) {
+        int[] index = table.index;
+        int mask = index.length - 1;
+        int slot = mix(hash) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private void rehash(int newCapacity) {
+        Table oldTable = table;
+        Table newTable = new Table(newCapacity);
+        Object[] keys = oldTable.keys, values = oldTable.values;
+        int[] hashes = oldTable.hashes;
+        int[] removed = new int[oldTable.used - size];
+        int removedCount = 0, position = 0;
+        for (int i = 0, used = oldTable.used; i < used; ++i) {
+            Object key = keys[i];
+            if (key == DELETED) {
+                removed[removedCount++] = i;
+                continue;
+            }
+            newTable.keys[position] = key;
+            newTable.values[position] = values[i];
+            newTable.hashes[position] = hashes[i];
+            insertIndex(newTable, hashes[i], position);
+            position += 1;
+        }
+        assert position == size && removedCount == removed.length;
+        newTable.used = position;
+        oldTable.retire(newTable, removed);
+        table = newTable;
+    }
+
+    private void insert(KEY key, int hash, VALUE value) {
+        Table table = this.table;
+        if (table.used == table.capacity()) {
+            // Grow if more than half of the entries are live, otherwise only remove the deleted entries.
+            int capacity = table.capacity();
+            rehash(size >= (capacity >> 1) ? capacity << 1 : capacity);
+            table = this.table;
+        }
+        int position = table.used++;
+        table.keys[position] = entryKey(key);
+        table.values[position] = value;
+        table.hashes[position] = hash;
+        insertIndex(table, hash, position);
+        size += 1;
     }
 
     /**
      * Returns the number of mappings.
-     * 
+     *
      * @return the number of mappings
      */
     public int size() {
-        return map.size();
+        return size;
     }
 
     /**
      * Removes all mappings.
      */
     public void clear() {
-        map.clear();
-        for (Entry<KEY, VALUE> e = head.next; e != head; e = e.next) {
-            e.removed = true;
-        }
-        head.next = head;
-        head.prev = head;
+        Table oldTable = table;
+        table = new Table(MIN_CAPACITY);
+        size = 0;
+        oldTable.retire(table, null);
     }
 
     /**
      * Deletes the mapping for <var>key</var>.
-     * 
+     *
      * @param key
      *            the key
      * @return {@code true} if <var>key</var> was mapped to a value
      */
     public boolean delete(KEY key) {
-        KEY hashKey = hashKey(key);
-        Entry<KEY, VALUE> entry = map.remove(hashKey);
-        if (entry != null) {
-            entry.removed = true;
-            entry.prev.next = entry.next;
-            entry.next.prev = entry.prev;
-            return true;
+        Table table = this.table;
+        int position = find(table, key, hashCode(key));
+        if (position < 0) {
+            return false;
         }
-        return false;
+        // The index slot keeps pointing to the tombstone entry until the next rehash.
+        table.keys[position] = DELETED;
+        table.values[position] = null;
+        size -= 1;
+        int capacity = table.capacity();
+        if (capacity > MIN_CAPACITY && size < (capacity >> 2)) {
+            rehash(capacity >> 1);
+        }
+        return true;
     }
 
     /**
      * Returns the mapped value for <var>key</var> or {@code null} if no mapping was found.
-     * 
+     *
      * @param key
      *            the key
      * @return the mapped value or {@code null}
      */
+    @SuppressWarnings("unchecked")
     public VALUE get(KEY key) {
-        KEY hashKey = hashKey(key);
-        Entry<KEY, VALUE> entry = map.get(hashKey);
-        if (entry != null) {
-            return entry.getValue();
+        Table table = this.table;
+        int position = find(table, key, hashCode(key));
+        if (position < 0) {
+            return null;
         }
-        return null;
+        return (VALUE) table.values[position];
     }
 
     /**
      * Returns {@code true} if a mapping for <var>key</var> is present.
-     * 
+     *
      * @param key
      *            the key
      * @return {@code true} if <var>key</var> is mapped to a value
      */
     public boolean has(KEY key) {
-        KEY hashKey = hashKey(key);
-        return map.containsKey(hashKey);
+        return find(table, key, hashCode(key)) >= 0;
     }
 
     /**
      * Inserts or updates the mapping <var>key</var> &rarr; <var>value</var>.
-     * 
+     *
      * @param key
      *            the key
      * @param value
      *            the mapped value
      */
     public void set(KEY key, VALUE value) {
-        KEY hashKey = hashKey(key);
-        Entry<KEY, VALUE> entry = map.get(hashKey);
-        if (entry != null) {
-            entry.setValue(value);
+        Table table = this.table;
+        int hash = hashCode(key);
+        int position = find(table, key, hash);
+        if (position >= 0) {
+            table.values[position] = value;
         } else {
-            insert(hashKey, key, value);
+            insert(key, hash, value);
         }
     }
 
     /**
      * Inserts or updates the mappings from <var>map</var>. (Bulk operation)
-     * 
+     *
      * @param map
      *            the source map
      * @see #set(Object, Object)
      */
+    @SuppressWarnings("unchecked")
     public void setAll(LinkedMap<KEY, VALUE> map) {
-        if (head == head.next) {
-            // empty map
-            for (Entry<KEY, VALUE> e = map.head; e.next != map.head; e = e.next) {
-                KEY hashKey = hashKey(e.getKey());
-                insert(hashKey, e.getKey(), e.getValue());
+        Table source = map.table;
+        if (size == 0 && map.getClass() == getClass()) {
+            // Same hash and equality functions, copy the live entries directly.
+            int capacity = MIN_CAPACITY;
+            while (capacity < map.size) {
+                capacity <<= 1;
+            }
+            Table oldTable = table;
+            Table newTable = new Table(capacity);
+            int position = 0;
+            for (int i = 0, used = source.used; i < used; ++i) {
+                Object key = source.keys[i];
+                if (key != DELETED) {
+                    int hash = source.hashes[i];
+                    newTable.keys[position] = key;
+                    newTable.values[position] = source.values[i];
+                    newTable.hashes[position] = hash;
+                    insertIndex(newTable, hash, position);
+                    position += 1;
+                }
             }
+            newTable.used = position;
+            size = position;
+            table = newTable;
+            oldTable.retire(newTable, null);
         } else {
-            for (Entry<KEY, VALUE> e = map.head; e.next != map.head; e = e.next) {
-                set(e.getKey(), e.getValue());
+            for (int i = 0; i < source.used; ++i) {
+                Object key = source.keys[i];
+                if (key != DELETED) {
+                    set((KEY) key, (VALUE) source.values[i]);
+                }
             }
         }
     }
 
     /**
      * Returns a new {@link Iterator} over this map.
-     * 
+     *
      * @return an iterator over this map
      */
     @Override
     public Iterator<Map.Entry<KEY, VALUE>> iterator() {
         return new Iterator<Map.Entry<KEY, VALUE>>() {
-            private Entry<KEY, VALUE> cursor = head;
+            private Table current = table;
+            private int position = 0;
 
-            private Entry<KEY, VALUE> find() {
-                Entry<KEY, VALUE> entry = cursor;
-                while (entry.removed) {
-                    entry = entry.prev;
+            private boolean find() {
+                Table t = current;
+                int pos = position;
+                while (t.next != null) {
+                    pos = t.translate(pos);
+                    t = t.next;
+                }
+                Object[] keys = t.keys;
+                for (int used = t.used; pos < used && keys[pos] == DELETED; ++pos) {
                 }
-                return entry.next;
+                current = t;
+                position = pos;
+                return pos < t.used;
             }
 
             @Override
             public boolean hasNext() {
-                return find() != head;
+                return find();
             }
 
+            @SuppressWarnings("unchecked")
             @Override
-            public Entry<KEY, VALUE> next() {
-                Entry<KEY, VALUE> next = find();
-                if (next == head) {
+            public Map.Entry<KEY, VALUE> next() {
+                if (!find()) {
                     throw new NoSuchElementException();
                 }
-                cursor = next;
-                return next;
+                Table t = current;
+                int pos = position++;
+                return new SimpleImmutableEntry<>((KEY) t.keys[pos], (VALUE) t.values[pos]);
             }
         };
     }
@@ -8,52 +8,71 @@ package com.github.anba.es6draft.runtime.internal;
 
 import static com.github.anba.es6draft.runtime.objects.simd.SIMD.SIMDCreate;
 
-import org.mozilla.javascript.ConsString;
-
 import com.github.anba.es6draft.runtime.objects.simd.SIMDValue;
 
 /**
- * {@link LinkedMap} implementation with additional changes to {@link #newEntry(Object, Object)} and
- * {@link #hashKey(Object)} to properly support runtime types.
+ * {@link LinkedMap} implementation with additional changes to {@link #entryKey(Object)}, {@link #hashCode(Object)}
+ * and {@link #isEqual(Object, Object)} to properly support runtime types.
  */
 public final class LinkedMapImpl<VALUE> extends LinkedMap<Object, VALUE> {
     @Override
-    protected Entry<Object, VALUE> newEntry(Object key, VALUE value) {
+    protected Object entryKey(Object key) {
         if (key instanceof Double) {
             // Map +/-0 to +0 per Map.prototype.set and Set.prototype.add.
             double v = (Double) key;
-            return super.newEntry(v == 0 ? +0d : v, value);
+            return v == 0 ? +0d : v;
         }
-        return super.newEntry(key, value);
+        return key;
     }
 
     @Override
-    protected Object hashKey(Object key) {
-        if (key instanceof ConsString) {
-            // ConsString -> String
-            return ((ConsString) key).toString();
+    protected int hashCode(Object key) {
+        if (key instanceof CharSequence) {
+            // ConsString and String share the same hash code.
+            return key.toString().hashCode();
         }
         if (key instanceof Integer) {
-            // int -> double
-            return (double) (Integer) key;
+            return hashNumber((Integer) key);
         }
-        if (key instanceof Long) {
-            // long -> double
-            return (double) (Long) key;
+        if (key instanceof Long || key instanceof Double) {
+            return hashNumber(((Number) key).doubleValue());
         }
-        if (key instanceof Double) {
+        if (key instanceof SIMDValue) {
             // Map +/-0 to +0 to enforce SameValueZero comparison semantics.
-            double v = (Double) key;
-            return v == 0 ? +0d : v;
+            return hashKeySIMD((SIMDValue) key).hashCode();
+        }
+        return key.hashCode();
+    }
+
+    @Override
+    protected boolean isEqual(Object key, Object entryKey) {
+        if (key == entryKey) {
+            return true;
+        }
+        if (key instanceof CharSequence) {
+            return entryKey instanceof CharSequence && key.toString().equals(entryKey.toString());
+        }
+        if (key instanceof Integer || key instanceof Long || key instanceof Double) {
+            if (!(entryKey instanceof Integer || entryKey instanceof Long || entryKey instanceof Double)) {
+                return false;
+            }
+            // SameValueZero comparison.
+            double x = ((Number) key).doubleValue(), y = ((Number) entryKey).doubleValue();
+            return x == y || (x != x && y != y);
         }
         if (key instanceof SIMDValue) {
-            // Map +/-0 to +0 to enforce SameValueZero comparison semantics.
-            return hashKeySIMD((SIMDValue) key);
+            return entryKey instanceof SIMDValue
+                    && hashKeySIMD((SIMDValue) key).equals(hashKeySIMD((SIMDValue) entryKey));
         }
-        return key;
+        return key.equals(entryKey);
+    }
+
+    private static int hashNumber(double v) {
+        // Map +/-0 to +0 to enforce SameValueZero comparison semantics.
+        return Double.hashCode(v == 0 ? +0d : v);
     }
 
-    private SIMDValue hashKeySIMD(SIMDValue value) {
+    private static SIMDValue hashKeySIMD(SIMDValue value) {
         if (!value.getType().isFloatingPoint()) {
             return value;
         }
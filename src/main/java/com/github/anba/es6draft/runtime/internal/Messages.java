@@ -346,6 +346,16 @@ public final class Messages {
         AtomicsNotSharedBuffer("atomics.not_shared_buffer"),
         AtomicsInvalidArrayIndex("atomics.invalid_array_index"),
 
+        // Structured clone
+        StructuredCloneUnsupportedType("structured_clone.unsupported_type"),
+        StructuredCloneDetachedBuffer("structured_clone.detached_buffer"),
+        StructuredCloneInvalidTransfer("structured_clone.invalid_transfer"),
+        StructuredCloneInvalidData("structured_clone.invalid_data"),
+
+        // Worker
+        WorkerClosed("worker.closed"),
+        WorkerQueueFull("worker.queue_full"),
+
         ;
         /* @formatter:on */
 
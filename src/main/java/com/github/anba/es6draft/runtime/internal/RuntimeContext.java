@@ -22,6 +22,7 @@ import java.util.function.BiFunction;
 
 import com.github.anba.es6draft.compiler.Compiler;
 import com.github.anba.es6draft.parser.Parser;
+import com.github.anba.es6draft.regexp.RegExpBackend;
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.modules.ModuleLoader;
 import com.github.anba.es6draft.runtime.modules.loader.FileModuleLoader;
@@ -47,6 +48,9 @@ public final class RuntimeContext {
     private final boolean shutdownWorkerExecutorOnFinalization;
     private final BiConsumer<ExecutionContext, Throwable> workerErrorReporter;
     private final Futex futex;
+    private final EventLoop.Policy eventLoopPolicy;
+    private final long directBufferThreshold;
+    private final RegExpBackend regExpBackend;
 
     private final EnumSet<CompatibilityOption> options;
     private final EnumSet<Parser.Option> parserOptions;
@@ -56,6 +60,7 @@ public final class RuntimeContext {
             BiFunction<RuntimeContext, ScriptLoader, ? extends ModuleLoader> moduleLoader, Locale locale,
             TimeZone timeZone, Path baseDirectory, Console console, ScriptCache scriptCache, ExecutorService executor,
             ExecutorService workerExecutor, BiConsumer<ExecutionContext, Throwable> workerErrorReporter, Futex futex,
+            EventLoop.Policy eventLoopPolicy, long directBufferThreshold, RegExpBackend regExpBackend,
             EnumSet<CompatibilityOption> options, EnumSet<Parser.Option> parserOptions,
             EnumSet<Compiler.Option> compilerOptions) {
         this.globalAllocator = globalAllocator;
@@ -71,6 +76,9 @@ public final class RuntimeContext {
         this.shutdownWorkerExecutorOnFinalization = workerExecutor == null;
         this.workerErrorReporter = workerErrorReporter;
         this.futex = futex;
+        this.eventLoopPolicy = eventLoopPolicy;
+        this.directBufferThreshold = directBufferThreshold;
+        this.regExpBackend = regExpBackend;
         this.options = EnumSet.copyOf(options);
         this.parserOptions = EnumSet.copyOf(parserOptions);
         this.compilerOptions = EnumSet.copyOf(compilerOptions);
@@ -194,6 +202,33 @@ public final class RuntimeContext {
         return futex;
     }
 
+    /**
+     * Returns the event loop budget policy.
+     * 
+     * @return the event loop policy
+     */
+    public EventLoop.Policy getEventLoopPolicy() {
+        return eventLoopPolicy;
+    }
+
+    /**
+     * Returns the minimum byte length for array buffers allocated outside of the Java heap.
+     * 
+     * @return the direct buffer threshold in bytes
+     */
+    public long getDirectBufferThreshold() {
+        return directBufferThreshold;
+    }
+
+    /**
+     * Returns the regular expression matcher implementation.
+     * 
+     * @return the regular expression backend
+     */
+    public RegExpBackend getRegExpBackend() {
+        return regExpBackend;
+    }
+
     /**
      * Returns the compatibility options for this instance.
      * 
@@ -236,6 +271,9 @@ public final class RuntimeContext {
         private ExecutorService workerExecutor;
         private BiConsumer<ExecutionContext, Throwable> workerErrorReporter;
         private Futex futex;
+        private EventLoop.Policy eventLoopPolicy;
+        private long directBufferThreshold;
+        private RegExpBackend regExpBackend;
         private final EnumSet<CompatibilityOption> options = EnumSet.noneOf(CompatibilityOption.class);
         private final EnumSet<Parser.Option> parserOptions = EnumSet.noneOf(Parser.Option.class);
         private final EnumSet<Compiler.Option> compilerOptions = EnumSet.noneOf(Compiler.Option.class);
@@ -251,6 +289,9 @@ public final class RuntimeContext {
                 // empty
             };
             futex = new Futex();
+            eventLoopPolicy = EventLoop.Policy.unbounded();
+            directBufferThreshold = Long.MAX_VALUE;
+            regExpBackend = RegExpBackend.Interpreter;
         }
 
         public Builder(RuntimeContext context) {
@@ -265,6 +306,9 @@ public final class RuntimeContext {
             workerExecutor = context.workerExecutor;
             workerErrorReporter = context.workerErrorReporter;
             futex = context.futex;
+            eventLoopPolicy = context.eventLoopPolicy;
+            directBufferThreshold = context.directBufferThreshold;
+            regExpBackend = context.regExpBackend;
             options.addAll(context.options);
             parserOptions.addAll(context.parserOptions);
             compilerOptions.addAll(context.compilerOptions);
@@ -277,7 +321,8 @@ public final class RuntimeContext {
          */
         public RuntimeContext build() {
             return new RuntimeContext(allocator, moduleLoader, locale, timeZone, baseDirectory, console, scriptCache,
-                    executor, workerExecutor, workerErrorReporter, futex, options, parserOptions, compilerOptions);
+                    executor, workerExecutor, workerErrorReporter, futex, eventLoopPolicy, directBufferThreshold,
+                    regExpBackend, options, parserOptions, compilerOptions);
         }
 
         /**
@@ -412,6 +457,47 @@ public final class RuntimeContext {
             return this;
         }
 
+        /**
+         * Sets the event loop budget policy.
+         * 
+         * @param eventLoopPolicy
+         *            the event loop policy
+         * @return this builder
+         */
+        public Builder setEventLoopPolicy(EventLoop.Policy eventLoopPolicy) {
+            this.eventLoopPolicy = Objects.requireNonNull(eventLoopPolicy);
+            return this;
+        }
+
+        /**
+         * Sets the minimum byte length for array buffers allocated outside of the Java heap. Array buffers with a
+         * smaller byte length are allocated on the heap. Defaults to {@link Long#MAX_VALUE}, that means all array
+         * buffers are allocated on the heap.
+         * 
+         * @param directBufferThreshold
+         *            the direct buffer threshold in bytes
+         * @return this builder
+         */
+        public Builder setDirectBufferThreshold(long directBufferThreshold) {
+            if (directBufferThreshold < 0) {
+                throw new IllegalArgumentException();
+            }
+            this.directBufferThreshold = directBufferThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the regular expression matcher implementation. Defaults to {@link RegExpBackend#Interpreter}.
+         * 
+         * @param regExpBackend
+         *            the regular expression backend
+         * @return this builder
+         */
+        public Builder setRegExpBackend(RegExpBackend regExpBackend) {
+            this.regExpBackend = Objects.requireNonNull(regExpBackend);
+            return this;
+        }
+
         /**
          * Sets the compatibility options.
          * 
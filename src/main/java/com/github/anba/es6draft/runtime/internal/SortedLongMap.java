@@ -0,0 +1,503 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.internal;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted map with primitive {@code long} keys.
+ * <p>
+ * Entries are stored in chunks of sorted, parallel {@code long[]} and {@code Object[]} arrays, the chunks themselves
+ * are ordered by their first key. Lookups use a binary search over the chunks followed by a binary search within the
+ * chunk. Inserting ascending keys fills chunks completely, random inserts split full chunks in half.
+ *
+ * @param <VALUE>
+ *            the value type
+ */
+final class SortedLongMap<VALUE> {
+    private static final int CHUNK_CAPACITY = 128;
+    private static final int MERGE_THRESHOLD = CHUNK_CAPACITY / 4;
+    private static final int MIN_CHUNKS = 4;
+
+    private long[][] keys = new long[MIN_CHUNKS][];
+    private Object[][] values = new Object[MIN_CHUNKS][];
+    private int[] sizes = new int[MIN_CHUNKS];
+    private int chunks;
+    private int size;
+    private int modCount;
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map is empty.
+     *
+     * @return {@code true} if this map is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the last key or {@code -1} if this map is empty.
+     *
+     * @return the last key or {@code -1}
+     */
+    long lastKey() {
+        if (size == 0) {
+            return -1;
+        }
+        int c = chunks - 1;
+        return keys[c][sizes[c] - 1];
+    }
+
+    /**
+     * Returns the index of the chunk which may contain {@code key}.
+     */
+    private int chunkFor(long key) {
+        int lo = 1, hi = chunks - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid][0] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo - 1;
+    }
+
+    /**
+     * Returns {@code true} if the key is present.
+     *
+     * @param key
+     *            the key
+     * @return {@code true} if the key is present
+     */
+    boolean containsKey(long key) {
+        if (size == 0) {
+            return false;
+        }
+        int c = chunkFor(key);
+        return Arrays.binarySearch(keys[c], 0, sizes[c], key) >= 0;
+    }
+
+    /**
+     * Returns the mapped value or {@code null} if not present.
+     *
+     * @param key
+     *            the key
+     * @return the mapped value or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    VALUE get(long key) {
+        if (size == 0) {
+            return null;
+        }
+        int c = chunkFor(key);
+        int pos = Arrays.binarySearch(keys[c], 0, sizes[c], key);
+        return pos >= 0 ? (VALUE) values[c][pos] : null;
+    }
+
+    /**
+     * Inserts or replaces an entry.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     */
+    void put(long key, VALUE value) {
+        if (chunks == 0) {
+            insertChunk(0);
+        }
+        int c = chunkFor(key);
+        int n = sizes[c];
+        int pos = Arrays.binarySearch(keys[c], 0, n, key);
+        if (pos >= 0) {
+            values[c][pos] = value;
+            return;
+        }
+        pos = -(pos + 1);
+        if (n == CHUNK_CAPACITY) {
+            if (pos == n && c == chunks - 1) {
+                // Ascending inserts start a new chunk instead of splitting the full chunk.
+                c = insertChunk(chunks);
+                pos = 0;
+            } else {
+                int half = n >>> 1;
+                int next = insertChunk(c + 1);
+                System.arraycopy(keys[c], half, keys[next], 0, n - half);
+                System.arraycopy(values[c], half, values[next], 0, n - half);
+                Arrays.fill(values[c], half, n, null);
+                sizes[c] = half;
+                sizes[next] = n - half;
+                if (pos > half) {
+                    c = next;
+                    pos -= half;
+                }
+            }
+            n = sizes[c];
+        }
+        long[] chunkKeys = keys[c];
+        Object[] chunkValues = values[c];
+        System.arraycopy(chunkKeys, pos, chunkKeys, pos + 1, n - pos);
+        System.arraycopy(chunkValues, pos, chunkValues, pos + 1, n - pos);
+        chunkKeys[pos] = key;
+        chunkValues[pos] = value;
+        sizes[c] = n + 1;
+        size += 1;
+        modCount += 1;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key
+     *            the key
+     * @return the removed value or {@code null} if not present
+     */
+    VALUE remove(long key) {
+        if (size == 0) {
+            return null;
+        }
+        int c = chunkFor(key);
+        int pos = Arrays.binarySearch(keys[c], 0, sizes[c], key);
+        if (pos < 0) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        VALUE value = (VALUE) values[c][pos];
+        removeAt(c, pos);
+        return value;
+    }
+
+    private void removeAt(int c, int pos) {
+        long[] chunkKeys = keys[c];
+        Object[] chunkValues = values[c];
+        int n = sizes[c] - 1;
+        System.arraycopy(chunkKeys, pos + 1, chunkKeys, pos, n - pos);
+        System.arraycopy(chunkValues, pos + 1, chunkValues, pos, n - pos);
+        chunkValues[n] = null;
+        sizes[c] = n;
+        size -= 1;
+        modCount += 1;
+        if (n == 0) {
+            removeChunk(c);
+        } else if (n < MERGE_THRESHOLD) {
+            // Merge sparsely filled neighbours to keep lookups short.
+            if (c + 1 < chunks && n + sizes[c + 1] <= CHUNK_CAPACITY / 2) {
+                mergeChunks(c);
+            } else if (c > 0 && n + sizes[c - 1] <= CHUNK_CAPACITY / 2) {
+                mergeChunks(c - 1);
+            }
+        }
+    }
+
+    private int insertChunk(int c) {
+        if (chunks == keys.length) {
+            int newLength = chunks + (chunks >> 1);
+            keys = Arrays.copyOf(keys, newLength);
+            values = Arrays.copyOf(values, newLength);
+            sizes = Arrays.copyOf(sizes, newLength);
+        }
+        System.arraycopy(keys, c, keys, c + 1, chunks - c);
+        System.arraycopy(values, c, values, c + 1, chunks - c);
+        System.arraycopy(sizes, c, sizes, c + 1, chunks - c);
+        keys[c] = new long[CHUNK_CAPACITY];
+        values[c] = new Object[CHUNK_CAPACITY];
+        sizes[c] = 0;
+        chunks += 1;
+        return c;
+    }
+
+    private void removeChunk(int c) {
+        int moved = chunks - c - 1;
+        System.arraycopy(keys, c + 1, keys, c, moved);
+        System.arraycopy(values, c + 1, values, c, moved);
+        System.arraycopy(sizes, c + 1, sizes, c, moved);
+        chunks -= 1;
+        keys[chunks] = null;
+        values[chunks] = null;
+        sizes[chunks] = 0;
+    }
+
+    private void mergeChunks(int c) {
+        int n = sizes[c], m = sizes[c + 1];
+        System.arraycopy(keys[c + 1], 0, keys[c], n, m);
+        System.arraycopy(values[c + 1], 0, values[c], n, m);
+        sizes[c] = n + m;
+        removeChunk(c + 1);
+    }
+
+    /**
+     * Returns the position of the first entry whose key is not less than {@code key}, encoded as
+     * {@code (chunk << 32) | index}.
+     */
+    private long lowerBound(long key) {
+        if (size == 0) {
+            return 0;
+        }
+        int c = chunkFor(key);
+        int pos = Arrays.binarySearch(keys[c], 0, sizes[c], key);
+        if (pos < 0) {
+            pos = -(pos + 1);
+        }
+        if (pos == sizes[c] && c + 1 < chunks) {
+            return (long) (c + 1) << 32;
+        }
+        return ((long) c << 32) | pos;
+    }
+
+    /**
+     * Returns the keys in the range {@code [from, to)}.
+     *
+     * @param from
+     *            from key (inclusive)
+     * @param to
+     *            to key (exclusive)
+     * @return the keys in ascending order
+     */
+    long[] keys(long from, long to) {
+        if (size == 0 || from >= to) {
+            return new long[0];
+        }
+        long start = lowerBound(from);
+        int c = (int) (start >>> 32), pos = (int) start;
+        long[] result = new long[Math.min(size, (int) Math.min(to - from, Integer.MAX_VALUE))];
+        int j = 0;
+        for (; c < chunks; ++c, pos = 0) {
+            long[] chunkKeys = keys[c];
+            for (int n = sizes[c]; pos < n; ++pos) {
+                long key = chunkKeys[pos];
+                if (key >= to) {
+                    return j != result.length ? Arrays.copyOf(result, j) : result;
+                }
+                result[j++] = key;
+            }
+        }
+        return j != result.length ? Arrays.copyOf(result, j) : result;
+    }
+
+    /**
+     * Returns all keys.
+     *
+     * @return the keys in ascending order
+     */
+    long[] keys() {
+        long[] result = new long[size];
+        for (int c = 0, j = 0; c < chunks; ++c) {
+            System.arraycopy(keys[c], 0, result, j, sizes[c]);
+            j += sizes[c];
+        }
+        return result;
+    }
+
+    /**
+     * Calls {@code action} for each entry in ascending key order.
+     *
+     * @param action
+     *            the action
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(LongEntryConsumer<? super VALUE> action) {
+        for (int c = 0; c < chunks; ++c) {
+            long[] chunkKeys = keys[c];
+            Object[] chunkValues = values[c];
+            for (int pos = 0, n = sizes[c]; pos < n; ++pos) {
+                action.accept(chunkKeys[pos], (VALUE) chunkValues[pos]);
+            }
+        }
+    }
+
+    /**
+     * Entry consumer with a primitive key.
+     *
+     * @param <VALUE>
+     *            the value type
+     */
+    @FunctionalInterface
+    interface LongEntryConsumer<VALUE> {
+        void accept(long key, VALUE value);
+    }
+
+    /**
+     * Returns an ascending iterator over the range {@code [from, to)}.
+     *
+     * @param from
+     *            from key (inclusive)
+     * @param to
+     *            to key (exclusive)
+     * @return the range iterator
+     */
+    Iterator<Map.Entry<Long, VALUE>> ascendingIterator(long from, long to) {
+        return new EntryIterator(from, to, false);
+    }
+
+    /**
+     * Returns a descending iterator over the range {@code [from, to)}.
+     *
+     * @param from
+     *            from key (inclusive)
+     * @param to
+     *            to key (exclusive)
+     * @return the range iterator
+     */
+    Iterator<Map.Entry<Long, VALUE>> descendingIterator(long from, long to) {
+        return new EntryIterator(from, to, true);
+    }
+
+    /**
+     * Returns an ascending key iterator.
+     *
+     * @return the key iterator
+     */
+    Iterator<Long> keysIterator() {
+        Iterator<Map.Entry<Long, VALUE>> iter = ascendingIterator(Long.MIN_VALUE, Long.MAX_VALUE);
+        return new Iterator<Long>() {
+            @Override
+            public boolean hasNext() {
+                return iter.hasNext();
+            }
+
+            @Override
+            public Long next() {
+                return iter.next().getKey();
+            }
+        };
+    }
+
+    /**
+     * Returns an ascending value iterator.
+     *
+     * @return the value iterator
+     */
+    Iterator<VALUE> valuesIterator() {
+        Iterator<Map.Entry<Long, VALUE>> iter = ascendingIterator(Long.MIN_VALUE, Long.MAX_VALUE);
+        return new Iterator<VALUE>() {
+            @Override
+            public boolean hasNext() {
+                return iter.hasNext();
+            }
+
+            @Override
+            public VALUE next() {
+                return iter.next().getValue();
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Long, VALUE>> {
+        private final long from, to;
+        private final boolean descending;
+        private int chunk, pos;
+        private long lastKey;
+        private boolean canRemove;
+        private int expectedModCount = modCount;
+
+        EntryIterator(long from, long to, boolean descending) {
+            this.from = from;
+            this.to = to;
+            this.descending = descending;
+            if (descending) {
+                seekBefore(to);
+            } else {
+                seek(from);
+            }
+        }
+
+        private void seek(long key) {
+            long start = lowerBound(key);
+            chunk = (int) (start >>> 32);
+            pos = (int) start;
+        }
+
+        private void seekBefore(long key) {
+            seek(key);
+            // Move to the previous entry.
+            if (pos > 0) {
+                pos -= 1;
+            } else if (chunk > 0) {
+                chunk -= 1;
+                pos = sizes[chunk] - 1;
+            } else {
+                pos = -1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (chunk >= chunks || pos < 0 || pos >= sizes[chunk]) {
+                return false;
+            }
+            long key = keys[chunk][pos];
+            return descending ? key >= from : key < to;
+        }
+
+        @Override
+        public Map.Entry<Long, VALUE> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long key = keys[chunk][pos];
+            @SuppressWarnings("unchecked")
+            VALUE value = (VALUE) values[chunk][pos];
+            if (descending) {
+                if (--pos < 0 && chunk > 0) {
+                    chunk -= 1;
+                    pos = sizes[chunk] - 1;
+                }
+            } else {
+                if (++pos == sizes[chunk] && chunk + 1 < chunks) {
+                    chunk += 1;
+                    pos = 0;
+                }
+            }
+            lastKey = key;
+            canRemove = true;
+            return new AbstractMap.SimpleImmutableEntry<>(key, value);
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            canRemove = false;
+            SortedLongMap.this.remove(lastKey);
+            expectedModCount = modCount;
+            // Chunks may have been merged or removed, re-seek to the next entry.
+            if (descending) {
+                seekBefore(lastKey);
+            } else {
+                seek(lastKey);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(keys());
+    }
+}
@@ -6,6 +6,8 @@
  */
 package com.github.anba.es6draft.runtime.internal;
 
+import java.util.concurrent.TimeUnit;
+
 import com.github.anba.es6draft.runtime.Task;
 
 /**
@@ -29,4 +31,25 @@ public interface TaskSource {
      *             if interrupted while waiting
      */
     Task awaitTask() throws InterruptedException;
+
+    /**
+     * Returns the next task if it is immediately available, otherwise returns {@code null}. This method never waits.
+     * 
+     * @return the next task or {@code null} if none immediately available
+     */
+    default Task pollTask() {
+        return null;
+    }
+
+    /**
+     * Returns the time until the next task becomes available, {@code 0} if a task is immediately available, or a
+     * negative value if no tasks are scheduled. This method never waits.
+     * 
+     * @param unit
+     *            the time unit of the result
+     * @return the time until the next task becomes available or a negative value if no tasks are scheduled
+     */
+    default long nextTaskDelay(TimeUnit unit) {
+        return -1;
+    }
 }
@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.github.anba.es6draft.runtime.types.ScriptObject;
+import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
+import com.github.anba.es6draft.runtime.types.builtins.ProxyObject;
+
+/**
+ * Weak map implementation with ephemeron-like semantics for script object keys.
+ * <p>
+ * The mapped values are not stored in the table, but in the key objects: each key holds a small list of
+ * {@link KeyEntries} tagged with a weak reference to the owning table. The same weak reference object is shared by all
+ * entries of a table, so lookups only compare references and never call {@code hashCode()} or {@code equals()}.
+ * Values are only reachable through their keys, so a value referencing its own key does not prevent the key from being
+ * collected. Clearing a table removes its entries from all keys, entries of collected tables are removed whenever a new
+ * entry is added to the key.
+ * <p>
+ * Tables created with key tracking additionally keep weak references to their keys to support {@link #size()} and
+ * {@link #keys()}, and to release all values when the table is cleared. Stale key references are only removed when new
+ * keys are added. Key tracking is only needed for debugging functions, so it is disabled by default.
+ */
+public final class WeakTable<VALUE> {
+    private static final int MIN_KEYS_CAPACITY = 8;
+
+    /** Identity of this table */
+    private WeakReference<WeakTable<VALUE>> identity = new WeakReference<>(this);
+
+    /**
+     * Weak references to the keys of this table, may contain stale and duplicate references. Only present if key
+     * tracking is enabled.
+     */
+    private final ArrayList<WeakReference<ScriptObject>> keys;
+    private int keysCompactionThreshold = MIN_KEYS_CAPACITY;
+
+    /** Fallback storage for script objects without inverted entry lists */
+    private WeakHashMap<ScriptObject, VALUE> fallback;
+
+    /**
+     * Creates a new weak table without key tracking.
+     */
+    public WeakTable() {
+        this(false);
+    }
+
+    /**
+     * Creates a new weak table.
+     *
+     * @param trackKeys
+     *            if {@code true} the keys of this table can be enumerated
+     */
+    public WeakTable(boolean trackKeys) {
+        this.keys = trackKeys ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Weak table entries stored in key objects.
+     */
+    public static final class KeyEntries {
+        private WeakReference<?>[] tables = new WeakReference<?>[2];
+        private Object[] values = new Object[2];
+        private int size;
+
+        private KeyEntries() {
+        }
+
+        private int indexOf(WeakReference<?> table) {
+            WeakReference<?>[] tables = this.tables;
+            for (int i = 0, size = this.size; i < size; ++i) {
+                if (tables[i] == table) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void add(WeakReference<?> table, Object value) {
+            // Entry lists are short, so stale entries are removed eagerly to release the values of collected tables.
+            expungeStaleEntries();
+            if (size == tables.length) {
+                tables = Arrays.copyOf(tables, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            tables[size] = table;
+            values[size] = value;
+            size += 1;
+        }
+
+        private void remove(int index) {
+            int last = --size;
+            tables[index] = tables[last];
+            values[index] = values[last];
+            tables[last] = null;
+            values[last] = null;
+        }
+
+        private void expungeStaleEntries() {
+            for (int i = size - 1; i >= 0; --i) {
+                if (tables[i].get() == null) {
+                    remove(i);
+                }
+            }
+        }
+    }
+
+    private static KeyEntries getEntries(ScriptObject key) {
+        if (key instanceof OrdinaryObject) {
+            return ((OrdinaryObject) key).getWeakTableEntries();
+        }
+        return ((ProxyObject) key).getWeakTableEntries();
+    }
+
+    private static KeyEntries getOrCreateEntries(ScriptObject key) {
+        KeyEntries entries = getEntries(key);
+        if (entries == null) {
+            entries = new KeyEntries();
+            if (key instanceof OrdinaryObject) {
+                ((OrdinaryObject) key).setWeakTableEntries(entries);
+            } else {
+                ((ProxyObject) key).setWeakTableEntries(entries);
+            }
+        }
+        return entries;
+    }
+
+    private static boolean hasKeyEntries(ScriptObject key) {
+        return key instanceof OrdinaryObject || key instanceof ProxyObject;
+    }
+
+    private WeakHashMap<ScriptObject, VALUE> fallback() {
+        if (fallback == null) {
+            fallback = new WeakHashMap<>();
+        }
+        return fallback;
+    }
+
+    /**
+     * Returns the mapped value for <var>key</var> or {@code null} if no mapping was found.
+     *
+     * @param key
+     *            the key
+     * @return the mapped value or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public VALUE get(ScriptObject key) {
+        if (!hasKeyEntries(key)) {
+            return fallback != null ? fallback.get(key) : null;
+        }
+        KeyEntries entries = getEntries(key);
+        if (entries != null) {
+            int index = entries.indexOf(identity);
+            if (index >= 0) {
+                return (VALUE) entries.values[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} if a mapping for <var>key</var> is present.
+     *
+     * @param key
+     *            the key
+     * @return {@code true} if <var>key</var> is mapped to a value
+     */
+    public boolean has(ScriptObject key) {
+        if (!hasKeyEntries(key)) {
+            return fallback != null && fallback.containsKey(key);
+        }
+        KeyEntries entries = getEntries(key);
+        return entries != null && entries.indexOf(identity) >= 0;
+    }
+
+    /**
+     * Inserts or updates the mapping <var>key</var> &rarr; <var>value</var>.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the mapped value
+     */
+    public void set(ScriptObject key, VALUE value) {
+        assert value != null;
+        if (!hasKeyEntries(key)) {
+            if (fallback().put(key, value) == null && keys != null) {
+                addKey(key);
+            }
+            return;
+        }
+        KeyEntries entries = getOrCreateEntries(key);
+        int index = entries.indexOf(identity);
+        if (index >= 0) {
+            entries.values[index] = value;
+        } else {
+            entries.add(identity, value);
+            if (keys != null) {
+                addKey(key);
+            }
+        }
+    }
+
+    /**
+     * Deletes the mapping for <var>key</var>.
+     *
+     * @param key
+     *            the key
+     * @return {@code true} if <var>key</var> was mapped to a value
+     */
+    public boolean delete(ScriptObject key) {
+        if (!hasKeyEntries(key)) {
+            return fallback != null && fallback.remove(key) != null;
+        }
+        KeyEntries entries = getEntries(key);
+        if (entries != null) {
+            int index = entries.indexOf(identity);
+            if (index >= 0) {
+                entries.remove(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all mappings.
+     * <p>
+     * Without key tracking, the entries stay on their keys until a new entry is added to the key or until the key is
+     * collected.
+     */
+    public void clear() {
+        fallback = null;
+        if (keys == null) {
+            // Entries of the old identity are stale and expunged when new entries are added to their keys.
+            identity.clear();
+            identity = new WeakReference<>(this);
+            return;
+        }
+        // All mapped keys are tracked in the keys list, remove the entries from the keys to release the values.
+        for (WeakReference<ScriptObject> ref : keys) {
+            ScriptObject key = ref.get();
+            if (key != null && hasKeyEntries(key)) {
+                KeyEntries entries = getEntries(key);
+                if (entries != null) {
+                    int index = entries.indexOf(identity);
+                    if (index >= 0) {
+                        entries.remove(index);
+                    }
+                }
+            }
+        }
+        keys.clear();
+        keysCompactionThreshold = MIN_KEYS_CAPACITY;
+    }
+
+    /**
+     * Returns the number of mappings. Requires key tracking.
+     *
+     * @return the number of mappings
+     * @throws IllegalStateException
+     *             if key tracking is disabled
+     */
+    public int size() {
+        return keys().size();
+    }
+
+    /**
+     * Returns the current keys of this table. Requires key tracking.
+     *
+     * @return the list of keys
+     * @throws IllegalStateException
+     *             if key tracking is disabled
+     */
+    public List<ScriptObject> keys() {
+        if (keys == null) {
+            throw new IllegalStateException("key tracking disabled");
+        }
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<ScriptObject> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayList<ScriptObject> list = new ArrayList<>();
+        for (WeakReference<ScriptObject> ref : keys) {
+            ScriptObject key = ref.get();
+            if (key != null && has(key) && seen.add(key)) {
+                list.add(key);
+            }
+        }
+        return list;
+    }
+
+    private void addKey(ScriptObject key) {
+        if (keys.size() >= keysCompactionThreshold) {
+            // Remove references to collected, deleted and duplicate keys.
+            Set<ScriptObject> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            keys.removeIf(ref -> {
+                ScriptObject k = ref.get();
+                return k == null || !has(k) || !seen.add(k);
+            });
+            keysCompactionThreshold = Math.max(keys.size() << 1, MIN_KEYS_CAPACITY);
+        }
+        keys.add(new WeakReference<>(key));
+    }
+}
@@ -15,7 +15,6 @@ import static com.github.anba.es6draft.runtime.types.Undefined.UNDEFINED;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
 
 import com.github.anba.es6draft.runtime.ExecutionContext;
@@ -193,6 +192,67 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
         return iteration;
     }
 
+    /**
+     * Returns the own data element of an array object or {@code null} if not present.
+     * <p>
+     * Own data properties shadow the prototype chain, so reading the element from the backing store is equivalent to
+     * {@code HasProperty(O, P)} followed by {@code Get(O, P)}. The element is looked up again for every index, any
+     * modifications from user code are therefore observed.
+     *
+     * @param o
+     *            the object
+     * @param index
+     *            the element index
+     * @return the element value or {@code null}
+     */
+    private static Object ownDataElement(ScriptObject o, long index) {
+        if (NO_ARRAY_OPTIMIZATION || !(o instanceof ArrayObject)) {
+            return null;
+        }
+        return ((ArrayObject) o).getOwnDataElement(index);
+    }
+
+    /**
+     * Returns {@code Get(O, P)} if {@code HasProperty(O, P)} is {@code true}, otherwise returns {@code null}.
+     *
+     * @param cx
+     *            the execution context
+     * @param o
+     *            the object
+     * @param index
+     *            the element index
+     * @return the element value or {@code null} if not present
+     */
+    private static Object GetIfPresent(ExecutionContext cx, ScriptObject o, long index) {
+        Object value = ownDataElement(o, index);
+        if (value != null) {
+            return value;
+        }
+        if (!HasProperty(cx, o, index)) {
+            return null;
+        }
+        return Get(cx, o, index);
+    }
+
+    /**
+     * Returns {@code Get(O, P)}.
+     *
+     * @param cx
+     *            the execution context
+     * @param o
+     *            the object
+     * @param index
+     *            the element index
+     * @return the element value
+     */
+    private static Object GetElement(ExecutionContext cx, ScriptObject o, long index) {
+        Object value = ownDataElement(o, index);
+        if (value != null) {
+            return value;
+        }
+        return Get(cx, o, index);
+    }
+
     private static long[] arrayKeys(OrdinaryObject array, long from, long to, boolean inherited) {
         if (inherited) {
             return inheritedKeys(array, from, to);
@@ -961,22 +1021,28 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
         /**
          * 22.1.3.24.1 Runtime Semantics: SortCompare( x, y )
          */
-        private static final class DefaultComparator implements Comparator<Object> {
-            private final ExecutionContext cx;
-
-            DefaultComparator(ExecutionContext cx) {
-                this.cx = cx;
-            }
+        private static final class DefaultComparator implements Comparator<SortEntry> {
+            static final DefaultComparator INSTANCE = new DefaultComparator();
 
             @Override
-            public int compare(Object o1, Object o2) {
+            public int compare(SortEntry o1, SortEntry o2) {
                 /* steps 1-4 (not applicable) */
-                /* steps 5-6 */
-                String x = ToFlatString(cx, o1);
-                /* steps 7-8 */
-                String y = ToFlatString(cx, o2);
+                /* steps 5-8 (see SortEntry) */
                 /* steps 9-11 */
-                return x.compareTo(y);
+                return o1.key.compareTo(o2.key);
+            }
+        }
+
+        /**
+         * Sort element decorated with its string value.
+         */
+        private static final class SortEntry {
+            final String key;
+            final Object value;
+
+            SortEntry(String key, Object value) {
+                this.key = key;
+                this.value = value;
             }
         }
 
@@ -996,30 +1062,151 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
             public int compare(Object o1, Object o2) {
                 /* steps 1-3, 5-11 (not applicable) */
                 /* step 4 */
-                double c = ToNumber(cx, comparefn.call(cx, UNDEFINED, o1, o2));
+                Object result = comparefn.call(cx, UNDEFINED, o1, o2);
+                if (result instanceof Integer) {
+                    return Integer.signum((Integer) result);
+                }
+                double c = ToNumber(cx, result);
                 return (c < 0 ? -1 : c > 0 ? 1 : 0);
             }
         }
 
-        private static void sortElements(ExecutionContext cx, ArrayList<Object> elements,
-                Object comparefn) {
-            Comparator<Object> comparator;
+        private static void sortElements(ExecutionContext cx, Object[] elements, Object comparefn) {
             if (!Type.isUndefined(comparefn)) {
                 if (!IsCallable(comparefn)) {
                     throw newTypeError(cx, Messages.Key.NotCallable);
                 }
-                comparator = new FunctionComparator(cx, (Callable) comparefn);
+                try {
+                    Arrays.sort(elements, new FunctionComparator(cx, (Callable) comparefn));
+                } catch (IllegalArgumentException e) {
+                    // User-defined comparator functions may return inconsistent comparison results,
+                    // and those will trigger this exception in the Arrays.sort() method:
+                    // `IllegalArgumentException: Comparison method violates its general contract!`
+                    // If that happens, just ignore the Java exception and stop the sort operation.
+                }
+            } else if (isSmallIntegers(elements)) {
+                sortSmallIntegers(elements);
+            } else if (isStrings(elements)) {
+                sortStrings(elements);
             } else {
-                comparator = new DefaultComparator(cx);
+                sortDecorated(cx, elements);
+            }
+        }
+
+        private static boolean isStrings(Object[] elements) {
+            for (Object element : elements) {
+                if (!Type.isString(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void sortStrings(Object[] elements) {
+            String[] keys = new String[elements.length];
+            for (int i = 0; i < keys.length; ++i) {
+                keys[i] = Type.stringValue(elements[i]).toString();
+            }
+            Arrays.sort(keys);
+            System.arraycopy(keys, 0, elements, 0, keys.length);
+        }
+
+        private static void sortDecorated(ExecutionContext cx, Object[] elements) {
+            // Call ToString() only once per element instead of once per comparison.
+            SortEntry[] entries = new SortEntry[elements.length];
+            for (int i = 0; i < entries.length; ++i) {
+                Object value = elements[i];
+                entries[i] = new SortEntry(ToFlatString(cx, value), value);
+            }
+            Arrays.sort(entries, DefaultComparator.INSTANCE);
+            for (int i = 0; i < entries.length; ++i) {
+                elements[i] = entries[i].value;
+            }
+        }
+
+        private static boolean isSmallIntegers(Object[] elements) {
+            for (Object element : elements) {
+                if (element instanceof Integer) {
+                    continue;
+                }
+                if (element instanceof Long) {
+                    long v = (Long) element;
+                    if (v == (int) v) {
+                        continue;
+                    }
+                } else if (element instanceof Double) {
+                    double v = (Double) element;
+                    if (v == (int) v && (v != 0 || 1 / v > 0)) {
+                        continue;
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+
+        private static void sortSmallIntegers(Object[] elements) {
+            // Sort the integers by their string representation without creating the strings. Equal keys denote equal
+            // integers, so the sorted values can be restored from the keys.
+            long[] keys = new long[elements.length];
+            for (int i = 0; i < keys.length; ++i) {
+                keys[i] = stringOrderKey(((Number) elements[i]).intValue());
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; ++i) {
+                elements[i] = fromStringOrderKey(keys[i]);
+            }
+        }
+
+        private static final int KEY_RADIX = 12;
+        private static final int KEY_DIGITS = 11; // "-2147483648".length()
+        private static final long KEY_SCALE = 61_917_364_224L; // KEY_RADIX ^ (KEY_DIGITS - 1)
+
+        /**
+         * Encodes the decimal string representation of {@code value} as a base-12 number whose natural order matches
+         * the lexicographic order of the strings. Each character is mapped to a single digit: {@code 0} for the end of
+         * the string, {@code 1} for the minus sign and {@code 2-11} for the decimal digits.
+         * 
+         * @param value
+         *            the integer value
+         * @return the sort key
+         */
+        private static long stringOrderKey(int value) {
+            long v = value, key = 0;
+            int n = 0;
+            if (v < 0) {
+                key = 1;
+                n = 1;
+                v = -v;
+            }
+            long divisor = 1;
+            while (divisor * 10 <= v) {
+                divisor *= 10;
             }
-            try {
-                Collections.sort(elements, comparator);
-            } catch (IllegalArgumentException e) {
-                // User-defined comparator functions may return inconsistent comparison results,
-                // and those will trigger this exception in the Collections.sort() method:
-                // `IllegalArgumentException: Comparison method violates its general contract!`
-                // If that happens, just ignore the Java exception and stop the sort operation.
+            for (; divisor > 0; divisor /= 10, ++n) {
+                key = key * KEY_RADIX + (v / divisor) % 10 + 2;
             }
+            for (; n < KEY_DIGITS; ++n) {
+                key *= KEY_RADIX;
+            }
+            return key;
+        }
+
+        private static int fromStringOrderKey(long key) {
+            long v = 0;
+            boolean negative = false;
+            for (long scale = KEY_SCALE; scale > 0; scale /= KEY_RADIX) {
+                int c = (int) (key / scale % KEY_RADIX);
+                if (c == 0) {
+                    break;
+                }
+                if (c == 1) {
+                    negative = true;
+                } else {
+                    v = v * 10 + (c - 2);
+                }
+            }
+            return (int) (negative ? -v : v);
         }
 
         /**
@@ -1060,8 +1247,8 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 ArrayList<Object> elements = new ArrayList<>(Math.min(length, 1024));
                 for (int i = 0; i < length; ++i) {
                     long index = i;
-                    if (HasProperty(cx, obj, index)) {
-                        Object e = Get(cx, obj, index);
+                    Object e = GetIfPresent(cx, obj, index);
+                    if (e != null) {
                         if (!Type.isUndefined(e)) {
                             elements.add(e);
                         } else {
@@ -1074,14 +1261,15 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
 
                 // sort elements
                 int count = elements.size();
+                Object[] sorted = elements.toArray();
                 if (count > 1) {
-                    sortElements(cx, elements, comparefn);
+                    sortElements(cx, sorted, comparefn);
                 }
 
                 // and finally set sorted elements
                 for (int i = 0, offset = 0; i < count; ++i) {
                     int p = offset + i;
-                    Set(cx, obj, p, elements.get(i), true);
+                    Set(cx, obj, p, sorted[i], true);
                 }
                 for (int i = 0, offset = count; i < undefCount; ++i) {
                     int p = offset + i;
@@ -1113,14 +1301,15 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
 
             // sort elements
             int count = elements.size();
+            Object[] sorted = elements.toArray();
             if (count > 1) {
-                sortElements(cx, elements, comparefn);
+                sortElements(cx, sorted, comparefn);
             }
 
             // and finally set sorted elements
             for (int i = 0, offset = 0; i < count; ++i) {
                 int p = offset + i;
-                Set(cx, obj, p, elements.get(i), true);
+                Set(cx, obj, p, sorted[i], true);
             }
             for (int i = 0, offset = count; i < undefCount; ++i) {
                 int p = offset + i;
@@ -1525,10 +1714,9 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
             /* step 11 */
             for (; k < len; ++k) {
                 /* step 11.a-b */
-                boolean kpresent = HasProperty(cx, o, k);
+                Object elementk = GetIfPresent(cx, o, k);
                 /* step 11.c */
-                if (kpresent) {
-                    Object elementk = Get(cx, o, k);
+                if (elementk != null) {
                     boolean same = StrictEqualityComparison(searchElement, elementk);
                     if (same) {
                         return k;
@@ -1580,10 +1768,9 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
             /* step 10 */
             for (; k >= 0; --k) {
                 /* steps 10.a-b */
-                boolean kpresent = HasProperty(cx, o, k);
+                Object elementk = GetIfPresent(cx, o, k);
                 /* step 10.c */
-                if (kpresent) {
-                    Object elementk = Get(cx, o, k);
+                if (elementk != null) {
                     boolean same = StrictEqualityComparison(searchElement, elementk);
                     if (same) {
                         return k;
@@ -1625,10 +1812,9 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 8.a */
                 long pk = k;
                 /* steps 8.b-c */
-                boolean kpresent = HasProperty(cx, o, pk);
+                Object kvalue = GetIfPresent(cx, o, pk);
                 /* step 8.d */
-                if (kpresent) {
-                    Object kvalue = Get(cx, o, pk);
+                if (kvalue != null) {
                     boolean testResult = ToBoolean(callback.call(cx, thisArg, kvalue, k, o));
                     if (!testResult) {
                         return false;
@@ -1668,9 +1854,8 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
             /* steps 7-8 */
             for (long k = 0; k < len; ++k) {
                 long pk = k;
-                boolean kpresent = HasProperty(cx, o, pk);
-                if (kpresent) {
-                    Object kvalue = Get(cx, o, pk);
+                Object kvalue = GetIfPresent(cx, o, pk);
+                if (kvalue != null) {
                     boolean testResult = ToBoolean(callback.call(cx, thisArg, kvalue, k, o));
                     if (testResult) {
                         return true;
@@ -1712,10 +1897,9 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 8.a */
                 long pk = k;
                 /* steps 8.b-c */
-                boolean kpresent = HasProperty(cx, o, pk);
+                Object kvalue = GetIfPresent(cx, o, pk);
                 /* step 8.d */
-                if (kpresent) {
-                    Object kvalue = Get(cx, o, pk);
+                if (kvalue != null) {
                     callback.call(cx, thisArg, kvalue, k, o);
                 }
             }
@@ -1756,10 +1940,9 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 10.a */
                 long pk = k;
                 /* steps 10.b-c */
-                boolean kpresent = HasProperty(cx, o, pk);
+                Object kvalue = GetIfPresent(cx, o, pk);
                 /* step 10.d */
-                if (kpresent) {
-                    Object kvalue = Get(cx, o, pk);
+                if (kvalue != null) {
                     Object mappedValue = callback.call(cx, thisArg, kvalue, k, o);
                     CreateDataPropertyOrThrow(cx, a, pk, mappedValue);
                 }
@@ -1801,10 +1984,9 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 11.a */
                 long pk = k;
                 /* steps 11.b-c */
-                boolean kpresent = HasProperty(cx, o, pk);
+                Object kvalue = GetIfPresent(cx, o, pk);
                 /* step 11.d */
-                if (kpresent) {
-                    Object kvalue = Get(cx, o, pk);
+                if (kvalue != null) {
                     boolean selected = ToBoolean(callback.call(cx, thisArg, kvalue, k, o));
                     if (selected) {
                         CreateDataPropertyOrThrow(cx, a, to, kvalue);
@@ -1858,9 +2040,10 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 9.b */
                 for (; !kpresent && k < len; ++k) {
                     long pk = k;
-                    kpresent = HasProperty(cx, o, pk);
+                    Object kvalue = GetIfPresent(cx, o, pk);
+                    kpresent = kvalue != null;
                     if (kpresent) {
-                        accumulator = Get(cx, o, pk);
+                        accumulator = kvalue;
                     }
                 }
                 /* step 9.c */
@@ -1873,10 +2056,9 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 10.a */
                 long pk = k;
                 /* steps 10.b-c */
-                boolean kpresent = HasProperty(cx, o, pk);
+                Object kvalue = GetIfPresent(cx, o, pk);
                 /* step 10.d */
-                if (kpresent) {
-                    Object kvalue = Get(cx, o, pk);
+                if (kvalue != null) {
                     accumulator = callback.call(cx, UNDEFINED, accumulator, kvalue, k, o);
                 }
             }
@@ -1926,9 +2108,10 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 9.b */
                 for (; !kpresent && k >= 0; --k) {
                     long pk = k;
-                    kpresent = HasProperty(cx, o, pk);
+                    Object kvalue = GetIfPresent(cx, o, pk);
+                    kpresent = kvalue != null;
                     if (kpresent) {
-                        accumulator = Get(cx, o, pk);
+                        accumulator = kvalue;
                     }
                 }
                 /* step 9.c */
@@ -1941,10 +2124,9 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 10.a */
                 long pk = k;
                 /* steps 10.b-c */
-                boolean kpresent = HasProperty(cx, o, pk);
+                Object kvalue = GetIfPresent(cx, o, pk);
                 /* step 10.d */
-                if (kpresent) {
-                    Object kvalue = Get(cx, o, pk);
+                if (kvalue != null) {
                     accumulator = callback.call(cx, UNDEFINED, accumulator, kvalue, k, o);
                 }
             }
@@ -1983,7 +2165,7 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 8.a */
                 long pk = k;
                 /* steps 8.b-c */
-                Object kvalue = Get(cx, o, pk);
+                Object kvalue = GetElement(cx, o, pk);
                 /* steps 8.d-e */
                 boolean testResult = ToBoolean(pred.call(cx, thisArg, kvalue, k, o));
                 /* step 8.f */
@@ -2026,7 +2208,7 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
                 /* step 8.a */
                 long pk = k;
                 /* steps 8.b-c */
-                Object kvalue = Get(cx, o, pk);
+                Object kvalue = GetElement(cx, o, pk);
                 /* steps 8.d-e */
                 boolean testResult = ToBoolean(pred.call(cx, thisArg, kvalue, k, o));
                 /* step 8.f */
@@ -2266,7 +2448,7 @@ public final class ArrayPrototype extends ArrayObject implements Initializable {
             /* step 7 */
             for (; k < len; ++k) {
                 /* step 7.a */
-                Object element = Get(cx, o, k);
+                Object element = GetElement(cx, o, k);
                 /* step 10.b */
                 if (SameValueZero(searchElement, element)) {
                     return true;
@@ -95,6 +95,15 @@ public class GlobalObject extends OrdinaryObject implements Initializable {
         /* empty */
     }
 
+    /**
+     * Returns {@code true} if the keys of WeakMap objects need to be enumerable, for example for debugging functions.
+     * 
+     * @return {@code true} if WeakMap keys are tracked
+     */
+    public boolean isWeakMapKeysTracked() {
+        return false;
+    }
+
     /**
      * Creates user-defined native global functions.
      * 
@@ -12,9 +12,20 @@ import static com.github.anba.es6draft.runtime.internal.Errors.newTypeError;
 import static com.github.anba.es6draft.runtime.internal.Properties.createProperties;
 import static com.github.anba.es6draft.runtime.types.Undefined.UNDEFINED;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
 
+import com.github.anba.es6draft.parser.JSONBuilder;
+import com.github.anba.es6draft.parser.JSONObjectBuilder;
 import com.github.anba.es6draft.parser.JSONParser;
 import com.github.anba.es6draft.parser.ParserException;
 import com.github.anba.es6draft.runtime.ExecutionContext;
@@ -25,13 +36,16 @@ import com.github.anba.es6draft.runtime.internal.Properties.Attributes;
 import com.github.anba.es6draft.runtime.internal.Properties.Function;
 import com.github.anba.es6draft.runtime.internal.Properties.Prototype;
 import com.github.anba.es6draft.runtime.internal.Properties.Value;
+import com.github.anba.es6draft.runtime.internal.ScriptException;
 import com.github.anba.es6draft.runtime.internal.Strings;
 import com.github.anba.es6draft.runtime.objects.number.NumberObject;
 import com.github.anba.es6draft.runtime.types.BuiltinSymbol;
 import com.github.anba.es6draft.runtime.types.Callable;
 import com.github.anba.es6draft.runtime.types.Intrinsics;
+import com.github.anba.es6draft.runtime.types.Property;
 import com.github.anba.es6draft.runtime.types.ScriptObject;
 import com.github.anba.es6draft.runtime.types.Type;
+import com.github.anba.es6draft.runtime.types.builtins.ArrayObject;
 import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
 import com.github.anba.es6draft.runtime.types.builtins.StringObject;
 
@@ -44,6 +58,11 @@ import com.github.anba.es6draft.runtime.types.builtins.StringObject;
  * </ul>
  */
 public final class JSONObject extends OrdinaryObject implements Initializable {
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    /** Output buffer for {@code JSON.stringify}, reused across calls */
+    private StringBuilder buffer;
+
     /**
      * Constructs a new JSON object.
      * 
@@ -59,6 +78,23 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         createProperties(realm, this, Properties.class);
     }
 
+    private StringBuilder acquireBuffer() {
+        StringBuilder buffer = this.buffer;
+        if (buffer == null) {
+            return new StringBuilder();
+        }
+        // Nested JSON.stringify calls (from toJSON or replacer functions) allocate a new buffer.
+        this.buffer = null;
+        return buffer;
+    }
+
+    private void releaseBuffer(StringBuilder buffer) {
+        if (buffer.capacity() <= MAX_BUFFER_CAPACITY) {
+            buffer.setLength(0);
+            this.buffer = buffer;
+        }
+    }
+
     public enum Properties {
         ;
 
@@ -87,19 +123,10 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
             try {
                 unfiltered = JSONParser.parse(cx, jtext);
             } catch (ParserException e) {
-                throw newSyntaxError(cx, e, Messages.Key.JSONInvalidLiteral, e.getFormattedMessage(cx.getRealm()),
-                        Integer.toString(e.getLine()), Integer.toString(e.getColumn()));
-            }
-            /* step 8 */
-            if (IsCallable(reviver)) {
-                OrdinaryObject root = ObjectCreate(cx, Intrinsics.ObjectPrototype);
-                String rootName = "";
-                boolean status = CreateDataProperty(cx, root, rootName, unfiltered);
-                assert status;
-                return InternalizeJSONProperty(cx, (Callable) reviver, root, rootName);
+                throw toSyntaxError(cx, e);
             }
-            /* step 9 */
-            return unfiltered;
+            /* steps 8-9 */
+            return Internalize(cx, unfiltered, reviver);
         }
 
         /**
@@ -120,70 +147,19 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         @Function(name = "stringify", arity = 3)
         public static Object stringify(ExecutionContext cx, Object thisValue, Object value, Object replacer,
                 Object space) {
-            /* steps 1-2 (not applicable) */
-            /* step 3 */
-            LinkedHashSet<String> propertyList = null;
-            Callable replacerFunction = null;
-            /* step 4 */
-            if (Type.isObject(replacer)) {
-                if (IsCallable(replacer)) {
-                    replacerFunction = (Callable) replacer;
-                } else if (IsArray(cx, replacer)) {
-                    propertyList = new LinkedHashSet<>();
-                    ScriptObject objReplacer = (ScriptObject) replacer;
-                    long len = ToLength(cx, Get(cx, objReplacer, "length"));
-                    for (long k = 0; k < len; ++k) {
-                        String item = null;
-                        Object v = Get(cx, objReplacer, k);
-                        if (Type.isString(v)) {
-                            item = Type.stringValue(v).toString();
-                        } else if (Type.isNumber(v)) {
-                            item = ToString(Type.numberValue(v));
-                        } else if (Type.isObject(v)) {
-                            ScriptObject o = Type.objectValue(v);
-                            if (o instanceof StringObject || o instanceof NumberObject) {
-                                item = ToFlatString(cx, v);
-                            }
-                        }
-                        if (item != null) {
-                            propertyList.add(item);
-                        }
-                    }
-                }
-            }
-            /* step 5 */
-            if (Type.isObject(space)) {
-                ScriptObject o = Type.objectValue(space);
-                if (o instanceof NumberObject) {
-                    space = ToNumber(cx, space);
-                } else if (o instanceof StringObject) {
-                    space = ToString(cx, space);
+            JSONObject json = (JSONObject) cx.getIntrinsic(Intrinsics.JSON);
+            StringBuilder buffer = json.acquireBuffer();
+            try {
+                /* steps 1-11 */
+                JSONSerializer serializer = CreateJSONSerializer(cx, replacer, space, buffer, null);
+                /* step 12 */
+                if (!SerializeJSONText(cx, serializer, value)) {
+                    return UNDEFINED;
                 }
+                return buffer.toString();
+            } finally {
+                json.releaseBuffer(buffer);
             }
-            /* steps 6-8 */
-            String gap;
-            if (Type.isNumber(space)) {
-                int nspace = (int) Math.max(0, Math.min(10, ToInteger(Type.numberValue(space))));
-                gap = Strings.repeat(' ', nspace);
-            } else if (Type.isString(space)) {
-                String sspace = Type.stringValue(space).toString();
-                gap = sspace.length() <= 10 ? sspace : sspace.substring(0, 10);
-            } else {
-                gap = "";
-            }
-            /* step 9 */
-            OrdinaryObject wrapper = ObjectCreate(cx, Intrinsics.ObjectPrototype);
-            /* steps 10-11 */
-            boolean status = CreateDataProperty(cx, wrapper, "", value);
-            assert status;
-            /* step 12 */
-            JSONSerializer serializer = new JSONSerializer(propertyList, replacerFunction, gap);
-            value = TransformJSONValue(cx, serializer, wrapper, "", value);
-            if (!IsJSONSerializable(value)) {
-                return UNDEFINED;
-            }
-            SerializeJSONValue(cx, serializer, value);
-            return serializer.result.toString();
         }
 
         /**
@@ -194,6 +170,139 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         public static final String toStringTag = "JSON";
     }
 
+    /**
+     * Parses the UTF-8 encoded JSON text from {@code source}, applies the optional reviver function like
+     * {@code JSON.parse} and returns the result value. The source is read incrementally, so the complete JSON text is
+     * never held in memory.
+     * 
+     * @param cx
+     *            the execution context
+     * @param source
+     *            the blocking source channel
+     * @param reviver
+     *            the optional reviver argument
+     * @return the parsed JSON value
+     * @throws IOException
+     *             if there was any I/O error
+     */
+    public static Object parse(ExecutionContext cx, ReadableByteChannel source, Object reviver) throws IOException {
+        Object unfiltered = parse(cx, source, new JSONObjectBuilder(cx));
+        return Internalize(cx, unfiltered, reviver);
+    }
+
+    /**
+     * Parses the UTF-8 encoded JSON text from {@code source} with the given builder. Syntax errors are reported as
+     * script {@code SyntaxError} objects like in {@code JSON.parse}.
+     * 
+     * @param <DOCUMENT>
+     *            the document type
+     * @param cx
+     *            the execution context
+     * @param source
+     *            the blocking source channel
+     * @param builder
+     *            the builder object
+     * @return the parsed document
+     * @throws IOException
+     *             if there was any I/O error
+     */
+    public static <DOCUMENT> DOCUMENT parse(ExecutionContext cx, ReadableByteChannel source,
+            JSONBuilder<DOCUMENT, ?, ?, ?> builder) throws IOException {
+        try {
+            return JSONParser.parse(source, builder);
+        } catch (ParserException e) {
+            throw toSyntaxError(cx, e);
+        }
+    }
+
+    /**
+     * Serializes {@code value} like {@code JSON.stringify} and writes the JSON text to {@code writer}. The output is
+     * written incrementally, so the complete JSON text is never held in memory. Nothing is written if the value is not
+     * serializable, for example {@code undefined} or a function.
+     *
+     * @param cx
+     *            the execution context
+     * @param value
+     *            the value
+     * @param replacer
+     *            the optional replacer argument
+     * @param space
+     *            the optional space argument
+     * @param writer
+     *            the output writer
+     * @return {@code true} if the value was serialized, {@code false} if {@code JSON.stringify} returns undefined
+     * @throws IOException
+     *             if there was any I/O error
+     */
+    public static boolean stringify(ExecutionContext cx, Object value, Object replacer, Object space, Writer writer)
+            throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        try {
+            JSONSerializer serializer = CreateJSONSerializer(cx, replacer, space, buffer, writer);
+            if (!SerializeJSONText(cx, serializer, value)) {
+                return false;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.append(buffer);
+        return true;
+    }
+
+    /**
+     * Serializes {@code value} like {@code JSON.stringify} and writes the UTF-8 encoded JSON text to {@code stream}.
+     *
+     * @param cx
+     *            the execution context
+     * @param value
+     *            the value
+     * @param replacer
+     *            the optional replacer argument
+     * @param space
+     *            the optional space argument
+     * @param stream
+     *            the output stream
+     * @return {@code true} if the value was serialized, {@code false} if {@code JSON.stringify} returns undefined
+     * @throws IOException
+     *             if there was any I/O error
+     */
+    public static boolean stringify(ExecutionContext cx, Object value, Object replacer, Object space,
+            OutputStream stream) throws IOException {
+        Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        boolean serialized = stringify(cx, value, replacer, space, writer);
+        writer.flush();
+        return serialized;
+    }
+
+    private static ScriptException toSyntaxError(ExecutionContext cx, ParserException e) {
+        return newSyntaxError(cx, e, Messages.Key.JSONInvalidLiteral, e.getFormattedMessage(cx.getRealm()),
+                Integer.toString(e.getLine()), Integer.toString(e.getColumn()));
+    }
+
+    /**
+     * 24.3.1 JSON.parse ( text [ , reviver ] ), steps 8-9
+     * 
+     * @param cx
+     *            the execution context
+     * @param unfiltered
+     *            the parsed JSON value
+     * @param reviver
+     *            the optional reviver argument
+     * @return the result value
+     */
+    private static Object Internalize(ExecutionContext cx, Object unfiltered, Object reviver) {
+        /* step 8 */
+        if (IsCallable(reviver)) {
+            OrdinaryObject root = ObjectCreate(cx, Intrinsics.ObjectPrototype);
+            String rootName = "";
+            boolean status = CreateDataProperty(cx, root, rootName, unfiltered);
+            assert status;
+            return InternalizeJSONProperty(cx, (Callable) reviver, root, rootName);
+        }
+        /* step 9 */
+        return unfiltered;
+    }
+
     /**
      * 24.3.1.1 Runtime Semantics: InternalizeJSONProperty( holder, name)
      * 
@@ -273,19 +382,189 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         }
     }
 
+    /**
+     * 24.3.2 JSON.stringify ( value [ , replacer [ , space ] ] ), steps 1-8
+     * 
+     * @param cx
+     *            the execution context
+     * @param replacer
+     *            the optional replacer argument
+     * @param space
+     *            the optional space argument
+     * @param buffer
+     *            the output buffer
+     * @param writer
+     *            the output writer or {@code null}
+     * @return the new serializer state
+     */
+    private static JSONSerializer CreateJSONSerializer(ExecutionContext cx, Object replacer, Object space,
+            StringBuilder buffer, Writer writer) {
+        /* steps 1-2 (not applicable) */
+        /* step 3 */
+        LinkedHashSet<String> propertyList = null;
+        Callable replacerFunction = null;
+        /* step 4 */
+        if (Type.isObject(replacer)) {
+            if (IsCallable(replacer)) {
+                replacerFunction = (Callable) replacer;
+            } else if (IsArray(cx, replacer)) {
+                propertyList = new LinkedHashSet<>();
+                ScriptObject objReplacer = (ScriptObject) replacer;
+                long len = ToLength(cx, Get(cx, objReplacer, "length"));
+                for (long k = 0; k < len; ++k) {
+                    String item = null;
+                    Object v = Get(cx, objReplacer, k);
+                    if (Type.isString(v)) {
+                        item = Type.stringValue(v).toString();
+                    } else if (Type.isNumber(v)) {
+                        item = ToString(Type.numberValue(v));
+                    } else if (Type.isObject(v)) {
+                        ScriptObject o = Type.objectValue(v);
+                        if (o instanceof StringObject || o instanceof NumberObject) {
+                            item = ToFlatString(cx, v);
+                        }
+                    }
+                    if (item != null) {
+                        propertyList.add(item);
+                    }
+                }
+            }
+        }
+        /* step 5 */
+        if (Type.isObject(space)) {
+            ScriptObject o = Type.objectValue(space);
+            if (o instanceof NumberObject) {
+                space = ToNumber(cx, space);
+            } else if (o instanceof StringObject) {
+                space = ToString(cx, space);
+            }
+        }
+        /* steps 6-8 */
+        String gap;
+        if (Type.isNumber(space)) {
+            int nspace = (int) Math.max(0, Math.min(10, ToInteger(Type.numberValue(space))));
+            gap = Strings.repeat(' ', nspace);
+        } else if (Type.isString(space)) {
+            String sspace = Type.stringValue(space).toString();
+            gap = sspace.length() <= 10 ? sspace : sspace.substring(0, 10);
+        } else {
+            gap = "";
+        }
+        return new JSONSerializer(propertyList, replacerFunction, gap, buffer, writer);
+    }
+
+    /**
+     * 24.3.2 JSON.stringify ( value [ , replacer [ , space ] ] ), steps 9-12
+     * 
+     * @param cx
+     *            the execution context
+     * @param serializer
+     *            the serializer state
+     * @param value
+     *            the value
+     * @return {@code false} if the value is not serializable
+     */
+    private static boolean SerializeJSONText(ExecutionContext cx, JSONSerializer serializer, Object value) {
+        /* step 9 */
+        OrdinaryObject wrapper = ObjectCreate(cx, Intrinsics.ObjectPrototype);
+        /* steps 10-11 */
+        boolean status = CreateDataProperty(cx, wrapper, "", value);
+        assert status;
+        /* step 12 */
+        value = TransformJSONValue(cx, serializer, wrapper, "", value);
+        if (!IsJSONSerializable(value)) {
+            return false;
+        }
+        SerializeJSONValue(cx, serializer, value);
+        return true;
+    }
+
     private static final class JSONSerializer {
-        final HashSet<ScriptObject> stack;
+        private static final int FLUSH_SIZE = 8 * 1024;
+        private static final int MAX_VALIDATED_PROTOTYPES = 4;
+
         final HashSet<String> propertyList;
         final Callable replacerFunction;
         final String gap;
-        final StringBuilder result = new StringBuilder();
+        final StringBuilder result;
+        final Writer writer;
+        final boolean plainObjects;
         int level = 0;
 
-        JSONSerializer(HashSet<String> propertyList, Callable replacerFunction, String gap) {
-            this.stack = new HashSet<>();
+        // Identity stack of the objects currently being serialized.
+        private ScriptObject[] stack = new ScriptObject[16];
+        private int stackSize = 0;
+
+        // Incremented whenever user code may have been executed.
+        int epoch = 0;
+
+        // Prototypes without "toJSON" on their prototype chain, valid while the epoch is unchanged.
+        private final ScriptObject[] validatedPrototypes = new ScriptObject[MAX_VALIDATED_PROTOTYPES];
+        private int validatedCount = 0;
+        private int validatedEpoch = 0;
+
+        JSONSerializer(HashSet<String> propertyList, Callable replacerFunction, String gap, StringBuilder result,
+                Writer writer) {
             this.propertyList = propertyList;
             this.replacerFunction = replacerFunction;
             this.gap = gap;
+            this.result = result;
+            this.writer = writer;
+            this.plainObjects = propertyList == null && replacerFunction == null;
+        }
+
+        void push(ExecutionContext cx, ScriptObject value) {
+            ScriptObject[] stack = this.stack;
+            for (int i = stackSize - 1; i >= 0; --i) {
+                if (stack[i] == value) {
+                    throw newTypeError(cx, Messages.Key.JSONCyclicValue);
+                }
+            }
+            if (stackSize == stack.length) {
+                this.stack = stack = Arrays.copyOf(stack, stackSize << 1);
+            }
+            stack[stackSize++] = value;
+        }
+
+        void pop(ScriptObject value) {
+            assert stackSize > 0 && stack[stackSize - 1] == value;
+            stack[--stackSize] = null;
+        }
+
+        boolean isValidated(ScriptObject prototype) {
+            if (validatedEpoch != epoch) {
+                Arrays.fill(validatedPrototypes, 0, validatedCount, null);
+                validatedCount = 0;
+                validatedEpoch = epoch;
+                return false;
+            }
+            for (int i = 0; i < validatedCount; ++i) {
+                if (validatedPrototypes[i] == prototype) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addValidated(ScriptObject prototype) {
+            if (validatedEpoch == epoch && validatedCount < MAX_VALIDATED_PROTOTYPES) {
+                validatedPrototypes[validatedCount++] = prototype;
+            }
+        }
+
+        void invalidate() {
+            epoch += 1;
+        }
+
+        void flush() {
+            if (writer != null && result.length() >= FLUSH_SIZE) {
+                try {
+                    writer.append(result);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                result.setLength(0);
+            }
         }
     }
 
@@ -309,15 +588,84 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         /* steps 1-2 (not applicable) */
         /* step 3 */
         if (Type.isObject(value)) {
-            Object toJSON = Get(cx, Type.objectValue(value), "toJSON");
+            Object toJSON = getProperty(cx, serializer, Type.objectValue(value), "toJSON");
             if (IsCallable(toJSON)) {
                 value = ((Callable) toJSON).call(cx, value, key);
+                serializer.invalidate();
             }
         }
         /* step 4 */
         if (serializer.replacerFunction != null) {
             value = serializer.replacerFunction.call(cx, holder, key, value);
+            serializer.invalidate();
+        }
+        return value;
+    }
+
+    /**
+     * Get(O, P) for the serializer. Invalidates the serializer state if user code may have been executed, i.e. unless
+     * the property was found as a data property of an ordinary object, or not found at all.
+     * 
+     * @param cx
+     *            the execution context
+     * @param serializer
+     *            the serializer state
+     * @param object
+     *            the script object
+     * @param key
+     *            the property key
+     * @return the property value
+     */
+    private static Object getProperty(ExecutionContext cx, JSONSerializer serializer, ScriptObject object,
+            String key) {
+        // Ordinary and built-in exotic objects only execute user code when an accessor property is present.
+        for (ScriptObject o = object; o instanceof OrdinaryObject; o = o.getPrototypeOf(cx)) {
+            Property desc = o.getOwnProperty(cx, key);
+            if (desc != null) {
+                if (desc.isDataDescriptor()) {
+                    return desc.getValue();
+                }
+                break;
+            }
+            if (o.getPrototypeOf(cx) == null) {
+                return UNDEFINED;
+            }
         }
+        Object value = Get(cx, object, key);
+        serializer.invalidate();
+        return value;
+    }
+
+    /**
+     * Get(O, P) for the serializer. Invalidates the serializer state if user code may have been executed, i.e. unless
+     * the property was found as a data property of an ordinary object, or not found at all.
+     * 
+     * @param cx
+     *            the execution context
+     * @param serializer
+     *            the serializer state
+     * @param object
+     *            the script object
+     * @param index
+     *            the property key
+     * @return the property value
+     */
+    private static Object getProperty(ExecutionContext cx, JSONSerializer serializer, ScriptObject object,
+            long index) {
+        for (ScriptObject o = object; o instanceof OrdinaryObject; o = o.getPrototypeOf(cx)) {
+            Property desc = o.getOwnProperty(cx, index);
+            if (desc != null) {
+                if (desc.isDataDescriptor()) {
+                    return desc.getValue();
+                }
+                break;
+            }
+            if (o.getPrototypeOf(cx) == null) {
+                return UNDEFINED;
+            }
+        }
+        Object value = Get(cx, object, index);
+        serializer.invalidate();
         return value;
     }
 
@@ -350,10 +698,20 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         case Object:
             assert !IsCallable(value);
             ScriptObject valueObj = Type.objectValue(value);
-            if (valueObj instanceof NumberObject) {
-                SerializeJSONNumber(serializer, ToNumber(cx, value));
+            if (isPlainJSONObject(cx, serializer, valueObj)) {
+                if (valueObj instanceof ArrayObject) {
+                    SerializeJSONPlainArray(cx, serializer, (ArrayObject) valueObj);
+                } else {
+                    SerializeJSONPlainObject(cx, serializer, (OrdinaryObject) valueObj);
+                }
+            } else if (valueObj instanceof NumberObject) {
+                double number = ToNumber(cx, value);
+                serializer.invalidate();
+                SerializeJSONNumber(serializer, number);
             } else if (valueObj instanceof StringObject) {
-                SerializeJSONString(serializer, ToString(cx, value));
+                CharSequence string = ToString(cx, value);
+                serializer.invalidate();
+                SerializeJSONString(serializer, string);
             } else if (valueObj instanceof BooleanObject) {
                 SerializeJSONBoolean(serializer, ((BooleanObject) valueObj).getBooleanData());
             } else if (IsArray(cx, valueObj)) {
@@ -423,12 +781,20 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
      *            the string
      */
     private static void QuoteJSONString(StringBuilder product, String value) {
-        product.ensureCapacity(value.length() + 2);
+        int len = value.length();
+        product.ensureCapacity(product.length() + len + 2);
         /* step 1 */
         product.append('"');
         /* step 2 */
-        for (int i = 0, len = value.length(); i < len; ++i) {
+        // Characters which don't need to be escaped are copied in runs.
+        int start = 0;
+        for (int i = 0; i < len; ++i) {
             char c = value.charAt(i);
+            if (c >= ' ' && c != '"' && c != '\\') {
+                continue;
+            }
+            product.append(value, start, i);
+            start = i + 1;
             switch (c) {
             case '"':
             case '\\':
@@ -450,19 +816,16 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
                 product.append('\\').append('t');
                 break;
             default:
-                if (c < ' ') {
-                    /* @formatter:off */
-                    product.append('\\').append('u')
-                            .append(HEXDIGITS[(c >> 12) & 0xf])
-                            .append(HEXDIGITS[(c >> 8) & 0xf])
-                            .append(HEXDIGITS[(c >> 4) & 0xf])
-                            .append(HEXDIGITS[(c >> 0) & 0xf]);
-                    /* @formatter:on */
-                } else {
-                    product.append(c);
-                }
+                /* @formatter:off */
+                product.append('\\').append('u')
+                        .append(HEXDIGITS[(c >> 12) & 0xf])
+                        .append(HEXDIGITS[(c >> 8) & 0xf])
+                        .append(HEXDIGITS[(c >> 4) & 0xf])
+                        .append(HEXDIGITS[(c >> 0) & 0xf]);
+                /* @formatter:on */
             }
         }
+        product.append(value, start, len);
         /* step 3 */
         product.append('"');
         /* step 4 (not applicable) */
@@ -480,9 +843,7 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
      */
     private static void SerializeJSONObject(ExecutionContext cx, JSONSerializer serializer, ScriptObject value) {
         /* steps 1-2 */
-        if (!serializer.stack.add(value)) {
-            throw newTypeError(cx, Messages.Key.JSONCyclicValue);
-        }
+        serializer.push(cx, value);
         /* steps 3-4 (not applicable) */
         /* steps 5-6 */
         Iterable<String> k;
@@ -490,6 +851,10 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
             k = serializer.propertyList;
         } else {
             k = EnumerableOwnNames(cx, value);
+            if (!(value instanceof OrdinaryObject)) {
+                // Proxy traps may have been executed.
+                serializer.invalidate();
+            }
         }
         /* step 7 (not applicable) */
         /* steps 8-10 */
@@ -500,7 +865,7 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         serializer.level += 1;
         for (String p : k) {
             // Inlined: SerializeJSONProperty
-            Object v = Get(cx, value, p);
+            Object v = getProperty(cx, serializer, value, p);
             v = TransformJSONValue(cx, serializer, value, p, v);
             if (!IsJSONSerializable(v)) {
                 continue;
@@ -518,6 +883,7 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
                 result.append(' ');
             }
             SerializeJSONValue(cx, serializer, v);
+            serializer.flush();
         }
         serializer.level -= 1;
         if (!isEmpty && !gap.isEmpty()) {
@@ -525,7 +891,7 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         }
         result.append('}');
         /* step 11 */
-        serializer.stack.remove(value);
+        serializer.pop(value);
         /* steps 12-13 (not applicable) */
     }
 
@@ -543,12 +909,14 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
      */
     private static void SerializeJSONArray(ExecutionContext cx, JSONSerializer serializer, ScriptObject value) {
         /* steps 1-2 */
-        if (!serializer.stack.add(value)) {
-            throw newTypeError(cx, Messages.Key.JSONCyclicValue);
-        }
+        serializer.push(cx, value);
         /* steps 3-5 (not applicable) */
         /* steps 6-7 */
-        long len = ToLength(cx, Get(cx, value, "length"));
+        Object lenValue = getProperty(cx, serializer, value, "length");
+        long len = ToLength(cx, lenValue);
+        if (Type.isObject(lenValue)) {
+            serializer.invalidate();
+        }
         /* steps 8-11 */
         String gap = serializer.gap;
         StringBuilder result = serializer.result;
@@ -560,7 +928,7 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
                     indent(serializer, result);
                 }
                 // Inlined: SerializeJSONProperty
-                Object v = Get(cx, value, index);
+                Object v = getProperty(cx, serializer, value, index);
                 v = TransformJSONValue(cx, serializer, value, ToString(index), v);
                 if (!IsJSONSerializable(v)) {
                     result.append("null");
@@ -570,6 +938,7 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
                 if (index + 1 < len) {
                     result.append(',');
                 }
+                serializer.flush();
             }
             serializer.level -= 1;
             if (!gap.isEmpty()) {
@@ -578,14 +947,183 @@ public final class JSONObject extends OrdinaryObject implements Initializable {
         }
         result.append(']');
         /* step 12 */
-        serializer.stack.remove(value);
+        serializer.pop(value);
         /* steps 13-14 (not applicable) */
     }
 
+    /**
+     * Returns {@code true} if {@code value} is an ordinary object or array which can be serialized directly from its
+     * property storage. Only applicable when neither a replacer function nor a property list is present.
+     * 
+     * @param cx
+     *            the execution context
+     * @param serializer
+     *            the serializer state
+     * @param value
+     *            the script object
+     * @return {@code true} if the object has no "toJSON" property on its prototype chain
+     */
+    private static boolean isPlainJSONObject(ExecutionContext cx, JSONSerializer serializer, ScriptObject value) {
+        if (!serializer.plainObjects) {
+            return false;
+        }
+        Class<?> c = value.getClass();
+        if (c == OrdinaryObject.class) {
+            if (((OrdinaryObject) value).hasIndexedProperties()) {
+                return false;
+            }
+        } else if (c != ArrayObject.class) {
+            return false;
+        }
+        OrdinaryObject object = (OrdinaryObject) value;
+        if (object.lookupOwnProperty("toJSON") != null) {
+            return false;
+        }
+        ScriptObject prototype = object.getPrototype();
+        if (prototype == null || serializer.isValidated(prototype)) {
+            return true;
+        }
+        ScriptObject objectPrototype = cx.getIntrinsic(Intrinsics.ObjectPrototype);
+        ScriptObject arrayPrototype = cx.getIntrinsic(Intrinsics.ArrayPrototype);
+        for (ScriptObject proto = prototype; proto != null;) {
+            if (proto.getClass() != OrdinaryObject.class && proto != objectPrototype && proto != arrayPrototype) {
+                return false;
+            }
+            OrdinaryObject protoObj = (OrdinaryObject) proto;
+            if (protoObj.lookupOwnProperty("toJSON") != null) {
+                return false;
+            }
+            proto = protoObj.getPrototype();
+        }
+        serializer.addValidated(prototype);
+        return true;
+    }
+
+    /**
+     * 24.3.2.3 Runtime Semantics: SerializeJSONObject ( value )
+     * <p>
+     * Reads the property values directly from the property storage. After user code was executed, a property value is
+     * only read directly if the property is still the same data property.
+     * 
+     * @param cx
+     *            the execution context
+     * @param serializer
+     *            the serializer state
+     * @param value
+     *            the script object
+     */
+    private static void SerializeJSONPlainObject(ExecutionContext cx, JSONSerializer serializer,
+            OrdinaryObject value) {
+        Map.Entry<String, Property>[] entries = value.getEnumerableDataProperties();
+        if (entries == null) {
+            SerializeJSONObject(cx, serializer, value);
+            return;
+        }
+        serializer.push(cx, value);
+        boolean isEmpty = true;
+        String gap = serializer.gap;
+        StringBuilder result = serializer.result;
+        result.append('{');
+        serializer.level += 1;
+        int epoch = serializer.epoch;
+        for (Map.Entry<String, Property> entry : entries) {
+            String p = entry.getKey();
+            Property property = entry.getValue();
+            Object v;
+            if (epoch == serializer.epoch || (value.lookupOwnProperty(p) == property && property.isDataDescriptor())) {
+                v = property.getValue();
+                if (Type.isObject(v) && !isPlainJSONObject(cx, serializer, Type.objectValue(v))) {
+                    v = TransformJSONValue(cx, serializer, value, p, v);
+                }
+            } else {
+                // The property was changed by user code, continue with the generic algorithm.
+                v = TransformJSONValue(cx, serializer, value, p, getProperty(cx, serializer, value, p));
+            }
+            if (!IsJSONSerializable(v)) {
+                continue;
+            }
+            if (!isEmpty) {
+                result.append(',');
+            }
+            isEmpty = false;
+            if (!gap.isEmpty()) {
+                indent(serializer, result);
+            }
+            QuoteJSONString(result, p);
+            result.append(':');
+            if (!gap.isEmpty()) {
+                result.append(' ');
+            }
+            SerializeJSONValue(cx, serializer, v);
+            serializer.flush();
+        }
+        serializer.level -= 1;
+        if (!isEmpty && !gap.isEmpty()) {
+            indent(serializer, result);
+        }
+        result.append('}');
+        serializer.pop(value);
+    }
+
+    /**
+     * 24.3.2.4 Runtime Semantics: SerializeJSONArray( value )
+     * <p>
+     * Reads the elements directly from the element storage, holes and accessors use the generic algorithm.
+     * 
+     * @param cx
+     *            the execution context
+     * @param serializer
+     *            the serializer state
+     * @param value
+     *            the array object
+     */
+    private static void SerializeJSONPlainArray(ExecutionContext cx, JSONSerializer serializer, ArrayObject value) {
+        long len = value.getLength();
+        if (!value.isDenseArray(len)) {
+            SerializeJSONArray(cx, serializer, value);
+            return;
+        }
+        serializer.push(cx, value);
+        String gap = serializer.gap;
+        StringBuilder result = serializer.result;
+        result.append('[');
+        if (len > 0) {
+            serializer.level += 1;
+            for (long index = 0; index < len; ++index) {
+                if (!gap.isEmpty()) {
+                    indent(serializer, result);
+                }
+                // The element storage is always current, user code may only have removed elements or added accessors.
+                Object v = value.getOwnDataElement(index);
+                if (v == null) {
+                    v = TransformJSONValue(cx, serializer, value, ToString(index),
+                            getProperty(cx, serializer, value, index));
+                } else if (Type.isObject(v) && !isPlainJSONObject(cx, serializer, Type.objectValue(v))) {
+                    v = TransformJSONValue(cx, serializer, value, ToString(index), v);
+                }
+                if (!IsJSONSerializable(v)) {
+                    result.append("null");
+                } else {
+                    SerializeJSONValue(cx, serializer, v);
+                }
+                if (index + 1 < len) {
+                    result.append(',');
+                }
+                serializer.flush();
+            }
+            serializer.level -= 1;
+            if (!gap.isEmpty()) {
+                indent(serializer, result);
+            }
+        }
+        result.append(']');
+        serializer.pop(value);
+    }
+
     private static void indent(JSONSerializer serializer, StringBuilder sb) {
         int level = serializer.level;
         String gap = serializer.gap;
-        sb.ensureCapacity(1 + level * gap.length());
+        sb.ensureCapacity(sb.length() + 1 + level * gap.length());
         sb.append('\n');
         for (int i = 0; i < level; ++i) {
             sb.append(gap);
@@ -14,8 +14,11 @@ import static com.github.anba.es6draft.runtime.internal.Errors.newRangeError;
 import static com.github.anba.es6draft.runtime.internal.Errors.newTypeError;
 import static com.github.anba.es6draft.runtime.internal.Properties.createProperties;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.Realm;
@@ -86,7 +89,9 @@ public final class ArrayBufferConstructor extends BuiltinConstructor implements
         }
         try {
             /* step 3 */
-            // TODO: Call allocateDirect() if size exceeds predefined limit?
+            if (size >= cx.getRuntimeContext().getDirectBufferThreshold()) {
+                return ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+            }
             return ByteBuffer.allocate((int) size).order(ByteOrder.nativeOrder());
         } catch (OutOfMemoryError e) {
             /* step 2 */
@@ -151,6 +156,43 @@ public final class ArrayBufferConstructor extends BuiltinConstructor implements
         return new ArrayBufferObject(cx.getRealm(), block, byteLength, proto);
     }
 
+    /**
+     * Creates a new array buffer object which is backed by a memory-mapped file region.
+     * <p>
+     * {@link MapMode#READ_WRITE} mappings write all changes through to the file. {@link MapMode#PRIVATE} mappings
+     * leave the file unmodified, changes to the array buffer are only visible in the returned object. Array buffers
+     * are always writable from script code, therefore {@link MapMode#READ_ONLY} mappings are not supported.
+     * 
+     * @param cx
+     *            the execution context
+     * @param channel
+     *            the file channel
+     * @param mode
+     *            the file mapping mode, either {@link MapMode#READ_WRITE} or {@link MapMode#PRIVATE}
+     * @param position
+     *            the position within the file
+     * @param size
+     *            the size of the mapped region in bytes
+     * @return the new array buffer object
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static ArrayBufferObject CreateMappedArrayBuffer(ExecutionContext cx, FileChannel channel,
+            MapMode mode, long position, long size) throws IOException {
+        if (mode != MapMode.READ_WRITE && mode != MapMode.PRIVATE) {
+            throw new IllegalArgumentException("Unsupported map mode: " + mode);
+        }
+        if (position < 0 || size < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw newRangeError(cx, Messages.Key.OutOfMemory);
+        }
+        ByteBuffer block = channel.map(mode, position, size).order(ByteOrder.nativeOrder());
+        ScriptObject proto = cx.getIntrinsic(Intrinsics.ArrayBufferPrototype);
+        return new ArrayBufferObject(cx.getRealm(), block, size, proto);
+    }
+
     /**
      * 24.1.1.2 IsDetachedBuffer( arrayBuffer )
      * 
@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.objects.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Element accessor for typed arrays.
+ * <p>
+ * Each element type has its own accessor, so element accesses don't need to dispatch on the element type. Accessors
+ * operate on byte buffers in native byte order. Integer element types return {@link Integer} values when the element
+ * value fits into an int.
+ */
+abstract class TypedArrayAccessor {
+    private TypedArrayAccessor() {
+    }
+
+    /**
+     * Returns the element value at {@code byteIndex}.
+     *
+     * @param data
+     *            the byte buffer in native byte order
+     * @param byteIndex
+     *            the byte index
+     * @return the element value
+     */
+    abstract Object get(ByteBuffer data, int byteIndex);
+
+    /**
+     * Returns the element value at {@code byteIndex}.
+     *
+     * @param data
+     *            the byte buffer in native byte order
+     * @param byteIndex
+     *            the byte index
+     * @return the element value
+     */
+    abstract double getDouble(ByteBuffer data, int byteIndex);
+
+    /**
+     * Stores the element value at {@code byteIndex}.
+     *
+     * @param data
+     *            the byte buffer in native byte order
+     * @param byteIndex
+     *            the byte index
+     * @param value
+     *            the new element value
+     */
+    abstract void set(ByteBuffer data, int byteIndex, double value);
+
+    /**
+     * Returns the accessor for the element type.
+     *
+     * @param type
+     *            the element type
+     * @return the element accessor
+     */
+    static TypedArrayAccessor of(ElementType type) {
+        switch (type) {
+        case Int8:
+            return INT8;
+        case Uint8:
+            return UINT8;
+        case Uint8C:
+            return UINT8C;
+        case Int16:
+            return INT16;
+        case Uint16:
+            return UINT16;
+        case Int32:
+            return INT32;
+        case Uint32:
+            return UINT32;
+        case Float32:
+            return FLOAT32;
+        case Float64:
+            return FLOAT64;
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    /**
+     * Returns {@code true} if converting elements from {@code srcType} to {@code targetType} preserves the element
+     * bytes, so elements can be copied without conversion.
+     * 
+     * @param srcType
+     *            the source element type
+     * @param targetType
+     *            the target element type
+     * @return {@code true} if elements can be copied bytewise
+     */
+    static boolean isBytewiseCopy(ElementType srcType, ElementType targetType) {
+        if (srcType == targetType) {
+            return true;
+        }
+        switch (targetType) {
+        case Int8:
+        case Uint8:
+            return srcType == ElementType.Int8 || srcType == ElementType.Uint8 || srcType == ElementType.Uint8C;
+        case Uint8C:
+            return srcType == ElementType.Uint8;
+        case Int16:
+        case Uint16:
+            return srcType == ElementType.Int16 || srcType == ElementType.Uint16;
+        case Int32:
+        case Uint32:
+            return srcType == ElementType.Int32 || srcType == ElementType.Uint32;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Copies {@code count} elements from {@code src} to {@code target}, converting the elements if necessary.
+     * Overlapping ranges are supported if the element types can be copied bytewise.
+     * 
+     * @param src
+     *            the source byte buffer
+     * @param srcByteIndex
+     *            the source byte index
+     * @param srcType
+     *            the source element type
+     * @param target
+     *            the target byte buffer
+     * @param targetByteIndex
+     *            the target byte index
+     * @param targetType
+     *            the target element type
+     * @param count
+     *            the number of elements to copy
+     */
+    static void copy(ByteBuffer src, int srcByteIndex, ElementType srcType, ByteBuffer target, int targetByteIndex,
+            ElementType targetType, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (isBytewiseCopy(srcType, targetType)) {
+            int byteLength = count * srcType.size();
+            ByteBuffer srcData = src.duplicate();
+            ByteBuffer targetData = target.duplicate();
+            srcData.limit(srcByteIndex + byteLength).position(srcByteIndex);
+            targetData.limit(targetByteIndex + byteLength).position(targetByteIndex);
+            targetData.put(srcData);
+            return;
+        }
+        TypedArrayAccessor srcAccessor = of(srcType), targetAccessor = of(targetType);
+        ByteBuffer srcData = src.duplicate().order(ByteOrder.nativeOrder());
+        ByteBuffer targetData = target.duplicate().order(ByteOrder.nativeOrder());
+        int srcElementSize = srcType.size(), targetElementSize = targetType.size();
+        for (int i = 0; i < count; ++i) {
+            double value = srcAccessor.getDouble(srcData, srcByteIndex + i * srcElementSize);
+            targetAccessor.set(targetData, targetByteIndex + i * targetElementSize, value);
+        }
+    }
+
+    /**
+     * Stores {@code value} into {@code count} consecutive elements.
+     * 
+     * @param data
+     *            the byte buffer
+     * @param byteIndex
+     *            the start byte index
+     * @param type
+     *            the element type
+     * @param count
+     *            the number of elements to fill
+     * @param value
+     *            the new element value
+     */
+    static void fill(ByteBuffer data, int byteIndex, ElementType type, int count, double value) {
+        if (count <= 0) {
+            return;
+        }
+        ByteBuffer target = data.duplicate().order(ByteOrder.nativeOrder());
+        of(type).set(target, byteIndex, value);
+        // Double the filled range with each bulk copy.
+        int elementSize = type.size();
+        int filled = elementSize, byteLength = count * elementSize;
+        ByteBuffer src = target.duplicate();
+        while (filled < byteLength) {
+            int n = Math.min(filled, byteLength - filled);
+            src.limit(byteIndex + n).position(byteIndex);
+            target.limit(byteIndex + filled + n).position(byteIndex + filled);
+            target.put(src);
+            filled += n;
+        }
+    }
+
+    private static abstract class IntAccessor extends TypedArrayAccessor {
+        abstract int getInt(ByteBuffer data, int byteIndex);
+
+        @Override
+        final Object get(ByteBuffer data, int byteIndex) {
+            return getInt(data, byteIndex);
+        }
+
+        @Override
+        final double getDouble(ByteBuffer data, int byteIndex) {
+            return getInt(data, byteIndex);
+        }
+    }
+
+    private static final TypedArrayAccessor INT8 = new IntAccessor() {
+        @Override
+        int getInt(ByteBuffer data, int byteIndex) {
+            return data.get(byteIndex);
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.put(byteIndex, ElementType.ToInt8(value));
+        }
+    };
+
+    private static final TypedArrayAccessor UINT8 = new IntAccessor() {
+        @Override
+        int getInt(ByteBuffer data, int byteIndex) {
+            return data.get(byteIndex) & 0xff;
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.put(byteIndex, ElementType.ToUint8(value));
+        }
+    };
+
+    private static final TypedArrayAccessor UINT8C = new IntAccessor() {
+        @Override
+        int getInt(ByteBuffer data, int byteIndex) {
+            return data.get(byteIndex) & 0xff;
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.put(byteIndex, ElementType.ToUint8Clamp(value));
+        }
+    };
+
+    private static final TypedArrayAccessor INT16 = new IntAccessor() {
+        @Override
+        int getInt(ByteBuffer data, int byteIndex) {
+            return data.getShort(byteIndex);
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.putShort(byteIndex, ElementType.ToInt16(value));
+        }
+    };
+
+    private static final TypedArrayAccessor UINT16 = new IntAccessor() {
+        @Override
+        int getInt(ByteBuffer data, int byteIndex) {
+            return data.getShort(byteIndex) & 0xffff;
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.putShort(byteIndex, ElementType.ToUint16(value));
+        }
+    };
+
+    private static final TypedArrayAccessor INT32 = new IntAccessor() {
+        @Override
+        int getInt(ByteBuffer data, int byteIndex) {
+            return data.getInt(byteIndex);
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.putInt(byteIndex, ElementType.ToInt32(value));
+        }
+    };
+
+    private static final TypedArrayAccessor UINT32 = new TypedArrayAccessor() {
+        @Override
+        Object get(ByteBuffer data, int byteIndex) {
+            int value = data.getInt(byteIndex);
+            if (value >= 0) {
+                return value;
+            }
+            return (double) (value & 0xffff_ffffL);
+        }
+
+        @Override
+        double getDouble(ByteBuffer data, int byteIndex) {
+            return data.getInt(byteIndex) & 0xffff_ffffL;
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.putInt(byteIndex, ElementType.ToUint32(value));
+        }
+    };
+
+    private static final TypedArrayAccessor FLOAT32 = new TypedArrayAccessor() {
+        @Override
+        Object get(ByteBuffer data, int byteIndex) {
+            return getDouble(data, byteIndex);
+        }
+
+        @Override
+        double getDouble(ByteBuffer data, int byteIndex) {
+            double value = data.getFloat(byteIndex);
+            return Double.isNaN(value) ? Double.NaN : value;
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.putFloat(byteIndex, (float) value);
+        }
+    };
+
+    private static final TypedArrayAccessor FLOAT64 = new TypedArrayAccessor() {
+        @Override
+        Object get(ByteBuffer data, int byteIndex) {
+            return getDouble(data, byteIndex);
+        }
+
+        @Override
+        double getDouble(ByteBuffer data, int byteIndex) {
+            double value = data.getDouble(byteIndex);
+            return Double.isNaN(value) ? Double.NaN : value;
+        }
+
+        @Override
+        void set(ByteBuffer data, int byteIndex, double value) {
+            data.putDouble(byteIndex, value);
+        }
+    };
+}
@@ -225,12 +225,9 @@ public final class TypedArrayConstructor extends BuiltinConstructor implements I
             /* step 18.e */
             long targetByteIndex = 0;
             /* steps 18.f-g */
-            for (long count = elementLength; count > 0; --count) {
-                double value = GetValueFromBuffer(srcData, srcByteIndex, srcType);
-                SetValueInBuffer(data, targetByteIndex, elementType, value);
-                srcByteIndex += srcElementSize;
-                targetByteIndex += elementSize;
-            }
+            assert srcByteIndex + srcElementSize * elementLength <= srcData.getData().capacity();
+            TypedArrayAccessor.copy(srcData.getData(), (int) srcByteIndex, srcType, data.getData(),
+                    (int) targetByteIndex, elementType, (int) elementLength);
         }
         /* steps 4, 19-23 */
         return new TypedArrayObject(cx.getRealm(), elementType, data, byteLength, 0, elementLength, proto);
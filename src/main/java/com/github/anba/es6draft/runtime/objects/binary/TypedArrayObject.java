@@ -8,11 +8,12 @@ package com.github.anba.es6draft.runtime.objects.binary;
 
 import static com.github.anba.es6draft.runtime.AbstractOperations.ToNumber;
 import static com.github.anba.es6draft.runtime.internal.Errors.newTypeError;
-import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.GetValueFromBuffer;
 import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.IsDetachedBuffer;
-import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.SetValueInBuffer;
 import static com.github.anba.es6draft.runtime.types.Undefined.UNDEFINED;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.Realm;
 import com.github.anba.es6draft.runtime.internal.Messages;
@@ -43,6 +44,11 @@ public final class TypedArrayObject extends IntegerIndexedObject implements Arra
     /** [[ArrayLength]] */
     private final long arrayLength;
 
+    private final TypedArrayAccessor accessor;
+
+    /** Array buffer data in native byte order or {@code null} if created with a detached buffer */
+    private final ByteBuffer data;
+
     /**
      * Constructs a new TypedArray object.
      * 
@@ -76,6 +82,8 @@ public final class TypedArrayObject extends IntegerIndexedObject implements Arra
         this.byteLength = byteLength;
         this.byteOffset = byteOffset;
         this.arrayLength = arrayLength;
+        this.accessor = TypedArrayAccessor.of(elementType);
+        this.data = buffer.isDetached() ? null : buffer.getData().duplicate().order(ByteOrder.nativeOrder());
         setPrototype(prototype);
     }
 
@@ -114,12 +122,11 @@ public final class TypedArrayObject extends IntegerIndexedObject implements Arra
         }
         /* step 9 */
         long offset = getByteOffset();
-        /* steps 10, 13 */
-        ElementType elementType = getElementType();
+        /* steps 10, 13 (not applicable) */
         /* steps 11-12 */
         long indexedPosition = (index << elementShift) + offset;
         /* step 14 */
-        return GetValueFromBuffer(buffer, indexedPosition, elementType);
+        return accessor.get(data, (int) indexedPosition);
     }
 
     double elementGetDirect(ExecutionContext cx, long index) {
@@ -134,12 +141,11 @@ public final class TypedArrayObject extends IntegerIndexedObject implements Arra
         /* steps 5-8 (not applicable) */
         /* step 9 */
         long offset = getByteOffset();
-        /* steps 10, 13 */
-        ElementType elementType = getElementType();
+        /* steps 10, 13 (not applicable) */
         /* steps 11-12 */
         long indexedPosition = (index << elementShift) + offset;
         /* step 14 */
-        return GetValueFromBuffer(buffer, indexedPosition, elementType);
+        return accessor.getDouble(data, (int) indexedPosition);
     }
 
     @Override
@@ -160,12 +166,11 @@ public final class TypedArrayObject extends IntegerIndexedObject implements Arra
         }
         /* step 11 */
         long offset = getByteOffset();
-        /* steps 12, 15 */
-        ElementType elementType = getElementType();
+        /* steps 12, 15 (not applicable) */
         /* steps 13-14 */
         long indexedPosition = (index << elementShift) + offset;
         /* step 16 */
-        SetValueInBuffer(buffer, indexedPosition, elementType, numValue);
+        accessor.set(data, (int) indexedPosition, numValue);
         /* step 17 */
         return true;
     }
@@ -182,15 +187,63 @@ public final class TypedArrayObject extends IntegerIndexedObject implements Arra
         /* steps 7-10 (not applicable) */
         /* step 11 */
         long offset = getByteOffset();
-        /* steps 12, 15 */
-        ElementType elementType = getElementType();
+        /* steps 12, 15 (not applicable) */
         /* steps 13-14 */
         long indexedPosition = (index << elementShift) + offset;
         /* steps 16-17 */
-        SetValueInBuffer(buffer, indexedPosition, elementType, numValue);
+        accessor.set(data, (int) indexedPosition, numValue);
         /* step 18 (return) */
     }
 
+    /**
+     * Returns {@code true} if the buffer is not detached and {@code index} is a valid element index.
+     * 
+     * @param index
+     *            the element index
+     * @return {@code true} if {@code index} is a valid element index
+     */
+    public boolean isElementIndex(int index) {
+        return 0 <= index && index < arrayLength && !buffer.isDetached();
+    }
+
+    /**
+     * Returns the element value, the index must have been checked with {@link #isElementIndex(int)}.
+     * 
+     * @param index
+     *            the element index
+     * @return the element value
+     */
+    public Object getElementUnchecked(int index) {
+        assert isElementIndex(index);
+        return accessor.get(data, (int) byteOffset + (index << elementShift));
+    }
+
+    /**
+     * Sets the element value, the index must have been checked with {@link #isElementIndex(int)}.
+     * 
+     * @param index
+     *            the element index
+     * @param numValue
+     *            the new element value
+     */
+    public void setElementUnchecked(int index, double numValue) {
+        assert isElementIndex(index);
+        accessor.set(data, (int) byteOffset + (index << elementShift), numValue);
+    }
+
+    /**
+     * Returns the elements of this typed array as a byte buffer in native byte order. The returned byte buffer shares
+     * its content with the array buffer, but has its own position, limit and byte order.
+     * 
+     * @return the element data
+     */
+    ByteBuffer elementData() {
+        assert !IsDetachedBuffer(buffer) : "ArrayBuffer is detached";
+        ByteBuffer view = data.duplicate();
+        view.limit((int) (byteOffset + byteLength)).position((int) byteOffset);
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+
     /**
      * [[ViewedArrayBuffer]]
      */
@@ -15,15 +15,12 @@ import static com.github.anba.es6draft.runtime.objects.ArrayIteratorPrototype.Cr
 import static com.github.anba.es6draft.runtime.objects.atomics.SharedArrayBufferConstructor.IsSharedMemory;
 import static com.github.anba.es6draft.runtime.objects.atomics.SharedArrayBufferConstructor.SharedDataBlockID;
 import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.CloneArrayBuffer;
-import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.GetValueFromBuffer;
 import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.IsDetachedBuffer;
-import static com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor.SetValueInBuffer;
 import static com.github.anba.es6draft.runtime.objects.binary.TypedArrayConstructor.TypedArraySpeciesCreate;
 import static com.github.anba.es6draft.runtime.types.Undefined.UNDEFINED;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.Comparator;
 
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.Realm;
@@ -44,6 +41,7 @@ import com.github.anba.es6draft.runtime.types.Callable;
 import com.github.anba.es6draft.runtime.types.Intrinsics;
 import com.github.anba.es6draft.runtime.types.ScriptObject;
 import com.github.anba.es6draft.runtime.types.Type;
+import com.github.anba.es6draft.runtime.types.builtins.ArrayObject;
 import com.github.anba.es6draft.runtime.types.builtins.NativeFunction;
 import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
 
@@ -294,13 +292,13 @@ public final class TypedArrayPrototypePrototype extends OrdinaryObject implement
                     /* step 24.a */
                     long pk = k;
                     /* steps 24.b-c */
-                    double kNumber = ToNumber(cx, Get(cx, src, pk));
-                    /* step 24.d */
-                    if (IsDetachedBuffer(targetBuffer)) {
-                        throw newTypeError(cx, Messages.Key.BufferDetached);
+                    Object kValue = src instanceof ArrayObject ? ((ArrayObject) src).getOwnDataElement(pk) : null;
+                    if (kValue == null) {
+                        kValue = Get(cx, src, pk);
                     }
-                    /* step 24.e */
-                    SetValueInBuffer(targetBuffer, targetByteIndex, targetType, kNumber);
+                    double kNumber = ToNumber(cx, kValue);
+                    /* steps 24.d-e */
+                    target.elementSetDirect(cx, targetIndex + k, kNumber);
                 }
                 /* step 25 */
                 return UNDEFINED;
@@ -361,43 +359,22 @@ public final class TypedArrayPrototypePrototype extends OrdinaryObject implement
                     doClone = false;
                 }
                 long srcByteIndex;
-                if (srcBuffer == targetBuffer || doClone) {
+                boolean bytewiseCopy = TypedArrayAccessor.isBytewiseCopy(srcType, targetType);
+                if ((srcBuffer == targetBuffer && !bytewiseCopy) || doClone) {
                     srcBuffer = CloneArrayBuffer(cx, targetBuffer, srcByteOffset, Intrinsics.ArrayBuffer);
                     assert !IsDetachedBuffer(targetBuffer);
                     srcByteIndex = 0;
                 } else {
+                    // Bytewise copies within the same buffer handle overlapping ranges, no need to clone.
                     srcByteIndex = srcByteOffset;
                 }
                 /* step 26 */
                 long targetByteIndex = targetIndex * targetElementSize + targetByteOffset;
                 /* steps 27-29 */
-                if (srcType != targetType) {
-                    /* step 27 */
-                    long limit = targetByteIndex + targetElementSize * srcLength;
-                    /* step 28 */
-                    for (; targetByteIndex < limit; srcByteIndex += srcElementSize, targetByteIndex += targetElementSize) {
-                        /* step 28.a */
-                        double value = GetValueFromBuffer(srcBuffer, srcByteIndex, srcType);
-                        /* step 28.b */
-                        SetValueInBuffer(targetBuffer, targetByteIndex, targetType, value);
-                    }
-                } else {
-                    /* steps 27, 29 */
-                    long countByteLength = targetElementSize * srcLength;
-                    ByteBuffer srcData = srcBuffer.getData();
-                    ByteBuffer targetData = targetBuffer.getData();
-                    assert (srcByteIndex + countByteLength) <= srcData.capacity();
-                    assert (targetByteIndex + countByteLength) <= targetData.capacity();
-                    assert srcData != targetData;
-
-                    srcData.limit((int) (srcByteIndex + countByteLength)).position(
-                            (int) srcByteIndex);
-                    targetData.limit((int) (targetByteIndex + countByteLength)).position(
-                            (int) targetByteIndex);
-                    targetData.put(srcData);
-                    srcData.clear();
-                    targetData.clear();
-                }
+                assert srcByteIndex + srcElementSize * srcLength <= srcBuffer.getData().capacity();
+                assert targetByteIndex + targetElementSize * srcLength <= targetBuffer.getData().capacity();
+                TypedArrayAccessor.copy(srcBuffer.getData(), (int) srcByteIndex, srcType, targetBuffer.getData(),
+                        (int) targetByteIndex, targetType, (int) srcLength);
                 /* step 30 */
                 return UNDEFINED;
             }
@@ -602,55 +579,23 @@ public final class TypedArrayPrototypePrototype extends OrdinaryObject implement
             /* steps 12-13 */
             ElementType targetType = a.getElementType();
             /* steps 14-15 */
-            if (srcType != targetType) {
-                /* step 14 */
-                /* steps 14.a-b */
-                for (long n = 0; k < finall; ++k, ++n) {
-                    /* step 14.b.i */
-                    long pk = k;
-                    /* step 14.b.ii */
-                    double kvalue = o.elementGetDirect(cx, pk);
-                    /* step 14.b.iii */
-                    a.elementSetDirect(cx, n, kvalue);
-                }
-            } else if (count > 0) {
-                /* step 15 */
-                /* step 15.a */
+            if (count > 0) {
                 ArrayBuffer srcBuffer = o.getBuffer();
-                /* step 15.b */
                 if (IsDetachedBuffer(srcBuffer)) {
                     throw newTypeError(cx, Messages.Key.BufferDetached);
                 }
-                /* step 15.c */
                 ArrayBuffer targetBuffer = a.getBuffer();
-                /* step 15.d */
-                int elementSize = srcType.size();
-                /* step 15.e (note) */
-                /* step 15.f */
-                long srcByteOffset = o.getByteOffset();
-                /* step 15.g */
+                assert !IsDetachedBuffer(targetBuffer);
+                long srcByteIndex = o.getByteOffset() + k * srcType.size();
                 long targetByteIndex = a.getByteOffset();
-                /* step 15.h */
-                long srcByteIndex = srcByteOffset + k * elementSize;
-                /* steps 15.i-j */
-                ByteBuffer srcData = srcBuffer.getData();
-                ByteBuffer targetData = targetBuffer.getData();
-                long countByteLength = count * elementSize;
-                assert (srcByteIndex + countByteLength) <= srcData.capacity();
-                assert countByteLength <= targetData.capacity();
-                assert srcData != targetData;
-
-                srcData.limit((int) (srcByteIndex + countByteLength)).position((int) srcByteIndex);
-                targetData.limit((int) countByteLength).position((int) targetByteIndex);
-                targetData.put(srcData);
-                srcData.clear();
-                targetData.clear();
+                TypedArrayAccessor.copy(srcBuffer.getData(), (int) srcByteIndex, srcType, targetBuffer.getData(),
+                        (int) targetByteIndex, targetType, (int) count);
             }
             /* step 16 */
             return a;
         }
 
-        private static final class FunctionComparator implements Comparator<Double> {
+        private static final class FunctionComparator {
             private final ExecutionContext cx;
             private final Callable comparefn;
             private final ArrayBuffer buffer;
@@ -661,8 +606,7 @@ public final class TypedArrayPrototypePrototype extends OrdinaryObject implement
                 this.buffer = buffer;
             }
 
-            @Override
-            public int compare(Double x, Double y) {
+            int compare(double x, double y) {
                 double c = ToNumber(cx, comparefn.call(cx, UNDEFINED, x, y));
                 if (IsDetachedBuffer(buffer)) {
                     throw newTypeError(cx, Messages.Key.BufferDetached);
@@ -671,6 +615,128 @@ public final class TypedArrayPrototypePrototype extends OrdinaryObject implement
             }
         }
 
+        private static final int INSERTION_SORT_THRESHOLD = 7;
+
+        /**
+         * Stable merge sort on primitive values, the auxiliary array {@code src} must be a copy of {@code dest}.
+         */
+        private static void mergeSort(double[] src, double[] dest, int low, int high, FunctionComparator c) {
+            int length = high - low;
+            if (length < INSERTION_SORT_THRESHOLD) {
+                for (int i = low + 1; i < high; ++i) {
+                    for (int j = i; j > low && c.compare(dest[j - 1], dest[j]) > 0; --j) {
+                        double t = dest[j];
+                        dest[j] = dest[j - 1];
+                        dest[j - 1] = t;
+                    }
+                }
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            mergeSort(dest, src, low, mid, c);
+            mergeSort(dest, src, mid, high, c);
+            if (c.compare(src[mid - 1], src[mid]) <= 0) {
+                System.arraycopy(src, low, dest, low, length);
+                return;
+            }
+            for (int i = low, p = low, q = mid; i < high; ++i) {
+                if (q >= high || (p < mid && c.compare(src[p], src[q]) <= 0)) {
+                    dest[i] = src[p++];
+                } else {
+                    dest[i] = src[q++];
+                }
+            }
+        }
+
+        /**
+         * Sorts the typed array elements in numeric order. The elements are read in bulk into a primitive array of the
+         * element type, {@code Arrays.parallelSort} sorts large arrays in parallel. Floating point elements are ordered
+         * as required by SortCompare: {@code -0} before {@code +0} and {@code NaN} last.
+         */
+        private static void sortElements(TypedArrayObject obj, int length) {
+            ByteBuffer data = obj.elementData();
+            switch (obj.getElementType()) {
+            case Int8: {
+                byte[] elements = new byte[length];
+                data.get(elements);
+                Arrays.parallelSort(elements);
+                data.clear();
+                data.put(elements);
+                return;
+            }
+            case Uint8:
+            case Uint8C: {
+                // Counting sort for unsigned bytes.
+                byte[] elements = new byte[length];
+                data.get(elements);
+                int[] counts = new int[256];
+                for (byte e : elements) {
+                    counts[e & 0xff] += 1;
+                }
+                for (int v = 0, i = 0; v < 256; ++v) {
+                    for (int n = counts[v]; n > 0; --n) {
+                        elements[i++] = (byte) v;
+                    }
+                }
+                data.clear();
+                data.put(elements);
+                return;
+            }
+            case Int16: {
+                short[] elements = new short[length];
+                data.asShortBuffer().get(elements);
+                Arrays.parallelSort(elements);
+                data.asShortBuffer().put(elements);
+                return;
+            }
+            case Uint16: {
+                // char values are unsigned 16-bit integers.
+                char[] elements = new char[length];
+                data.asCharBuffer().get(elements);
+                Arrays.parallelSort(elements);
+                data.asCharBuffer().put(elements);
+                return;
+            }
+            case Int32: {
+                int[] elements = new int[length];
+                data.asIntBuffer().get(elements);
+                Arrays.parallelSort(elements);
+                data.asIntBuffer().put(elements);
+                return;
+            }
+            case Uint32: {
+                // Flip the sign bit to sort unsigned values as signed values.
+                int[] elements = new int[length];
+                data.asIntBuffer().get(elements);
+                for (int i = 0; i < length; ++i) {
+                    elements[i] ^= Integer.MIN_VALUE;
+                }
+                Arrays.parallelSort(elements);
+                for (int i = 0; i < length; ++i) {
+                    elements[i] ^= Integer.MIN_VALUE;
+                }
+                data.asIntBuffer().put(elements);
+                return;
+            }
+            case Float32: {
+                float[] elements = new float[length];
+                data.asFloatBuffer().get(elements);
+                Arrays.parallelSort(elements);
+                data.asFloatBuffer().put(elements);
+                return;
+            }
+            case Float64: {
+                double[] elements = new double[length];
+                data.asDoubleBuffer().get(elements);
+                Arrays.parallelSort(elements);
+                data.asDoubleBuffer().put(elements);
+                return;
+            }
+            default:
+                throw new AssertionError();
+            }
+        }
+
         /**
          * 22.2.3.25 %TypedArray%.prototype.sort ( comparefn )
          * 
@@ -703,33 +769,19 @@ public final class TypedArrayPrototypePrototype extends OrdinaryObject implement
                 if (!IsCallable(comparefn)) {
                     throw newTypeError(cx, Messages.Key.NotCallable);
                 }
-                Double[] elements = new Double[length];
-                for (int i = 0; i < length; ++i) {
-                    elements[i] = obj.elementGetDirect(cx, i);
-                }
-
-                Comparator<Double> comparator = new FunctionComparator(cx, (Callable) comparefn, obj.getBuffer());
-                try {
-                    Arrays.sort(elements, comparator);
-                } catch (IllegalArgumentException e) {
-                    // `IllegalArgumentException: Comparison method violates its general contract!`
-                    // just ignore this exception...
-                }
-
-                for (int i = 0; i < length; ++i) {
-                    obj.elementSetDirect(cx, i, (double) elements[i]);
-                }
-            } else {
                 double[] elements = new double[length];
                 for (int i = 0; i < length; ++i) {
                     elements[i] = obj.elementGetDirect(cx, i);
                 }
 
-                Arrays.sort(elements);
+                FunctionComparator comparator = new FunctionComparator(cx, (Callable) comparefn, obj.getBuffer());
+                mergeSort(elements.clone(), elements, 0, length, comparator);
 
                 for (int i = 0; i < length; ++i) {
                     obj.elementSetDirect(cx, i, elements[i]);
                 }
+            } else {
+                sortElements(obj, length);
             }
             return obj;
         }
@@ -1267,6 +1319,18 @@ public final class TypedArrayPrototypePrototype extends OrdinaryObject implement
             /* steps 8-10 */
             long finall = Type.isUndefined(end) ? len : ToArrayIndex(cx, end, len);
             /* step 11 */
+            if (k < finall && Type.isNumber(value)) {
+                // ToNumber has no side-effects for number values, fill all elements at once.
+                ArrayBuffer buffer = o.getBuffer();
+                if (IsDetachedBuffer(buffer)) {
+                    throw newTypeError(cx, Messages.Key.BufferDetached);
+                }
+                ElementType type = o.getElementType();
+                long byteIndex = o.getByteOffset() + k * type.size();
+                TypedArrayAccessor.fill(buffer.getData(), (int) byteIndex, type, (int) (finall - k),
+                        Type.numberValue(value));
+                return o;
+            }
             for (; k < finall; ++k) {
                 long pk = k;
                 o.elementSetDirect(cx, pk, ToNumber(cx, value));
@@ -1312,18 +1376,16 @@ public final class TypedArrayPrototypePrototype extends OrdinaryObject implement
                 if (IsDetachedBuffer(buffer)) {
                     throw newTypeError(cx, Messages.Key.BufferDetached);
                 }
-                int elementSize = o.getElementType().size();
-                long toByteIndex = to * elementSize;
-                long fromByteIndex = from * elementSize;
+                ElementType type = o.getElementType();
+                int elementSize = type.size();
+                long byteOffset = o.getByteOffset();
+                long toByteIndex = to * elementSize + byteOffset;
+                long fromByteIndex = from * elementSize + byteOffset;
                 long countByteLength = count * elementSize;
                 ByteBuffer data = buffer.getData();
-                assert toByteIndex < data.capacity();
+                assert (toByteIndex + countByteLength) <= data.capacity();
                 assert (fromByteIndex + countByteLength) <= data.capacity();
-
-                ByteBuffer dup = data.duplicate();
-                data.limit((int) (toByteIndex + countByteLength)).position((int) toByteIndex);
-                dup.limit((int) (fromByteIndex + countByteLength)).position((int) fromByteIndex);
-                data.put(dup).clear();
+                TypedArrayAccessor.copy(data, (int) fromByteIndex, type, data, (int) toByteIndex, type, (int) count);
             }
             /* step 18 */
             return o;
@@ -6,10 +6,8 @@
  */
 package com.github.anba.es6draft.runtime.objects.collection;
 
-import java.util.WeakHashMap;
-
 import com.github.anba.es6draft.runtime.Realm;
-import com.github.anba.es6draft.runtime.types.ScriptObject;
+import com.github.anba.es6draft.runtime.internal.WeakTable;
 import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
 
 /**
@@ -21,8 +19,7 @@ import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
  */
 public final class WeakMapObject extends OrdinaryObject {
     /** [[WeakMapData]] */
-    // no ephemeron tables in java :(
-    private final WeakHashMap<ScriptObject, Object> weakMapData = new WeakHashMap<>();
+    private final WeakTable<Object> weakMapData;
 
     /**
      * Constructs a new WeakMap object.
@@ -32,6 +29,7 @@ public final class WeakMapObject extends OrdinaryObject {
      */
     public WeakMapObject(Realm realm) {
         super(realm);
+        this.weakMapData = new WeakTable<>(realm.getGlobalObjectTemplate().isWeakMapKeysTracked());
     }
 
     /**
@@ -41,7 +39,7 @@ public final class WeakMapObject extends OrdinaryObject {
      * 
      * @return the underlying map data
      */
-    public WeakHashMap<ScriptObject, Object> getWeakMapData() {
+    public WeakTable<Object> getWeakMapData() {
         return weakMapData;
     }
 }
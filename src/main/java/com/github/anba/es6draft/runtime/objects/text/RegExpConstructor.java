@@ -17,7 +17,7 @@ import java.util.regex.Pattern;
 import com.github.anba.es6draft.parser.Characters;
 import com.github.anba.es6draft.parser.ParserException;
 import com.github.anba.es6draft.regexp.RegExpMatcher;
-import com.github.anba.es6draft.regexp.RegExpParser;
+import com.github.anba.es6draft.regexp.RegExpMatcherCache;
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.Realm;
 import com.github.anba.es6draft.runtime.internal.CompatibilityOption;
@@ -231,8 +231,9 @@ public final class RegExpConstructor extends BuiltinConstructor implements Initi
         /* steps 7-10 */
         RegExpMatcher matcher;
         try {
-            matcher = RegExpParser.parse(p, f, "<regexp>", 1, 1,
-                    cx.getRealm().isEnabled(CompatibilityOption.WebRegularExpressions));
+            matcher = RegExpMatcherCache.get(p, f,
+                    cx.getRealm().isEnabled(CompatibilityOption.WebRegularExpressions),
+                    cx.getRuntimeContext().getRegExpBackend());
         } catch (ParserException e) {
             throw e.toScriptException(cx);
         }
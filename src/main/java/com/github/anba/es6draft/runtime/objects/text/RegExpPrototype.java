@@ -15,8 +15,11 @@ import static com.github.anba.es6draft.runtime.objects.text.RegExpConstructor.Re
 import static com.github.anba.es6draft.runtime.types.Null.NULL;
 import static com.github.anba.es6draft.runtime.types.Undefined.UNDEFINED;
 import static com.github.anba.es6draft.runtime.types.builtins.ArrayObject.ArrayCreate;
+import static com.github.anba.es6draft.runtime.types.builtins.ArrayObject.DenseArrayCreate;
+import static com.github.anba.es6draft.runtime.types.builtins.ArrayObject.MatchArrayCreate;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -25,6 +28,7 @@ import java.util.regex.MatchResult;
 import com.github.anba.es6draft.regexp.IterableMatchResult;
 import com.github.anba.es6draft.regexp.MatchState;
 import com.github.anba.es6draft.regexp.RegExpMatcher;
+import com.github.anba.es6draft.regexp.SimplePattern;
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.Realm;
 import com.github.anba.es6draft.runtime.internal.CompatibilityOption;
@@ -348,6 +352,11 @@ public final class RegExpPrototype extends OrdinaryObject implements Initializab
                 boolean fullUnicode = ToBoolean(Get(cx, rx, "unicode"));
                 /* steps 8.c-d */
                 Set(cx, rx, "lastIndex", 0, true);
+                // Optimization
+                SimplePattern simplePattern = simplePatternOrNull(cx, rx);
+                if (simplePattern != null) {
+                    return RegExpSimpleMatch(cx, simplePattern, s);
+                }
                 /* step 8.e */
                 ArrayObject array = ArrayCreate(cx, 0);
                 /* steps 8.f-g */
@@ -415,6 +424,12 @@ public final class RegExpPrototype extends OrdinaryObject implements Initializab
                 /* steps 10.c-d */
                 Set(cx, rx, "lastIndex", 0, true);
             }
+            // Optimization
+            SimplePattern simplePattern = simplePatternOrNull(cx, rx);
+            if (simplePattern != null) {
+                return RegExpSimpleReplace(cx, (RegExpObject) rx, simplePattern, s, global, replaceValueString,
+                        replaceValueCallable);
+            }
             /* step 11 */
             ArrayList<MatchResult> results = new ArrayList<>();
             /* step 12 */
@@ -512,6 +527,17 @@ public final class RegExpPrototype extends OrdinaryObject implements Initializab
             Object previousLastIndex = Get(cx, rx, "lastIndex");
             /* steps 7-8 */
             Set(cx, rx, "lastIndex", 0, true);
+            // Optimization
+            SimplePattern simplePattern = simplePatternOrNull(cx, rx);
+            if (simplePattern != null) {
+                int position = simplePattern.find(s, 0);
+                if (position >= 0) {
+                    RegExpConstructor.storeLastMatchResult(cx, s,
+                            simplePattern.toMatchResult(s, position, simplePattern.end(s, position)));
+                }
+                Set(cx, rx, "lastIndex", previousLastIndex, true);
+                return position;
+            }
             /* steps 9-10 */
             MatchResult result = matchResultOrNull(cx, rx, s, true);
             /* steps 11-12 */
@@ -961,11 +987,27 @@ public final class RegExpPrototype extends OrdinaryObject implements Initializab
         int e = m.end();
         /* step 19 */
         int n = m.groupCount();
+        /* step 22 */
+        int matchIndex = m.start();
+        if (!(m instanceof IterableMatchResult)) {
+            // Create the match array with lazily materialized substrings for steps 20, 26-28.
+            int[] offsets = new int[2 * (n + 1)];
+            offsets[0] = matchIndex;
+            offsets[1] = e;
+            for (int i = 1; i <= n; ++i) {
+                offsets[2 * i] = m.start(i);
+                offsets[2 * i + 1] = m.end(i);
+            }
+            ArrayObject array = MatchArrayCreate(cx, s, offsets);
+            /* steps 23-25 */
+            CreateDataProperty(cx, array, "index", matchIndex);
+            CreateDataProperty(cx, array, "input", s);
+            /* step 29 */
+            return array;
+        }
         /* step 20 */
         ArrayObject array = ArrayCreate(cx, n + 1);
         /* step 21 (omitted) */
-        /* step 22 */
-        int matchIndex = m.start();
         /* steps 23-25 */
         CreateDataProperty(cx, array, "index", matchIndex);
         CreateDataProperty(cx, array, "input", s);
@@ -1277,6 +1319,10 @@ public final class RegExpPrototype extends OrdinaryObject implements Initializab
      */
     private static ArrayObject RegExpSplit(ExecutionContext cx, RegExpObject rx, String s,
             boolean unicodeMatching, long lim) {
+        SimplePattern simplePattern = rx.getRegExpMatcher().getSimplePattern();
+        if (simplePattern != null) {
+            return RegExpSimpleSplit(cx, simplePattern, s, lim);
+        }
         /* steps 1-12, 17-18 (not applicable) */
         /* step 15 */
         ArrayObject a = ArrayCreate(cx, 0);
@@ -1351,6 +1397,180 @@ public final class RegExpPrototype extends OrdinaryObject implements Initializab
         return a;
     }
 
+    /**
+     * Returns the simple pattern of the regular expression object if the built-in matching steps are not observable,
+     * that means {@code exec}, {@code global} and {@code sticky} are the built-in properties from
+     * {@code RegExp.prototype} and {@code lastIndex} is a writable data property with a number value.
+     * 
+     * @param cx
+     *            the execution context
+     * @param rx
+     *            the regular expression object
+     * @return the simple pattern or {@code null} if not applicable
+     */
+    private static SimplePattern simplePatternOrNull(ExecutionContext cx, ScriptObject rx) {
+        if (!(rx instanceof RegExpObject)) {
+            return null;
+        }
+        RegExpObject re = (RegExpObject) rx;
+        RegExpMatcher matcher = re.getRegExpMatcher();
+        if (matcher == null || re.isSet(RegExpObject.Flags.Sticky)) {
+            return null;
+        }
+        SimplePattern simplePattern = matcher.getSimplePattern();
+        if (simplePattern == null) {
+            return null;
+        }
+        if (re.getPrototype() != cx.getIntrinsic(Intrinsics.RegExpPrototype) || !isBuiltinRegExpPrototypeForExec(cx)) {
+            return null;
+        }
+        if (re.getOwnProperty(cx, "exec") != null || re.getOwnProperty(cx, "global") != null
+                || re.getOwnProperty(cx, "sticky") != null) {
+            return null;
+        }
+        Property lastIndex = re.getOwnProperty(cx, "lastIndex");
+        if (lastIndex == null || !lastIndex.isDataDescriptor() || !lastIndex.isWritable()
+                || !Type.isNumber(lastIndex.getValue())) {
+            return null;
+        }
+        return simplePattern;
+    }
+
+    /**
+     * Internal {@code RegExp.prototype[@@match]} function for global simple patterns.
+     * 
+     * @param cx
+     *            the execution context
+     * @param pattern
+     *            the simple pattern
+     * @param s
+     *            the string
+     * @return the match result array or {@code null}
+     */
+    private static Object RegExpSimpleMatch(ExecutionContext cx, SimplePattern pattern, String s) {
+        ArrayList<String> matches = new ArrayList<>();
+        int start = -1, end = -1;
+        for (int position = 0; (position = pattern.find(s, position)) >= 0; position = end) {
+            start = position;
+            end = pattern.end(s, position);
+            matches.add(s.substring(start, end));
+        }
+        if (matches.isEmpty()) {
+            return NULL;
+        }
+        RegExpConstructor.storeLastMatchResult(cx, s, pattern.toMatchResult(s, start, end));
+        return DenseArrayCreate(cx, matches);
+    }
+
+    /**
+     * Internal {@code RegExp.prototype[@@replace]} function for simple patterns.
+     * 
+     * @param cx
+     *            the execution context
+     * @param rx
+     *            the regular expression object
+     * @param pattern
+     *            the simple pattern
+     * @param s
+     *            the string
+     * @param global
+     *            the global flag
+     * @param replaceValue
+     *            the replacement string or {@code null}
+     * @param replaceFunction
+     *            the replacer function or {@code null}
+     * @return the result string
+     */
+    private static String RegExpSimpleReplace(ExecutionContext cx, RegExpObject rx, SimplePattern pattern, String s,
+            boolean global, String replaceValue, Callable replaceFunction) {
+        int position = pattern.find(s, 0);
+        if (position < 0) {
+            if (!global) {
+                Set(cx, rx, "lastIndex", 0, true);
+            }
+            return s;
+        }
+        StringBuilder accumulatedResult = new StringBuilder();
+        int nextSourcePosition = 0, lastStart;
+        if (replaceFunction != null) {
+            // Collect all matches before the replacer function is called, same as in the generic algorithm.
+            int[] matches = new int[global ? 16 : 2];
+            int matchesLength = 0;
+            for (int end; position >= 0; position = global ? pattern.find(s, end) : -1) {
+                end = pattern.end(s, position);
+                if (matchesLength == matches.length) {
+                    matches = Arrays.copyOf(matches, matchesLength << 1);
+                }
+                matches[matchesLength++] = position;
+                matches[matchesLength++] = end;
+            }
+            for (int i = 0; i < matchesLength; i += 2) {
+                int start = matches[i], end = matches[i + 1];
+                RegExpConstructor.storeLastMatchResult(cx, s, pattern.toMatchResult(s, start, end));
+                Object replValue = replaceFunction.call(cx, UNDEFINED, s.substring(start, end), start, s);
+                accumulatedResult.append(s, nextSourcePosition, start).append(ToFlatString(cx, replValue));
+                nextSourcePosition = end;
+            }
+            return accumulatedResult.append(s, nextSourcePosition, s.length()).toString();
+        }
+        boolean hasSubstitution = replaceValue.indexOf('$') >= 0;
+        do {
+            int end = pattern.end(s, position);
+            lastStart = position;
+            String replacement;
+            if (hasSubstitution) {
+                replacement = GetSubstitution(s.substring(position, end), s, position, EMPTY_GROUPS, replaceValue);
+            } else {
+                replacement = replaceValue;
+            }
+            accumulatedResult.append(s, nextSourcePosition, position).append(replacement);
+            nextSourcePosition = end;
+            if (!global) {
+                break;
+            }
+        } while ((position = pattern.find(s, nextSourcePosition)) >= 0);
+        RegExpConstructor.storeLastMatchResult(cx, s, pattern.toMatchResult(s, lastStart, nextSourcePosition));
+        return accumulatedResult.append(s, nextSourcePosition, s.length()).toString();
+    }
+
+    /**
+     * Internal {@code RegExp.prototype[@@split]} function for simple patterns.
+     * 
+     * @param cx
+     *            the execution context
+     * @param pattern
+     *            the simple pattern
+     * @param s
+     *            the string
+     * @param lim
+     *            the split limit
+     * @return the split result array
+     */
+    private static ArrayObject RegExpSimpleSplit(ExecutionContext cx, SimplePattern pattern, String s, long lim) {
+        ArrayList<String> substrings = new ArrayList<>();
+        if (lim == 0) {
+            return DenseArrayCreate(cx, substrings);
+        }
+        // Simple patterns never match the empty string, so no special case for zero length strings is needed.
+        int p = 0, lastStart = -1, lastEnd = -1;
+        for (int q; (q = pattern.find(s, p)) >= 0;) {
+            lastStart = q;
+            lastEnd = pattern.end(s, q);
+            substrings.add(s.substring(p, q));
+            if (substrings.size() == lim) {
+                break;
+            }
+            p = lastEnd;
+        }
+        if (lastStart >= 0) {
+            RegExpConstructor.storeLastMatchResult(cx, s, pattern.toMatchResult(s, lastStart, lastEnd));
+        }
+        if (substrings.size() < lim) {
+            substrings.add(s.substring(p, s.length()));
+        }
+        return DenseArrayCreate(cx, substrings);
+    }
+
     private static final String[] EMPTY_GROUPS = new String[0];
 
     /**
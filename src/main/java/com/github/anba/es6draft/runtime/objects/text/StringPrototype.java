@@ -25,6 +25,8 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.mozilla.javascript.ConsString;
+
 import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.Realm;
 import com.github.anba.es6draft.runtime.internal.CompatibilityOption;
@@ -921,7 +923,7 @@ public final class StringPrototype extends StringObject implements Initializable
             /* step 1 */
             Object obj = RequireObjectCoercible(cx, thisValue);
             /* steps 2-3 */
-            String s = ToFlatString(cx, obj);
+            CharSequence s = ToString(cx, obj);
             /* steps 4-6 */
             if (IsRegExp(cx, searchString)) {
                 throw newTypeError(cx, Messages.Key.InvalidRegExpArgument);
@@ -941,7 +943,11 @@ public final class StringPrototype extends StringObject implements Initializable
                 return false;
             }
             /* steps 15-16 */
-            return s.startsWith(searchStr, start);
+            if (s instanceof ConsString) {
+                // Avoid flattening the string.
+                return ((ConsString) s).startsWith(searchStr, start);
+            }
+            return s.toString().startsWith(searchStr, start);
         }
 
         /**
@@ -49,6 +49,7 @@ public class ArrayObject extends OrdinaryObject {
      */
     public ArrayObject(Realm realm) {
         super(realm);
+        usePackedElements();
     }
 
     /**
@@ -432,6 +433,50 @@ public class ArrayObject extends OrdinaryObject {
         return array;
     }
 
+    /**
+     * Helper method to create dense arrays from the elements {@code values[from, to)}. The element storage is
+     * allocated with the exact length.
+     * 
+     * @param cx
+     *            the execution context
+     * @param values
+     *            the element values
+     * @param from
+     *            the start index (inclusive)
+     * @param to
+     *            the end index (exclusive)
+     * @return the new array object
+     */
+    public static ArrayObject DenseArrayCreate(ExecutionContext cx, Object[] values, int from, int to) {
+        ArrayObject array = ArrayCreate(cx, to - from);
+        if (!array.getPackedElements().init(values, from, to)) {
+            for (int i = from; i < to; ++i) {
+                array.setIndexed(i - from, values[i]);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Helper method to create regular expression match arrays. The elements are the substrings of {@code input}
+     * described by {@code offsets}, or undefined for unmatched groups; substrings are only created when an element is
+     * read.
+     *
+     * @param cx
+     *            the execution context
+     * @param input
+     *            the matched input string
+     * @param offsets
+     *            the start and end offsets of the match and all capturing groups, negative offsets denote unmatched
+     *            groups
+     * @return the new array object
+     */
+    public static ArrayObject MatchArrayCreate(ExecutionContext cx, String input, int[] offsets) {
+        ArrayObject array = ArrayCreate(cx, offsets.length >>> 1);
+        array.getPackedElements().initMatch(input, offsets);
+        return array;
+    }
+
     /**
      * Helper method to create sparse arrays.
      * <p>
@@ -23,6 +23,7 @@ import com.github.anba.es6draft.runtime.internal.ObjectAllocator;
 import com.github.anba.es6draft.runtime.internal.PropertyMap;
 import com.github.anba.es6draft.runtime.internal.ScriptException;
 import com.github.anba.es6draft.runtime.internal.ScriptIterator;
+import com.github.anba.es6draft.runtime.internal.WeakTable;
 import com.github.anba.es6draft.runtime.objects.simd.SIMDValue;
 import com.github.anba.es6draft.runtime.types.Callable;
 import com.github.anba.es6draft.runtime.types.Intrinsics;
@@ -48,6 +49,8 @@ public class OrdinaryObject implements ScriptObject {
     private final PropertyMap<Symbol, Property> symbolProperties;
     // Map for indexed properties [0, 2^53 - 1]
     private final IndexedMap<Property> indexedProperties;
+    // Packed indexed properties, only used while all indexed properties are default data properties without holes
+    private PackedElements packedElements;
 
     /** [[Realm]] */
     @SuppressWarnings("unused")
@@ -59,6 +62,9 @@ public class OrdinaryObject implements ScriptObject {
     /** [[Extensible]] */
     private boolean extensible = true;
 
+    // Entries of WeakMap and WeakSet objects using this object as a key
+    private WeakTable.KeyEntries weakTableEntries;
+
     /**
      * Constructs a new Ordinary Object instance.
      * 
@@ -85,11 +91,49 @@ public class OrdinaryObject implements ScriptObject {
         this.prototype = prototype;
     }
 
+    /**
+     * Constructs a new Ordinary Object instance with storage for {@code size} string valued properties.
+     * 
+     * @param realm
+     *            the realm object
+     * @param prototype
+     *            the prototype object
+     * @param size
+     *            the expected number of string valued properties
+     */
+    private OrdinaryObject(Realm realm, ScriptObject prototype, int size) {
+        this.realm = realm;
+        this.prototype = prototype;
+        // Capacity for the default load factor of 0.75.
+        this.properties = new PropertyMap<>(size + (size + 2) / 3);
+        this.symbolProperties = new PropertyMap<>(SYMBOL_PROPERTIES_DEFAULT_INITIAL_CAPACITY);
+        this.indexedProperties = new IndexedMap<>();
+    }
+
     @Override
     public String toString() {
         return String.format("%s@%x: indexed=%s, strings=%s, symbols=%s, extensible=%b", getClass().getSimpleName(),
-                System.identityHashCode(this), indexedProperties, properties.keySet(), symbolProperties.keySet(),
-                extensible);
+                System.identityHashCode(this), packedElements != null ? packedElements : indexedProperties,
+                properties.keySet(), symbolProperties.keySet(), extensible);
+    }
+
+    /**
+     * Returns the weak table entries of this object.
+     * 
+     * @return the weak table entries or {@code null} if not present
+     */
+    public final WeakTable.KeyEntries getWeakTableEntries() {
+        return weakTableEntries;
+    }
+
+    /**
+     * Sets the weak table entries of this object.
+     * 
+     * @param weakTableEntries
+     *            the weak table entries
+     */
+    public final void setWeakTableEntries(WeakTable.KeyEntries weakTableEntries) {
+        this.weakTableEntries = weakTableEntries;
     }
 
     /**
@@ -126,7 +170,53 @@ public class OrdinaryObject implements ScriptObject {
      * @return the number of properties
      */
     final int countProperties(boolean withSymbols) {
-        return properties.size() + indexedProperties.size() + (withSymbols ? symbolProperties.size() : 0);
+        return properties.size() + getIndexedSize() + (withSymbols ? symbolProperties.size() : 0);
+    }
+
+    /**
+     * Switches to the packed representation for indexed properties. Only applicable if no indexed properties are
+     * present. [[HasProperty]], [[Get]] and [[Set]] access packed elements directly, so objects using the packed
+     * representation must not override the indexed [[GetOwnProperty]] or [[HasProperty]] methods.
+     */
+    final void usePackedElements() {
+        assert indexedProperties.isEmpty() && packedElements == null;
+        packedElements = new PackedElements();
+    }
+
+    /**
+     * Returns {@code true} if {@code propertyKey} is an index of a packed element.
+     * 
+     * @param propertyKey
+     *            the indexed property key
+     * @return {@code true} if the property is a packed element
+     */
+    private boolean hasPackedElement(long propertyKey) {
+        PackedElements packed = packedElements;
+        return packed != null && 0 <= propertyKey && propertyKey < packed.length();
+    }
+
+    /**
+     * Returns the packed indexed properties or {@code null} if the generic representation is used.
+     * 
+     * @return the packed indexed properties or {@code null}
+     */
+    final PackedElements getPackedElements() {
+        return packedElements;
+    }
+
+    /**
+     * Returns the generic indexed properties map, transitions from the packed representation if necessary. The
+     * transition from the packed to the generic representation is one-way.
+     * 
+     * @return the indexed properties map
+     */
+    private IndexedMap<Property> indexedProperties() {
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            packedElements = null;
+            packed.copyTo(indexedProperties);
+        }
+        return indexedProperties;
     }
 
     /**
@@ -160,7 +250,10 @@ public class OrdinaryObject implements ScriptObject {
      *            the target list
      */
     final void appendIndexedProperties(List<? super String> list) {
-        if (!indexedProperties.isEmpty()) {
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            list.addAll(packed.keys());
+        } else if (!indexedProperties.isEmpty()) {
             list.addAll(indexedProperties.keys());
         }
     }
@@ -194,6 +287,22 @@ public class OrdinaryObject implements ScriptObject {
         return symbolProperties.get(propertyKey);
     }
 
+    /**
+     * Returns the own string valued, non-indexed properties in property creation order, or {@code null} if any of
+     * these properties is not an enumerable data property. The returned entries are live views of the properties.
+     * 
+     * @return the own string valued properties or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public final Map.Entry<String, Property>[] getEnumerableDataProperties() {
+        for (Property property : properties.values()) {
+            if (!property.isDataDescriptor() || !property.isEnumerable()) {
+                return null;
+            }
+        }
+        return properties.entrySet().toArray(new Map.Entry[properties.size()]);
+    }
+
     public final void infallibleSetPrototype(ScriptObject prototype) {
         this.prototype = prototype;
     }
@@ -204,6 +313,10 @@ public class OrdinaryObject implements ScriptObject {
      * @return the indexed properties length
      */
     long getIndexedLength() {
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return packed.length();
+        }
         return indexedProperties.getLength();
     }
 
@@ -215,9 +328,34 @@ public class OrdinaryObject implements ScriptObject {
      * @return the property value
      */
     Object getIndexed(long propertyKey) {
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return packed.get((int) propertyKey);
+        }
         return indexedProperties.get(propertyKey).getValue();
     }
 
+    /**
+     * Returns the value of an own indexed data property or {@code null} if the property is not present or is an
+     * accessor property. Only applicable for objects without special indexed properties.
+     *
+     * @param propertyKey
+     *            the indexed property key
+     * @return the property value or {@code null}
+     */
+    public final Object getOwnDataElement(long propertyKey) {
+        assert !hasSpecialIndexedProperties();
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return 0 <= propertyKey && propertyKey < packed.length() ? packed.get((int) propertyKey) : null;
+        }
+        if (!IndexedMap.isIndex(propertyKey)) {
+            return null;
+        }
+        Property property = indexedProperties.get(propertyKey);
+        return property != null && property.isDataDescriptor() ? property.getValue() : null;
+    }
+
     /**
      * Set the own property value at the given index to the new value.
      * 
@@ -227,7 +365,11 @@ public class OrdinaryObject implements ScriptObject {
      *            the property value
      */
     final void setIndexed(long propertyKey, Object value) {
-        indexedProperties.put(propertyKey, new Property(value, true, true, true));
+        PackedElements packed = packedElements;
+        if (packed != null && packed.set(propertyKey, value)) {
+            return;
+        }
+        indexedProperties().put(propertyKey, new Property(value, true, true, true));
     }
 
     /**
@@ -243,7 +385,18 @@ public class OrdinaryObject implements ScriptObject {
      */
     final long deleteRange(long startIndex, long endIndex) {
         assert startIndex < endIndex;
-        IndexedMap<Property> indexed = indexedProperties;
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            if (startIndex >= packed.length()) {
+                return -1;
+            }
+            if (endIndex >= packed.length()) {
+                // Packed elements are always configurable.
+                packed.truncate((int) startIndex);
+                return -1;
+            }
+        }
+        IndexedMap<Property> indexed = indexedProperties();
         if (indexed.isEmpty()) {
             return -1;
         }
@@ -289,6 +442,10 @@ public class OrdinaryObject implements ScriptObject {
      * @return the list of integer indexed properties
      */
     public final long[] indices() {
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return packed.indices(0, packed.length());
+        }
         return indexedProperties.indices();
     }
 
@@ -302,6 +459,10 @@ public class OrdinaryObject implements ScriptObject {
      * @return the list of integer indexed properties
      */
     public final long[] indices(long from, long to) {
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return packed.indices(from, to);
+        }
         return indexedProperties.indices(from, to);
     }
 
@@ -311,7 +472,7 @@ public class OrdinaryObject implements ScriptObject {
      * @return {@code true} if this object has indexed properties
      */
     public final boolean hasIndexedProperties() {
-        return !indexedProperties.isEmpty();
+        return getIndexedSize() != 0;
     }
 
     /**
@@ -320,7 +481,7 @@ public class OrdinaryObject implements ScriptObject {
      * @return {@code true} if the object has indexed accessors
      */
     public boolean hasIndexedAccessors() {
-        if (indexedProperties.isEmpty()) {
+        if (packedElements != null || indexedProperties.isEmpty()) {
             return false;
         }
         for (Iterator<Property> iter = indexedProperties.valuesIterator(); iter.hasNext();) {
@@ -350,6 +511,10 @@ public class OrdinaryObject implements ScriptObject {
      * @return the number of indexed properties
      */
     public int getIndexedSize() {
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return packed.length();
+        }
         return indexedProperties.size();
     }
 
@@ -371,6 +536,10 @@ public class OrdinaryObject implements ScriptObject {
      */
     public final boolean isDenseArray(long length) {
         assert !hasSpecialIndexedProperties() : "cannot report dense if special indexed present";
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return packed.length() == length;
+        }
         IndexedMap<Property> ix = indexedProperties;
         return !hasIndexedAccessors() && ix.getLength() == length && !ix.isSparse() && !ix.hasHoles();
     }
@@ -404,6 +573,10 @@ public class OrdinaryObject implements ScriptObject {
         assert isDenseArray(length);
         assert 0 <= length && length <= Integer.MAX_VALUE : "length=" + length;
         int len = (int) length;
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return packed.toArray();
+        }
         Object[] values = new Object[len];
         for (int i = 0; i < len; ++i) {
             values[i] = getIndexed(i);
@@ -498,6 +671,10 @@ public class OrdinaryObject implements ScriptObject {
      */
     protected final boolean ordinaryHasOwnProperty(long propertyKey) {
         // optimized: HasOwnProperty(cx, this, propertyKey)
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            return propertyKey < packed.length();
+        }
         return indexedProperties.containsKey(propertyKey);
     }
 
@@ -652,6 +829,12 @@ public class OrdinaryObject implements ScriptObject {
      */
     protected final Property ordinaryGetOwnProperty(long propertyKey) {
         /* steps 1-9 (altered: returns live view) */
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            // Packed elements don't have a live view, see setPropertyValue() for the write path.
+            return propertyKey < packed.length() ? new Property(packed.get((int) propertyKey), true, true, true)
+                    : null;
+        }
         return indexedProperties.get(propertyKey);
     }
 
@@ -766,7 +949,38 @@ public class OrdinaryObject implements ScriptObject {
         /* step 3 */
         boolean extensible = isExtensible();
         /* step 4 */
-        return validateAndApplyPropertyDescriptor(indexedProperties, propertyKey, extensible, desc, current);
+        PackedElements packed = packedElements;
+        if (packed != null && (current != null || extensible) && isPackedElement(desc, current != null)) {
+            if (current != null && SameValueNaNorSIMD(current.getValue(), desc.getValue())) {
+                return true;
+            }
+            if (packed.set(propertyKey, desc.getValue())) {
+                return true;
+            }
+        }
+        return validateAndApplyPropertyDescriptor(indexedProperties(), propertyKey, extensible, desc, current);
+    }
+
+    /**
+     * Returns {@code true} if the property descriptor results in a packed element.
+     * 
+     * @param desc
+     *            the property descriptor
+     * @param exists
+     *            {@code true} if the property is already present
+     * @return {@code true} if the property can be stored as a packed element
+     */
+    private static boolean isPackedElement(PropertyDescriptor desc, boolean exists) {
+        if (!desc.hasValue()) {
+            return false;
+        }
+        if (exists) {
+            // Absent fields keep the current, default attribute values.
+            return (!desc.hasWritable() || desc.isWritable()) && (!desc.hasEnumerable() || desc.isEnumerable())
+                    && (!desc.hasConfigurable() || desc.isConfigurable());
+        }
+        return desc.hasWritable() && desc.isWritable() && desc.hasEnumerable() && desc.isEnumerable()
+                && desc.hasConfigurable() && desc.isConfigurable();
     }
 
     /**
@@ -845,7 +1059,7 @@ public class OrdinaryObject implements ScriptObject {
      */
     protected static final boolean ValidateAndApplyPropertyDescriptor(OrdinaryObject object, long propertyKey,
             boolean extensible, PropertyDescriptor desc, Property current) {
-        return validateAndApplyPropertyDescriptor(object.indexedProperties, propertyKey, extensible, desc, current);
+        return validateAndApplyPropertyDescriptor(object.indexedProperties(), propertyKey, extensible, desc, current);
     }
 
     /**
@@ -1081,6 +1295,9 @@ public class OrdinaryObject implements ScriptObject {
      */
     @Override
     public final boolean hasProperty(ExecutionContext cx, long propertyKey) {
+        if (hasPackedElement(propertyKey)) {
+            return true;
+        }
         if (IndexedMap.isIndex(propertyKey)) {
             return has(cx, propertyKey);
         }
@@ -1093,6 +1310,9 @@ public class OrdinaryObject implements ScriptObject {
     @Override
     public final boolean hasProperty(ExecutionContext cx, String propertyKey) {
         long index = IndexedMap.toIndex(propertyKey);
+        if (hasPackedElement(index)) {
+            return true;
+        }
         if (IndexedMap.isIndex(index)) {
             return has(cx, index);
         }
@@ -1264,6 +1484,11 @@ public class OrdinaryObject implements ScriptObject {
      * @return the property value
      */
     protected Object getValue(ExecutionContext cx, long propertyKey, Object receiver) {
+        PackedElements packed = packedElements;
+        if (packed != null && propertyKey < packed.length()) {
+            // Packed elements are own data properties, read the value without creating a property record.
+            return packed.get((int) propertyKey);
+        }
         /* step 1 (implicit) */
         /* steps 2-3 */
         Property desc = getProperty(cx, propertyKey);
@@ -1405,6 +1630,15 @@ public class OrdinaryObject implements ScriptObject {
      * @return {@code true} on success
      */
     protected boolean setValue(ExecutionContext cx, long propertyKey, Object value, Object receiver) {
+        PackedElements packed = packedElements;
+        if (packed != null && receiver == this && propertyKey < packed.length()) {
+            // Packed elements are own writable data properties, store the value without creating a property record.
+            if (!SameValueNaNorSIMD(packed.get((int) propertyKey), value)) {
+                boolean stored = packed.set(propertyKey, value);
+                assert stored : "not a packed element: " + propertyKey;
+            }
+            return true;
+        }
         /* step 1 (implicit) */
         /* steps 2-3 */
         Property ownDesc = getProperty(cx, propertyKey);
@@ -1452,6 +1686,14 @@ public class OrdinaryObject implements ScriptObject {
 
     protected boolean setPropertyValue(ExecutionContext cx, long propertyKey, Object value, Property current) {
         assert current.isDataDescriptor() && current.isWritable();
+        PackedElements packed = packedElements;
+        if (packed != null) {
+            if (!SameValueNaNorSIMD(current.getValue(), value)) {
+                boolean stored = packed.set(propertyKey, value);
+                assert stored : "not a packed element: " + propertyKey;
+            }
+            return true;
+        }
         if (!SameValueNaNorSIMD(current.getValue(), value)) {
             current.setValue(value);
         }
@@ -1636,7 +1878,12 @@ public class OrdinaryObject implements ScriptObject {
         }
         /* step 5 */
         if (desc.isConfigurable()) {
-            indexedProperties.remove(propertyKey);
+            PackedElements packed = packedElements;
+            if (packed != null && propertyKey == packed.length() - 1) {
+                packed.truncate((int) propertyKey);
+                return true;
+            }
+            indexedProperties().remove(propertyKey);
             return true;
         }
         /* step 6 */
@@ -1996,6 +2243,35 @@ public class OrdinaryObject implements ScriptObject {
         return obj;
     }
 
+    /**
+     * Helper method to create objects whose own properties are the default data properties {@code keys[i]:
+     * values[offset + i]}. The property storage is allocated with the exact size. The keys must be distinct and must
+     * not be array indices.
+     *
+     * @param cx
+     *            the execution context
+     * @param proto
+     *            the prototype object
+     * @param keys
+     *            the property keys
+     * @param values
+     *            the property values
+     * @param offset
+     *            the offset of the first property value
+     * @return the new object
+     */
+    public static final OrdinaryObject ObjectCreate(ExecutionContext cx, Intrinsics proto, String[] keys,
+            Object[] values, int offset) {
+        OrdinaryObject obj = new OrdinaryObject(cx.getRealm(), cx.getIntrinsic(proto), keys.length);
+        PropertyMap<String, Property> properties = obj.properties;
+        for (int i = 0; i < keys.length; ++i) {
+            assert !IndexedMap.isIndex(IndexedMap.toIndex(keys[i])) : "illegal property = " + keys[i];
+            properties.put(keys[i], new Property(values[offset + i], true, true, true));
+        }
+        assert properties.size() == keys.length : "duplicate property keys";
+        return obj;
+    }
+
     /**
      * 9.1.13 ObjectCreate(proto, internalSlotsList)
      *
@@ -0,0 +1,361 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.runtime.types.builtins;
+
+import static com.github.anba.es6draft.runtime.types.Undefined.UNDEFINED;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.anba.es6draft.runtime.internal.IndexedMap;
+import com.github.anba.es6draft.runtime.types.Property;
+
+/**
+ * Packed element storage for array objects.
+ * <p>
+ * Packed elements have no holes and all elements are writable, enumerable and configurable data properties. Depending
+ * on the stored values, elements are kept in an {@code int[]}, {@code double[]} or {@code Object[]} array. The element
+ * kind only changes from {@link Kind#Int} to {@link Kind#Double} to {@link Kind#Object}.
+ * <p>
+ * Regular expression match arrays use {@link Kind#Match}: the elements are described by the input string and the
+ * capture offsets, substrings are only created when an element is read. Any write transitions to {@link Kind#Object}.
+ */
+final class PackedElements {
+    private static final int MIN_CAPACITY = 8;
+    private static final int MAX_LENGTH = 0x7FFF_FFFF >> 4;
+    private static final int[] EMPTY_INTS = {};
+
+    /**
+     * The element kind.
+     */
+    enum Kind {
+        Int, Double, Object, Match
+    }
+
+    private Kind kind = Kind.Int;
+    private int[] ints = EMPTY_INTS;
+    private double[] doubles;
+    private Object[] objects;
+    private String input;
+    private int[] offsets;
+    private int length;
+
+    /**
+     * Initializes the elements from a regular expression match. Element {@code i} is the substring of {@code input}
+     * from {@code offsets[2 * i]} to {@code offsets[2 * i + 1]}, or undefined if the start offset is negative.
+     * 
+     * @param input
+     *            the matched input string
+     * @param offsets
+     *            the start and end offsets of the match and all capturing groups
+     */
+    void initMatch(String input, int[] offsets) {
+        assert length == 0 && (offsets.length & 1) == 0 && offsets.length >>> 1 < MAX_LENGTH;
+        this.kind = Kind.Match;
+        this.ints = null;
+        this.objects = new Object[offsets.length >>> 1];
+        this.input = input;
+        this.offsets = offsets;
+        this.length = offsets.length >>> 1;
+    }
+
+    /**
+     * Initializes the elements from {@code values[from, to)}. The storage is allocated with the exact length and the
+     * element kind is selected up front, so no intermediate storage is created. Returns {@code false} if the elements
+     * cannot be stored in the packed representation.
+     * 
+     * @param values
+     *            the element values
+     * @param from
+     *            the start index (inclusive)
+     * @param to
+     *            the end index (exclusive)
+     * @return {@code true} if the elements were stored
+     */
+    boolean init(Object[] values, int from, int to) {
+        assert length == 0 && kind == Kind.Int && 0 <= from && from <= to && to <= values.length;
+        int len = to - from;
+        if (len >= MAX_LENGTH) {
+            return false;
+        }
+        if (len == 0) {
+            return true;
+        }
+        boolean numbers = true;
+        for (int i = from; i < to; ++i) {
+            if (!(values[i] instanceof Double)) {
+                numbers = false;
+                break;
+            }
+        }
+        if (numbers) {
+            double[] doubles = new double[len];
+            for (int i = 0; i < len; ++i) {
+                doubles[i] = (Double) values[from + i];
+            }
+            this.doubles = doubles;
+            this.kind = Kind.Double;
+        } else {
+            this.objects = Arrays.copyOfRange(values, from, to);
+            this.kind = Kind.Object;
+        }
+        this.ints = null;
+        this.length = len;
+        return true;
+    }
+
+    /**
+     * Returns the element kind.
+     * 
+     * @return the element kind
+     */
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the number of elements.
+     * 
+     * @return the number of elements
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Returns the element at {@code index}.
+     * 
+     * @param index
+     *            the element index
+     * @return the element value
+     */
+    Object get(int index) {
+        assert 0 <= index && index < length;
+        switch (kind) {
+        case Int:
+            return ints[index];
+        case Double:
+            return doubles[index];
+        case Object:
+            return objects[index];
+        case Match:
+            return matchElement(index);
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    private Object matchElement(int index) {
+        Object value = objects[index];
+        if (value == null) {
+            int start = offsets[index << 1];
+            objects[index] = value = start < 0 ? UNDEFINED : input.substring(start, offsets[(index << 1) + 1]);
+        }
+        return value;
+    }
+
+    /**
+     * Replaces or appends an element. Returns {@code false} if the element cannot be stored in the packed
+     * representation, that means the index is neither an existing element index nor the next free index.
+     * 
+     * @param index
+     *            the element index
+     * @param value
+     *            the new element value
+     * @return {@code true} if the element was stored
+     */
+    boolean set(long index, Object value) {
+        if (index < 0 || index > length || index >= MAX_LENGTH) {
+            return false;
+        }
+        if (kind == Kind.Match) {
+            toObjects();
+        }
+        int i = (int) index;
+        if (i == length) {
+            ensureCapacity(i + 1);
+            length += 1;
+        }
+        switch (kind) {
+        case Int:
+            if (value instanceof Integer) {
+                ints[i] = (Integer) value;
+                return true;
+            }
+            if (value instanceof Long && (int) (long) (Long) value == (Long) value) {
+                ints[i] = (int) (long) (Long) value;
+                return true;
+            }
+            if (value instanceof Long || value instanceof Double) {
+                toDoubles();
+                doubles[i] = ((Number) value).doubleValue();
+                return true;
+            }
+            toObjects();
+            objects[i] = value;
+            return true;
+        case Double:
+            if (value instanceof Integer || value instanceof Long || value instanceof Double) {
+                doubles[i] = ((Number) value).doubleValue();
+                return true;
+            }
+            toObjects();
+            objects[i] = value;
+            return true;
+        case Object:
+            objects[i] = value;
+            return true;
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    /**
+     * Removes all elements starting from {@code newLength}.
+     * 
+     * @param newLength
+     *            the new length
+     */
+    void truncate(int newLength) {
+        assert 0 <= newLength && newLength <= length;
+        if (kind == Kind.Object || kind == Kind.Match) {
+            // Release references to removed elements.
+            Arrays.fill(objects, newLength, length, null);
+        }
+        length = newLength;
+        int capacity = capacity();
+        if (capacity > MIN_CAPACITY && newLength < (capacity >>> 2)) {
+            resize(Math.max(newLength, MIN_CAPACITY));
+        }
+    }
+
+    /**
+     * Returns all elements.
+     * 
+     * @return the element values
+     */
+    Object[] toArray() {
+        Object[] values = new Object[length];
+        for (int i = 0; i < length; ++i) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the element indices over the requested range.
+     * 
+     * @param from
+     *            from index (inclusive)
+     * @param to
+     *            to index (exclusive)
+     * @return the element indices
+     */
+    long[] indices(long from, long to) {
+        long start = Math.min(Math.max(from, 0), length), end = Math.min(Math.max(to, start), length);
+        long[] indices = new long[(int) (end - start)];
+        for (int i = 0; i < indices.length; ++i) {
+            indices[i] = start + i;
+        }
+        return indices;
+    }
+
+    /**
+     * Returns the element indices as strings.
+     * 
+     * @return the element indices as strings
+     */
+    List<String> keys() {
+        ArrayList<String> keys = new ArrayList<>(length);
+        for (int i = 0; i < length; ++i) {
+            keys.add(Integer.toString(i));
+        }
+        return keys;
+    }
+
+    /**
+     * Copies all elements as default data properties into {@code target}.
+     * 
+     * @param target
+     *            the target map
+     */
+    void copyTo(IndexedMap<Property> target) {
+        for (int i = 0; i < length; ++i) {
+            target.put(i, new Property(get(i), true, true, true));
+        }
+    }
+
+    private int capacity() {
+        switch (kind) {
+        case Int:
+            return ints.length;
+        case Double:
+            return doubles.length;
+        case Object:
+        case Match:
+            return objects.length;
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        int capacity = capacity();
+        if (minCapacity > capacity) {
+            resize(Math.min(Math.max(Math.max(capacity + (capacity >> 1), minCapacity), MIN_CAPACITY), MAX_LENGTH));
+        }
+    }
+
+    private void resize(int newCapacity) {
+        switch (kind) {
+        case Int:
+            ints = Arrays.copyOf(ints, newCapacity);
+            break;
+        case Double:
+            doubles = Arrays.copyOf(doubles, newCapacity);
+            break;
+        case Object:
+        case Match:
+            objects = Arrays.copyOf(objects, newCapacity);
+            break;
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    private void toDoubles() {
+        assert kind == Kind.Int;
+        int[] ints = this.ints;
+        double[] doubles = new double[ints.length];
+        for (int i = 0, len = length; i < len; ++i) {
+            doubles[i] = ints[i];
+        }
+        this.doubles = doubles;
+        this.ints = null;
+        this.kind = Kind.Double;
+    }
+
+    private void toObjects() {
+        int capacity = capacity();
+        Object[] objects = new Object[capacity];
+        for (int i = 0, len = length; i < len; ++i) {
+            objects[i] = get(i);
+        }
+        this.objects = objects;
+        this.ints = null;
+        this.doubles = null;
+        this.input = null;
+        this.offsets = null;
+        this.kind = Kind.Object;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Packed{kind=%s, length=%d}", kind, length);
+    }
+}
@@ -27,6 +27,7 @@ import com.github.anba.es6draft.runtime.ExecutionContext;
 import com.github.anba.es6draft.runtime.Realm;
 import com.github.anba.es6draft.runtime.internal.Messages;
 import com.github.anba.es6draft.runtime.internal.ScriptIterator;
+import com.github.anba.es6draft.runtime.internal.WeakTable;
 import com.github.anba.es6draft.runtime.types.Callable;
 import com.github.anba.es6draft.runtime.types.Constructor;
 import com.github.anba.es6draft.runtime.types.Property;
@@ -46,6 +47,8 @@ public class ProxyObject implements ScriptObject {
     private ScriptObject proxyTarget;
     /** [[ProxyHandler]] */
     private ScriptObject proxyHandler;
+    // Entries of WeakMap and WeakSet objects using this object as a key
+    private WeakTable.KeyEntries weakTableEntries;
 
     /**
      * Constructs a new Proxy object.
@@ -81,6 +84,25 @@ public class ProxyObject implements ScriptObject {
         return proxyHandler;
     }
 
+    /**
+     * Returns the weak table entries of this object.
+     * 
+     * @return the weak table entries or {@code null} if not present
+     */
+    public final WeakTable.KeyEntries getWeakTableEntries() {
+        return weakTableEntries;
+    }
+
+    /**
+     * Sets the weak table entries of this object.
+     * 
+     * @param weakTableEntries
+     *            the weak table entries
+     */
+    public final void setWeakTableEntries(WeakTable.KeyEntries weakTableEntries) {
+        this.weakTableEntries = weakTableEntries;
+    }
+
     /**
      * Returns the proxy target object or throws a script exception of the proxy has been revoked.
      * 
@@ -6,6 +6,8 @@
 
 package org.mozilla.javascript;
 
+import java.util.Arrays;
+
 /**
  * <p>This class represents a string composed of two components, each of which
  * may be a <code>java.lang.String</code> or another ConsString.</p>
@@ -21,44 +23,87 @@ package org.mozilla.javascript;
  * of Strings.</p>
  *
  * <p>Both the name and the concept are borrowed from V8.</p>
+ *
+ * <p>The depth of a ConsString is the height of its tree. Short string parts
+ * are merged when appending to or prepending before a ConsString, and trees
+ * deeper than {@link #MAX_DEPTH} are rebalanced, so that long chains of
+ * <code>+=</code> operations don't produce degenerate trees. Character access
+ * and prefix tests walk the tree and don't require a flattened string.</p>
  */
 public final class ConsString implements CharSequence {
+    /** Maximum tree depth before the tree is rebalanced */
+    private static final int MAX_DEPTH = 45;
+
+    /** Maximum length of merged string parts */
+    private static final int MAX_MERGE_LENGTH = 64;
+
+    /**
+     * Minimum length of a balanced tree with depth <code>i</code>, the
+     * Fibonacci sequence starting with 1, 2. The last entry exceeds the
+     * maximum string length.
+     */
+    private static final long[] MIN_LENGTH;
+    static {
+        long[] minLength = new long[64];
+        minLength[0] = 1;
+        minLength[1] = 2;
+        int i = 1;
+        while (minLength[i] <= Integer.MAX_VALUE) {
+            i += 1;
+            minLength[i] = minLength[i - 1] + minLength[i - 2];
+        }
+        MIN_LENGTH = Arrays.copyOf(minLength, i + 1);
+    }
+
     private final int length;
     private int depth;
     private CharSequence s1, s2;
 
     public ConsString(CharSequence str1, CharSequence str2) {
-        int length = 0, depth = 1;
-        if (str1 instanceof ConsString) {
+        str1 = unwrap(str1);
+        str2 = unwrap(str2);
+        // Merge short string parts to avoid one tree level per concatenation
+        if (str1 instanceof ConsString && str2 instanceof String) {
             ConsString s = (ConsString) str1;
-            length += s.length;
-            depth += s.depth;
-            if (s.depth == 0) {
-                // Directly access string if ConsString is flattened
-                str1 = s.s1;
+            if (s.s2 instanceof String && s.s2.length() + str2.length() <= MAX_MERGE_LENGTH) {
+                str1 = unwrap(s.s1);
+                str2 = ((String) s.s2).concat((String) str2);
             }
-        } else {
-            length += ((String) str1).length();
-        }
-        if (str2 instanceof ConsString) {
+        } else if (str1 instanceof String && str2 instanceof ConsString) {
             ConsString s = (ConsString) str2;
-            length += s.length;
-            depth += s.depth;
-            if (s.depth == 0) {
-                // Directly access string if ConsString is flattened
-                str2 = s.s1;
+            if (s.s1 instanceof String && str1.length() + s.s1.length() <= MAX_MERGE_LENGTH) {
+                str1 = ((String) str1).concat((String) s.s1);
+                str2 = unwrap(s.s2);
             }
-        } else {
-            length += ((String) str2).length();
         }
+        this.length = str1.length() + str2.length();
+        this.depth = 1 + Math.max(depth(str1), depth(str2));
+        this.s1 = str1;
+        this.s2 = str2;
+        // Don't let it grow too deep, can cause stack overflows and slow
+        // character access
+        if (depth > MAX_DEPTH) {
+            rebalance();
+        }
+    }
+
+    private ConsString(CharSequence str1, CharSequence str2, int length) {
         this.length = length;
-        this.depth = depth;
+        this.depth = 1 + Math.max(depth(str1), depth(str2));
         this.s1 = str1;
         this.s2 = str2;
-        // Don't let it grow too deep, can cause stack overflows
-        if (depth > 200 && str1 instanceof ConsString && str2 instanceof ConsString) {
-            flatten();
+    }
+
+    private static CharSequence unwrap(CharSequence s) {
+        if (s instanceof ConsString && ((ConsString) s).depth == 0) {
+            // Directly access string if ConsString is flattened
+            return ((ConsString) s).s1;
         }
+        return s;
+    }
+
+    private static int depth(CharSequence s) {
+        return s instanceof ConsString ? ((ConsString) s).depth : 0;
     }
 
     @Override
@@ -68,7 +113,141 @@ public final class ConsString implements CharSequence {
 
     @Override
     public char charAt(int index) {
-        return toString().charAt(index);
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException();
+        }
+        // Flattened ConsStrings store the complete string in the left part.
+        CharSequence s = this;
+        while (s instanceof ConsString) {
+            ConsString cs = (ConsString) s;
+            int leftLength = cs.s1.length();
+            if (index < leftLength) {
+                s = cs.s1;
+            } else {
+                s = cs.s2;
+                index -= leftLength;
+            }
+        }
+        return s.charAt(index);
+    }
+
+    /**
+     * Tests if the substring of this string beginning at the specified index
+     * starts with the specified prefix.
+     *
+     * @param prefix the prefix
+     * @param offset the start index
+     * @return <code>true</code> if the string at <code>offset</code> starts
+     *         with <code>prefix</code>
+     */
+    public boolean startsWith(String prefix, int offset) {
+        if (offset < 0 || offset > length - prefix.length()) {
+            return false;
+        }
+        if (depth == 0) {
+            return ((String) s1).startsWith(prefix, offset);
+        }
+        return regionMatches(this, offset, prefix, 0, prefix.length());
+    }
+
+    private static boolean regionMatches(CharSequence s, int offset,
+            String other, int otherOffset, int len) {
+        while (s instanceof ConsString) {
+            ConsString cs = (ConsString) s;
+            CharSequence left = cs.s1;
+            int leftLength = left.length();
+            if (offset + len <= leftLength) {
+                s = left;
+            } else if (offset >= leftLength) {
+                s = cs.s2;
+                offset -= leftLength;
+            } else {
+                // Region spans both parts.
+                int n = leftLength - offset;
+                if (!regionMatches(left, offset, other, otherOffset, n)) {
+                    return false;
+                }
+                s = cs.s2;
+                offset = 0;
+                otherOffset += n;
+                len -= n;
+            }
+        }
+        return ((String) s).regionMatches(offset, other, otherOffset, len);
+    }
+
+    private void rebalance() {
+        // Rebalancing algorithm from Boehm, Atkinson, Plass: "Ropes: an
+        // Alternative to Strings". Balanced subtrees are kept as they are.
+        CharSequence[] forest = new CharSequence[MIN_LENGTH.length - 1];
+        addToForest(s1, forest);
+        addToForest(s2, forest);
+        CharSequence result = null;
+        for (CharSequence s : forest) {
+            result = concat(s, result);
+        }
+        if (result instanceof ConsString) {
+            ConsString cs = (ConsString) result;
+            s1 = cs.s1;
+            s2 = cs.s2;
+            depth = cs.depth;
+        } else {
+            s1 = result != null ? result : "";
+            s2 = "";
+            depth = 0;
+        }
+    }
+
+    private static boolean isBalanced(ConsString s) {
+        return s.depth < MIN_LENGTH.length && s.length >= MIN_LENGTH[s.depth];
+    }
+
+    private static void addToForest(CharSequence s, CharSequence[] forest) {
+        s = unwrap(s);
+        if (s instanceof ConsString && !isBalanced((ConsString) s)) {
+            ConsString cs = (ConsString) s;
+            addToForest(cs.s1, forest);
+            addToForest(cs.s2, forest);
+        } else {
+            addLeafToForest(s, forest);
+        }
+    }
+
+    private static void addLeafToForest(CharSequence s, CharSequence[] forest) {
+        int length = s.length();
+        if (length == 0) {
+            return;
+        }
+        // Concatenate all smaller trees which precede the new leaf.
+        CharSequence tooSmall = null;
+        int i = 0;
+        for (; length >= MIN_LENGTH[i + 1]; ++i) {
+            if (forest[i] != null) {
+                tooSmall = concat(forest[i], tooSmall);
+                forest[i] = null;
+            }
+        }
+        CharSequence insertee = concat(tooSmall, s);
+        for (;; ++i) {
+            if (forest[i] != null) {
+                insertee = concat(forest[i], insertee);
+                forest[i] = null;
+            }
+            if (i == forest.length - 1 || insertee.length() < MIN_LENGTH[i + 1]) {
+                forest[i] = insertee;
+                return;
+            }
+        }
+    }
+
+    private static CharSequence concat(CharSequence left, CharSequence right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return new ConsString(left, right, left.length() + right.length());
     }
 
     @Override
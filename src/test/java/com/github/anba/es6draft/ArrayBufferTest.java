@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static com.github.anba.es6draft.runtime.AbstractOperations.Call;
+import static com.github.anba.es6draft.runtime.types.Undefined.UNDEFINED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.Realm;
+import com.github.anba.es6draft.runtime.World;
+import com.github.anba.es6draft.runtime.internal.RuntimeContext;
+import com.github.anba.es6draft.runtime.internal.Source;
+import com.github.anba.es6draft.runtime.objects.binary.ArrayBufferConstructor;
+import com.github.anba.es6draft.runtime.objects.binary.ArrayBufferObject;
+
+/**
+ *
+ */
+public final class ArrayBufferTest {
+    private static Realm newRealm(long directBufferThreshold) throws Exception {
+        RuntimeContext context = new RuntimeContext.Builder().setDirectBufferThreshold(directBufferThreshold).build();
+        return new World(context).newInitializedRealm();
+    }
+
+    private static Object eval(Realm realm, String sourceCode) {
+        Source source = new Source("eval-arraybuffer-test", 1);
+        return realm.getScriptLoader().script(source, sourceCode).evaluate(realm);
+    }
+
+    private static Object call(Realm realm, String function, Object... args) {
+        return Call(realm.defaultContext(), eval(realm, function), UNDEFINED, args);
+    }
+
+    @Test
+    public void heapAllocationByDefault() throws Exception {
+        Realm realm = newRealm(Long.MAX_VALUE);
+        ArrayBufferObject buffer = (ArrayBufferObject) eval(realm, "new ArrayBuffer(1 << 20)");
+        assertFalse(buffer.getData().isDirect());
+    }
+
+    @Test
+    public void directAllocationAboveThreshold() throws Exception {
+        Realm realm = newRealm(1024);
+        ArrayBufferObject small = (ArrayBufferObject) eval(realm, "new ArrayBuffer(1023)");
+        ArrayBufferObject large = (ArrayBufferObject) eval(realm, "new ArrayBuffer(1024)");
+        assertFalse(small.getData().isDirect());
+        assertTrue(large.getData().isDirect());
+
+        Object result = eval(realm, "var ta = new Int32Array(1024); ta.fill(7, 1); ta[0] = -1;"
+                + "ta.slice(0, 2).join() + ',' + ta.buffer.slice(4).byteLength");
+        assertEquals("-1,7,4092", result);
+    }
+
+    @Test
+    public void mappedReadWrite() throws Exception {
+        Path file = Files.createTempFile("arraybuffer", ".bin");
+        try {
+            Files.write(file, new byte[] { 1, 2, 3, 4 });
+            Realm realm = newRealm(Long.MAX_VALUE);
+            ExecutionContext cx = realm.defaultContext();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ArrayBufferObject buffer = ArrayBufferConstructor.CreateMappedArrayBuffer(cx, channel,
+                        MapMode.READ_WRITE, 1, 3);
+                assertEquals(3L, buffer.getByteLength());
+                Object result = call(realm,
+                        "(function(b){ var ta = new Uint8Array(b); ta[0] = 20; return ta.join(); })", buffer);
+                assertEquals("20,3,4", result);
+            }
+            assertEquals(ByteBuffer.wrap(new byte[] { 1, 20, 3, 4 }), ByteBuffer.wrap(Files.readAllBytes(file)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void mappedPrivate() throws Exception {
+        Path file = Files.createTempFile("arraybuffer", ".bin");
+        try {
+            Files.write(file, new byte[] { 1, 2, 3, 4 });
+            Realm realm = newRealm(Long.MAX_VALUE);
+            ExecutionContext cx = realm.defaultContext();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ArrayBufferObject buffer = ArrayBufferConstructor.CreateMappedArrayBuffer(cx, channel,
+                        MapMode.PRIVATE, 0, 4);
+                Object result = call(realm,
+                        "(function(b){ var ta = new Uint8Array(b); ta[0] = 20; return ta.join(); })", buffer);
+                assertEquals("20,2,3,4", result);
+            }
+            assertEquals(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }), ByteBuffer.wrap(Files.readAllBytes(file)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void mappedDetach() throws Exception {
+        Path file = Files.createTempFile("arraybuffer", ".bin");
+        try {
+            Files.write(file, new byte[] { 1, 2, 3, 4 });
+            Realm realm = newRealm(Long.MAX_VALUE);
+            ExecutionContext cx = realm.defaultContext();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ArrayBufferObject buffer = ArrayBufferConstructor.CreateMappedArrayBuffer(cx, channel,
+                        MapMode.READ_WRITE, 0, 4);
+                Object ta = call(realm, "(function(b){ return new Uint8Array(b); })", buffer);
+                ArrayBufferConstructor.DetachArrayBuffer(cx, buffer);
+                Object result = call(realm,
+                        "(function(ta){ try { ta.fill(0); return 'no error'; } catch (e) { return e.name; } })", ta);
+                assertEquals("TypeError", result);
+                assertTrue(buffer.isDetached());
+                assertNull(buffer.getData());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mappedReadOnlyUnsupported() throws Exception {
+        Path file = Files.createTempFile("arraybuffer", ".bin");
+        try {
+            Realm realm = newRealm(Long.MAX_VALUE);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ArrayBufferConstructor.CreateMappedArrayBuffer(realm.defaultContext(), channel, MapMode.READ_ONLY, 0,
+                        0);
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
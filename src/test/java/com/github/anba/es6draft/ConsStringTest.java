@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.mozilla.javascript.ConsString;
+
+/**
+ * 
+ */
+public final class ConsStringTest {
+    private static CharSequence concat(CharSequence s1, CharSequence s2) {
+        if (s1.length() == 0) {
+            return s2;
+        }
+        if (s2.length() == 0) {
+            return s1;
+        }
+        return new ConsString(s1, s2);
+    }
+
+    private static void assertRope(String expected, CharSequence actual) {
+        assertEquals(expected.length(), actual.length());
+        for (int i = 0; i < expected.length(); ++i) {
+            assertEquals(expected.charAt(i), actual.charAt(i));
+        }
+        assertEquals(expected, actual.toString());
+    }
+
+    @Test
+    public void append() {
+        StringBuilder expected = new StringBuilder();
+        CharSequence actual = "";
+        for (int i = 0; i < 100_000; ++i) {
+            String part = "<td>" + i + "</td>";
+            expected.append(part);
+            actual = concat(actual, part);
+        }
+        assertRope(expected.toString(), actual);
+    }
+
+    @Test
+    public void prepend() {
+        StringBuilder expected = new StringBuilder();
+        CharSequence actual = "";
+        for (int i = 0; i < 100_000; ++i) {
+            String part = i + ",";
+            expected.insert(0, part);
+            actual = concat(part, actual);
+        }
+        assertRope(expected.toString(), actual);
+    }
+
+    @Test
+    public void randomTrees() {
+        Random random = new Random(1234);
+        String[] expected = new String[64];
+        CharSequence[] actual = new CharSequence[64];
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = Integer.toString(i, 36);
+            actual[i] = expected[i];
+        }
+        for (int n = 0; n < 20_000; ++n) {
+            int i = random.nextInt(64), j = random.nextInt(64), k = random.nextInt(64);
+            if (expected[i].length() + expected[j].length() > 50_000) {
+                expected[k] = Integer.toString(n, 36);
+                actual[k] = expected[k];
+                continue;
+            }
+            if (random.nextInt(100) == 0) {
+                // Flatten some intermediate strings.
+                actual[i].toString();
+            }
+            expected[k] = expected[i] + expected[j];
+            actual[k] = concat(actual[i], actual[j]);
+        }
+        for (int i = 0; i < expected.length; ++i) {
+            assertRope(expected[i], actual[i]);
+        }
+    }
+
+    @Test
+    public void startsWith() {
+        String expected = "";
+        CharSequence actual = "";
+        for (int i = 0; i < 1000; ++i) {
+            expected += "abc" + i;
+            actual = concat(actual, "abc" + i);
+        }
+        ConsString rope = (ConsString) actual;
+        for (int i = 0; i < expected.length(); i += 7) {
+            for (int len = 0; len < 20 && i + len <= expected.length(); len += 3) {
+                assertTrue(rope.startsWith(expected.substring(i, i + len), i));
+            }
+        }
+        assertTrue(rope.startsWith("abc0abc1", 0));
+        assertFalse(rope.startsWith("abc0abc2", 0));
+        assertFalse(rope.startsWith("abc", -1));
+        assertFalse(rope.startsWith("abc999!", expected.length() - 6));
+        assertTrue(rope.startsWith("", expected.length()));
+        assertFalse(rope.startsWith("", expected.length() + 1));
+    }
+}
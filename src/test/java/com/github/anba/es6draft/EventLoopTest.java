@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.Realm;
+import com.github.anba.es6draft.runtime.Task;
+import com.github.anba.es6draft.runtime.World;
+import com.github.anba.es6draft.runtime.extensions.timer.Timers;
+import com.github.anba.es6draft.runtime.internal.EventLoop;
+import com.github.anba.es6draft.runtime.internal.EventLoopGroup;
+import com.github.anba.es6draft.runtime.internal.Properties.Function;
+import com.github.anba.es6draft.runtime.internal.RuntimeContext;
+import com.github.anba.es6draft.runtime.internal.Source;
+import com.github.anba.es6draft.runtime.internal.TaskSource;
+
+/**
+ *
+ */
+public final class EventLoopTest {
+    private static World newWorld(EventLoop.Policy policy) {
+        return new World(new RuntimeContext.Builder().setEventLoopPolicy(policy).build());
+    }
+
+    public static final class Callbacks {
+        private final CountDownLatch latch;
+        private final List<String> log;
+
+        Callbacks(CountDownLatch latch, List<String> log) {
+            this.latch = latch;
+            this.log = log;
+        }
+
+        @Function(name = "done", arity = 1)
+        public void done(ExecutionContext cx, String message) {
+            log.add(message);
+            latch.countDown();
+        }
+    }
+
+    private static final class PollingTaskSource implements TaskSource {
+        private final Task task;
+        private boolean taken;
+
+        PollingTaskSource(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        public Task nextTask() {
+            return pollTask();
+        }
+
+        @Override
+        public Task awaitTask() {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public Task pollTask() {
+            if (taken) {
+                return null;
+            }
+            taken = true;
+            return task;
+        }
+    }
+
+    private static final class DistantTaskSource implements TaskSource {
+        @Override
+        public Task nextTask() {
+            return null;
+        }
+
+        @Override
+        public Task awaitTask() {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public long nextTaskDelay(TimeUnit unit) {
+            return unit.convert(1, TimeUnit.HOURS);
+        }
+    }
+
+    @Test
+    public void unboundedPolicy() throws InterruptedException {
+        World world = newWorld(EventLoop.Policy.unbounded());
+        List<String> log = new ArrayList<>();
+        int[] count = { 0 };
+        Task microtask = new Task() {
+            @Override
+            public void execute() {
+                if (++count[0] < 10) {
+                    world.enqueuePromiseTask(this);
+                } else {
+                    log.add("microtasks");
+                }
+            }
+        };
+        world.enqueuePromiseTask(microtask);
+        world.runEventLoop(new PollingTaskSource(() -> log.add("task")));
+
+        assertEquals(Arrays.asList("microtasks", "task"), log);
+        EventLoop.Metrics metrics = world.getEventLoop().getMetrics();
+        assertEquals(10, metrics.getPromiseTasks());
+        assertEquals(1, metrics.getScriptTasks());
+        assertEquals(10, metrics.getMaxMicrotaskBurst());
+        assertEquals(0, metrics.getBudgetYields());
+    }
+
+    @Test
+    public void budgetedPolicy() throws InterruptedException {
+        World world = newWorld(EventLoop.Policy.budgeted(4, 1, TimeUnit.HOURS));
+        List<String> log = new ArrayList<>();
+        int[] count = { 0 };
+        Task microtask = new Task() {
+            @Override
+            public void execute() {
+                if (++count[0] < 10) {
+                    world.enqueuePromiseTask(this);
+                } else {
+                    log.add("microtasks");
+                }
+            }
+        };
+        world.enqueuePromiseTask(microtask);
+        world.runEventLoop(new PollingTaskSource(() -> log.add("task")));
+
+        assertEquals(Arrays.asList("task", "microtasks"), log);
+        EventLoop.Metrics metrics = world.getEventLoop().getMetrics();
+        assertEquals(10, metrics.getPromiseTasks());
+        assertEquals(1, metrics.getScriptTasks());
+        assertEquals(4, metrics.getMaxMicrotaskBurst());
+        assertEquals(2, metrics.getBudgetYields());
+    }
+
+    @Test
+    public void eventLoopGroup() throws InterruptedException {
+        final int worlds = 50, tasks = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch latch = new CountDownLatch(worlds * tasks);
+            AtomicInteger errors = new AtomicInteger();
+            EventLoopGroup group = new EventLoopGroup(executor, 1, TimeUnit.MILLISECONDS,
+                    (w, e) -> errors.incrementAndGet());
+            List<World> list = new ArrayList<>();
+            for (int i = 0; i < worlds; ++i) {
+                World world = newWorld(EventLoop.Policy.unbounded());
+                group.register(world);
+                list.add(world);
+            }
+            assertEquals(worlds, group.size());
+            for (int j = 0; j < tasks; ++j) {
+                for (World world : list) {
+                    world.getEventLoop().submit(() -> world.enqueuePromiseTask(latch::countDown));
+                }
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(0, errors.get());
+            for (World world : list) {
+                assertTrue(group.unregister(world));
+            }
+            assertFalse(group.unregister(list.get(0)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void eventLoopGroupTimers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            AtomicInteger errors = new AtomicInteger();
+            EventLoopGroup group = new EventLoopGroup(executor, 1, TimeUnit.MILLISECONDS,
+                    (w, e) -> errors.incrementAndGet());
+            CountDownLatch latch = new CountDownLatch(3);
+            List<String> log = Collections.synchronizedList(new ArrayList<>());
+            World world = newWorld(EventLoop.Policy.unbounded());
+            Realm realm = world.newInitializedRealm();
+            Timers timers = realm.createGlobalProperties(new Timers(), Timers.class);
+            realm.createGlobalProperties(new Callbacks(latch, log), Callbacks.class);
+            String sourceCode = "setTimeout(() => done('timeout'), 200);"
+                    + "setTimeout(() => Promise.resolve().then(() => done('promise')), 400);"
+                    + "var n = 0, id = setInterval(() => {"
+                    + "  if (++n == 3) { clearInterval(id); done('interval'); }"
+                    + "}, 10);";
+            realm.getScriptLoader().script(new Source("eventloop-group-test", 1), sourceCode).evaluate(realm);
+
+            // No task is pending, only the timers can wake up the world.
+            assertFalse(world.hasPendingTasks());
+            group.register(world, timers);
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("interval", "timeout", "promise"), log);
+            assertEquals(0, errors.get());
+            assertTrue(group.unregister(world));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static WeakReference<World> runIdleWorld(EventLoopGroup group) throws InterruptedException {
+        World world = newWorld(EventLoop.Policy.unbounded());
+        group.register(world, new DistantTaskSource());
+        for (int i = 0; i < 100; ++i) {
+            CountDownLatch latch = new CountDownLatch(1);
+            world.getEventLoop().submit(() -> world.enqueuePromiseTask(latch::countDown));
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+        assertTrue(group.unregister(world));
+        return new WeakReference<>(world);
+    }
+
+    @Test
+    public void eventLoopGroupUnregisterReleasesWorld() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EventLoopGroup group = new EventLoopGroup(executor, 1, TimeUnit.MILLISECONDS, (w, e) -> {
+            });
+            // Each idle pass reports a distant timer, the pending wakeup must not keep the world alive.
+            WeakReference<World> world = runIdleWorld(group);
+            for (int i = 0; i < 50 && world.get() != null; ++i) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            assertNull(world.get());
+            assertEquals(0, group.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
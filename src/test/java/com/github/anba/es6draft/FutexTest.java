@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.anba.es6draft.runtime.internal.Futex;
+
+/**
+ *
+ */
+public final class FutexTest {
+    private static final long FOREVER = Long.MAX_VALUE;
+    // More addresses than lock stripes, so at least two addresses share a stripe.
+    private static final int ADDRESSES = 65;
+
+    private final Futex futex = new Futex();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(ADDRESSES * Integer.BYTES)
+            .order(ByteOrder.nativeOrder());
+    private ExecutorService executor;
+    private final List<Thread> threads = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            synchronized (threads) {
+                threads.add(thread);
+            }
+            return thread;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Future<Futex.State> startWait(int index, long timeout, TimeUnit unit) {
+        Callable<Futex.State> waiter = () -> futex.wait(buffer, index, 0, timeout, unit);
+        return executor.submit(waiter);
+    }
+
+    private Future<Futex.State> startWait(int index) {
+        return startWait(index, FOREVER, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits until {@code count} pool threads are parked.
+     */
+    private void awaitParked(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (parked() < count) {
+            assertTrue("waiters not parked", System.nanoTime() - deadline < 0);
+            Thread.sleep(1);
+        }
+    }
+
+    private int parked() {
+        int n = 0;
+        synchronized (threads) {
+            for (Thread thread : threads) {
+                Thread.State state = thread.getState();
+                if ((state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING)
+                        && isParkedInFutex(thread)) {
+                    n += 1;
+                }
+            }
+        }
+        return n;
+    }
+
+    private static boolean isParkedInFutex(Thread thread) {
+        for (StackTraceElement element : thread.getStackTrace()) {
+            if (element.getClassName().equals(Futex.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Futex.State result(Future<Futex.State> future)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void notEqual() throws Exception {
+        buffer.putInt(0, 1);
+        assertEquals(Futex.State.NotEqual, futex.wait(buffer, 0, 0, FOREVER, TimeUnit.NANOSECONDS));
+        assertEquals(0, futex.wake(buffer, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        assertEquals(Futex.State.Timedout, futex.wait(buffer, 0, 0, 10, TimeUnit.MILLISECONDS));
+        assertEquals(0, futex.wake(buffer, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void distinctAddressesSharingStripes() throws Exception {
+        List<Future<Futex.State>> waiters = new ArrayList<>();
+        for (int i = 0; i < ADDRESSES; ++i) {
+            waiters.add(startWait(i * Integer.BYTES));
+        }
+        awaitParked(ADDRESSES);
+        for (int i = 0; i < ADDRESSES; ++i) {
+            assertEquals(1, futex.wake(buffer, i * Integer.BYTES, Integer.MAX_VALUE));
+            assertEquals(Futex.State.OK, result(waiters.get(i)));
+            for (int j = i + 1; j < ADDRESSES; ++j) {
+                assertFalse(waiters.get(j).isDone());
+            }
+        }
+        for (int i = 0; i < ADDRESSES; ++i) {
+            assertEquals(0, futex.wake(buffer, i * Integer.BYTES, Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void wakeFewerThanWaiting() throws Exception {
+        final int count = 5;
+        List<Future<Futex.State>> waiters = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            waiters.add(startWait(0));
+        }
+        awaitParked(count);
+        assertEquals(0, futex.wake(buffer, 0, 0));
+        assertEquals(2, futex.wake(buffer, 0, 2));
+        awaitParked(count - 2);
+        Thread.sleep(20);
+        int done = 0;
+        for (Future<Futex.State> waiter : waiters) {
+            if (waiter.isDone()) {
+                assertEquals(Futex.State.OK, result(waiter));
+                done += 1;
+            }
+        }
+        assertEquals(2, done);
+        assertEquals(count - 2, futex.wake(buffer, 0, Integer.MAX_VALUE));
+        for (Future<Futex.State> waiter : waiters) {
+            assertEquals(Futex.State.OK, result(waiter));
+        }
+        assertEquals(0, futex.wake(buffer, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void timeoutRacesWithWake() throws Exception {
+        for (int i = 0; i < 200; ++i) {
+            Future<Futex.State> waiter = startWait(0, 500 + (i % 7) * 100, TimeUnit.MICROSECONDS);
+            long spin = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(400 + (i % 5) * 100);
+            while (System.nanoTime() - spin < 0) {
+                Thread.yield();
+            }
+            int woken = futex.wake(buffer, 0, 1);
+            Futex.State state = result(waiter);
+            // A waiter is either woken and reported as OK, or it timed out and was not counted as woken.
+            assertEquals(state == Futex.State.OK ? 1 : 0, woken);
+            assertTrue(state != Futex.State.NotEqual);
+        }
+        assertEquals(0, futex.wake(buffer, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void wakeOrRequeue() throws Exception {
+        final int count = 4, index1 = 0, index2 = 8 * Integer.BYTES;
+        List<Future<Futex.State>> waiters = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            waiters.add(startWait(index1));
+        }
+        awaitParked(count);
+        buffer.putInt(index1, 1);
+        assertEquals(-1, futex.wakeOrRequeue(buffer, index1, 1, index2, 0));
+        assertEquals(1, futex.wakeOrRequeue(buffer, index1, 1, index2, 1));
+        awaitParked(count - 1);
+        // All remaining waiters were moved to the second address.
+        assertEquals(0, futex.wake(buffer, index1, Integer.MAX_VALUE));
+        assertEquals(count - 1, futex.wake(buffer, index2, Integer.MAX_VALUE));
+        for (Future<Futex.State> waiter : waiters) {
+            assertEquals(Futex.State.OK, result(waiter));
+        }
+    }
+
+    @Test
+    public void requeuedWaiterTimesOut() throws Exception {
+        final int index1 = 0, index2 = 8 * Integer.BYTES;
+        Future<Futex.State> waiter = startWait(index1, 200, TimeUnit.MILLISECONDS);
+        awaitParked(1);
+        assertEquals(0, futex.wakeOrRequeue(buffer, index1, 0, index2, 0));
+        assertEquals(Futex.State.Timedout, result(waiter));
+        // The timed out waiter was removed from the wait queue of the second address.
+        assertEquals(0, futex.wake(buffer, index1, Integer.MAX_VALUE));
+        assertEquals(0, futex.wake(buffer, index2, Integer.MAX_VALUE));
+    }
+}
@@ -6,6 +6,8 @@
  */
 package com.github.anba.es6draft;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -14,6 +16,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -537,4 +541,44 @@ public final class IndexedMapTest {
         assertThat(descendingList(indexed, 10, 10), Matchers.empty());
         assertThat(descendingList(indexed, 10, 100), Matchers.empty());
     }
+
+    @Test
+    public void sparseRandomized() {
+        Random random = new Random(1234);
+        IndexedMap<String> indexed = new IndexedMap<>();
+        TreeMap<Long, String> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; ++i) {
+            long index = random.nextInt(4) == 0 ? random.nextInt(1000) : random.nextInt(Integer.MAX_VALUE);
+            if (random.nextInt(3) == 0) {
+                indexed.remove(index);
+                expected.remove(index);
+            } else {
+                indexed.put(index, Long.toString(index));
+                expected.put(index, Long.toString(index));
+            }
+        }
+        assertTrue(indexed.isSparse());
+        assertEquals(expected.size(), indexed.size());
+        assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).toArray(), indexed.indices());
+        for (int i = 0; i < 100; ++i) {
+            long from = random.nextInt(Integer.MAX_VALUE), to = from + random.nextInt(1 << 24);
+            assertArrayEquals(expected.subMap(from, to).keySet().stream().mapToLong(Long::longValue).toArray(),
+                    indexed.indices(from, to));
+            assertEquals(new ArrayList<>(expected.subMap(from, to).values()), ascendingList(indexed, from, to));
+            assertEquals(new ArrayList<>(expected.subMap(from, true, to, false).descendingMap().values()),
+                    descendingList(indexed, from, to));
+        }
+
+        // Remove every other element through the descending iterator.
+        Iterator<Map.Entry<Long, String>> iter = indexed.descendingIterator(0, Long.MAX_VALUE);
+        for (boolean remove = true; iter.hasNext(); remove = !remove) {
+            Long key = iter.next().getKey();
+            if (remove) {
+                iter.remove();
+                expected.remove(key);
+            }
+        }
+        assertEquals(expected.size(), indexed.size());
+        assertEquals(new ArrayList<>(expected.values()), collect(indexed.iterator()));
+    }
 }
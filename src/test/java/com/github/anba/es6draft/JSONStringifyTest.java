@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static com.github.anba.es6draft.runtime.types.Undefined.UNDEFINED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.Realm;
+import com.github.anba.es6draft.runtime.World;
+import com.github.anba.es6draft.runtime.internal.RuntimeContext;
+import com.github.anba.es6draft.runtime.internal.Source;
+import com.github.anba.es6draft.runtime.objects.JSONObject;
+
+/**
+ *
+ */
+public final class JSONStringifyTest {
+    private static final int FLUSH_SIZE = 8 * 1024;
+
+    private Realm realm;
+
+    @Before
+    public void setUp() throws Exception {
+        realm = new World(new RuntimeContext.Builder().build()).newInitializedRealm();
+    }
+
+    private Object eval(String sourceCode) {
+        Source source = new Source("eval-json-test", 1);
+        return realm.getScriptLoader().script(source, sourceCode).evaluate(realm);
+    }
+
+    /**
+     * Writer which counts the number of write calls.
+     */
+    private static final class CountingWriter extends StringWriter {
+        int writes = 0;
+
+        @Override
+        public void write(String str, int off, int len) {
+            writes += 1;
+            super.write(str, off, len);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            writes += 1;
+            super.write(cbuf, off, len);
+        }
+
+        @Override
+        public StringWriter append(CharSequence csq) {
+            writes += 1;
+            return super.append(csq);
+        }
+
+        @Override
+        public StringWriter append(CharSequence csq, int start, int end) {
+            writes += 1;
+            return super.append(csq, start, end);
+        }
+    }
+
+    private static final String RECORDS = "Array.from({length: 2000}, (v, i) => ({id: i, name: 'n\u00e4me-' + i,"
+            + " tags: ['\u20ac', '\ud83d\ude00', i % 3 ? null : new Date(i)], nested: {k: [i, -i]}}))";
+
+    private void assertStringify(String valueSource, String replacerSource, String spaceSource) throws IOException {
+        ExecutionContext cx = realm.defaultContext();
+        String expected = (String) eval(String.format("JSON.stringify(%s, %s, %s)", valueSource, replacerSource,
+                spaceSource));
+        assertTrue(expected.length() > 4 * FLUSH_SIZE);
+
+        Object value = eval(valueSource);
+        Object replacer = eval(replacerSource);
+        Object space = eval(spaceSource);
+
+        CountingWriter writer = new CountingWriter();
+        assertTrue(JSONObject.stringify(cx, value, replacer, space, writer));
+        assertEquals(expected, writer.toString());
+        assertTrue("output not flushed in chunks", writer.writes > 1);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        assertTrue(JSONObject.stringify(cx, value, replacer, space, stream));
+        assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void plainValues() throws IOException {
+        assertStringify(RECORDS, "undefined", "undefined");
+    }
+
+    @Test
+    public void indentation() throws IOException {
+        assertStringify(RECORDS, "undefined", "'\\t'");
+    }
+
+    @Test
+    public void replacerFunction() throws IOException {
+        assertStringify(RECORDS, "(k, v) => typeof v === 'number' ? v * 2 : v", "undefined");
+    }
+
+    @Test
+    public void replacerList() throws IOException {
+        assertStringify(RECORDS, "['id', 'tags', 'nested']", "2");
+    }
+
+    @Test
+    public void longStrings() throws IOException {
+        // Single strings which are longer than the flush size.
+        assertStringify("['\u00e4'.repeat(3 * 8192 + 1), {s: 'x'.repeat(8191) + '\\n\u00fc'.repeat(8192)}]",
+                "undefined", "undefined");
+    }
+
+    @Test
+    public void undefinedResult() throws IOException {
+        ExecutionContext cx = realm.defaultContext();
+        for (String source : new String[] { "undefined", "() => {}", "Symbol()", "({toJSON() {}})" }) {
+            Object value = eval(source);
+
+            StringWriter writer = new StringWriter();
+            assertFalse(JSONObject.stringify(cx, value, UNDEFINED, UNDEFINED, writer));
+            assertEquals("", writer.toString());
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            assertFalse(JSONObject.stringify(cx, value, UNDEFINED, UNDEFINED, stream));
+            assertEquals(0, stream.size());
+        }
+    }
+}
@@ -12,8 +12,10 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -235,4 +237,114 @@ public final class LinkedMapTest {
         } catch (NoSuchElementException e) {
         }
     }
+
+    @Test
+    public void testIteratorRehash() {
+        LinkedMap<String, String> map = new LinkedMap<>();
+        for (int i = 0; i < 100; ++i) {
+            map.set("key" + i, "value" + i);
+        }
+
+        Iterator<Entry<String, String>> itr = map.iterator();
+        for (int i = 0; i < 10; ++i) {
+            assertEntryEquals("key" + i, "value" + i, itr.next());
+        }
+
+        // Delete most entries to trigger rehashing while the iterator is live.
+        for (int i = 0; i < 95; ++i) {
+            if (i != 5 && i != 50) {
+                map.delete("key" + i);
+            }
+        }
+        assertEquals(7, map.size());
+
+        // Add entries to trigger growing while the iterator is live.
+        for (int i = 100; i < 150; ++i) {
+            map.set("key" + i, "value" + i);
+        }
+
+        assertEntryEquals("key50", "value50", itr.next());
+        for (int i = 95; i < 150; ++i) {
+            assertEntryEquals("key" + i, "value" + i, itr.next());
+        }
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testIteratorClear() {
+        LinkedMap<String, String> map = new LinkedMap<>();
+        map.set("key1", "value1");
+        map.set("key2", "value2");
+
+        Iterator<Entry<String, String>> itr = map.iterator();
+        assertEntryEquals("key1", "value1", itr.next());
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(itr.hasNext());
+
+        map.set("key3", "value3");
+        assertTrue(itr.hasNext());
+        assertEntryEquals("key3", "value3", itr.next());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testSetAll() {
+        LinkedMap<String, String> source = new LinkedMap<>();
+        for (int i = 0; i < 20; ++i) {
+            source.set("key" + i, "value" + i);
+        }
+        source.delete("key3");
+
+        LinkedMap<String, String> empty = new LinkedMap<>();
+        empty.setAll(source);
+        assertEquals(19, empty.size());
+
+        LinkedMap<String, String> nonEmpty = new LinkedMap<>();
+        nonEmpty.set("key5", "other");
+        nonEmpty.set("key100", "value100");
+        nonEmpty.setAll(source);
+        assertEquals(20, nonEmpty.size());
+        assertEquals("value5", nonEmpty.get("key5"));
+
+        Iterator<Entry<String, String>> itr = empty.iterator();
+        for (int i = 0; i < 20; ++i) {
+            if (i != 3) {
+                assertEntryEquals("key" + i, "value" + i, itr.next());
+            }
+        }
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testRandomized() {
+        Random random = new Random(0x5eed);
+        LinkedMap<Integer, Integer> map = new LinkedMap<>();
+        LinkedHashMap<Integer, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 20000; ++i) {
+            Integer key = random.nextInt(500);
+            switch (random.nextInt(4)) {
+            case 0:
+                assertEquals(expected.remove(key) != null, map.delete(key));
+                break;
+            case 1:
+                assertEquals(expected.get(key), map.get(key));
+                break;
+            default:
+                if (!expected.containsKey(key)) {
+                    expected.put(key, i);
+                } else {
+                    expected.replace(key, i);
+                }
+                map.set(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        Iterator<Entry<Integer, Integer>> itr = map.iterator();
+        for (Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEntryEquals(entry.getKey(), entry.getValue(), itr.next());
+        }
+        assertFalse(itr.hasNext());
+    }
 }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.github.anba.es6draft.runtime.extensions.timer.TimingWheel;
+
+/**
+ *
+ */
+public final class TimingWheelTest {
+    private static final class TestEntry extends TimingWheel.Entry {
+        final int id;
+        final long expected;
+        long expiredAt = -1;
+        boolean removed;
+
+        TestEntry(int id, long expected) {
+            this.id = id;
+            this.expected = expected;
+        }
+    }
+
+    @Test
+    public void expireInOrder() {
+        TimingWheel<TestEntry> wheel = new TimingWheel<>(0);
+        List<Integer> expired = new ArrayList<>();
+        wheel.add(new TestEntry(1, 5), 5);
+        wheel.add(new TestEntry(2, 3), 3);
+        wheel.add(new TestEntry(3, 5), 5);
+        wheel.add(new TestEntry(4, 100), 100);
+        assertEquals(4, wheel.size());
+        assertEquals(3, wheel.nextTick());
+
+        wheel.advance(4, e -> expired.add(e.id));
+        assertEquals(Arrays.asList(2), expired);
+        wheel.advance(5, e -> expired.add(e.id));
+        assertEquals(Arrays.asList(2, 1, 3), expired);
+        assertEquals(64, wheel.nextTick());
+        wheel.advance(99, e -> expired.add(e.id));
+        assertEquals(Arrays.asList(2, 1, 3), expired);
+        assertEquals(100, wheel.nextTick());
+        wheel.advance(1000, e -> expired.add(e.id));
+        assertEquals(Arrays.asList(2, 1, 3, 4), expired);
+        assertTrue(wheel.isEmpty());
+        assertEquals(Long.MAX_VALUE, wheel.nextTick());
+    }
+
+    @Test
+    public void removeEntries() {
+        TimingWheel<TestEntry> wheel = new TimingWheel<>(10);
+        TestEntry a = new TestEntry(1, 20), b = new TestEntry(2, 20), c = new TestEntry(3, 20);
+        wheel.add(a, 20);
+        wheel.add(b, 20);
+        wheel.add(c, 20);
+        assertTrue(wheel.remove(b));
+        assertFalse(wheel.remove(b));
+        assertTrue(wheel.remove(a));
+        assertFalse(b.isScheduled());
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(20, e -> expired.add(e.id));
+        assertEquals(Arrays.asList(3), expired);
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    public void pastDeadline() {
+        TimingWheel<TestEntry> wheel = new TimingWheel<>(1000);
+        List<Integer> expired = new ArrayList<>();
+        wheel.add(new TestEntry(1, 1000), 5);
+        assertEquals(1000, wheel.nextTick());
+        wheel.advance(1000, e -> expired.add(e.id));
+        assertEquals(Arrays.asList(1), expired);
+    }
+
+    @Test
+    public void randomized() {
+        Random random = new Random(1234);
+        TimingWheel<TestEntry> wheel = new TimingWheel<>(0);
+        List<TestEntry> entries = new ArrayList<>();
+        long now = 0;
+        for (int i = 0; i < 20000; ++i) {
+            long delta;
+            switch (random.nextInt(4)) {
+            case 0:
+                delta = random.nextInt(64);
+                break;
+            case 1:
+                delta = random.nextInt(1 << 12);
+                break;
+            case 2:
+                delta = random.nextInt(1 << 20);
+                break;
+            default:
+                delta = random.nextInt(Integer.MAX_VALUE);
+                break;
+            }
+            TestEntry entry = new TestEntry(i, now + delta);
+            wheel.add(entry, entry.expected);
+            entries.add(entry);
+            if (random.nextInt(3) == 0) {
+                TestEntry removed = entries.get(random.nextInt(entries.size()));
+                removed.removed |= wheel.remove(removed);
+            }
+            if (random.nextInt(10) == 0) {
+                long target = now + random.nextInt(1 << 14);
+                wheel.advance(target, e -> e.expiredAt = wheel.currentTick());
+                now = target + 1;
+            }
+        }
+        wheel.advance(Long.MAX_VALUE - 1, e -> e.expiredAt = wheel.currentTick());
+        assertTrue(wheel.isEmpty());
+        for (TestEntry entry : entries) {
+            assertEquals(entry.removed ? -1 : entry.expected, entry.expiredAt);
+            assertFalse(entry.isScheduled());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.anba.es6draft.runtime.Realm;
+import com.github.anba.es6draft.runtime.World;
+import com.github.anba.es6draft.runtime.internal.Bootstrap;
+import com.github.anba.es6draft.runtime.internal.RuntimeContext;
+import com.github.anba.es6draft.runtime.internal.ScriptRuntime;
+import com.github.anba.es6draft.runtime.internal.Source;
+import com.github.anba.es6draft.runtime.objects.binary.ArrayBuffer;
+import com.github.anba.es6draft.runtime.objects.binary.ElementType;
+import com.github.anba.es6draft.runtime.objects.binary.TypedArrayObject;
+import com.github.anba.es6draft.runtime.types.Intrinsics;
+import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
+
+/**
+ * Tests that element accesses on typed arrays use the direct element access of the invokedynamic element sites.
+ */
+public final class TypedArrayElementTest {
+    private static final int LENGTH = 8;
+
+    private Realm realm;
+    private RecordingArrayBuffer buffer;
+
+    /**
+     * Array buffer which records the callers of {@link #isDetached()}, which is called on every element access.
+     */
+    private static final class RecordingArrayBuffer extends OrdinaryObject implements ArrayBuffer {
+        private final ByteBuffer data = ByteBuffer.allocate(LENGTH * 4);
+        private final List<StackTraceElement[]> accesses = new ArrayList<>();
+
+        RecordingArrayBuffer(Realm realm) {
+            super(realm);
+            setPrototype(realm.getIntrinsic(Intrinsics.ArrayBufferPrototype));
+        }
+
+        @Override
+        public ByteBuffer getData() {
+            return data;
+        }
+
+        @Override
+        public long getByteLength() {
+            return data.capacity();
+        }
+
+        @Override
+        public void detach() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isDetached() {
+            accesses.add(new Throwable().getStackTrace());
+            return false;
+        }
+
+        int accesses(Class<?> caller) {
+            int count = 0;
+            for (StackTraceElement[] stack : accesses) {
+                for (StackTraceElement element : stack) {
+                    if (element.getClassName().equals(caller.getName())) {
+                        count += 1;
+                        break;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        realm = new World(new RuntimeContext.Builder().build()).newInitializedRealm();
+        buffer = new RecordingArrayBuffer(realm);
+        TypedArrayObject typedArray = new TypedArrayObject(realm, ElementType.Int32, buffer, LENGTH * 4, 0, LENGTH,
+                realm.getIntrinsic(Intrinsics.Int32ArrayPrototype));
+        realm.getGlobalThis().set(realm.defaultContext(), "ta", typedArray, realm.getGlobalThis());
+    }
+
+    private Object eval(String sourceCode) {
+        Source source = new Source("typed-array-element-test", 1);
+        return realm.getScriptLoader().script(source, sourceCode).evaluate(realm);
+    }
+
+    private void assertDirectAccess() {
+        assertTrue(buffer.accesses(Bootstrap.class) > 0);
+        assertEquals(0, buffer.accesses(ScriptRuntime.class));
+    }
+
+    @Test
+    public void intKeys() {
+        // Statically typed int keys.
+        Object result = eval("(function() { for (var i = 0; i < 8; i++) ta[i] = i + 1;"
+                + " var s = 0; for (var i = 0; i < 8; i++) s += ta[i]; return s; })()");
+        assertEquals(36, ((Number) result).intValue());
+        assertDirectAccess();
+    }
+
+    @Test
+    public void integerKeys() {
+        // Keys which are only known to be numbers at runtime.
+        Object result = eval("(function() { var keys = [0, 1, 2, 3, 4, 5, 6, 7];"
+                + " for (var j = 0; j < keys.length; j++) ta[keys[j]] = keys[j] * 2;"
+                + " var s = 0; for (var j = 0; j < keys.length; j++) s += ta[keys[j]]; return s; })()");
+        assertEquals(56, ((Number) result).intValue());
+        assertDirectAccess();
+    }
+
+    @Test
+    public void integralDoubleKeys() {
+        // Keys which are the result of floating point operations.
+        Object result = eval("(function() { var keys = [0.5, 1.5, 2.5, 3.5].map(k => k * 2);"
+                + " for (var j = 0; j < keys.length; j++) ta[keys[j]] = 1;"
+                + " var s = 0; for (var j = 0; j < keys.length; j++) s += ta[keys[j]]; return s; })()");
+        assertEquals(4, ((Number) result).intValue());
+        assertDirectAccess();
+    }
+
+    @Test
+    public void negativeZeroKey() {
+        // -0 is not an integer index, it uses the generic path.
+        eval("ta[0] = 5");
+        assertTrue(buffer.accesses(ScriptRuntime.class) == 0);
+        Object result = eval("(function() { var z = -0; return ta[z * 1]; })()");
+        assertEquals(5, ((Number) result).intValue());
+        assertFalse(buffer.accesses(ScriptRuntime.class) == 0);
+    }
+}
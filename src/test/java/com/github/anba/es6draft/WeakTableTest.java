@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.anba.es6draft.runtime.internal.WeakTable;
+import com.github.anba.es6draft.runtime.types.ScriptObject;
+import com.github.anba.es6draft.runtime.types.builtins.OrdinaryObject;
+
+/**
+ *
+ */
+public final class WeakTableTest {
+    private static ScriptObject newObject() {
+        return new OrdinaryObject(null);
+    }
+
+    @Test
+    public void test() {
+        WeakTable<String> table = new WeakTable<>(true);
+        ScriptObject key1 = newObject(), key2 = newObject();
+
+        assertEquals(0, table.size());
+        table.set(key1, "value1");
+        assertEquals(1, table.size());
+        table.set(key2, "value2");
+        assertEquals(2, table.size());
+        table.set(key2, "value2-new");
+        assertEquals(2, table.size());
+
+        assertTrue(table.has(key1));
+        assertEquals("value1", table.get(key1));
+        assertEquals("value2-new", table.get(key2));
+        assertFalse(table.has(newObject()));
+        assertNull(table.get(newObject()));
+
+        assertTrue(table.delete(key2));
+        assertFalse(table.delete(key2));
+        assertFalse(table.has(key2));
+        assertEquals(1, table.size());
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertFalse(table.has(key1));
+        assertNull(table.get(key1));
+
+        table.set(key1, "value1-new");
+        assertEquals("value1-new", table.get(key1));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testUntracked() {
+        WeakTable<String> table = new WeakTable<>();
+        ScriptObject key1 = newObject(), key2 = newObject();
+        table.set(key1, "value1");
+        table.set(key2, "value2");
+        assertTrue(table.delete(key2));
+        assertEquals("value1", table.get(key1));
+
+        table.clear();
+        assertFalse(table.has(key1));
+        assertNull(table.get(key1));
+        table.set(key1, "value1-new");
+        table.set(key2, "value2-new");
+        assertEquals("value1-new", table.get(key1));
+        assertEquals("value2-new", table.get(key2));
+        try {
+            table.size();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUntrackedClearReleasesValuesOnAdd() throws InterruptedException {
+        WeakTable<Object> table = new WeakTable<>();
+        ScriptObject key = newObject();
+        Object value = new Object();
+        table.set(key, value);
+        WeakReference<Object> valueRef = new WeakReference<>(value);
+        value = null;
+        table.clear();
+        // Adding an entry to the key removes the stale entry of the cleared table.
+        table.set(key, Boolean.TRUE);
+        awaitCollected(valueRef);
+        assertEquals(Boolean.TRUE, table.get(key));
+    }
+
+    @Test
+    public void testMultipleTables() {
+        List<WeakTable<Integer>> tables = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            tables.add(new WeakTable<>());
+        }
+        ScriptObject key = newObject();
+        for (int i = 0; i < tables.size(); ++i) {
+            tables.get(i).set(key, i);
+        }
+        for (int i = 0; i < tables.size(); ++i) {
+            assertEquals(Integer.valueOf(i), tables.get(i).get(key));
+        }
+        for (int i = 0; i < tables.size(); i += 2) {
+            assertTrue(tables.get(i).delete(key));
+        }
+        for (int i = 0; i < tables.size(); ++i) {
+            assertEquals(i % 2 != 0, tables.get(i).has(key));
+        }
+        for (int i = 1; i < tables.size(); i += 2) {
+            assertEquals(Integer.valueOf(i), tables.get(i).get(key));
+        }
+    }
+
+    @Test
+    public void testKeys() {
+        WeakTable<Boolean> table = new WeakTable<>(true);
+        List<ScriptObject> keys = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            ScriptObject key = newObject();
+            keys.add(key);
+            table.set(key, Boolean.TRUE);
+        }
+        for (int i = 0; i < 100; i += 3) {
+            table.delete(keys.get(i));
+        }
+        // Re-add deleted keys to create duplicate key references.
+        for (int i = 0; i < 100; i += 6) {
+            table.set(keys.get(i), Boolean.TRUE);
+        }
+        List<ScriptObject> actual = table.keys();
+        assertEquals(actual.size(), table.size());
+        for (int i = 0; i < 100; ++i) {
+            boolean expected = i % 3 != 0 || i % 6 == 0;
+            assertEquals(expected, actual.contains(keys.get(i)));
+            assertEquals(expected, table.has(keys.get(i)));
+        }
+    }
+
+    private static void awaitCollected(WeakReference<?> ref) throws InterruptedException {
+        for (int i = 0; i < 50 && ref.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+
+    @Test
+    public void testClearReleasesValues() throws InterruptedException {
+        WeakTable<Object> table = new WeakTable<>(true);
+        WeakTable<Object> other = new WeakTable<>();
+        List<ScriptObject> keys = new ArrayList<>();
+        List<WeakReference<Object>> values = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            ScriptObject key = newObject();
+            Object value = new Object();
+            keys.add(key);
+            values.add(new WeakReference<>(value));
+            table.set(key, value);
+            other.set(key, i);
+        }
+        table.clear();
+        for (WeakReference<Object> value : values) {
+            awaitCollected(value);
+        }
+        for (int i = 0; i < keys.size(); ++i) {
+            assertFalse(table.has(keys.get(i)));
+            assertEquals(Integer.valueOf(i), other.get(keys.get(i)));
+        }
+    }
+
+    @Test
+    public void testCollectedTableReleasesValues() throws InterruptedException {
+        WeakTable<Object> table = new WeakTable<>();
+        ScriptObject key = newObject();
+        Object value = new Object();
+        table.set(key, value);
+        WeakReference<Object> valueRef = new WeakReference<>(value);
+        WeakReference<WeakTable<Object>> tableRef = new WeakReference<>(table);
+        value = null;
+        table = null;
+        awaitCollected(tableRef);
+        // Adding an entry to the key removes the entries of collected tables.
+        WeakTable<Object> other = new WeakTable<>();
+        other.set(key, Boolean.TRUE);
+        awaitCollected(valueRef);
+        assertTrue(other.has(key));
+    }
+
+    @Test
+    public void testValueReferencesKey() throws InterruptedException {
+        WeakTable<Object> table = new WeakTable<>(true);
+        ScriptObject key = newObject();
+        table.set(key, new Object[] { key });
+        WeakReference<ScriptObject> ref = new WeakReference<>(key);
+        assertSame(key, ((Object[]) table.get(key))[0]);
+        key = null;
+        for (int i = 0; i < 50 && ref.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+        assertEquals(0, table.size());
+    }
+}
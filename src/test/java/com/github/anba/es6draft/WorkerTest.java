@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ * 
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.EnumSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.anba.es6draft.runtime.ExecutionContext;
+import com.github.anba.es6draft.runtime.Realm;
+import com.github.anba.es6draft.runtime.World;
+import com.github.anba.es6draft.runtime.extensions.worker.StructuredClone;
+import com.github.anba.es6draft.runtime.extensions.worker.Worker;
+import com.github.anba.es6draft.runtime.internal.CompatibilityOption;
+import com.github.anba.es6draft.runtime.internal.RuntimeContext;
+import com.github.anba.es6draft.runtime.internal.ScriptException;
+import com.github.anba.es6draft.runtime.internal.Source;
+
+/**
+ * 
+ */
+public final class WorkerTest {
+    private ExecutorService executor;
+    private Realm realm;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        RuntimeContext context = new RuntimeContext.Builder().setWorkerExecutor(executor)
+                .setOptions(EnumSet.of(CompatibilityOption.Atomics)).build();
+        realm = new World(context).newInitializedRealm();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Object eval(String sourceCode) {
+        Source source = new Source("eval-worker-test", 1);
+        return realm.getScriptLoader().script(source, sourceCode).evaluate(realm);
+    }
+
+    private Worker newWorker(String sourceCode) {
+        return new Worker(realm.getWorld().getContext(), new Source("worker-test", 1), sourceCode, 4);
+    }
+
+    @Test
+    public void structuredClone() {
+        ExecutionContext cx = realm.defaultContext();
+        Object value = eval("var o = {a: 1, s: 'str', d: new Date(5), m: new Map([[1, 'x']]), set: new Set([2]),"
+                + " r: /ab+c/gi, t: new Int16Array([1, 2, 3])}; o.self = o; o.m.set('o', o); o");
+        Object clone = StructuredClone.deserialize(cx, StructuredClone.serialize(cx, value));
+        realm.getGlobalThis().set(cx, "clone", clone, realm.getGlobalThis());
+        String result = (String) eval("[clone !== o, clone.self === clone, clone.m.get('o') === clone, clone.a,"
+                + " clone.s, clone.d.getTime(), clone.m.get(1), clone.set.has(2), String(clone.r),"
+                + " clone.t.join(), clone.t.buffer !== o.t.buffer].join(' ')");
+        assertEquals("true true true 1 str 5 x true /ab+c/gi 1,2,3 true", result);
+    }
+
+    @Test
+    public void structuredCloneUnsupported() {
+        ExecutionContext cx = realm.defaultContext();
+        try {
+            StructuredClone.serialize(cx, eval("({f() {}})"));
+            fail();
+        } catch (ScriptException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void binaryStructuredClone() {
+        ExecutionContext cx = realm.defaultContext();
+        Object value = eval("var o = {a: 1, b: -2.5, s: 'str\\u00e9\\u20ac', d: new Date(5), m: new Map([[1, 'x']]),"
+                + " set: new Set([2]), r: /ab+c/gi, t: new Int16Array([1, -2, 3]), arr: [1, , 3], n: new Number(4)};"
+                + " o.self = o; o.m.set('o', o); o.v = new DataView(o.t.buffer, 2); o");
+        ByteBuffer buffer = StructuredClone.serializeToBuffer(cx, value);
+        ByteBuffer input = ByteBuffer.allocate(buffer.remaining() * 2);
+        input.put(buffer.duplicate()).put(buffer.duplicate()).flip();
+        Object clone1 = StructuredClone.deserializeFromBuffer(cx, input);
+        Object clone2 = StructuredClone.deserializeFromBuffer(cx, input);
+        assertEquals(0, input.remaining());
+        assertTrue(clone1 != clone2);
+        realm.getGlobalThis().set(cx, "clone", clone2, realm.getGlobalThis());
+        String result = (String) eval("[clone.self === clone, clone.m.get('o') === clone, clone.a, clone.b,"
+                + " clone.s === o.s, clone.d.getTime(), clone.m.get(1), clone.set.has(2), String(clone.r),"
+                + " clone.t.join(), clone.v.buffer === clone.t.buffer, clone.v.getInt16(0, true),"
+                + " clone.arr.length, 1 in clone.arr, clone.n + 1].join(' ')");
+        assertEquals("true true 1 -2.5 true 5 x true /ab+c/gi 1,-2,3 true -2 3 false 5", result);
+    }
+
+    @Test
+    public void binaryStructuredCloneIntoBuffer() {
+        ExecutionContext cx = realm.defaultContext();
+        Object value = eval("({s: 'x'.repeat(100), t: new Uint8Array(100).fill(7)})");
+        ByteBuffer buffer = ByteBuffer.allocate(150);
+        try {
+            StructuredClone.serializeToBuffer(cx, value, buffer);
+            fail();
+        } catch (BufferOverflowException e) {
+            // expected
+        }
+        assertEquals(0, buffer.position());
+        buffer = ByteBuffer.allocateDirect(1024).order(ByteOrder.LITTLE_ENDIAN);
+        StructuredClone.serializeToBuffer(cx, value, buffer);
+        StructuredClone.serializeToBuffer(cx, -0.5, buffer);
+        buffer.flip();
+        realm.getGlobalThis().set(cx, "clone", StructuredClone.deserializeFromBuffer(cx, buffer),
+                realm.getGlobalThis());
+        assertEquals(-0.5, StructuredClone.deserializeFromBuffer(cx, buffer));
+        assertEquals(0, buffer.remaining());
+        assertEquals("100 700", eval("[clone.s.length, clone.t.reduce((a, b) => a + b)].join(' ')"));
+    }
+
+    @Test
+    public void binaryStructuredCloneChannel() throws Exception {
+        ExecutionContext cx = realm.defaultContext();
+        Object value = eval("var o = {s: 'ab\\u20ac'.repeat(50), l: 'x'.repeat(99), d: new Date(5),"
+                + " t: new Float64Array([1.5, -2, 3, 4, 5])}; o.v = new DataView(o.t.buffer, 8); o");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel out = Channels.newChannel(bytes);
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        StructuredClone.serializeToChannel(cx, value, out, buffer);
+        StructuredClone.serializeToChannel(cx, "end", out, buffer);
+        assertEquals(0, buffer.position());
+
+        ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+        buffer.flip();
+        realm.getGlobalThis().set(cx, "clone", StructuredClone.deserializeFromChannel(cx, in, buffer),
+                realm.getGlobalThis());
+        assertEquals("end", StructuredClone.deserializeFromChannel(cx, in, buffer));
+        assertEquals(0, buffer.remaining());
+        String result = (String) eval("[clone.s === o.s, clone.l === o.l, clone.d.getTime(), clone.t.join(),"
+                + " clone.v.buffer === clone.t.buffer, clone.v.getFloat64(0, true)].join(' ')");
+        assertEquals("true true 5 1.5,-2,3,4,5 true -2", result);
+
+        buffer.clear().flip();
+        try {
+            StructuredClone.deserializeFromChannel(cx, Channels.newChannel(new ByteArrayInputStream(new byte[0])),
+                    buffer);
+            fail();
+        } catch (ScriptException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void binaryStructuredCloneErrors() {
+        ExecutionContext cx = realm.defaultContext();
+        try {
+            StructuredClone.serializeToBuffer(cx, eval("new SharedArrayBuffer(4)"));
+            fail();
+        } catch (ScriptException e) {
+            // expected
+        }
+        ByteBuffer buffer = StructuredClone.serializeToBuffer(cx, eval("({a: [1, 2, 3]})"));
+        buffer.limit(buffer.limit() - 1);
+        try {
+            StructuredClone.deserializeFromBuffer(cx, buffer);
+            fail();
+        } catch (ScriptException e) {
+            // expected
+        }
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void transferArrayBuffer() {
+        ExecutionContext cx = realm.defaultContext();
+        Object buffer = eval("var ta = new Uint8Array([1, 2, 3]); ta.buffer");
+        StructuredClone.Serialized serialized = StructuredClone.serialize(cx, eval("[ta]"), eval("[ta.buffer]"));
+        assertEquals(3, ((Number) eval("ta.length")).intValue());
+        StructuredClone.detachTransferred(cx, serialized);
+        assertEquals(0, ((Number) eval("ta.length")).intValue());
+        Object clone = StructuredClone.deserialize(cx, serialized);
+        realm.getGlobalThis().set(cx, "clone", clone, realm.getGlobalThis());
+        assertEquals("1,2,3", eval("clone[0].join()"));
+        assertTrue(buffer != eval("clone[0].buffer"));
+    }
+
+    @Test
+    public void transferToClosedPort() throws Exception {
+        ExecutionContext cx = realm.defaultContext();
+        Worker worker = newWorker("close();");
+        worker.start().get(10, TimeUnit.SECONDS);
+        assertTrue(worker.getPort().isClosed());
+        eval("var ta = new Uint8Array([1, 2, 3])");
+        assertFalse(worker.postMessage(cx, eval("[ta]"), eval("[ta.buffer]")));
+        assertEquals(3, ((Number) eval("ta.length")).intValue());
+        assertEquals("1,2,3", eval("ta.join()"));
+    }
+
+    @Test
+    public void offerToFullPort() throws Exception {
+        ExecutionContext cx = realm.defaultContext();
+        // The worker isn't started, so it never receives the messages.
+        Worker worker = newWorker("");
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(worker.offerMessage(cx, i, eval("undefined"), 0, TimeUnit.NANOSECONDS));
+        }
+        eval("var ta = new Uint8Array([1, 2, 3])");
+        assertFalse(worker.offerMessage(cx, eval("[ta]"), eval("[ta.buffer]"), 10, TimeUnit.MILLISECONDS));
+        assertEquals("1,2,3", eval("ta.join()"));
+        worker.terminate();
+        assertFalse(worker.offerMessage(cx, 4, eval("undefined"), 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void workerPostToFullPort() throws Exception {
+        ExecutionContext cx = realm.defaultContext();
+        Worker worker = newWorker("var sent = 0, error;"
+                + " onmessage = function(e) {"
+                + "   if (e.data !== 'done') {"
+                + "     try { for (;;) { postMessage(sent); sent++; } } catch (e) { error = e; }"
+                + "     Atomics.store(new Int32Array(e.data), 0, 1);"
+                + "     return;"
+                + "   }"
+                + "   postMessage(error instanceof TypeError ? sent : -1); close();"
+                + " }");
+        CompletableFuture<Void> completion = worker.start();
+        eval("var sab = new SharedArrayBuffer(4)");
+        assertTrue(worker.postMessage(cx, eval("sab"), eval("undefined")));
+        // The worker fills the queue without waiting for the host.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (((Number) eval("Atomics.load(new Int32Array(sab), 0)")).intValue() == 0) {
+            assertTrue("worker did not fill the queue", System.nanoTime() - deadline < 0);
+            Thread.sleep(1);
+        }
+        assertEquals(4, worker.getPort().pendingMessages());
+        for (int i = 0; i < 4; ++i) {
+            assertEquals(i, ((Number) worker.receiveMessage(cx)).intValue());
+        }
+        assertTrue(worker.postMessage(cx, "done", eval("undefined")));
+        assertEquals(4, ((Number) worker.receiveMessage(cx)).intValue());
+        completion.get(10, TimeUnit.SECONDS);
+        assertNull(worker.receiveMessage(cx));
+    }
+
+    @Test
+    public void echoWorker() throws Exception {
+        ExecutionContext cx = realm.defaultContext();
+        Worker worker = newWorker("var count = 0; onmessage = function(e) {"
+                + " if (e.data === 'stop') { close(); return; }"
+                + " new Int32Array(e.data.sab)[0] += e.data.n; postMessage(++count); }");
+        CompletableFuture<Void> completion = worker.start();
+        eval("var sab = new SharedArrayBuffer(4)");
+        for (int i = 1; i <= 10; ++i) {
+            assertTrue(worker.postMessage(cx, eval("({sab, n: " + i + "})"), eval("undefined")));
+            assertEquals(i, ((Number) worker.receiveMessage(cx)).intValue());
+        }
+        assertEquals(55, ((Number) eval("new Int32Array(sab)[0]")).intValue());
+        worker.postMessage(cx, "stop", eval("undefined"));
+        completion.get(10, TimeUnit.SECONDS);
+        assertNull(worker.receiveMessage(cx));
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public final class JSONParserTest {
+    /**
+     * Builder which returns a canonical string representation of the JSON text.
+     */
+    private static final class StringJSONBuilder implements JSONBuilder<String, StringBuilder, StringBuilder, String> {
+        @Override
+        public String createDocument(String value) {
+            return value;
+        }
+
+        @Override
+        public StringBuilder newObject() {
+            return new StringBuilder("{");
+        }
+
+        @Override
+        public String finishObject(StringBuilder object) {
+            return object.append('}').toString();
+        }
+
+        @Override
+        public void newProperty(StringBuilder object, String name, String rawName, long index) {
+            object.append(index > 0 ? "," : "").append(rawName).append(':');
+        }
+
+        @Override
+        public void finishProperty(StringBuilder object, String name, String rawName, long index, String value) {
+            object.append(value);
+        }
+
+        @Override
+        public StringBuilder newArray() {
+            return new StringBuilder("[");
+        }
+
+        @Override
+        public String finishArray(StringBuilder array) {
+            return array.append(']').toString();
+        }
+
+        @Override
+        public void newElement(StringBuilder array, long index) {
+            array.append(index > 0 ? "," : "");
+        }
+
+        @Override
+        public void finishElement(StringBuilder array, long index, String value) {
+            array.append(value);
+        }
+
+        @Override
+        public String newNull() {
+            return "null";
+        }
+
+        @Override
+        public String newBoolean(boolean value) {
+            return Boolean.toString(value);
+        }
+
+        @Override
+        public String newNumber(double value, String rawValue) {
+            return "n(" + value + "|" + rawValue + ")";
+        }
+
+        @Override
+        public String newString(String value, String rawValue) {
+            return "s(" + value + "|" + rawValue + ")";
+        }
+    }
+
+    /**
+     * Reader which returns at most {@code chunk} characters per call.
+     */
+    private static final class ChunkedReader extends Reader {
+        private final String source;
+        private final int chunk;
+        private int position;
+
+        ChunkedReader(String source, int chunk) {
+            this.source = source;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (position == source.length()) {
+                return -1;
+            }
+            int n = Math.min(Math.min(len, chunk), source.length() - position);
+            source.getChars(position, position + n, cbuf, off);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Channel which returns at most {@code chunk} bytes per call.
+     */
+    private static final class ChunkedChannel implements ReadableByteChannel {
+        private final ByteBuffer bytes;
+        private final int chunk;
+
+        ChunkedChannel(byte[] bytes, int chunk) {
+            this.bytes = ByteBuffer.wrap(bytes);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (!bytes.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(Math.min(dst.remaining(), chunk), bytes.remaining());
+            for (int i = 0; i < n; ++i) {
+                dst.put(bytes.get());
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final String[] SOURCES = { "null", " true ", "[]", "{}", "-0.5e+3", "\"a\\\"b\\u00e4\\n\"",
+            "[1, 2.5, \"x\", [false, {}], {\"a\": {\"b\": []}}]", "{\"\u00e4\u20ac\ud83d\ude00\": \"\ud83d\ude00\u00e4\"}",
+            "\n\r\n\t{ \"k\" :\n [ 1 ,\r2 ] }  " };
+
+    private static String parse(String source) {
+        return JSONParser.parse(source, new StringJSONBuilder());
+    }
+
+    private static String largeSource() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 20_000; ++i) {
+            sb.append(i > 0 ? ",\n" : "").append("{\"id\": ").append(i).append(", \"name\": \"n\u00e4me-").append(i)
+                    .append("\\t\", \"tags\": [\"\u20ac\", \"\ud83d\ude00\", null, true]}");
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    public void testReader() throws IOException {
+        for (String source : SOURCES) {
+            String expected = parse(source);
+            assertEquals(source, expected, JSONParser.parse(new StringReader(source), new StringJSONBuilder()));
+            for (int chunk = 1; chunk <= 3; ++chunk) {
+                assertEquals(source, expected,
+                        JSONParser.parse(new ChunkedReader(source, chunk), new StringJSONBuilder()));
+            }
+        }
+        String source = largeSource();
+        assertEquals(parse(source), JSONParser.parse(new ChunkedReader(source, 1000), new StringJSONBuilder()));
+    }
+
+    @Test
+    public void testChannel() throws IOException {
+        for (String source : SOURCES) {
+            String expected = parse(source);
+            byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+            for (int chunk = 1; chunk <= 5; ++chunk) {
+                assertEquals(source, expected,
+                        JSONParser.parse(new ChunkedChannel(bytes, chunk), new StringJSONBuilder()));
+            }
+        }
+        String source = largeSource();
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        assertEquals(parse(source), JSONParser.parse(new ChunkedChannel(bytes, 777), new StringJSONBuilder()));
+    }
+
+    @Test
+    public void testByteBuffer() {
+        for (String source : SOURCES) {
+            ByteBuffer bytes = ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8));
+            assertEquals(source, parse(source), JSONParser.parse(bytes, new StringJSONBuilder()));
+            assertEquals(0, bytes.position());
+        }
+        String source = largeSource();
+        ByteBuffer bytes = ByteBuffer.allocateDirect(source.length() * 4);
+        bytes.put(source.getBytes(StandardCharsets.UTF_8)).flip();
+        assertEquals(parse(source), JSONParser.parse(bytes, new StringJSONBuilder()));
+    }
+
+    @Test
+    public void testSyntaxErrorPosition() throws IOException {
+        String[] invalid = { "", "[1,]", "{\"a\" 1}", "\n\n  [tru]", "\"abc", "[\"\u0001\"]", "[1]x", "-", "\"\\x\"" };
+        for (String source : invalid) {
+            ParserException expected = null;
+            try {
+                parse(source);
+                fail(source);
+            } catch (ParserException e) {
+                expected = e;
+            }
+            try {
+                JSONParser.parse(new ChunkedReader(source, 1), new StringJSONBuilder());
+                fail(source);
+            } catch (ParserException e) {
+                assertEquals(source, expected.getMessageKey(), e.getMessageKey());
+                assertEquals(source, expected.getLine(), e.getLine());
+                assertEquals(source, expected.getColumn(), e.getColumn());
+            }
+        }
+    }
+
+    @Test
+    public void testIOException() {
+        IOException error = new IOException();
+        Reader reader = new Reader() {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                throw error;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try {
+            JSONParser.parse(reader, new StringJSONBuilder());
+            fail();
+        } catch (IOException e) {
+            assertSame(error, e);
+        }
+    }
+}
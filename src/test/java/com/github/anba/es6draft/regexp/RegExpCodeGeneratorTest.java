@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public final class RegExpCodeGeneratorTest {
+    private static RegExpMatcher parse(String pattern, String flags, RegExpBackend backend) {
+        return RegExpParser.parse(pattern, flags, "<regexp>", 1, 1, true, backend);
+    }
+
+    private static String[] exec(RegExpMatcher matcher, String input) {
+        MatchState m = matcher.matcher(input);
+        if (!m.find(0)) {
+            return null;
+        }
+        String[] groups = new String[m.groupCount() + 1];
+        for (int i = 0; i < groups.length; ++i) {
+            groups[i] = m.group(i);
+        }
+        return groups;
+    }
+
+    @Test
+    public void testBackend() {
+        assertTrue(parse("a+b", "", RegExpBackend.ByteCode) instanceof CompiledRegExpMatcher);
+        assertTrue(parse("a+b", "", RegExpBackend.Interpreter) instanceof ProgramRegExpMatcher);
+        assertTrue(parse("a+b", "", RegExpBackend.Joni) instanceof JoniRegExpMatcher);
+        assertTrue(parse("a+b", "u", RegExpBackend.ByteCode) instanceof JoniRegExpMatcher);
+
+        // Unsupported patterns use the interpreter.
+        assertTrue(parse("(a)\\1", "", RegExpBackend.ByteCode) instanceof ProgramRegExpMatcher);
+        assertTrue(parse("(?:ab)+", "", RegExpBackend.ByteCode) instanceof ProgramRegExpMatcher);
+        assertTrue(parse("(?=(a))", "", RegExpBackend.ByteCode) instanceof ProgramRegExpMatcher);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 32; ++i) {
+            sb.append("(?:a|b)");
+        }
+        assertTrue(parse(sb.toString(), "", RegExpBackend.ByteCode) instanceof ProgramRegExpMatcher);
+    }
+
+    @Test
+    public void testSameResultsAsInterpreter() {
+        String[] patterns = { "a", "abc", "a|b|cd", "a*", "a+?", "a{2,3}", "a{2,}?b", "a{0}b", "[a-c]+", "[^a-c]+",
+                "\\d+\\.\\d*", "\\w+\\s\\W", "\\bfoo\\b", "\\Bo", "^a|b$", "x(?=y)", "x(?!y)", "x(?=y|z)y",
+                "(\\w)(\\d)?", "(a)(b)?c", "(ab|a)bc", "(a|ab)(c|bcd)(d*)", "(?:a|b)?c", "(a)??a", "(?:ab)?b",
+                "(x?)?y", "[\\u0100-\\u017f]", "\\x41\\u0042", "[]", "[^]", "[]?a", "[\\b]", ".+", ".*?c", "\\cJ",
+                "a\\/b", "[\\-\\]]+", "\\u00E4", "[A-Z]", "\\u212A", "[^\\s\\d]", "[^a-z]*", "\\s*$", "^\\s*",
+                "[^]*b", "[^]+?b", "(\\d{1,3})(?!\\d)", "\\b\\w+\\b", "(a.)?b", "(?!a)\\w" };
+        String[] inputs = { "", "a", "abc", "aab", "aaab cd", "abcd", "xyz xy", "foo bar", "ab1 ab", "3.14 2.",
+                "aa bb\ncc", "ÄäéÉ", "K k", "a/b c", "--]]", "xxy", "A\nB\rC", "ſ ı İ", "12345 678", "  x  " };
+        for (String flags : new String[] { "", "i", "m", "im" }) {
+            for (String pattern : patterns) {
+                RegExpMatcher matcher = parse(pattern, flags, RegExpBackend.ByteCode);
+                assertTrue(pattern, matcher instanceof CompiledRegExpMatcher);
+                RegExpMatcher interpreter = parse(pattern, flags, RegExpBackend.Interpreter);
+                for (String input : inputs) {
+                    MatchState expected = interpreter.matcher(input), actual = matcher.matcher(input);
+                    for (int start = 0; start <= input.length(); ++start) {
+                        String message = String.format("/%s/%s at %d in \"%s\"", pattern, flags, start, input);
+                        boolean found = expected.find(start);
+                        assertEquals(message, found, actual.find(start));
+                        if (found) {
+                            assertEquals(message, expected.groupCount(), actual.groupCount());
+                            for (int i = 0; i <= expected.groupCount(); ++i) {
+                                assertEquals(message, expected.start(i), actual.start(i));
+                                assertEquals(message, expected.end(i), actual.end(i));
+                            }
+                        }
+                        found = expected.matches(start);
+                        assertEquals(message, found, actual.matches(start));
+                        if (found) {
+                            assertEquals(message, expected.end(), actual.end());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCaptures() {
+        assertArrayEquals(new String[] { "abc", "ab", null }, exec(parse("(ab|a)(x)?c", "", RegExpBackend.ByteCode), "abc"));
+        assertArrayEquals(new String[] { "ab", null, "ab" },
+                exec(parse("(?:(a)x|(ab))", "", RegExpBackend.ByteCode), "ab"));
+        assertArrayEquals(new String[] { "b", null }, exec(parse("(a)?b", "", RegExpBackend.ByteCode), "b"));
+        assertNull(exec(parse("[^]", "", RegExpBackend.ByteCode), ""));
+        assertNull(exec(parse("a(?!b)", "", RegExpBackend.ByteCode), "ab"));
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+package com.github.anba.es6draft.regexp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public final class RegExpProgramTest {
+    private static RegExpMatcher parse(String pattern, String flags) {
+        return RegExpParser.parse(pattern, flags, "<regexp>", 1, 1, true);
+    }
+
+    private static JoniRegExpMatcher joni(ProgramRegExpMatcher matcher, String flags) {
+        int javaFlags = 0;
+        if (flags.indexOf('i') != -1) {
+            javaFlags |= Pattern.CASE_INSENSITIVE;
+        }
+        if (flags.indexOf('m') != -1) {
+            javaFlags |= Pattern.MULTILINE;
+        }
+        return new JoniRegExpMatcher(matcher.getRegex(), javaFlags, new BitSet());
+    }
+
+    private static String[] exec(RegExpMatcher matcher, String input) {
+        MatchState m = matcher.matcher(input);
+        if (!m.find(0)) {
+            return null;
+        }
+        String[] groups = new String[m.groupCount() + 1];
+        for (int i = 0; i < groups.length; ++i) {
+            groups[i] = m.group(i);
+        }
+        return groups;
+    }
+
+    @Test
+    public void testBackend() {
+        assertTrue(parse("a+b", "") instanceof ProgramRegExpMatcher);
+        assertTrue(parse("(a)|[^b-d]\\1", "im") instanceof ProgramRegExpMatcher);
+        assertTrue(parse("a+b", "u") instanceof JoniRegExpMatcher);
+    }
+
+    @Test
+    public void testSameResultsAsJoni() {
+        String[] patterns = { "a", "abc", "a|b|cd", "a*", "a+?", "a{2,3}", "a{2,}?b", "[a-c]+", "[^a-c]+", "\\d+\\.\\d*",
+                "\\w+\\s\\W", "\\bfoo\\b", "\\Bo", "^a|b$", "x(?=y)", "x(?!y)", "(\\w)(\\d)?", "(a)(b)?c", "(ab|a)bc",
+                "(?:ab)+", "(?:a|ab)*c", "(a)\\1", "(.)\\1+", "[\\u0100-\\u017f]", "\\x41\\u0042", "[]", "[^]", "[\\b]",
+                ".+", "\\cJ", "a\\/b", "[\\-\\]]+", "(?:x?)*y", "(?:)+", "\\u00E4", "[A-Z]", "\\u212A", "[^\\s\\d]" };
+        String[] inputs = { "", "a", "abc", "aab", "aaab cd", "xyz xy", "foo bar", "ab1 ab", "3.14 2.", "aa bb\ncc",
+                "ÄäéÉ", "K k", "a/b c", "--]]", "xxy", "A\nB\rC", "ſ ı İ" };
+        for (String flags : new String[] { "", "i", "m", "im" }) {
+            for (String pattern : patterns) {
+                RegExpMatcher matcher = parse(pattern, flags);
+                assertTrue(pattern, matcher instanceof ProgramRegExpMatcher);
+                JoniRegExpMatcher joni = joni((ProgramRegExpMatcher) matcher, flags);
+                for (String input : inputs) {
+                    MatchState expected = joni.matcher(input), actual = matcher.matcher(input);
+                    for (int start = 0; start <= input.length(); ++start) {
+                        String message = String.format("/%s/%s at %d in \"%s\"", pattern, flags, start, input);
+                        boolean found = expected.find(start);
+                        assertEquals(message, found, actual.find(start));
+                        if (found) {
+                            assertEquals(message, expected.groupCount(), actual.groupCount());
+                            for (int i = 0; i <= expected.groupCount(); ++i) {
+                                assertEquals(message, expected.start(i), actual.start(i));
+                                assertEquals(message, expected.end(i), actual.end(i));
+                            }
+                        }
+                        found = expected.matches(start);
+                        assertEquals(message, found, actual.matches(start));
+                        if (found) {
+                            assertEquals(message, expected.end(), actual.end());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCaptures() {
+        assertArrayEquals(new String[] { "zaacbbbcac", "z", "ac", "a", null, "c" },
+                exec(parse("(z)((a+)?(b+)?(c))*", ""), "zaacbbbcac"));
+        assertArrayEquals(new String[] { "", null }, exec(parse("(a*)*", ""), "b"));
+        assertArrayEquals(new String[] { "b", "" }, exec(parse("(a*)b\\1+", ""), "baaaac"));
+        assertArrayEquals(new String[] { "", "aaa" }, exec(parse("(?=(a+))", ""), "baaabac"));
+        assertArrayEquals(new String[] { "aba", "a" }, exec(parse("(?=(a+))a*b\\1", ""), "baaabac"));
+        assertArrayEquals(new String[] { "baaabaac", "ba", null, "abaac" },
+                exec(parse("(.*?)a(?!(a+)b\\2c)\\2(.*)", ""), "baaabaac"));
+        assertArrayEquals(new String[] { "ab", null }, exec(parse("(?:(a)|b)+", ""), "ab"));
+        assertArrayEquals(new String[] { "aA", "a" }, exec(parse("(a)\\1", "i"), "aA"));
+        assertNull(exec(parse("[^]", ""), ""));
+        assertNull(exec(parse("[]", ""), "abc"));
+    }
+
+    @Test
+    public void testLineTerminators() {
+        assertArrayEquals(new String[] { "" }, exec(parse("^$", "m"), "a\n"));
+        MatchState m = parse("^b", "m").matcher("a b");
+        assertTrue(m.find(0));
+        assertEquals(2, m.start());
+        assertFalse(parse(".", "").matcher("\r\n ").find(0));
+    }
+
+    @Test
+    public void testSimplePattern() {
+        String[] simple = { ",", "::", "\\s+", "[a-c]", "\\d+?", ".", "^foo" };
+        for (String pattern : simple) {
+            assertNotNull(pattern, parse(pattern, "").getSimplePattern());
+        }
+        String[] notSimple = { "(,)", "\\s*", "a|b", "^foo", "a{2}", "a+b", "\\bfoo" };
+        String[] notSimpleFlags = { "", "", "", "m", "", "", "" };
+        for (int i = 0; i < notSimple.length; ++i) {
+            assertNull(notSimple[i], parse(notSimple[i], notSimpleFlags[i]).getSimplePattern());
+        }
+        assertNull(parse(",", "i").getSimplePattern());
+        assertNull(parse(",", "u").getSimplePattern());
+
+        SimplePattern pattern = parse("\\s+", "").getSimplePattern();
+        assertEquals(1, pattern.find("a \t b", 0));
+        assertEquals(4, pattern.end("a \t b", 1));
+        assertEquals(-1, pattern.find("a \t b", 4));
+        pattern = parse("^foo", "").getSimplePattern();
+        assertEquals(0, pattern.find("foofoo", 0));
+        assertEquals(-1, pattern.find("foofoo", 1));
+    }
+
+    @Test
+    public void testMatchResultSnapshot() {
+        MatchState m = parse("(\\d)", "").matcher("a1b2");
+        assertTrue(m.find(0));
+        java.util.regex.MatchResult result = m.toMatchResult();
+        assertTrue(m.find(2));
+        assertEquals("1", result.group(1));
+        assertEquals("2", m.group(1));
+        assertFalse(m.find(4));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals, assertTrue, assertFalse,
+} = Assert;
+
+function assertDataProperty(object, key, value) {
+  let desc = Object.getOwnPropertyDescriptor(object, key);
+  assertSame(value, desc.value);
+  assertTrue(desc.writable);
+  assertTrue(desc.enumerable);
+  assertTrue(desc.configurable);
+}
+
+// Objects and arrays have default data properties
+{
+  let o = JSON.parse(`{"a": 1, "b": [true, null, "x"], "c": {}}`);
+  assertSame(Object.prototype, Object.getPrototypeOf(o));
+  assertEquals(["a", "b", "c"], Object.keys(o));
+  assertDataProperty(o, "a", 1);
+  assertTrue(Array.isArray(o.b));
+  assertSame(Array.prototype, Object.getPrototypeOf(o.b));
+  assertSame(3, o.b.length);
+  assertDataProperty(o.b, 0, true);
+  assertDataProperty(o.b, 1, null);
+  assertDataProperty(o.b, 2, "x");
+  assertTrue(Object.isExtensible(o));
+  assertTrue(Object.isExtensible(o.b));
+  assertEquals([], Object.keys(o.c));
+}
+
+// Numeric arrays
+{
+  let a = JSON.parse(`[1, -3, 2.5, 1e400]`);
+  assertSame(4, a.length);
+  assertSame(1, a[0]);
+  assertSame(-3, a[1]);
+  assertSame(2.5, a[2]);
+  assertSame(Infinity, a[3]);
+  a.push("x");
+  a[0] = {};
+  assertSame(5, a.length);
+  assertSame("x", a[4]);
+  assertSame("[{},-3,2.5,null,\"x\"]", JSON.stringify(a));
+  assertEquals([], JSON.parse(`[]`));
+}
+
+// Duplicate keys, the last value wins and the first position is kept
+{
+  let o = JSON.parse(`{"a": 1, "b": 2, "a": 3}`);
+  assertEquals(["a", "b"], Object.keys(o));
+  assertSame(3, o.a);
+  assertSame(2, o.b);
+}
+
+// Array index keys
+{
+  let o = JSON.parse(`{"b": 1, "1": 2, "0": 3, "a": 4}`);
+  assertEquals(["0", "1", "b", "a"], Object.keys(o));
+  assertSame(3, o[0]);
+  assertSame(2, o[1]);
+}
+
+// "__proto__" is an own data property
+{
+  let o = JSON.parse(`{"__proto__": null, "a": 1}`);
+  assertSame(Object.prototype, Object.getPrototypeOf(o));
+  assertDataProperty(o, "__proto__", null);
+}
+
+// Records with the same keys are independent objects
+{
+  let list = JSON.parse(`[{"id": 1, "name": "a"}, {"id": 2, "name": "b"}, {"name": "c", "id": 3}, {"id": 4}]`);
+  assertEquals(["id", "name"], Object.keys(list[0]));
+  assertEquals(["id", "name"], Object.keys(list[1]));
+  assertEquals(["name", "id"], Object.keys(list[2]));
+  assertEquals(["id"], Object.keys(list[3]));
+  list[0].extra = true;
+  delete list[1].id;
+  Object.defineProperty(list[2], "id", {enumerable: false});
+  assertEquals(["id", "name", "extra"], Object.keys(list[0]));
+  assertEquals(["name"], Object.keys(list[1]));
+  assertEquals(["name"], Object.keys(list[2]));
+  assertSame(3, list[2].id);
+  assertSame(`{"id":4}`, JSON.stringify(list[3]));
+}
+
+// Large arrays of records
+{
+  let source = "[" + Array.from({length: 5000}, (v, i) => `{"id": ${i}, "tags": ["t${i}"], "nested": {"k": ${i}}}`) + "]";
+  let list = JSON.parse(source);
+  assertSame(5000, list.length);
+  assertSame(4999, list[4999].id);
+  assertSame("t123", list[123].tags[0]);
+  assertSame(77, list[77].nested.k);
+  assertFalse(list[1] === list[2]);
+  assertSame(source.replace(/\s/g, ""), JSON.stringify(list));
+}
+
+// Reviver function
+{
+  let seen = [];
+  let o = JSON.parse(`{"a": [1, {"b": 2}], "c": 3}`, (k, v) => {
+    seen.push(k);
+    return typeof v === "number" ? v * 10 : v;
+  });
+  assertEquals(["0", "b", "1", "a", "c", ""], seen);
+  assertSame(`{"a":[10,{"b":20}],"c":30}`, JSON.stringify(o));
+}
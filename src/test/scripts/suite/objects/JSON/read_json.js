@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals, assertThrows,
+} = Assert;
+
+// readJSON() returns the same value as JSON.parse(read())
+{
+  let file = "objects/JSON/resources/records.json";
+  assertEquals(JSON.parse(read(file)), readJSON(file));
+  assertSame(3, readJSON(file).records.length);
+  assertSame("\u{1F600}", readJSON(file).records[1].value);
+}
+
+// Reviver function
+{
+  let file = "objects/JSON/resources/records.json";
+  let ids = readJSON(file, (k, v) => k === "records" ? v.map(r => r.id) : v).records;
+  assertEquals([1, 2, 3], ids);
+}
+
+// Syntax errors are reported as SyntaxError
+{
+  assertThrows(SyntaxError, () => readJSON("objects/JSON/read_json.js"));
+}
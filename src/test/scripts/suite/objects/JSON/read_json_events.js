@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals, assertThrows,
+} = Assert;
+
+const file = "objects/JSON/resources/records.json";
+
+function events(depth) {
+  let result = [];
+  if (depth === void 0) {
+    readJSONEvents(file, (value, path) => { result.push([path, value]); });
+  } else {
+    readJSONEvents(file, (value, path) => { result.push([path, value]); }, depth);
+  }
+  return result;
+}
+
+// Depth 0 reports the complete document
+{
+  assertEquals([[[], JSON.parse(read(file))]], events(0));
+}
+
+// Depth 1 reports the top-level members
+{
+  let doc = JSON.parse(read(file));
+  assertEquals([[["name"], doc.name], [["records"], doc.records]], events());
+  assertEquals(events(1), events());
+}
+
+// Depth 2 reports the array elements and primitive values at lower depths
+{
+  let doc = JSON.parse(read(file));
+  assertEquals([
+    [["name"], "records"],
+    [["records", 0], doc.records[0]],
+    [["records", 1], doc.records[1]],
+    [["records", 2], doc.records[2]],
+  ], events(2));
+}
+
+// Depth 4 reports the individual tags
+{
+  let tags = events(4).filter(([path]) => path[2] === "tags").map(([path, value]) => [path[1], path[3], value]);
+  assertEquals([[0, 0, "a"], [0, 1, "b"], [2, 0, true], [2, 1, false], [2, 2, -150]], tags);
+}
+
+// Reported values are fresh objects
+{
+  let [[, first], [, second]] = events(2).slice(1);
+  assertSame(Object.prototype, Object.getPrototypeOf(first));
+  assertSame(Array.prototype, Object.getPrototypeOf(first.tags));
+  assertSame(1, first.id);
+  assertSame(2, second.id);
+}
+
+// Exceptions from the callback stop the parser
+{
+  class E extends Error {}
+  let count = 0;
+  assertThrows(E, () => readJSONEvents(file, () => { if (++count == 2) throw new E; }, 2));
+  assertSame(2, count);
+}
+
+// Syntax errors are reported as SyntaxError
+{
+  assertThrows(SyntaxError, () => readJSONEvents("objects/JSON/read_json_events.js", () => {}));
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertThrows,
+} = Assert;
+
+// Plain objects and arrays
+{
+  let value = {a: 1, b: "x\"\\\n\u0001 y", c: [true, null, -0, 1.5, NaN, Infinity], d: {}, e: [], f: {g: [{}]}};
+  assertSame(`{"a":1,"b":"x\\"\\\\\\n\\u0001 y","c":[true,null,0,1.5,null,null],"d":{},"e":[],"f":{"g":[{}]}}`,
+             JSON.stringify(value));
+  assertSame(`{\n  "a": [\n    1,\n    {}\n  ],\n  "b": {}\n}`, JSON.stringify({a: [1, {}], b: {}}, null, 2));
+  assertSame(`{"u2":null}`, JSON.stringify({u: undefined, f() {}, [Symbol()]: 0, u2: null}));
+  assertSame(`[null,null,null]`, JSON.stringify([undefined, function() {}, Symbol()]));
+  assertSame(`{"a":1}`, JSON.stringify(Object.assign(Object.create(null), {a: 1})));
+}
+
+// Arrays with holes
+{
+  assertSame(`[1,null,3]`, JSON.stringify([1, , 3]));
+  let array = [1, 2, 3];
+  array.length = 5;
+  assertSame(`[1,2,3,null,null]`, JSON.stringify(array));
+}
+
+// Non-enumerable and accessor properties
+{
+  let o = {a: 1, get b() { return 2; }};
+  Object.defineProperty(o, "c", {value: 3, enumerable: false});
+  assertSame(`{"a":1,"b":2}`, JSON.stringify(o));
+}
+
+// toJSON on prototypes, added between calls
+{
+  class C { constructor() { this.a = 1; } }
+  let list = [new C, new C];
+  assertSame(`[{"a":1},{"a":1}]`, JSON.stringify(list));
+  C.prototype.toJSON = function() { return "C"; };
+  assertSame(`["C","C"]`, JSON.stringify(list));
+  delete C.prototype.toJSON;
+  Object.prototype.toJSON = function() { return "O"; };
+  try {
+    assertSame(`"O"`, JSON.stringify({a: 1}));
+    assertSame(`"O"`, JSON.stringify([1]));
+    assertSame(`{"a":"O"}`, JSON.stringify(Object.assign(Object.create(null), {a: {}})));
+  } finally {
+    delete Object.prototype.toJSON;
+  }
+  assertSame(`{"a":1}`, JSON.stringify({a: 1}));
+}
+
+// toJSON added during serialization
+{
+  let proto = {};
+  let list = [{get a() { proto.toJSON = () => "P"; return 1; }}, Object.create(proto), Object.create(proto)];
+  assertSame(`[{"a":1},"P","P"]`, JSON.stringify(list));
+}
+
+// Properties changed during serialization
+{
+  let o = {
+    a: {get x() { delete o.b; o.c = 3; Object.defineProperty(o, "d", {get() { return "getter"; }}); return 0; }},
+    b: 1,
+    c: 2,
+    d: 4,
+  };
+  assertSame(`{"a":{"x":0},"c":3,"d":"getter"}`, JSON.stringify(o));
+
+  let array = [{get x() { array[1] = "changed"; array.length = 2; return 0; }}, 1, 2];
+  assertSame(`[{"x":0},"changed",null]`, JSON.stringify(array));
+}
+
+// Cyclic values
+{
+  let o = {a: {}};
+  o.a.b = o;
+  assertThrows(TypeError, () => JSON.stringify(o));
+  let array = [[]];
+  array[0].push(array);
+  assertThrows(TypeError, () => JSON.stringify(array));
+
+  // Repeated, but not cyclic values.
+  let shared = {x: [1]};
+  assertSame(`[{"x":[1]},{"x":[1]},[[1],[1]]]`, JSON.stringify([shared, shared, [shared.x, shared.x]]));
+}
+
+// Nested JSON.stringify calls
+{
+  let o = {a: {toJSON() { return JSON.stringify({b: [1, 2]}); }}, c: "d"};
+  assertSame(`{"a":"{\\"b\\":[1,2]}","c":"d"}`, JSON.stringify(o));
+}
+
+// Replacer function and property list
+{
+  assertSame(`{"a":2,"b":{"a":2}}`, JSON.stringify({a: 1, b: {a: 1}}, (k, v) => v === 1 ? 2 : v));
+  assertSame(`{"b":{"b":2}}`, JSON.stringify({a: 1, b: {a: 1, b: 2}}, ["b"]));
+}
+
+// Large output
+{
+  let list = Array.from({length: 10000}, (v, i) => ({id: i, name: `name-${i}`}));
+  let json = JSON.stringify(list);
+  assertSame(`{"id":9999,"name":"name-9999"}]`, json.slice(json.lastIndexOf("{")));
+  assertSame(`[{"id":0,"name":"name-0"},`, JSON.stringify(list).slice(0, 26));
+}
+
+// Non-plain values followed by plain values
+{
+  let hidden = {a: 1};
+  Object.defineProperty(hidden, "b", {value: 2, enumerable: false});
+  let date = new Date(0);
+  let list = [1, hidden, date, {c: 3}, [4], "x"];
+  assertSame(`[1,{"a":1},"1970-01-01T00:00:00.000Z",{"c":3},[4],"x"]`, JSON.stringify(list));
+  assertSame(`{"d":"1970-01-01T00:00:00.000Z","e":{"a":1},"f":[5]}`, JSON.stringify({d: date, e: hidden, f: [5]}));
+}
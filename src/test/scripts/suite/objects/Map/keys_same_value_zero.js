@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertTrue, assertFalse, assertEquals
+} = Assert;
+
+// Number keys use SameValueZero regardless of their internal representation
+{
+  let m = new Map();
+  m.set(1, "a");
+  assertSame("a", m.get(1.0));
+  assertSame("a", m.get(0.5 * 2));
+  m.set(2 ** 40, "b");
+  assertSame("b", m.get(2 ** 39 * 2));
+  m.set(-0, "c");
+  assertTrue(m.has(0));
+  assertSame(0, [...m.keys()][2]);
+  assertTrue(Object.is([...m.keys()][2], +0));
+  m.set(NaN, "d");
+  assertSame("d", m.get(0 / 0));
+  assertSame(4, m.size);
+}
+
+// Concatenated strings are equal to flat strings
+{
+  let m = new Map();
+  let s = "ab";
+  m.set(s + "cd", 1);
+  assertSame(1, m.get("abcd"));
+  m.set("efgh", 2);
+  assertSame(2, m.get("ef" + s.replace("ab", "gh")));
+  assertFalse(m.has(1));
+}
+
+// Copying maps and sets preserves entries and order
+{
+  let m = new Map([[1, "a"], [2, "b"], [3, "c"]]);
+  m.delete(2);
+  let copy = new Map(m);
+  assertEquals([[1, "a"], [3, "c"]], [...copy]);
+
+  let s = new Set(["x", "y", "z"]);
+  s.delete("x");
+  assertEquals(["y", "z"], [...new Set(s)]);
+}
+
+// Iteration continues across deletions, rehashing and clear
+{
+  let m = new Map();
+  for (let i = 0; i < 64; ++i) m.set(i, i);
+  let seen = [];
+  for (let [k] of m) {
+    seen.push(k);
+    if (k === 1) {
+      for (let i = 2; i < 60; ++i) m.delete(i);
+    }
+    if (k === 63) {
+      m.clear();
+      m.set("after", 0);
+    }
+  }
+  assertEquals([0, 1, 60, 61, 62, 63, "after"], seen);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals, assertTrue, assertFalse, assertUndefined,
+} = Assert;
+
+// Match array elements, index and input
+{
+  let m = /(a)(x)?(b+)/.exec("zzabbbc");
+  assertSame(4, m.length);
+  assertEquals(["abbb", "a", void 0, "bbb"], [...m]);
+  assertSame(2, m.index);
+  assertSame("zzabbbc", m.input);
+  assertUndefined(m[2]);
+  assertTrue(2 in m);
+  assertEquals(["0", "1", "2", "3", "index", "input"], Object.keys(m));
+  assertEquals({value: "bbb", writable: true, enumerable: true, configurable: true},
+               Object.getOwnPropertyDescriptor(m, 3));
+  assertSame('["abbb","a",null,"bbb"]', JSON.stringify(m));
+}
+
+// Writes before and after reads
+{
+  let m = /(\d+)-(\d+)/.exec("x 12-345 y");
+  m[1] = 0;
+  assertEquals([0, "345"], [m[1], m[2]]);
+  assertSame("12-345", m[0]);
+
+  m = /(\d+)-(\d+)/.exec("x 12-345 y");
+  assertSame("12", m[1]);
+  m.push("z");
+  assertEquals(["12-345", "12", "345", "z"], [...m]);
+
+  m = /(\d+)-(\d+)/.exec("x 12-345 y");
+  m.length = 1;
+  assertEquals(["12-345"], [...m]);
+  assertFalse(1 in m);
+  m[2] = "q";
+  assertEquals(["12-345", void 0, "q"], [...m]);
+
+  m = /(a)(b)(c)/.exec("abc");
+  assertSame("c", m.pop());
+  assertSame("b", m.pop());
+  assertEquals(["abc", "a"], [...m]);
+  assertSame("abc", m.shift());
+  assertEquals(["a"], [...m]);
+
+  m = /(a)(b)/.exec("ab");
+  delete m[2];
+  assertEquals(["ab", "a"], [m[0], m[1]]);
+  assertFalse(2 in m);
+  Object.defineProperty(m, 0, {value: "x", writable: false});
+  assertEquals(["x", "a"], [m[0], m[1]]);
+}
+
+// Array methods on match arrays
+{
+  let m = /(\w)(\w)(\w)?/.exec("ab");
+  assertEquals(["ab", "a", "b", void 0], m.slice());
+  assertSame("ab,a,b,", m.join());
+  assertEquals(["AB", "A", "B"], m.filter(Boolean).map(s => s.toUpperCase()));
+  assertEquals([void 0, "b", "a", "ab"], [.../(\w)(\w)(\w)?/.exec("ab").reverse()]);
+}
+
+// Global exec and matchAll-style iteration
+{
+  let re = /(\d)(\w)?/g, results = [];
+  for (let m; (m = re.exec("1a 2 3c"));) {
+    results.push([m.index, ...m]);
+  }
+  assertEquals([[0, "1a", "1", "a"], [3, "2", "2", void 0], [5, "3c", "3", "c"]], results);
+}
+
+// Non-global match returns the exec result
+{
+  let m = "key=value".match(/(\w+)=(\w+)/);
+  assertEquals(["key=value", "key", "value"], [...m]);
+  assertSame(0, m.index);
+  assertSame("key=value", m.input);
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertNotSame, assertTrue, assertFalse, assertThrows,
+} = Assert;
+
+// RegExp objects with the same source and flags don't share state
+{
+  function create() {
+    return /a(b+)c/g;
+  }
+  let r1 = create(), r2 = create();
+  assertNotSame(r1, r2);
+  assertSame("abbc", r1.exec("xabbc abc")[0]);
+  assertSame(5, r1.lastIndex);
+  assertSame(0, r2.lastIndex);
+  assertSame("abc", r1.exec("xabbc abc")[0]);
+  assertSame("abbc", r2.exec("xabbc abc")[0]);
+  assertSame("bb", new RegExp("a(b+)c", "g").exec("abbc")[1]);
+}
+
+// Matchers of one pattern work with different inputs
+{
+  let re = new RegExp("^\\d{3}-\\d{4}$");
+  for (let i = 0; i < 100; ++i) {
+    assertTrue(new RegExp("^\\d{3}-\\d{4}$").test("555-" + (1000 + i)));
+    assertFalse(new RegExp("^\\d{3}-\\d{4}$").test("55-" + (1000 + i)));
+  }
+  assertTrue(re.test("123-4567"));
+}
+
+// Flags are part of the cache key
+{
+  assertTrue(new RegExp("abc", "i").test("ABC"));
+  assertFalse(new RegExp("abc", "").test("ABC"));
+  assertTrue(new RegExp("^b", "m").test("a\nb"));
+  assertFalse(new RegExp("^b", "").test("a\nb"));
+  assertSame(2, new RegExp("\\u{1F600}", "u").exec("\u{1F600}")[0].length);
+  assertThrows(SyntaxError, () => new RegExp("\\u{1F600", "u"));
+}
+
+// Invalid patterns always throw
+for (let i = 0; i < 3; ++i) {
+  assertThrows(SyntaxError, () => new RegExp("a(b"));
+  assertThrows(SyntaxError, () => new RegExp("abc", "gg"));
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals, assertNull, assertThrows,
+} = Assert;
+
+// Literal and character class patterns with split
+{
+  assertEquals(["a", "b", "", "c"], "a,b,,c".split(/,/));
+  assertEquals(["a", "b"], "a,b,,c".split(/,/, 2));
+  assertEquals([], "a,b".split(/,/, 0));
+  assertEquals([""], "".split(/,/));
+  assertEquals(["", ""], ",".split(/,/));
+  assertEquals(["a", "b", "c"], "a::b::c".split(/::/));
+  assertEquals(["a", "b", "c"], "a \t b\nc".split(/\s+/));
+  assertEquals(["", "b", "c"], "1b2c".split(/\d/));
+  assertEquals(["a", "b"], "a1b".split(/[^a-z]/));
+  assertEquals(["", "bar"], "foobar".split(/^foo/));
+  assertEquals(["barfoo"], "barfoo".split(/^foo/));
+  assertEquals(["a", "b"], "a,b".split(/,/g));
+  assertEquals(["a", "b"], "a,b".split(/,/y));
+}
+
+// Literal and character class patterns with replace
+{
+  assertSame("a;b;c", "a,b,c".replace(/,/g, ";"));
+  assertSame("a;b,c", "a,b,c".replace(/,/, ";"));
+  assertSame("a[,]b[,]c", "a,b,c".replace(/,/g, "[$&]"));
+  assertSame("aaba,bc", "a,b,c".replace(/,/g, "$`"));
+  assertSame("a_b_c", "a  b\tc".replace(/\s+/g, "_"));
+  assertSame("Xbar foo", "foobar foo".replace(/^foo/g, "X"));
+  assertSame("abc", "abc".replace(/,/g, ";"));
+  let calls = [];
+  assertSame("a<1>b<3>c", "a,b,c".replace(/,/g, (m, p, s) => (calls.push([m, p, s]), `<${p}>`)));
+  assertEquals([[",", 1, "a,b,c"], [",", 3, "a,b,c"]], calls);
+}
+
+// Literal and character class patterns with match and search
+{
+  assertEquals(["1", "22", "333"], "a1b22c333".match(/\d+/g));
+  assertNull("abc".match(/\d+/g));
+  assertSame(1, "a1b22".search(/\d+/));
+  assertSame(-1, "abc".search(/\d/));
+  assertSame(0, "foobar".search(/^foo/));
+  assertSame(-1, "barfoo".search(/^foo/));
+}
+
+// lastIndex is updated as specified
+{
+  let re = /,/g;
+  re.lastIndex = 3;
+  "a,b".replace(re, "");
+  assertSame(0, re.lastIndex);
+  re = /,/;
+  re.lastIndex = 3;
+  "a,b".replace(re, "");
+  assertSame(3, re.lastIndex);
+  "ab".replace(re, "");
+  assertSame(0, re.lastIndex);
+  re = /,/g;
+  re.lastIndex = 2;
+  "a,b".match(re);
+  assertSame(0, re.lastIndex);
+  re = /,/;
+  re.lastIndex = 2;
+  "a,b".search(re);
+  assertSame(2, re.lastIndex);
+
+  // lastIndex is observable in the replacer function
+  re = /,/g;
+  "a,b,c".replace(re, () => (assertSame(0, re.lastIndex), ""));
+
+  // Non-writable lastIndex
+  re = /,/g;
+  Object.defineProperty(re, "lastIndex", {writable: false});
+  assertThrows(TypeError, () => "a,b".replace(re, ""));
+
+  // lastIndex with valueOf
+  let count = 0;
+  re = /,/;
+  re.lastIndex = {valueOf() { count++; return 0; }};
+  assertSame("ab", "a,b".replace(re, ""));
+  assertSame(1, count);
+}
+
+// User-defined exec is called
+{
+  let re = /,/g;
+  let execCount = 0;
+  re.exec = function(s) {
+    execCount++;
+    return null;
+  };
+  assertSame("a,b", "a,b".replace(re, ";"));
+  assertNull("a,b".match(re));
+  assertSame(-1, "a,b".search(re));
+  assertSame(3, execCount);
+
+  let exec = RegExp.prototype.exec;
+  try {
+    RegExp.prototype.exec = function(s) {
+      return null;
+    };
+    assertSame("a,b", "a,b".replace(/,/g, ";"));
+    assertEquals(["a,b"], "a,b".split(/,/));
+  } finally {
+    RegExp.prototype.exec = exec;
+  }
+  assertSame("a;b", "a,b".replace(/,/g, ";"));
+}
+
+// Subclasses and sticky flag
+{
+  class MyRegExp extends RegExp {
+    exec(s) {
+      return null;
+    }
+  }
+  assertSame("a,b", "a,b".replace(new MyRegExp(","), ";"));
+  assertSame("a,b", "a,b".replace(/,/y, ";"));
+  assertSame(";a,b", ",a,b".replace(/,/y, ";"));
+}
+
+// Legacy RegExp statics with replacer functions match the generic algorithm
+{
+  function statics() {
+    return [RegExp.lastMatch, RegExp.leftContext, RegExp.rightContext, RegExp.input].join("|");
+  }
+  function replaceLog(re, fn) {
+    let log = [];
+    re.lastIndex = 0;
+    let result = "xayaza".replace(re, (m, ...args) => {
+      log.push(statics(), String(re.lastIndex));
+      return fn(args[args.length - 2]);
+    });
+    return [result, ...log, statics(), String(re.lastIndex)];
+  }
+  // /a/ is a simple pattern, /(?:a)|(?:a)/ uses the generic algorithm.
+  for (let flags of ["", "g"]) {
+    let simple = new RegExp("a", flags), generic = new RegExp("(?:a)|(?:a)", flags);
+    for (let fn of [
+      () => "-",
+      p => { /z+/.exec("zz"); return p; },
+      p => { simple.lastIndex = generic.lastIndex = 4; return "" + p; },
+    ]) {
+      assertEquals(replaceLog(generic, fn), replaceLog(simple, fn));
+    }
+    let after = [];
+    for (let re of [generic, simple]) {
+      let thrower = (m, p) => { if (p === 3 || !re.global) throw new Error; return m; };
+      assertThrows(Error, () => "xayaza".replace(re, thrower));
+      after.push(statics());
+    }
+    assertSame(after[0], after[1]);
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertTrue, assertFalse,
+} = Assert;
+
+// Character access and prefix tests on concatenated strings
+{
+  let s = "", parts = [];
+  for (let i = 0; i < 5000; ++i) {
+    let part = "<tr><td>" + i + "</td></tr>\n";
+    s += part;
+    parts.push(part);
+  }
+  let flat = parts.join("");
+  assertSame(flat.length, s.length);
+  for (let i = 0; i < flat.length; i += 97) {
+    assertSame(flat.charAt(i), s.charAt(i));
+    assertSame(flat.charCodeAt(i), s.charCodeAt(i));
+    assertSame(flat[i], s[i]);
+  }
+  assertSame("", s.charAt(-1));
+  assertSame("", s.charAt(s.length));
+  assertSame(NaN, s.charCodeAt(s.length));
+
+  assertTrue(s.startsWith("<tr><td>0</td>"));
+  assertTrue(s.startsWith("<tr><td>4999</td></tr>\n", flat.lastIndexOf("<tr>")));
+  assertTrue(s.startsWith("</td></tr>\n<tr><td>1</td>", flat.indexOf("</td>")));
+  assertFalse(s.startsWith("<tr><td>1</td>"));
+  assertFalse(s.startsWith("<tr><td>4999</td></tr>\n!", flat.lastIndexOf("<tr>")));
+  assertTrue(s.startsWith("", s.length));
+
+  assertSame(flat, s);
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertUndefined, assertThrows
+} = Assert;
+
+// Integer and floating point element types
+{
+  let i32 = new Int32Array(4);
+  for (let i = 0; i < i32.length; ++i) {
+    i32[i] = i * 3;
+  }
+  for (let i = 0; i < i32.length; ++i) {
+    assertSame(i * 3, i32[i]);
+  }
+  i32[0] = 1.9;
+  assertSame(1, i32[0]);
+  i32[1] = 2 ** 32 + 5;
+  assertSame(5, i32[1]);
+
+  let f32 = new Float32Array(2);
+  f32[0] = 0.5;
+  f32[1] = 0.1;
+  assertSame(0.5, f32[0]);
+  assertSame(Math.fround(0.1), f32[1]);
+
+  let f64 = new Float64Array(1);
+  f64[0] = -0;
+  assertSame(-0, f64[0]);
+  f64["0"] = NaN;
+  assertSame(NaN, f64[0]);
+
+  let u8c = new Uint8ClampedArray(1);
+  u8c[0] = 300;
+  assertSame(255, u8c[0]);
+}
+
+// Uint32 values above 2^31
+{
+  let u32 = new Uint32Array(2);
+  u32[0] = 2 ** 32 - 1;
+  u32[1] = -1;
+  assertSame(2 ** 32 - 1, u32[0]);
+  assertSame(2 ** 32 - 1, u32[1]);
+}
+
+// Out-of-range and negative indices
+{
+  let ta = new Int8Array(2);
+  function get(i) { return ta[i]; }
+  function set(i, v) { ta[i] = v; }
+  for (let i of [-1, 2, 2 ** 31, 2 ** 32, 1.5, -0]) {
+    set(i, 10);
+    assertSame(i === -0 ? 10 : void 0, get(i));
+  }
+  assertSame(2, Object.keys(ta).length);
+}
+
+// Strict mode set with out-of-range index
+{
+  let ta = new Int8Array(1);
+  assertThrows(TypeError, function() {
+    "use strict";
+    ta[5] = 1;
+  });
+  assertUndefined(ta[5]);
+}
+
+// ToNumber side-effects are executed once
+{
+  let ta = new Int16Array(2);
+  let count = 0;
+  ta[0] = {valueOf() { count++; return 7; }};
+  assertSame(1, count);
+  assertSame(7, ta[0]);
+  let i = 1;
+  ta[i] = {valueOf() { count++; return 8; }};
+  assertSame(2, count);
+  assertSame(8, ta[1]);
+}
+
+// Detached buffer
+{
+  let ta = new Int32Array(2);
+  function get(i) { return ta[i]; }
+  function set(i, v) { ta[i] = v; }
+  set(0, 1);
+  assertSame(1, get(0));
+  detachArrayBuffer(ta.buffer);
+  assertThrows(TypeError, () => get(0));
+  assertThrows(TypeError, () => set(0, 1));
+}
+
+// Polymorphic element access sites
+{
+  function get(o, i) { return o[i]; }
+  function set(o, i, v) { o[i] = v; }
+  let receivers = [[0, 0], new Float64Array(2), {0: 0, 1: 0}, new Uint16Array(2), "ab"];
+  for (let k = 0; k < 3; ++k) {
+    for (let o of receivers) {
+      set(o, 1, 65);
+      if (typeof o === "string") {
+        assertSame("b", get(o, 1));
+      } else {
+        assertSame(65, get(o, 1));
+      }
+    }
+  }
+}
+
+// Integer, long and double keys at the same call site
+{
+  let ta = new Int32Array(4);
+  function get(i) { return ta[i]; }
+  function set(i, v) { ta[i] = v; }
+  let half = 0.5;
+  let keys = [
+    [1 | 0, 1], [2 >>> 0, 2], [6 * half, 3], [Math.floor(1.5), 1], [-0, 0], [0 * half, 0],
+  ];
+  for (let k = 0; k < 3; ++k) {
+    for (let [key, index] of keys) {
+      set(key, 10 + index + k);
+      assertSame(10 + index + k, get(key));
+      assertSame(10 + index + k, ta[index]);
+    }
+  }
+  for (let key of [-1 | 0, 4 | 0, 1.5 * half, -2 * half, 2 ** 31 * half * 2, 2 ** 53, Infinity, NaN]) {
+    set(key, 99);
+    assertUndefined(get(key));
+  }
+  assertSame("0,1,2,3", Object.keys(ta).join());
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals, assertThrows
+} = Assert;
+
+function toArray(ta) {
+  return Array.prototype.slice.call(ta);
+}
+
+// copyWithin() on typed arrays with non-zero byte offset
+{
+  let buffer = new Int16Array([0, 1, 2, 3, 4, 5, 6, 7]).buffer;
+  let ta = new Int16Array(buffer, 4, 4);
+  ta.copyWithin(0, 2);
+  assertEquals([0, 1, 4, 5, 4, 5, 6, 7], toArray(new Int16Array(buffer)));
+  ta.copyWithin(1, 0, 3);
+  assertEquals([0, 1, 4, 4, 5, 4, 6, 7], toArray(new Int16Array(buffer)));
+}
+
+// set() with overlapping ranges in the same buffer
+{
+  let buffer = new Uint8Array([1, 2, 3, 4, 5, 6, 7, 8]).buffer;
+  let src = new Int8Array(buffer, 0, 6);
+  let target = new Uint8Array(buffer, 2, 6);
+  target.set(src);
+  assertEquals([1, 2, 1, 2, 3, 4, 5, 6], toArray(new Uint8Array(buffer)));
+
+  let u8 = new Uint8Array([10, 20, 30, 40]);
+  let u16 = new Uint16Array(u8.buffer, 0, 2);
+  u8.set(u16);
+  let expected = new Uint16Array(new Uint8Array([10, 20, 30, 40]).buffer);
+  assertEquals([expected[0] & 0xff, expected[1] & 0xff, 30, 40], toArray(u8));
+}
+
+// set() with element conversion
+{
+  let target = new Uint8ClampedArray(4);
+  target.set(new Int8Array([-1, 127, -128, 5]));
+  assertEquals([0, 127, 0, 5], toArray(target));
+  target.set(new Uint8Array([255, 0]), 2);
+  assertEquals([0, 127, 255, 0], toArray(target));
+
+  let f32 = new Float32Array(3);
+  f32.set(new Uint32Array([2 ** 32 - 1, 1, 2 ** 31]));
+  assertEquals([Math.fround(2 ** 32 - 1), 1, 2 ** 31], toArray(f32));
+
+  let i32 = new Int32Array(2);
+  i32.set(new Uint32Array([2 ** 32 - 1, 2 ** 31]));
+  assertEquals([-1, -(2 ** 31)], toArray(i32));
+}
+
+// set() from arrays with holes reads inherited elements
+{
+  let target = new Float64Array(3);
+  let source = [1, , 3];
+  Object.defineProperty(Array.prototype, 1, {get() { return 2.5; }, configurable: true});
+  try {
+    target.set(source);
+  } finally {
+    delete Array.prototype[1];
+  }
+  assertEquals([1, 2.5, 3], toArray(target));
+}
+
+// set() from arrays with side-effects detaching the target
+{
+  let target = new Int8Array(2);
+  let source = [1, {valueOf() { detachArrayBuffer(target.buffer); return 2; }}];
+  assertThrows(TypeError, () => target.set(source));
+}
+
+// fill() with number and object values
+{
+  let ta = new Float64Array(7);
+  ta.fill(1.5, 1, 6);
+  assertEquals([0, 1.5, 1.5, 1.5, 1.5, 1.5, 0], toArray(ta));
+
+  let u32 = new Uint32Array(new ArrayBuffer(32), 4, 5);
+  u32.fill(-1);
+  assertEquals([0, 2 ** 32 - 1, 2 ** 32 - 1, 2 ** 32 - 1, 2 ** 32 - 1, 2 ** 32 - 1, 0, 0],
+               toArray(new Uint32Array(u32.buffer)));
+
+  let count = 0;
+  let i8 = new Int8Array(3);
+  i8.fill({valueOf() { return ++count; }});
+  assertSame(3, count);
+  assertEquals([1, 2, 3], toArray(i8));
+}
+
+// slice() with element conversion
+{
+  class MyFloat32Array extends Float32Array {
+    static get [Symbol.species]() { return Int16Array; }
+  }
+  let ta = new MyFloat32Array([0.5, -1.5, 40000, 7]);
+  let result = ta.slice(1, 3);
+  assertSame(Int16Array, result.constructor);
+  assertEquals([-1, 40000 - 65536], toArray(result));
+}
+
+// Typed array constructor with element conversion
+{
+  assertEquals([255, 1, 128], toArray(new Uint8Array(new Int16Array([-1, 257, 128]))));
+  assertEquals([0, 255, 128], toArray(new Uint8ClampedArray(new Int16Array([-1, 257, 128]))));
+  assertEquals([-1, 2, 3], toArray(new Int8Array(new Uint8Array([255, 2, 3]))));
+}
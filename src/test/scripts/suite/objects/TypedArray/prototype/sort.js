@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals, assertThrows
+} = Assert;
+
+function numericCompare(x, y) {
+  if (x !== x) return y !== y ? 0 : 1;
+  if (y !== y) return -1;
+  if (x < y) return -1;
+  if (x > y) return 1;
+  if (x === 0 && y === 0) return Object.is(x, -0) ? (Object.is(y, -0) ? 0 : -1) : (Object.is(y, -0) ? 1 : 0);
+  return 0;
+}
+
+function checkSort(ctor, values) {
+  let ta = new ctor(values);
+  let expected = Array.from(ta).sort(numericCompare);
+  ta.sort();
+  for (let i = 0; i < ta.length; ++i) {
+    assertSame(expected[i], ta[i], `${ctor.name}[${i}]`);
+  }
+}
+
+const values = [0, 1, -1, 127, -128, 128, 255, 256, -129, 32767, -32768, 65535, 2 ** 31 - 1, -(2 ** 31), 2 ** 32 - 1,
+                3, 3, 2, 100, -100, 0.5, -0.5, 1e10, -1e10];
+for (let ctor of [Int8Array, Uint8Array, Uint8ClampedArray, Int16Array, Uint16Array, Int32Array, Uint32Array,
+                  Float32Array, Float64Array]) {
+  checkSort(ctor, values);
+  checkSort(ctor, []);
+  checkSort(ctor, [1]);
+}
+checkSort(Float32Array, [NaN, 0, -0, Infinity, -Infinity, 1, -0, NaN, 0]);
+checkSort(Float64Array, [NaN, 0, -0, Infinity, -Infinity, 1, -0, NaN, 0]);
+
+// Sort only affects the typed array range
+{
+  let buffer = new Float64Array([9, 3, 2, 1, 0]).buffer;
+  let ta = new Float64Array(buffer, 8, 3);
+  ta.sort();
+  assertEquals([9, 1, 2, 3, 0], Array.from(new Float64Array(buffer)));
+}
+
+// Large arrays
+{
+  let ta = new Float64Array(100000);
+  for (let i = 0; i < ta.length; ++i) ta[i] = Math.sin(i) * 1000;
+  ta.sort();
+  for (let i = 1; i < ta.length; ++i) {
+    if (ta[i - 1] > ta[i]) {
+      assertSame(true, false, `not sorted at ${i}`);
+    }
+  }
+}
+
+// Comparator function
+{
+  let ta = new Int32Array([5, 1, 4, 2, 3]);
+  ta.sort((x, y) => y - x);
+  assertEquals([5, 4, 3, 2, 1], Array.from(ta));
+
+  let stable = new Float64Array([1.5, 1.25, 2.5, 1.75, 2.25]);
+  stable.sort((x, y) => Math.trunc(x) - Math.trunc(y));
+  assertEquals([1.5, 1.25, 1.75, 2.5, 2.25], Array.from(stable));
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals
+} = Assert;
+
+// Holes are looked up on the prototype chain
+{
+  let a = [0, , 2];
+  Array.prototype[1] = "proto";
+  try {
+    let seen = [];
+    a.forEach(v => seen.push(v));
+    assertEquals([0, "proto", 2], seen);
+    assertSame(1, a.indexOf("proto"));
+    assertSame(true, a.includes("proto"));
+    assertSame("proto", a.find((v, k) => k === 1));
+  } finally {
+    delete Array.prototype[1];
+  }
+  let seen = [];
+  a.forEach(v => seen.push(v));
+  assertEquals([0, 2], seen);
+  assertSame(undefined, a.find((v, k) => k === 1));
+}
+
+// Accessor elements are called
+{
+  let a = [0, 1, 2];
+  let calls = 0;
+  Object.defineProperty(a, 1, {get() { calls++; return "getter"; }});
+  assertEquals([0, "getter", 2], a.map(v => v));
+  assertSame(1, calls);
+  assertSame("0getter2", a.reduce((acc, v) => acc + v, ""));
+  assertSame(2, calls);
+}
+
+// Modifications from the callback are observed
+{
+  let a = [1, 2, 3, 4];
+  let seen = [];
+  a.forEach((v, k) => {
+    seen.push(v);
+    if (k === 0) {
+      a[2] = "changed";
+      a.length = 3;
+    }
+  });
+  assertEquals([1, 2, "changed"], seen);
+
+  let b = [1, 2, 3, 4];
+  assertEquals([1, 3], b.filter((v, k) => {
+    if (k === 1) {
+      delete b[3];
+    }
+    return v % 2 === 1;
+  }));
+
+  let c = [1, 2, 3];
+  assertSame(8, c.reduceRight((acc, v, k) => {
+    if (k === 2) {
+      c[0] = 3;
+    }
+    return acc + v;
+  }, 0));
+}
+
+// Array-likes and non-array objects use the generic path
+{
+  let o = {length: 3, 0: "a", 2: "c"};
+  assertEquals(["a", "c"], Array.prototype.filter.call(o, () => true));
+  assertSame(2, Array.prototype.lastIndexOf.call(o, "c"));
+  assertSame(true, Array.prototype.some.call(o, v => v === "c"));
+  assertSame(false, Array.prototype.every.call(o, v => v === "a"));
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertTrue, assertFalse, assertUndefined, assertEquals
+} = Assert;
+
+// int -> double -> object elements
+{
+  let a = [1, 2, 3];
+  a.push(4.5);
+  assertSame(4.5, a[3]);
+  assertSame(1, a[0]);
+  a.push(-0);
+  assertSame(-0, a[4]);
+  a.push("str");
+  assertEquals([1, 2, 3, 4.5, -0, "str"], a);
+  assertSame(6, a.length);
+}
+
+// Holes transition to generic elements
+{
+  let a = [1, 2, 3];
+  a[5] = 6;
+  assertSame(6, a.length);
+  assertFalse(3 in a);
+  assertFalse(4 in a);
+  assertSame(6, a[5]);
+  assertEquals(["0", "1", "2", "5"], Object.keys(a));
+}
+
+// Delete last element keeps array packed, other elements create holes
+{
+  let a = [1, 2, 3];
+  assertTrue(delete a[2]);
+  assertSame(3, a.length);
+  assertFalse(2 in a);
+  assertTrue(delete a[0]);
+  assertFalse(0 in a);
+  assertSame(2, a[1]);
+}
+
+// Non-default attributes
+{
+  let a = [1, 2, 3];
+  Object.defineProperty(a, 1, {writable: false});
+  a[1] = 10;
+  assertSame(2, a[1]);
+  let desc = Object.getOwnPropertyDescriptor(a, 1);
+  assertFalse(desc.writable);
+  assertTrue(desc.enumerable);
+  assertTrue(desc.configurable);
+  a.length = 0;
+  assertSame(0, a.length);
+}
+
+// Accessors
+{
+  let a = [1, 2, 3];
+  Object.defineProperty(a, 0, {get() { return "getter"; }});
+  assertSame("getter", a[0]);
+  assertSame(3, a.length);
+}
+
+// Frozen arrays
+{
+  let a = Object.freeze([1, 2.5, {}]);
+  a[0] = 0;
+  assertSame(1, a[0]);
+  assertFalse(Object.getOwnPropertyDescriptor(a, 2).configurable);
+}
+
+// Truncate and append
+{
+  let a = [];
+  for (let i = 0; i < 1000; ++i) a.push(i);
+  a.length = 10;
+  assertSame(10, a.length);
+  assertUndefined(a[10]);
+  a.push(0.5);
+  assertSame(0.5, a[10]);
+  assertSame(9, a[9]);
+}
+
+// [[Get]], [[Set]] and [[HasProperty]] with receivers and prototypes
+{
+  let a = [1, 2, 3];
+  let receiver = {};
+  assertTrue(Reflect.set(a, 0, "x", receiver));
+  assertSame(1, a[0]);
+  assertSame("x", receiver[0]);
+  assertSame(2, Reflect.get(a, 1, receiver));
+  assertTrue(1 in a);
+  assertTrue("2" in a);
+  assertFalse(3 in a);
+  let proto = Object.create(Array.prototype, {3: {get() { return this.length; }}});
+  Object.setPrototypeOf(a, proto);
+  assertSame(3, a[3]);
+  assertTrue(3 in a);
+  Object.preventExtensions(a);
+  a[2] = "y";
+  assertSame("y", a[2]);
+  let m = /(a)(b)?/.exec("a");
+  m[1] = "z";
+  assertSame("z", m[1]);
+  assertUndefined(m[2]);
+  assertTrue(2 in m);
+}
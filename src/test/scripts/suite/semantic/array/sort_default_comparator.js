@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2012-2016 André Bargull
+ * Alle Rechte vorbehalten / All Rights Reserved.  Use is subject to license terms.
+ *
+ * <https://github.com/anba/es6draft>
+ */
+const {
+  assertSame, assertEquals
+} = Assert;
+
+function stringCompare(x, y) {
+  x = String(x);
+  y = String(y);
+  return x < y ? -1 : x > y ? 1 : 0;
+}
+
+function checkSort(values) {
+  let expected = values.slice().sort(stringCompare);
+  let actual = values.slice().sort();
+  assertSame(expected.length, actual.length);
+  for (let i = 0; i < expected.length; ++i) {
+    assertSame(expected[i], actual[i]);
+  }
+}
+
+// Integer elements
+checkSort([10, 9, 1, 100, 2, 0, -1, -10, -2, 21, 2147483647, -2147483648, 1e9, 5, 5]);
+checkSort([3.0, 1, 20, 0, 2 ** 31 - 1, -(2 ** 31)]);
+checkSort([-0, 0, 1, -1]);
+checkSort([1.5, 1, 10, -0.5, NaN, Infinity, -Infinity]);
+checkSort([2 ** 31, 2 ** 31 - 1, -(2 ** 31) - 1, 3]);
+
+// String elements
+checkSort(["b", "a", "ab", "", "B", "é", "😀", "￿", "aa"]);
+
+// Mixed elements
+checkSort(["10", 9, true, null, "nu", {}, [1, 2], "1,2", Symbol.prototype.toString.call(Symbol("s"))]);
+
+// ToString is called once per element
+{
+  let calls = 0;
+  let mk = v => ({toString() { calls++; return v; }});
+  let a = [mk("c"), mk("a"), mk("d"), mk("b"), mk("e"), mk("a")];
+  a.sort();
+  assertSame(6, calls);
+  assertEquals(["a", "a", "b", "c", "d", "e"], a.map(String));
+}
+
+// Undefined and holes are moved to the end
+{
+  let a = [3, undefined, , 1, 20];
+  a.sort();
+  assertEquals([1, 20, 3, undefined], a.slice(0, 4));
+  assertSame(5, a.length);
+  assertSame(false, 4 in a);
+}
+
+// Comparator results
+{
+  assertEquals([3, 2, 1], [1, 2, 3].sort((x, y) => y - x));
+  assertEquals([1, 2, 3], [3, 1, 2].sort((x, y) => (x - y) * 0.5));
+  assertEquals([1, 2, 3], [3, 1, 2].sort((x, y) => ({valueOf() { return x - y; }})));
+}